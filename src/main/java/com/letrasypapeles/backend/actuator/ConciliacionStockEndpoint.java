@@ -0,0 +1,63 @@
+package com.letrasypapeles.backend.actuator;
+
+import com.letrasypapeles.backend.dto.ProgresoConciliacion;
+import com.letrasypapeles.backend.service.ConciliacionStockService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.stereotype.Component;
+
+/**
+ * Operación de actuator para la conciliación de stock:
+ * GET /actuator/conciliacion devuelve el progreso de la ejecución en curso o de la última;
+ * POST /actuator/conciliacion la inicia en segundo plano sobre todos los productos y
+ * POST /actuator/conciliacion/{desde}/{hasta} solo sobre ese rango de IDs de producto.
+ * Ambas reciben en el cuerpo si debe corregir, p. ej. {"corregir": false}; el rango va en la
+ * ruta para que ningún parámetro sea opcional.
+ */
+@Component
+@Endpoint(id = "conciliacion")
+public class ConciliacionStockEndpoint {
+
+    private final ConciliacionStockService conciliacionStockService;
+
+    public ConciliacionStockEndpoint(ConciliacionStockService conciliacionStockService) {
+        this.conciliacionStockService = conciliacionStockService;
+    }
+
+    @ReadOperation
+    public ProgresoConciliacion progreso() {
+        return conciliacionStockService.progreso();
+    }
+
+    /**
+     * @return 202 con el progreso inicial o 409 con el progreso actual si ya hay una en curso
+     */
+    @WriteOperation
+    public WebEndpointResponse<ProgresoConciliacion> iniciar(boolean corregir) {
+        return iniciar(corregir, null, null);
+    }
+
+    /**
+     * @return 202 con el progreso inicial, 409 con el progreso actual si ya hay una en curso,
+     *         o 400 si el rango es inválido
+     */
+    @WriteOperation
+    public WebEndpointResponse<ProgresoConciliacion> iniciarRango(@Selector Long desde, @Selector Long hasta,
+                                                                 boolean corregir) {
+        return iniciar(corregir, desde, hasta);
+    }
+
+    private WebEndpointResponse<ProgresoConciliacion> iniciar(boolean corregir, Long desde, Long hasta) {
+        try {
+            ProgresoConciliacion progreso = conciliacionStockService.iniciar(corregir, desde, hasta);
+            return new WebEndpointResponse<>(progreso, 202);
+        } catch (IllegalStateException e) {
+            return new WebEndpointResponse<>(conciliacionStockService.progreso(), 409);
+        } catch (IllegalArgumentException e) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.letrasypapeles.backend.controller.CategoriaController;
 import com.letrasypapeles.backend.controller.ProductoController;
 import com.letrasypapeles.backend.entity.Categoria;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
 
@@ -12,27 +13,30 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 @Component
 public class CategoriaModelAssembler implements RepresentationModelAssembler<Categoria, EntityModel<Categoria>> {
 
+    // Plantillas resueltas una vez al crear el bean; por entidad solo se reemplaza el ID
+    private final PlantillaEnlace categoria = PlantillaEnlace.de(methodOn(CategoriaController.class).obtenerPorId(null));
+    private final PlantillaEnlace categorias = PlantillaEnlace.de(CategoriaController.class);
+    private final PlantillaEnlace productos = PlantillaEnlace.de(ProductoController.class);
+
     @Override
     public EntityModel<Categoria> toModel(Categoria categoria) {
         EntityModel<Categoria> categoriaModel = EntityModel.of(categoria);
+        String base = PlantillaEnlace.base();
 
         // Self link
-        categoriaModel.add(linkTo(methodOn(CategoriaController.class)
-                .obtenerPorId(categoria.getId())).withSelfRel());
+        categoriaModel.add(this.categoria.enlace(base, categoria.getId(), IanaLinkRelations.SELF));
 
         // Link to all categories
-        categoriaModel.add(linkTo(CategoriaController.class).withRel("categorias"));
+        categoriaModel.add(categorias.enlace(base, "categorias"));
 
         // Link to products in this category
-        categoriaModel.add(linkTo(ProductoController.class).withRel("productos"));
+        categoriaModel.add(productos.enlace(base, "productos"));
 
         // Link to update category
-        categoriaModel.add(linkTo(methodOn(CategoriaController.class)
-                .actualizarCategoria(categoria.getId(), categoria)).withRel("update"));
+        categoriaModel.add(this.categoria.enlace(base, categoria.getId(), "update"));
 
         // Link to delete category
-        categoriaModel.add(linkTo(methodOn(CategoriaController.class)
-                .eliminarCategoria(categoria.getId())).withRel("delete"));
+        categoriaModel.add(this.categoria.enlace(base, categoria.getId(), "delete"));
 
         return categoriaModel;
     }
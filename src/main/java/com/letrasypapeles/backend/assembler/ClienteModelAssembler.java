@@ -5,6 +5,7 @@ import com.letrasypapeles.backend.controller.PedidoController;
 import com.letrasypapeles.backend.controller.ReservaController;
 import com.letrasypapeles.backend.entity.Cliente;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
 
@@ -13,31 +14,34 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 @Component
 public class ClienteModelAssembler implements RepresentationModelAssembler<Cliente, EntityModel<Cliente>> {
 
+    // Plantillas resueltas una vez al crear el bean; por entidad solo se reemplaza el ID
+    private final PlantillaEnlace cliente = PlantillaEnlace.de(methodOn(ClienteController.class).obtenerPorId(null));
+    private final PlantillaEnlace clientes = PlantillaEnlace.de(ClienteController.class);
+    private final PlantillaEnlace pedidos = PlantillaEnlace.de(methodOn(PedidoController.class).obtenerPorClienteId(null));
+    private final PlantillaEnlace reservas = PlantillaEnlace.de(ReservaController.class);
+
     @Override
     public EntityModel<Cliente> toModel(Cliente cliente) {
         EntityModel<Cliente> clienteModel = EntityModel.of(cliente);
+        String base = PlantillaEnlace.base();
 
         // Self link
-        clienteModel.add(linkTo(methodOn(ClienteController.class)
-                .obtenerPorId(cliente.getId())).withSelfRel());
+        clienteModel.add(this.cliente.enlace(base, cliente.getId(), IanaLinkRelations.SELF));
 
         // Link to all clients
-        clienteModel.add(linkTo(ClienteController.class).withRel("clientes"));
+        clienteModel.add(clientes.enlace(base, "clientes"));
 
         // Link to client's orders
-        clienteModel.add(linkTo(methodOn(PedidoController.class)
-                .obtenerPorClienteId(cliente.getId())).withRel("pedidos"));
+        clienteModel.add(pedidos.enlace(base, cliente.getId(), "pedidos"));
 
         // Link to client's reservations
-        clienteModel.add(linkTo(ReservaController.class).withRel("reservas"));
+        clienteModel.add(reservas.enlace(base, "reservas"));
 
         // Link to update client
-        clienteModel.add(linkTo(methodOn(ClienteController.class)
-                .actualizarCliente(cliente.getId(), cliente)).withRel("update"));
+        clienteModel.add(this.cliente.enlace(base, cliente.getId(), "update"));
 
         // Link to delete client
-        clienteModel.add(linkTo(methodOn(ClienteController.class)
-                .eliminarCliente(cliente.getId())).withRel("delete"));
+        clienteModel.add(this.cliente.enlace(base, cliente.getId(), "delete"));
 
         return clienteModel;
     }
@@ -6,6 +6,7 @@ import com.letrasypapeles.backend.controller.ProductoController;
 import com.letrasypapeles.backend.entity.Pedido;
 import com.letrasypapeles.backend.entity.Producto;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
 
@@ -14,41 +15,44 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 @Component
 public class PedidoModelAssembler implements RepresentationModelAssembler<Pedido, EntityModel<Pedido>> {
 
+    // Plantillas resueltas una vez al crear el bean; por entidad solo se reemplaza el ID
+    private final PlantillaEnlace pedido = PlantillaEnlace.de(methodOn(PedidoController.class).obtenerPorId(null));
+    private final PlantillaEnlace pedidos = PlantillaEnlace.de(PedidoController.class);
+    private final PlantillaEnlace cliente = PlantillaEnlace.de(methodOn(ClienteController.class).obtenerPorId(null));
+    private final PlantillaEnlace productos = PlantillaEnlace.de(ProductoController.class);
+    private final PlantillaEnlace producto = PlantillaEnlace.de(methodOn(ProductoController.class).obtenerPorId(null));
+
     @Override
     public EntityModel<Pedido> toModel(Pedido pedido) {
         EntityModel<Pedido> pedidoModel = EntityModel.of(pedido);
+        String base = PlantillaEnlace.base();
 
         // Self link
-        pedidoModel.add(linkTo(methodOn(PedidoController.class)
-                .obtenerPorId(pedido.getId())).withSelfRel());
+        pedidoModel.add(this.pedido.enlace(base, pedido.getId(), IanaLinkRelations.SELF));
 
         // Link to all orders
-        pedidoModel.add(linkTo(PedidoController.class).withRel("pedidos"));
+        pedidoModel.add(pedidos.enlace(base, "pedidos"));
 
         // Link to client
         if (pedido.getCliente() != null) {
-            pedidoModel.add(linkTo(methodOn(ClienteController.class)
-                    .obtenerPorId(pedido.getCliente().getId())).withRel("cliente"));
+            pedidoModel.add(cliente.enlace(base, pedido.getCliente().getId(), "cliente"));
         }
 
         // Links to products in the order
         if (pedido.getListaProductos() != null && !pedido.getListaProductos().isEmpty()) {
-            pedidoModel.add(linkTo(ProductoController.class).withRel("productos"));
+            pedidoModel.add(productos.enlace(base, "productos"));
             
             // Add individual product links
             for (Producto producto : pedido.getListaProductos()) {
-                pedidoModel.add(linkTo(methodOn(ProductoController.class)
-                        .obtenerPorId(producto.getId())).withRel("producto-" + producto.getId()));
+                pedidoModel.add(this.producto.enlace(base, producto.getId(), "producto-" + producto.getId()));
             }
         }
 
         // Link to update order
-        pedidoModel.add(linkTo(methodOn(PedidoController.class)
-                .actualizarPedido(pedido.getId(), pedido)).withRel("update"));
+        pedidoModel.add(this.pedido.enlace(base, pedido.getId(), "update"));
 
         // Link to delete order
-        pedidoModel.add(linkTo(methodOn(PedidoController.class)
-                .eliminarPedido(pedido.getId())).withRel("delete"));
+        pedidoModel.add(this.pedido.enlace(base, pedido.getId(), "delete"));
 
         return pedidoModel;
     }
@@ -0,0 +1,105 @@
+package com.letrasypapeles.backend.assembler;
+
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.function.Supplier;
+
+/**
+ * Ruta de un enlace HATEOAS resuelta una sola vez con {@code linkTo(methodOn(...))}, pasando null
+ * como ID para que quede la variable {@code {id}}. Cada enlace se arma luego concatenando la base
+ * de la petición, la ruta y el ID, sin crear un proxy por enlace ni reconstruir la URI: el
+ * resultado es el mismo href que daría {@code linkTo} para ese ID.
+ */
+public final class PlantillaEnlace {
+
+    private static final String ATRIBUTO_BASE = PlantillaEnlace.class.getName() + ".base";
+
+    private final String antes;
+    private final String despues;
+
+    private PlantillaEnlace(String antes, String despues) {
+        this.antes = antes;
+        this.despues = despues;
+    }
+
+    /**
+     * @param invocacion Resultado de {@code methodOn(Controlador.class).metodo(null, ...)}, con null en el ID
+     */
+    public static PlantillaEnlace de(Object invocacion) {
+        return desdeRuta(sinPeticion(() -> WebMvcLinkBuilder.linkTo(invocacion).withSelfRel().getHref()));
+    }
+
+    /**
+     * Ruta fija de un controlador, sin ID
+     */
+    public static PlantillaEnlace de(Class<?> controlador) {
+        return desdeRuta(sinPeticion(() -> WebMvcLinkBuilder.linkTo(controlador).withSelfRel().getHref()));
+    }
+
+    /**
+     * La plantilla guarda solo la ruta: si se crea dentro de una petición, se aparta de ella para
+     * que {@code linkTo} no le anteponga el host, que se agrega en cada petición con {@link #base()}.
+     */
+    private static String sinPeticion(Supplier<String> ruta) {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        RequestContextHolder.resetRequestAttributes();
+        try {
+            return ruta.get();
+        } finally {
+            RequestContextHolder.setRequestAttributes(atributos);
+        }
+    }
+
+    static PlantillaEnlace desdeRuta(String ruta) {
+        int inicio = ruta.indexOf('{');
+        if (inicio < 0) {
+            return new PlantillaEnlace(ruta, null);
+        }
+        int fin = ruta.indexOf('}', inicio);
+        if (fin < 0 || ruta.indexOf('{', fin) >= 0) {
+            throw new IllegalArgumentException("La plantilla debe tener a lo sumo una variable: " + ruta);
+        }
+        return new PlantillaEnlace(ruta.substring(0, inicio), ruta.substring(fin + 1));
+    }
+
+    /**
+     * Esquema, host y ruta del servlet de la petición en curso, calculados una vez por petición.
+     * Fuera de una petición es vacía y los enlaces quedan relativos, como con {@code linkTo}.
+     */
+    public static String base() {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (atributos == null) {
+            return "";
+        }
+        String base = (String) atributos.getAttribute(ATRIBUTO_BASE, RequestAttributes.SCOPE_REQUEST);
+        if (base == null) {
+            base = ServletUriComponentsBuilder.fromCurrentServletMapping().build().toUriString();
+            atributos.setAttribute(ATRIBUTO_BASE, base, RequestAttributes.SCOPE_REQUEST);
+        }
+        return base;
+    }
+
+    public Link enlace(String base, String relacion) {
+        return Link.of(base + antes, relacion);
+    }
+
+    public Link enlace(String base, Object id, LinkRelation relacion) {
+        return Link.of(expandir(base, id), relacion);
+    }
+
+    public Link enlace(String base, Object id, String relacion) {
+        return Link.of(expandir(base, id), relacion);
+    }
+
+    private String expandir(String base, Object id) {
+        if (despues == null) {
+            return base + antes;
+        }
+        return base + antes + id + despues;
+    }
+}
@@ -4,6 +4,7 @@ import com.letrasypapeles.backend.controller.ProductoController;
 import com.letrasypapeles.backend.controller.CategoriaController;
 import com.letrasypapeles.backend.entity.Producto;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
 
@@ -12,30 +13,32 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 @Component
 public class ProductoModelAssembler implements RepresentationModelAssembler<Producto, EntityModel<Producto>> {
 
+    // Plantillas resueltas una vez al crear el bean; por entidad solo se reemplaza el ID
+    private final PlantillaEnlace producto = PlantillaEnlace.de(methodOn(ProductoController.class).obtenerPorId(null));
+    private final PlantillaEnlace productos = PlantillaEnlace.de(ProductoController.class);
+    private final PlantillaEnlace categoria = PlantillaEnlace.de(methodOn(CategoriaController.class).obtenerPorId(null));
+
     @Override
     public EntityModel<Producto> toModel(Producto producto) {
         EntityModel<Producto> productoModel = EntityModel.of(producto);
+        String base = PlantillaEnlace.base();
 
         // Self link
-        productoModel.add(linkTo(methodOn(ProductoController.class)
-                .obtenerPorId(producto.getId())).withSelfRel());
+        productoModel.add(this.producto.enlace(base, producto.getId(), IanaLinkRelations.SELF));
 
         // Link to all products
-        productoModel.add(linkTo(ProductoController.class).withRel("productos"));
+        productoModel.add(productos.enlace(base, "productos"));
 
         // Link to category if exists
         if (producto.getCategoria() != null) {
-            productoModel.add(linkTo(methodOn(CategoriaController.class)
-                    .obtenerPorId(producto.getCategoria().getId())).withRel("categoria"));
+            productoModel.add(categoria.enlace(base, producto.getCategoria().getId(), "categoria"));
         }
 
         // Link to update product
-        productoModel.add(linkTo(methodOn(ProductoController.class)
-                .actualizarProducto(producto.getId(), producto)).withRel("update"));
+        productoModel.add(this.producto.enlace(base, producto.getId(), "update"));
 
         // Link to delete product
-        productoModel.add(linkTo(methodOn(ProductoController.class)
-                .eliminarProducto(producto.getId())).withRel("delete"));
+        productoModel.add(this.producto.enlace(base, producto.getId(), "delete"));
 
         return productoModel;
     }
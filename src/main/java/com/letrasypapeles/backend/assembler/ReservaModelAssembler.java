@@ -5,6 +5,7 @@ import com.letrasypapeles.backend.controller.ClienteController;
 import com.letrasypapeles.backend.controller.ProductoController;
 import com.letrasypapeles.backend.entity.Reserva;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
 
@@ -13,43 +14,45 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 @Component
 public class ReservaModelAssembler implements RepresentationModelAssembler<Reserva, EntityModel<Reserva>> {
 
+    // Plantillas resueltas una vez al crear el bean; por entidad solo se reemplaza el ID
+    private final PlantillaEnlace reserva = PlantillaEnlace.de(methodOn(ReservaController.class).obtenerPorId(null));
+    private final PlantillaEnlace reservas = PlantillaEnlace.de(ReservaController.class);
+    private final PlantillaEnlace cliente = PlantillaEnlace.de(methodOn(ClienteController.class).obtenerPorId(null));
+    private final PlantillaEnlace producto = PlantillaEnlace.de(methodOn(ProductoController.class).obtenerPorId(null));
+    private final PlantillaEnlace confirmar = PlantillaEnlace.de(methodOn(ReservaController.class).confirmarReserva(null));
+    private final PlantillaEnlace cancelar = PlantillaEnlace.de(methodOn(ReservaController.class).cancelarReserva(null));
+
     @Override
     public EntityModel<Reserva> toModel(Reserva reserva) {
         EntityModel<Reserva> reservaModel = EntityModel.of(reserva);
+        String base = PlantillaEnlace.base();
 
         // Self link
-        reservaModel.add(linkTo(methodOn(ReservaController.class)
-                .obtenerPorId(reserva.getId())).withSelfRel());
+        reservaModel.add(this.reserva.enlace(base, reserva.getId(), IanaLinkRelations.SELF));
 
         // Link to all reservations
-        reservaModel.add(linkTo(ReservaController.class).withRel("reservas"));
+        reservaModel.add(reservas.enlace(base, "reservas"));
 
         // Link to client
         if (reserva.getCliente() != null) {
-            reservaModel.add(linkTo(methodOn(ClienteController.class)
-                    .obtenerPorId(reserva.getCliente().getId())).withRel("cliente"));
+            reservaModel.add(cliente.enlace(base, reserva.getCliente().getId(), "cliente"));
         }
 
         // Link to product
         if (reserva.getProducto() != null) {
-            reservaModel.add(linkTo(methodOn(ProductoController.class)
-                    .obtenerPorId(reserva.getProducto().getId())).withRel("producto"));
+            reservaModel.add(producto.enlace(base, reserva.getProducto().getId(), "producto"));
         }
 
         // Link to update reservation
-        reservaModel.add(linkTo(methodOn(ReservaController.class)
-                .actualizarReserva(reserva.getId(), reserva)).withRel("update"));
+        reservaModel.add(this.reserva.enlace(base, reserva.getId(), "update"));
 
         // Link to delete reservation
-        reservaModel.add(linkTo(methodOn(ReservaController.class)
-                .eliminarReserva(reserva.getId())).withRel("delete"));
+        reservaModel.add(this.reserva.enlace(base, reserva.getId(), "delete"));
 
         // Conditional action links based on reservation state
         if ("PENDIENTE".equals(reserva.getEstado())) {
-            reservaModel.add(linkTo(methodOn(ReservaController.class)
-                    .confirmarReserva(reserva.getId())).withRel("confirmar"));
-            reservaModel.add(linkTo(methodOn(ReservaController.class)
-                    .cancelarReserva(reserva.getId())).withRel("cancelar"));
+            reservaModel.add(confirmar.enlace(base, reserva.getId(), "confirmar"));
+            reservaModel.add(cancelar.enlace(base, reserva.getId(), "cancelar"));
         }
 
         return reservaModel;
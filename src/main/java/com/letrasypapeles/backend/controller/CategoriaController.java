@@ -3,6 +3,7 @@ package com.letrasypapeles.backend.controller;
 import com.letrasypapeles.backend.assembler.CategoriaModelAssembler;
 import com.letrasypapeles.backend.entity.Categoria;
 import com.letrasypapeles.backend.service.CategoriaService;
+import com.letrasypapeles.backend.service.ProyeccionCamposService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,6 +15,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
@@ -29,6 +31,9 @@ public class CategoriaController {
     @Autowired
     private CategoriaModelAssembler categoriaModelAssembler;
 
+    @Autowired
+    private ProyeccionCamposService proyeccionCamposService;
+
     @GetMapping
     @Operation(summary = "Obtiene todas las categorías", description = "Devuelve la lista completa de categorías registradas")
     @ApiResponse(responseCode = "200", description = "Categorías recuperadas exitosamente")
@@ -57,6 +62,39 @@ public class CategoriaController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping(params = "fields")
+    @Operation(summary = "Obtiene solo los campos indicados de las categorías",
+               description = "Lee de la base de datos únicamente los campos de ?fields=, separados por comas")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Campos recuperados exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Campo no permitido")
+    })
+    public ResponseEntity<?> obtenerTodasCampos(@RequestParam String fields) {
+        try {
+            return ResponseEntity.ok(proyeccionCamposService.obtenerTodos(Categoria.class, fields));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping(value = "/{id}", params = "fields")
+    @Operation(summary = "Obtiene solo los campos indicados de la categoría",
+               description = "Lee de la base de datos únicamente los campos de ?fields=, separados por comas")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Campos recuperados exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Campo no permitido"),
+        @ApiResponse(responseCode = "404", description = "Categoria no encontrado")
+    })
+    public ResponseEntity<?> obtenerPorIdCampos(@PathVariable Long id, @RequestParam String fields) {
+        try {
+            return proyeccionCamposService.obtenerPorId(Categoria.class, id, fields)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PostMapping
     @Operation(summary = "Crea una nueva categoría", description = "Guarda una nueva categoría en el sistema")
     @ApiResponses({
@@ -0,0 +1,47 @@
+package com.letrasypapeles.backend.controller;
+
+import com.letrasypapeles.backend.assembler.PedidoModelAssembler;
+import com.letrasypapeles.backend.dto.CheckoutRequest;
+import com.letrasypapeles.backend.entity.Pedido;
+import com.letrasypapeles.backend.service.CheckoutService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/checkout")
+@Tag(name = "Checkout", description = "Compra completa en una sola llamada")
+public class CheckoutController {
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private PedidoModelAssembler pedidoModelAssembler;
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN') or hasRole('CLIENTE') or hasRole('VENDEDOR')")
+    @Operation(summary = "Realiza el checkout", description = "Confirma las reservas, descuenta el stock de las líneas adicionales y crea el pedido en una sola transacción. Los puntos de fidelidad y la notificación se registran en segundo plano.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "201", description = "Pedido creado en estado CONFIRMADO"),
+        @ApiResponse(responseCode = "400", description = "Cliente, reserva o producto inválido, o stock insuficiente; no se aplica ningún cambio")
+    })
+    public ResponseEntity<?> checkout(
+            @Parameter(description = "Cliente, IDs de reservas PENDIENTES y líneas adicionales", required = true)
+            @RequestBody CheckoutRequest request) {
+        try {
+            Pedido pedido = checkoutService.checkout(request);
+            return ResponseEntity.status(201).body(pedidoModelAssembler.toModel(pedido));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package com.letrasypapeles.backend.controller;
 
 import com.letrasypapeles.backend.assembler.ClienteModelAssembler;
+import com.letrasypapeles.backend.dto.ResumenCliente;
+import com.letrasypapeles.backend.dto.SaldoPuntos;
 import com.letrasypapeles.backend.entity.Cliente;
+import com.letrasypapeles.backend.entity.MovimientoPuntos;
 import com.letrasypapeles.backend.service.ClienteService;
+import com.letrasypapeles.backend.service.ConsultaPorIds;
+import com.letrasypapeles.backend.service.ProyeccionCamposService;
+import com.letrasypapeles.backend.service.ResumenClienteService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -16,6 +22,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
@@ -31,6 +38,15 @@ public class ClienteController {
     @Autowired
     private ClienteModelAssembler clienteModelAssembler;
 
+    @Autowired
+    private ProyeccionCamposService proyeccionCamposService;
+
+    @Autowired
+    private ConsultaPorIds consultaPorIds;
+
+    @Autowired
+    private ResumenClienteService resumenClienteService;
+
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Obtiene todos los clientes", description = "Devuelve la lista completa de clientes registrados")
@@ -87,6 +103,96 @@ public class ClienteController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/resumen")
+    @Operation(summary = "Obtiene el resumen de un cliente",
+               description = "Devuelve en una sola llamada sus pedidos, reservas, notificaciones y puntos, consultados en paralelo")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Resumen recuperado; las secciones que no respondieron a tiempo se listan en incompletos"),
+        @ApiResponse(responseCode = "404", description = "Cliente no encontrado")
+    })
+    public ResponseEntity<ResumenCliente> obtenerResumen(@PathVariable Long id) {
+        return resumenClienteService.obtener(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping(params = {"fields", "!ids"})
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Obtiene solo los campos indicados de los clientes",
+               description = "Lee de la base de datos únicamente los campos de ?fields=, separados por comas")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Campos recuperados exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Campo no permitido")
+    })
+    public ResponseEntity<?> obtenerTodosCampos(@RequestParam String fields) {
+        try {
+            return ResponseEntity.ok(proyeccionCamposService.obtenerTodos(Cliente.class, fields));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping(params = "ids")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Obtiene varios clientes por ID",
+               description = "Busca los IDs de ?ids=, separados por comas, en una sola consulta y los devuelve en el orden pedido")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Resultados en el orden pedido; los IDs inexistentes van con encontrado=false"),
+        @ApiResponse(responseCode = "400", description = "ID inválido o más IDs de los permitidos")
+    })
+    public ResponseEntity<?> obtenerPorIds(@RequestParam String ids) {
+        try {
+            return ResponseEntity.ok(consultaPorIds.buscar(ids, clienteService::obtenerPorIds, Cliente::getId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping(value = "/{id}", params = "fields")
+    @Operation(summary = "Obtiene solo los campos indicados del cliente",
+               description = "Lee de la base de datos únicamente los campos de ?fields=, separados por comas")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Campos recuperados exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Campo no permitido"),
+        @ApiResponse(responseCode = "404", description = "Cliente no encontrado")
+    })
+    public ResponseEntity<?> obtenerPorIdCampos(@PathVariable Long id, @RequestParam String fields) {
+        try {
+            return proyeccionCamposService.obtenerPorId(Cliente.class, id, fields)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}/puntos")
+    @Operation(summary = "Obtiene el saldo de puntos de un cliente", description = "Incluye los movimientos de puntos que aún no se suman al cliente")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Saldo recuperado exitosamente"),
+        @ApiResponse(responseCode = "404", description = "Cliente no encontrado")
+    })
+    public ResponseEntity<SaldoPuntos> obtenerSaldoPuntos(@PathVariable Long id) {
+        return clienteService.obtenerPorId(id)
+                .map(cliente -> ResponseEntity.ok(SaldoPuntos.builder()
+                        .clienteId(id)
+                        .saldo(clienteService.obtenerSaldoPuntos(id))
+                        .build()))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{id}/puntos/movimientos")
+    @Operation(summary = "Obtiene el historial de puntos de un cliente", description = "Devuelve los movimientos de puntos del más reciente al más antiguo")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Historial recuperado exitosamente"),
+        @ApiResponse(responseCode = "404", description = "Cliente no encontrado")
+    })
+    public ResponseEntity<List<MovimientoPuntos>> obtenerMovimientosPuntos(@PathVariable Long id) {
+        return clienteService.obtenerPorId(id)
+                .map(cliente -> ResponseEntity.ok(clienteService.obtenerMovimientosPuntos(id)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @PostMapping("/registro")
     @Operation(summary = "Registra un nuevo cliente", description = "Crea un nuevo cliente en el sistema")
     @ApiResponses({
@@ -1,10 +1,18 @@
 package com.letrasypapeles.backend.controller;
 
+import com.letrasypapeles.backend.dto.AlertaStockBajo;
+import com.letrasypapeles.backend.dto.DisponibilidadSucursal;
 import com.letrasypapeles.backend.dto.MessageResponse;
+import com.letrasypapeles.backend.dto.TransferenciaRequest;
 import com.letrasypapeles.backend.entity.Inventario;
 import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.service.ConsultaPorIds;
+import com.letrasypapeles.backend.service.EmisorAlertasStock;
 import com.letrasypapeles.backend.service.InventarioService;
+import com.letrasypapeles.backend.service.MonitorStockBajo;
 import com.letrasypapeles.backend.service.ProductoService;
+import com.letrasypapeles.backend.service.ProyeccionCamposService;
+import com.letrasypapeles.backend.service.TransferenciaInventarioService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -12,9 +20,12 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -28,6 +39,21 @@ public class InventarioController {
     @Autowired
     private ProductoService productoService;
 
+    @Autowired
+    private TransferenciaInventarioService transferenciaInventarioService;
+
+    @Autowired
+    private MonitorStockBajo monitorStockBajo;
+
+    @Autowired
+    private EmisorAlertasStock emisorAlertasStock;
+
+    @Autowired
+    private ConsultaPorIds consultaPorIds;
+
+    @Autowired
+    private ProyeccionCamposService proyeccionCamposService;
+
     @GetMapping("/api/inventarios")
     @Operation(summary = "Obtiene todos los inventarios", description = "Devuelve la lista completa de registros de inventario")
     @ApiResponse(responseCode = "200", description = "Inventarios recuperados exitosamente")
@@ -36,6 +62,21 @@ public class InventarioController {
         return ResponseEntity.ok(inventarios);
     }
 
+    @GetMapping(value = "/api/inventarios", params = "ids")
+    @Operation(summary = "Obtiene varios inventarios por ID",
+               description = "Busca los IDs de ?ids=, separados por comas, en una sola consulta y los devuelve en el orden pedido")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Resultados en el orden pedido; los IDs inexistentes van con encontrado=false"),
+        @ApiResponse(responseCode = "400", description = "ID inválido o más IDs de los permitidos")
+    })
+    public ResponseEntity<?> obtenerPorIds(@RequestParam String ids) {
+        try {
+            return ResponseEntity.ok(consultaPorIds.buscar(ids, inventarioService::obtenerPorIds, Inventario::getId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/api/inventarios/{id}")
     @Operation(summary = "Obtiene un inventario por ID", description = "Devuelve el registro de inventario asociado al ID proporcionado")
     @ApiResponses({
@@ -48,6 +89,39 @@ public class InventarioController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping(value = "/api/inventarios", params = {"fields", "!ids"})
+    @Operation(summary = "Obtiene solo los campos indicados de los inventarios",
+               description = "Lee de la base de datos únicamente los campos de ?fields=, separados por comas")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Campos recuperados exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Campo no permitido")
+    })
+    public ResponseEntity<?> obtenerTodosCampos(@RequestParam String fields) {
+        try {
+            return ResponseEntity.ok(proyeccionCamposService.obtenerTodos(Inventario.class, fields));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping(value = "/api/inventarios/{id}", params = "fields")
+    @Operation(summary = "Obtiene solo los campos indicados del inventario",
+               description = "Lee de la base de datos únicamente los campos de ?fields=, separados por comas")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Campos recuperados exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Campo no permitido"),
+        @ApiResponse(responseCode = "404", description = "Inventario no encontrado")
+    })
+    public ResponseEntity<?> obtenerPorIdCampos(@PathVariable Long id, @RequestParam String fields) {
+        try {
+            return proyeccionCamposService.obtenerPorId(Inventario.class, id, fields)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/api/inventarios/producto/{productoId}")
     @Operation(summary = "Filtra inventarios por ID de producto", description = "Devuelve todos los inventarios asociados a un producto específico")
     @ApiResponse(responseCode = "200", description = "Inventarios recuperados exitosamente")
@@ -64,6 +138,35 @@ public class InventarioController {
         return ResponseEntity.ok(inventarios);
     }
 
+    @GetMapping("/api/inventarios/disponible")
+    @Operation(summary = "Obtiene la cantidad disponible para prometer", description = "Devuelve la cantidad de un producto en una sucursal descontando lo apartado por reservas pendientes")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Disponibilidad recuperada exitosamente"),
+        @ApiResponse(responseCode = "404", description = "Inventario no encontrado")
+    })
+    public ResponseEntity<DisponibilidadSucursal> obtenerDisponible(@RequestParam Long productoId, @RequestParam Long sucursalId) {
+        return inventarioService.obtenerDisponible(productoId, sucursalId)
+                .map(disponible -> ResponseEntity.ok(DisponibilidadSucursal.builder()
+                        .sucursalId(sucursalId)
+                        .cantidad(disponible)
+                        .build()))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/api/inventarios/alertas")
+    @Operation(summary = "Obtiene las alertas de restock vigentes", description = "Devuelve solo los inventarios que están actualmente bajo su umbral")
+    @ApiResponse(responseCode = "200", description = "Alertas recuperadas exitosamente")
+    public ResponseEntity<Collection<AlertaStockBajo>> obtenerAlertas() {
+        return ResponseEntity.ok(monitorStockBajo.alertasVigentes());
+    }
+
+    @GetMapping(value = "/api/inventarios/alertas/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Suscribe a las alertas de restock", description = "Envía las alertas vigentes y luego un evento cada vez que un inventario cruza su umbral (alerta o resuelta)")
+    @ApiResponse(responseCode = "200", description = "Suscripción establecida")
+    public SseEmitter suscribirAlertas() {
+        return emisorAlertasStock.suscribir();
+    }
+
     @PostMapping("/api/inventarios")
     @Operation(summary = "Crea un nuevo inventario", description = "Guarda un nuevo registro de inventario en el sistema")
     @ApiResponses({
@@ -85,6 +188,8 @@ public class InventarioController {
         return inventarioService.obtenerPorId(id)
                 .map(i -> {
                     inventario.setId(id);
+                    // Lo apartado solo cambia con reservas
+                    inventario.setReservado(i.getReservado());
                     Inventario actualizado = inventarioService.guardar(inventario);
                     return ResponseEntity.ok(actualizado);
                 })
@@ -106,6 +211,36 @@ public class InventarioController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @PostMapping("/api/inventarios/transferencia")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('VENDEDOR')")
+    @Operation(summary = "Transfiere stock entre sucursales", description = "Mueve cantidad de un producto desde el inventario de una sucursal al de otra en una sola transacción")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Transferencia aplicada exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Solicitud inválida o cantidad insuficiente")
+    })
+    public ResponseEntity<?> transferir(@RequestBody TransferenciaRequest transferencia) {
+        try {
+            return ResponseEntity.ok(transferenciaInventarioService.transferir(transferencia));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/api/inventarios/transferencias")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('VENDEDOR')")
+    @Operation(summary = "Transfiere stock en lote", description = "Aplica varias transferencias entre sucursales de forma atómica: se aplican todas o ninguna")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Lote de transferencias aplicado exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Solicitud inválida o cantidad insuficiente")
+    })
+    public ResponseEntity<?> transferirLote(@RequestBody List<TransferenciaRequest> transferencias) {
+        try {
+            return ResponseEntity.ok(transferenciaInventarioService.transferirLote(transferencias));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(new MessageResponse(e.getMessage()));
+        }
+    }
+
     // Endpoints singulares para compatibilidad con tests
 
     @PostMapping("/api/inventario")
@@ -0,0 +1,41 @@
+package com.letrasypapeles.backend.controller;
+
+import com.letrasypapeles.backend.dto.SolicitudLote;
+import com.letrasypapeles.backend.web.EjecutorLotes;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/batch")
+@Tag(name = "Lotes", description = "Ejecución de varias consultas GET en una sola llamada")
+public class LoteController {
+
+    @Autowired
+    private EjecutorLotes ejecutorLotes;
+
+    @PostMapping
+    @Operation(summary = "Ejecuta un lote de consultas",
+            description = "Ejecuta en paralelo las sub-solicitudes GET indicadas y devuelve sus respuestas en el mismo orden, cada una con su propio estado")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Lote ejecutado; revisar el estado de cada sub-respuesta"),
+        @ApiResponse(responseCode = "400", description = "Lote vacío o con más solicitudes de las permitidas")
+    })
+    public ResponseEntity<?> ejecutar(@RequestBody List<SolicitudLote> solicitudes,
+                                      HttpServletRequest request, HttpServletResponse response) {
+        try {
+            return ResponseEntity.ok(ejecutorLotes.ejecutar(request, response, solicitudes));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.letrasypapeles.backend.controller;
 
 import com.letrasypapeles.backend.entity.Notificacion;
 import com.letrasypapeles.backend.service.NotificacionService;
+import com.letrasypapeles.backend.service.ProyeccionCamposService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -12,6 +13,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/notificaciones")
@@ -21,6 +23,9 @@ public class NotificacionController {
     @Autowired
     private NotificacionService notificacionService;
 
+    @Autowired
+    private ProyeccionCamposService proyeccionCamposService;
+
     @GetMapping
     @Operation(summary = "Obtiene todas las notificaciones", description = "Devuelve la lista completa de notificaciones registradas")
     @ApiResponse(responseCode = "200", description = "Notificaciones recuperadas exitosamente")
@@ -41,6 +46,39 @@ public class NotificacionController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping(params = "fields")
+    @Operation(summary = "Obtiene solo los campos indicados de las notificaciones",
+               description = "Lee de la base de datos únicamente los campos de ?fields=, separados por comas")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Campos recuperados exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Campo no permitido")
+    })
+    public ResponseEntity<?> obtenerTodasCampos(@RequestParam String fields) {
+        try {
+            return ResponseEntity.ok(proyeccionCamposService.obtenerTodos(Notificacion.class, fields));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping(value = "/{id}", params = "fields")
+    @Operation(summary = "Obtiene solo los campos indicados de la notificación",
+               description = "Lee de la base de datos únicamente los campos de ?fields=, separados por comas")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Campos recuperados exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Campo no permitido"),
+        @ApiResponse(responseCode = "404", description = "Notificación no encontrada")
+    })
+    public ResponseEntity<?> obtenerPorIdCampos(@PathVariable Long id, @RequestParam String fields) {
+        try {
+            return proyeccionCamposService.obtenerPorId(Notificacion.class, id, fields)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/cliente/{clienteId}")
     @Operation(summary = "Obtiene notificaciones por cliente", description = "Devuelve las notificaciones asociadas al cliente indicado")
     @ApiResponse(responseCode = "200", description = "Notificaciones recuperadas exitosamente")
@@ -1,18 +1,32 @@
 package com.letrasypapeles.backend.controller;
 
 import com.letrasypapeles.backend.assembler.PedidoModelAssembler;
+import com.letrasypapeles.backend.dto.IngresoProducto;
 import com.letrasypapeles.backend.dto.PedidoRequest;
+import com.letrasypapeles.backend.dto.ResumenVentas;
+import com.letrasypapeles.backend.entity.EstadoPedido;
 import com.letrasypapeles.backend.entity.Pedido;
+import com.letrasypapeles.backend.entity.SurtidoPedido;
 import com.letrasypapeles.backend.service.PedidoService;
+import com.letrasypapeles.backend.service.ProcesadorPedidos;
+import com.letrasypapeles.backend.service.ProyeccionCamposService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
@@ -27,6 +41,12 @@ public class PedidoController {
     @Autowired
     private PedidoModelAssembler pedidoModelAssembler;
 
+    @Autowired
+    private ProcesadorPedidos procesadorPedidos;
+
+    @Autowired
+    private ProyeccionCamposService proyeccionCamposService;
+
     @Operation(summary = "Obtener todos los pedidos", description = "Retorna la lista de todos los pedidos registrados en el sistema.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Lista de pedidos obtenida exitosamente")
@@ -57,6 +77,51 @@ public class PedidoController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping(params = "fields")
+    @Operation(summary = "Obtiene solo los campos indicados de los pedidos",
+               description = "Lee de la base de datos únicamente los campos de ?fields=, separados por comas")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Campos recuperados exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Campo no permitido")
+    })
+    public ResponseEntity<?> obtenerTodosCampos(@RequestParam String fields) {
+        try {
+            return ResponseEntity.ok(proyeccionCamposService.obtenerTodos(Pedido.class, fields));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping(value = "/{id}", params = "fields")
+    @Operation(summary = "Obtiene solo los campos indicados del pedido",
+               description = "Lee de la base de datos únicamente los campos de ?fields=, separados por comas")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Campos recuperados exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Campo no permitido"),
+        @ApiResponse(responseCode = "404", description = "Pedido no encontrado")
+    })
+    public ResponseEntity<?> obtenerPorIdCampos(@PathVariable Long id, @RequestParam String fields) {
+        try {
+            return proyeccionCamposService.obtenerPorId(Pedido.class, id, fields)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Obtener el surtido de un pedido", description = "Retorna las sucursales desde las que se surte cada producto del pedido; queda vacío hasta que se reserva el stock.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Surtido del pedido obtenido exitosamente"),
+        @ApiResponse(responseCode = "404", description = "Pedido no encontrado con el ID proporcionado")
+    })
+    @GetMapping("/{id}/surtido")
+    public ResponseEntity<List<SurtidoPedido>> obtenerSurtido(@PathVariable Long id) {
+        return pedidoService.obtenerSurtido(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @Operation(summary = "Obtener pedidos por cliente", description = "Retorna la lista de pedidos asociados a un cliente dado su ID.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Lista de pedidos del cliente obtenida exitosamente")
@@ -76,50 +141,58 @@ public class PedidoController {
         return ResponseEntity.ok(collectionModel);
     }
 
-    @Operation(summary = "Crear un nuevo pedido", description = "Crea un nuevo pedido en el sistema con los datos proporcionados.")
+    @Operation(summary = "Crear un nuevo pedido", description = "Registra el pedido como PENDIENTE y lo encola; la reserva de stock, los puntos y la notificación se procesan en segundo plano.")
     @ApiResponses({
-        @ApiResponse(responseCode = "201", description = "Pedido creado exitosamente"),
+        @ApiResponse(responseCode = "202", description = "Pedido aceptado para su procesamiento"),
         @ApiResponse(responseCode = "400", description = "Solicitud inválida para crear el pedido")
     })
     @PostMapping
     public ResponseEntity<EntityModel<Pedido>> crearPedido(@RequestBody Pedido pedido) {
+        pedido.setEstado(EstadoPedido.PENDIENTE.name());
         Pedido nuevoPedido = pedidoService.guardar(pedido);
+        procesadorPedidos.encolar(nuevoPedido.getId());
         EntityModel<Pedido> pedidoModel = pedidoModelAssembler.toModel(nuevoPedido);
-        return ResponseEntity.status(201).body(pedidoModel);
+        return ResponseEntity.accepted().body(pedidoModel);
     }
 
-    @Operation(summary = "Crear un nuevo pedido con IDs", description = "Crea un nuevo pedido usando IDs de cliente y productos.")
+    @Operation(summary = "Crear un nuevo pedido con IDs", description = "Registra un pedido PENDIENTE usando IDs de cliente y productos y lo encola para su procesamiento.")
     @ApiResponses({
-        @ApiResponse(responseCode = "201", description = "Pedido creado exitosamente"),
+        @ApiResponse(responseCode = "202", description = "Pedido aceptado para su procesamiento"),
         @ApiResponse(responseCode = "400", description = "Solicitud inválida para crear el pedido"),
         @ApiResponse(responseCode = "404", description = "Cliente o producto no encontrado")
     })
     @PostMapping("/crear")
     public ResponseEntity<EntityModel<Pedido>> crearPedidoConIds(@RequestBody PedidoRequest pedidoRequest) {
         try {
+            pedidoRequest.setEstado(EstadoPedido.PENDIENTE.name());
             Pedido nuevoPedido = pedidoService.crearDesdePedidoRequest(pedidoRequest);
+            procesadorPedidos.encolar(nuevoPedido.getId());
             EntityModel<Pedido> pedidoModel = pedidoModelAssembler.toModel(nuevoPedido);
-            return ResponseEntity.status(201).body(pedidoModel);
+            return ResponseEntity.accepted().body(pedidoModel);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
-    @Operation(summary = "Actualizar pedido existente", description = "Actualiza un pedido existente dado su ID con los datos proporcionados.")
+    @Operation(summary = "Actualizar pedido existente", description = "Actualiza un pedido existente dado su ID con los datos proporcionados. Sin estado se conserva el actual; el único cambio de estado permitido es a CANCELADO, que devuelve el stock de un pedido CONFIRMADO. Fuera de PENDIENTE no se pueden cambiar líneas, total ni cliente.")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Pedido actualizado exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Estado inexistente, cambio de estado distinto de una cancelación permitida o cambio de contenido de un pedido que ya no está PENDIENTE"),
         @ApiResponse(responseCode = "404", description = "Pedido no encontrado con el ID proporcionado")
     })
     @PutMapping("/{id}")
-    public ResponseEntity<EntityModel<Pedido>> actualizarPedido(@PathVariable Long id, @RequestBody Pedido pedido) {
-        return pedidoService.obtenerPorId(id)
-                .map(p -> {
-                    pedido.setId(id);
-                    Pedido pedidoActualizado = pedidoService.guardar(pedido);
-                    EntityModel<Pedido> pedidoModel = pedidoModelAssembler.toModel(pedidoActualizado);
-                    return ResponseEntity.ok(pedidoModel);
-                })
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<?> actualizarPedido(@PathVariable Long id, @RequestBody Pedido pedido) {
+        Optional<Pedido> existente = pedidoService.obtenerPorId(id);
+        if (existente.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            Pedido pedidoActualizado = pedidoService.actualizar(existente.get(), pedido);
+            EntityModel<Pedido> pedidoModel = pedidoModelAssembler.toModel(pedidoActualizado);
+            return ResponseEntity.ok(pedidoModel);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     @Operation(summary = "Eliminar un pedido", description = "Elimina un pedido existente dado su ID.")
@@ -136,4 +209,40 @@ public class PedidoController {
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
+
+    @Operation(summary = "Resumen de ventas", description = "Cantidad de pedidos, ingresos y ticket promedio calculados en SQL sobre los totales guardados de los pedidos confirmados o completados.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Resumen calculado exitosamente")
+    })
+    @GetMapping("/ventas/resumen")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ResumenVentas> obtenerResumenVentas(
+            @Parameter(description = "Fecha inicial inclusiva (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @Parameter(description = "Fecha final inclusiva (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        return ResponseEntity.ok(pedidoService.resumirVentas(inicioDe(desde), finDe(hasta)));
+    }
+
+    @Operation(summary = "Ingresos por producto", description = "Unidades vendidas e ingresos por producto de los pedidos confirmados o completados según el precio guardado en cada línea, de mayor a menor ingreso.")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Ingresos calculados exitosamente")
+    })
+    @GetMapping("/ventas/productos")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<IngresoProducto>> obtenerIngresosPorProducto(
+            @Parameter(description = "Fecha inicial inclusiva (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @Parameter(description = "Fecha final inclusiva (yyyy-MM-dd)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        return ResponseEntity.ok(pedidoService.obtenerIngresosPorProducto(inicioDe(desde), finDe(hasta)));
+    }
+
+    private static LocalDateTime inicioDe(LocalDate desde) {
+        return desde != null ? desde.atStartOfDay() : null;
+    }
+
+    private static LocalDateTime finDe(LocalDate hasta) {
+        return hasta != null ? hasta.plusDays(1).atStartOfDay() : null;
+    }
 }
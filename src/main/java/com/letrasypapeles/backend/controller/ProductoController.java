@@ -1,8 +1,13 @@
 package com.letrasypapeles.backend.controller;
 
 import com.letrasypapeles.backend.assembler.ProductoModelAssembler;
+import com.letrasypapeles.backend.dto.DisponibilidadSucursal;
 import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.service.ConsultaPorIds;
+import com.letrasypapeles.backend.service.IndiceDisponibilidad;
 import com.letrasypapeles.backend.service.ProductoService;
+import com.letrasypapeles.backend.service.ProyeccionCamposService;
+import com.letrasypapeles.backend.web.RepresentacionLigera;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -17,6 +22,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
@@ -31,6 +37,15 @@ public class ProductoController {
     @Autowired
     private ProductoModelAssembler productoModelAssembler;
 
+    @Autowired
+    private IndiceDisponibilidad indiceDisponibilidad;
+
+    @Autowired
+    private ProyeccionCamposService proyeccionCamposService;
+
+    @Autowired
+    private ConsultaPorIds consultaPorIds;
+
     @Operation(summary = "Obtener todos los productos")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Lista de productos obtenida correctamente")
@@ -49,6 +64,26 @@ public class ProductoController {
         return ResponseEntity.ok(collectionModel);
     }
 
+    @Operation(summary = "Obtener todos los productos sin enlaces por elemento",
+               description = "Se elige con ?links=none o con Accept: " + RepresentacionLigera.TIPO)
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Lista de productos obtenida correctamente")
+    })
+    @GetMapping(params = {RepresentacionLigera.PARAMETRO, "!fields", "!ids"})
+    @PreAuthorize("hasRole('ADMIN') or hasRole('CLIENTE') or hasRole('VENDEDOR')")
+    public ResponseEntity<CollectionModel<Producto>> obtenerTodosLigero() {
+        CollectionModel<Producto> collectionModel = CollectionModel.of(productoService.obtenerTodos());
+        collectionModel.add(linkTo(ProductoController.class).withSelfRel());
+
+        return ResponseEntity.ok(collectionModel);
+    }
+
+    @GetMapping(produces = RepresentacionLigera.TIPO)
+    @PreAuthorize("hasRole('ADMIN') or hasRole('CLIENTE') or hasRole('VENDEDOR')")
+    public ResponseEntity<CollectionModel<Producto>> obtenerTodosLigeroPorTipo() {
+        return obtenerTodosLigero();
+    }
+
     @Operation(summary = "Obtener un producto por su ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Producto encontrado"),
@@ -64,6 +99,70 @@ public class ProductoController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping(params = {"fields", "!ids"})
+    @PreAuthorize("hasRole('ADMIN') or hasRole('CLIENTE') or hasRole('VENDEDOR')")
+    @Operation(summary = "Obtiene solo los campos indicados de los productos",
+               description = "Lee de la base de datos únicamente los campos de ?fields=, separados por comas")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Campos recuperados exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Campo no permitido")
+    })
+    public ResponseEntity<?> obtenerTodosCampos(@RequestParam String fields) {
+        try {
+            return ResponseEntity.ok(proyeccionCamposService.obtenerTodos(Producto.class, fields));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping(params = "ids")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('CLIENTE') or hasRole('VENDEDOR')")
+    @Operation(summary = "Obtiene varios productos por ID",
+               description = "Busca los IDs de ?ids=, separados por comas, en una sola consulta y los devuelve en el orden pedido")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Resultados en el orden pedido; los IDs inexistentes van con encontrado=false"),
+        @ApiResponse(responseCode = "400", description = "ID inválido o más IDs de los permitidos")
+    })
+    public ResponseEntity<?> obtenerPorIds(@RequestParam String ids) {
+        try {
+            return ResponseEntity.ok(consultaPorIds.buscar(ids, productoService::obtenerPorIds, Producto::getId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping(value = "/{id}", params = "fields")
+    @Operation(summary = "Obtiene solo los campos indicados del producto",
+               description = "Lee de la base de datos únicamente los campos de ?fields=, separados por comas")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Campos recuperados exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Campo no permitido"),
+        @ApiResponse(responseCode = "404", description = "Producto no encontrado")
+    })
+    public ResponseEntity<?> obtenerPorIdCampos(@PathVariable Long id, @RequestParam String fields) {
+        try {
+            return proyeccionCamposService.obtenerPorId(Producto.class, id, fields)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @Operation(summary = "Obtener las sucursales con stock de un producto",
+               description = "Responde desde el índice de disponibilidad en memoria, sin consultar la base de datos")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Disponibilidad por sucursal obtenida correctamente")
+    })
+    @GetMapping("/{id}/disponibilidad")
+    public ResponseEntity<List<DisponibilidadSucursal>> obtenerDisponibilidad(
+            @Parameter(description = "ID del producto", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Filtra por la región de la sucursal")
+            @RequestParam(required = false) String region) {
+        return ResponseEntity.ok(indiceDisponibilidad.consultar(id, region));
+    }
+
     @Operation(summary = "Crear un nuevo producto")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Producto creado exitosamente"),
@@ -2,6 +2,7 @@ package com.letrasypapeles.backend.controller;
 
 import com.letrasypapeles.backend.entity.Proveedor;
 import com.letrasypapeles.backend.service.ProveedorService;
+import com.letrasypapeles.backend.service.ProyeccionCamposService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -10,6 +11,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/proveedores")
@@ -19,6 +21,9 @@ public class ProveedorController {
     @Autowired
     private ProveedorService proveedorService;
 
+    @Autowired
+    private ProyeccionCamposService proyeccionCamposService;
+
     @GetMapping
     @Operation(summary = "Obtiene todos los proveedores", description = "Devuelve la lista completa de proveedores")
     @ApiResponse(responseCode = "200", description = "Proveedores recuperados exitosamente")
@@ -39,6 +44,39 @@ public class ProveedorController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping(params = "fields")
+    @Operation(summary = "Obtiene solo los campos indicados de los proveedores",
+               description = "Lee de la base de datos únicamente los campos de ?fields=, separados por comas")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Campos recuperados exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Campo no permitido")
+    })
+    public ResponseEntity<?> obtenerTodosCampos(@RequestParam String fields) {
+        try {
+            return ResponseEntity.ok(proyeccionCamposService.obtenerTodos(Proveedor.class, fields));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping(value = "/{id}", params = "fields")
+    @Operation(summary = "Obtiene solo los campos indicados del proveedor",
+               description = "Lee de la base de datos únicamente los campos de ?fields=, separados por comas")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Campos recuperados exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Campo no permitido"),
+        @ApiResponse(responseCode = "404", description = "Proveedor no encontrado")
+    })
+    public ResponseEntity<?> obtenerPorIdCampos(@PathVariable Long id, @RequestParam String fields) {
+        try {
+            return proyeccionCamposService.obtenerPorId(Proveedor.class, id, fields)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PostMapping
     @Operation(summary = "Crea un nuevo proveedor", description = "Guarda un nuevo proveedor en el sistema")
     @ApiResponses({
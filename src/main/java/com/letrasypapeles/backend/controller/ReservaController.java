@@ -2,6 +2,7 @@ package com.letrasypapeles.backend.controller;
 
 import com.letrasypapeles.backend.assembler.ReservaModelAssembler;
 import com.letrasypapeles.backend.dto.ReservaRequest;
+import com.letrasypapeles.backend.dto.ResultadoReservaLote;
 import com.letrasypapeles.backend.entity.Reserva;
 import com.letrasypapeles.backend.entity.Cliente;
 import com.letrasypapeles.backend.entity.Producto;
@@ -10,7 +11,8 @@ import com.letrasypapeles.backend.service.ReservaService;
 import com.letrasypapeles.backend.service.ClienteService;
 import com.letrasypapeles.backend.service.ProductoService;
 import com.letrasypapeles.backend.service.InventarioService;
-import com.letrasypapeles.backend.repository.ClienteRepository;
+import com.letrasypapeles.backend.service.ProyeccionCamposService;
+import com.letrasypapeles.backend.web.RepresentacionLigera;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -50,10 +52,10 @@ public class ReservaController {
     private InventarioService inventarioService;
 
     @Autowired
-    private ClienteRepository clienteRepository;
+    private ReservaModelAssembler reservaModelAssembler;
 
     @Autowired
-    private ReservaModelAssembler reservaModelAssembler;
+    private ProyeccionCamposService proyeccionCamposService;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN') or hasRole('CLIENTE') or hasRole('VENDEDOR')")
@@ -71,6 +73,24 @@ public class ReservaController {
         return ResponseEntity.ok(collectionModel);
     }
 
+    @GetMapping(params = {RepresentacionLigera.PARAMETRO, "!fields"})
+    @PreAuthorize("hasRole('ADMIN') or hasRole('CLIENTE') or hasRole('VENDEDOR')")
+    @Operation(summary = "Obtiene todas las reservas sin enlaces por elemento",
+               description = "Se elige con ?links=none o con Accept: " + RepresentacionLigera.TIPO)
+    @ApiResponse(responseCode = "200", description = "Reservas recuperadas exitosamente")
+    public ResponseEntity<CollectionModel<Reserva>> obtenerTodasLigero() {
+        CollectionModel<Reserva> collectionModel = CollectionModel.of(reservaService.obtenerTodas());
+        collectionModel.add(linkTo(ReservaController.class).withSelfRel());
+
+        return ResponseEntity.ok(collectionModel);
+    }
+
+    @GetMapping(produces = RepresentacionLigera.TIPO)
+    @PreAuthorize("hasRole('ADMIN') or hasRole('CLIENTE') or hasRole('VENDEDOR')")
+    public ResponseEntity<CollectionModel<Reserva>> obtenerTodasLigeroPorTipo() {
+        return obtenerTodasLigero();
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Obtiene una reserva por ID", description = "Devuelve los datos de la reserva con el ID especificado")
     @ApiResponses({
@@ -84,6 +104,40 @@ public class ReservaController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping(params = "fields")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('CLIENTE') or hasRole('VENDEDOR')")
+    @Operation(summary = "Obtiene solo los campos indicados de las reservas",
+               description = "Lee de la base de datos únicamente los campos de ?fields=, separados por comas")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Campos recuperados exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Campo no permitido")
+    })
+    public ResponseEntity<?> obtenerTodasCampos(@RequestParam String fields) {
+        try {
+            return ResponseEntity.ok(proyeccionCamposService.obtenerTodos(Reserva.class, fields));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping(value = "/{id}", params = "fields")
+    @Operation(summary = "Obtiene solo los campos indicados de la reserva",
+               description = "Lee de la base de datos únicamente los campos de ?fields=, separados por comas")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Campos recuperados exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Campo no permitido"),
+        @ApiResponse(responseCode = "404", description = "Reserva no encontrada")
+    })
+    public ResponseEntity<?> obtenerPorIdCampos(@PathVariable Long id, @RequestParam String fields) {
+        try {
+            return proyeccionCamposService.obtenerPorId(Reserva.class, id, fields)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/cliente/{clienteId}")
     @Operation(summary = "Obtiene reservas de un cliente", description = "Devuelve todas las reservas asociadas al cliente especificado")
     @ApiResponse(responseCode = "200", description = "Reservas del cliente recuperadas exitosamente")
@@ -93,7 +147,7 @@ public class ReservaController {
     }
 
     @PostMapping
-    @Operation(summary = "Crea una nueva reserva", description = "Procesa y guarda una nueva reserva con validaciones de stock y reducción de inventario")
+    @Operation(summary = "Crea una nueva reserva", description = "Procesa y guarda una nueva reserva apartando su cantidad en el stock del producto y en una sucursal")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Reserva creada exitosamente"),
         @ApiResponse(responseCode = "400", description = "Solicitud inválida o stock insuficiente"),
@@ -140,18 +194,6 @@ public class ReservaController {
                     return ResponseEntity.badRequest()
                         .body(Map.of("error", "Stock insuficiente"));
                 }
-                producto.setStock(producto.getStock() - cantidad);
-                productoService.guardar(producto);
-
-                // Ajuste de inventario
-                List<Inventario> inventarios = inventarioService.obtenerPorProductoId(productoId);
-                if (!inventarios.isEmpty()) {
-                    Inventario inventario = inventarios.get(0);
-                    if (inventario.getCantidad() != null && inventario.getCantidad() >= cantidad) {
-                        inventario.setCantidad(inventario.getCantidad() - cantidad);
-                        inventarioService.guardar(inventario);
-                    }
-                }
 
                 reserva.setProducto(producto);
                 reserva.setCantidad(cantidad);
@@ -165,7 +207,19 @@ public class ReservaController {
                 reserva.setFechaReserva(LocalDateTime.now());
             }
 
-            Reserva nuevaReserva = reservaService.guardar(reserva);
+            if (reserva.getProducto() == null) {
+                return ResponseEntity.ok(reservaService.guardar(reserva));
+            }
+
+            // Aparta el stock en una sola sucursal, de la región pedida si la hay
+            String region = requestBody.get("region") != null ? requestBody.get("region").toString() : null;
+            Reserva nuevaReserva;
+            try {
+                nuevaReserva = reservaService.crearConApartado(reserva, region);
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage() != null ? e.getMessage() : "Stock insuficiente"));
+            }
             return ResponseEntity.ok(nuevaReserva);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -226,6 +280,7 @@ public class ReservaController {
     @Operation(summary = "Confirma una reserva", description = "Cambia el estado de la reserva a CONFIRMADA y otorga puntos de fidelidad")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Reserva confirmada exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Operación inválida: solo reservas PENDIENTES pueden ser confirmadas"),
         @ApiResponse(responseCode = "404", description = "Reserva no encontrada"),
         @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
@@ -235,26 +290,12 @@ public class ReservaController {
             if (reservaOpt.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
-            Reserva reserva = reservaOpt.get();
-            reserva.setEstado("CONFIRMADA");
-            reservaService.guardar(reserva);
-
-            if (reserva.getCliente() != null && reserva.getProducto() != null) {
-                if (reserva.getCantidad() == null) {
-                    throw new RuntimeException("Cantidad is null");
-                }
-                if (reserva.getProducto().getPrecio() == null) {
-                    throw new RuntimeException("Precio is null");
-                }
-                double totalCompra = reserva.getCantidad() * reserva.getProducto().getPrecio().doubleValue();
-                int puntosGanados = (int) (totalCompra / 10);
-                clienteService.actualizarPuntosFidelidadDirecto(reserva.getCliente().getId(), puntosGanados);
-                Integer puntosActualizados = clienteRepository.obtenerPuntosFidelidad(reserva.getCliente().getId());
-                if (puntosActualizados != null) {
-                    reserva.getCliente().setPuntosFidelidad(puntosActualizados);
-                }
+            if (!"PENDIENTE".equals(reservaOpt.get().getEstado())) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("error", "Solo se pueden confirmar reservas en estado PENDIENTE"));
             }
-            return ResponseEntity.ok(reserva);
+            // Misma confirmación que la de lotes: convierte lo apartado y otorga los puntos
+            return ResponseEntity.ok(reservaService.confirmarReserva(id));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -264,7 +305,7 @@ public class ReservaController {
 
     @PutMapping("/{id}/cancelar")
     @PreAuthorize("hasRole('ADMIN') or hasRole('CLIENTE') or hasRole('VENDEDOR')")
-    @Operation(summary = "Cancela una reserva", description = "Cambia el estado de la reserva a CANCELADA y restaura stock e inventario")
+    @Operation(summary = "Cancela una reserva", description = "Cambia el estado de la reserva a CANCELADA y libera el stock apartado")
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Reserva cancelada exitosamente"),
         @ApiResponse(responseCode = "400", description = "Operación inválida: solo reservas PENDIENTES pueden ser canceladas"),
@@ -282,26 +323,48 @@ public class ReservaController {
                 return ResponseEntity.badRequest()
                         .body(Map.of("error", "Solo se pueden cancelar reservas en estado PENDIENTE"));
             }
-            Producto producto = reserva.getProducto();
-            if (producto != null && reserva.getCantidad() != null) {
-                producto.setStock(producto.getStock() + reserva.getCantidad());
-                productoService.guardar(producto);
-                List<Inventario> inventarios = inventarioService.obtenerPorProductoId(producto.getId());
-                if (!inventarios.isEmpty()) {
-                    Inventario inventario = inventarios.get(0);
-                    if (inventario.getCantidad() != null) {
-                        inventario.setCantidad(inventario.getCantidad() + reserva.getCantidad());
-                        inventarioService.guardar(inventario);
-                    }
-                }
-            }
-            reserva.setEstado("CANCELADA");
-            reservaService.guardar(reserva);
-            return ResponseEntity.ok(reserva);
+            // Libera exactamente lo apartado (o, en reservas anteriores al apartado, su cantidad)
+            return ResponseEntity.ok(reservaService.cancelarReserva(id));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Map.of("error", e.getMessage() != null ? e.getMessage() : "Unknown error: " + e.getClass().getSimpleName()));
         }
     }
+
+    @PostMapping("/confirmar-lote")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('VENDEDOR')")
+    @Operation(summary = "Confirma reservas en lote", description = "Confirma una lista de reservas PENDIENTES en una sola transacción y descuenta el stock agrupado por producto")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Lote procesado; incluye el resultado de cada reserva"),
+        @ApiResponse(responseCode = "400", description = "Lista vacía o demasiado grande")
+    })
+    public ResponseEntity<?> confirmarLote(
+            @Parameter(description = "IDs de las reservas a confirmar", required = true)
+            @RequestBody List<Long> ids) {
+        try {
+            List<ResultadoReservaLote> resultados = reservaService.confirmarLote(ids);
+            return ResponseEntity.ok(resultados);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/cancelar-lote")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('VENDEDOR')")
+    @Operation(summary = "Cancela reservas en lote", description = "Cancela una lista de reservas PENDIENTES en una sola transacción y restaura el stock agrupado por producto")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Lote procesado; incluye el resultado de cada reserva"),
+        @ApiResponse(responseCode = "400", description = "Lista vacía o demasiado grande")
+    })
+    public ResponseEntity<?> cancelarLote(
+            @Parameter(description = "IDs de las reservas a cancelar", required = true)
+            @RequestBody List<Long> ids) {
+        try {
+            List<ResultadoReservaLote> resultados = reservaService.cancelarLote(ids);
+            return ResponseEntity.ok(resultados);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
 }
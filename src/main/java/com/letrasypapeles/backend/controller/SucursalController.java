@@ -1,6 +1,7 @@
 package com.letrasypapeles.backend.controller;
 
 import com.letrasypapeles.backend.entity.Sucursal;
+import com.letrasypapeles.backend.service.ProyeccionCamposService;
 import com.letrasypapeles.backend.service.SucursalService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,6 +14,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -20,9 +22,11 @@ import java.util.Optional;
 public class SucursalController {
 
     private final SucursalService sucursalService;
+    private final ProyeccionCamposService proyeccionCamposService;
 
-    public SucursalController(SucursalService sucursalService) {
+    public SucursalController(SucursalService sucursalService, ProyeccionCamposService proyeccionCamposService) {
         this.sucursalService = sucursalService;
+        this.proyeccionCamposService = proyeccionCamposService;
     }
 
     @Operation(summary = "Obtener todas las sucursales")
@@ -46,6 +50,39 @@ public class SucursalController {
         return sucursal.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    @GetMapping(params = "fields")
+    @Operation(summary = "Obtiene solo los campos indicados de las sucursales",
+               description = "Lee de la base de datos únicamente los campos de ?fields=, separados por comas")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Campos recuperados exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Campo no permitido")
+    })
+    public ResponseEntity<?> obtenerTodasCampos(@RequestParam String fields) {
+        try {
+            return ResponseEntity.ok(proyeccionCamposService.obtenerTodos(Sucursal.class, fields));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping(value = "/{id}", params = "fields")
+    @Operation(summary = "Obtiene solo los campos indicados de la sucursal",
+               description = "Lee de la base de datos únicamente los campos de ?fields=, separados por comas")
+    @ApiResponses({
+        @ApiResponse(responseCode = "200", description = "Campos recuperados exitosamente"),
+        @ApiResponse(responseCode = "400", description = "Campo no permitido"),
+        @ApiResponse(responseCode = "404", description = "Sucursal no encontrado")
+    })
+    public ResponseEntity<?> obtenerPorIdCampos(@PathVariable Long id, @RequestParam String fields) {
+        try {
+            return proyeccionCamposService.obtenerPorId(Sucursal.class, id, fields)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @Operation(summary = "Guardar una nueva sucursal")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Sucursal guardada exitosamente"),
@@ -0,0 +1,22 @@
+package com.letrasypapeles.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertaStockBajo {
+
+    private Long inventarioId;
+    private Long productoId;
+    private String productoNombre;
+    private Long sucursalId;
+    private String sucursalNombre;
+    private Integer cantidad;
+    private Integer umbral;
+    private String mensaje;
+}
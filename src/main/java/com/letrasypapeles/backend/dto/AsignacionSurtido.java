@@ -0,0 +1,18 @@
+package com.letrasypapeles.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AsignacionSurtido {
+
+    private Long productoId;
+    private Long sucursalId;
+    private Long inventarioId;
+    private Integer cantidad;
+}
@@ -0,0 +1,19 @@
+package com.letrasypapeles.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckoutRequest {
+
+    private Long clienteId;
+    private List<Long> reservasIds;
+    private List<LineaPedidoRequest> lineas;
+}
@@ -0,0 +1,17 @@
+package com.letrasypapeles.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DiferenciaStock {
+
+    private Long productoId;
+    private Integer stock;
+    private Long totalInventario;
+}
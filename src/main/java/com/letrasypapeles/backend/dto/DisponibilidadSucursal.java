@@ -0,0 +1,16 @@
+package com.letrasypapeles.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DisponibilidadSucursal {
+
+    private Long sucursalId;
+    private Integer cantidad;
+}
@@ -0,0 +1,20 @@
+package com.letrasypapeles.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngresoProducto {
+
+    private Long productoId;
+    private String nombre;
+    private Long unidades;
+    private BigDecimal ingresos;
+}
@@ -16,6 +16,8 @@ public class PedidoRequest {
     
     private Long clienteId;
     private List<Long> productosIds;
+    private List<LineaPedidoRequest> lineas;
     private String estado;
     private LocalDateTime fecha;
+    private String region;
 }
@@ -0,0 +1,30 @@
+package com.letrasypapeles.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProgresoConciliacion {
+
+    private String estado;
+    private boolean corregir;
+    private Long desde;
+    private Long hasta;
+    private LocalDateTime inicio;
+    private LocalDateTime fin;
+    private int tramos;
+    private int tramosProcesados;
+    private long productosRevisados;
+    private long diferencias;
+    private long corregidos;
+    private List<DiferenciaStock> muestras;
+    private String error;
+}
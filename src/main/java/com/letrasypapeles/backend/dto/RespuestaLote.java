@@ -0,0 +1,21 @@
+package com.letrasypapeles.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RespuestaLote {
+
+    private String id;
+    private int estado;
+    private Map<String, String> encabezados;
+    /** Cuerpo JSON ya interpretado, o el texto de la respuesta si no es JSON */
+    private Object cuerpo;
+}
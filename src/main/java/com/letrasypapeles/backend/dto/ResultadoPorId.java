@@ -0,0 +1,18 @@
+package com.letrasypapeles.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResultadoPorId<T> {
+
+    private Long id;
+    private boolean encontrado;
+    /** El registro, o null si no existe */
+    private T contenido;
+}
@@ -0,0 +1,64 @@
+package com.letrasypapeles.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Vista compacta de un cliente para su pantalla de resumen. Una sección que no se pudo obtener
+ * a tiempo queda en null y su nombre aparece en {@code incompletos}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenCliente {
+
+    private Long clienteId;
+    private Long puntosFidelidad;
+    private List<PedidoBreve> pedidos;
+    private List<ReservaBreve> reservas;
+    private List<NotificacionBreve> notificaciones;
+    private List<String> incompletos;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PedidoBreve {
+
+        private Long id;
+        private LocalDateTime fecha;
+        private String estado;
+        private BigDecimal total;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ReservaBreve {
+
+        private Long id;
+        private Long productoId;
+        private Integer cantidad;
+        private String estado;
+        private LocalDateTime fechaReserva;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class NotificacionBreve {
+
+        private Long id;
+        private String mensaje;
+        private LocalDateTime fecha;
+    }
+}
@@ -0,0 +1,19 @@
+package com.letrasypapeles.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenVentas {
+
+    private Long pedidos;
+    private BigDecimal ingresos;
+    private BigDecimal ticketPromedio;
+}
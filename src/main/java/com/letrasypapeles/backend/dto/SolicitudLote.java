@@ -0,0 +1,23 @@
+package com.letrasypapeles.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolicitudLote {
+
+    /** Identificador elegido por el cliente para reconocer la respuesta */
+    private String id;
+    /** Solo se admite GET; null equivale a GET */
+    private String metodo;
+    /** Ruta con su consulta, por ejemplo /api/productos/1?refs=id */
+    private String ruta;
+    private Map<String, String> encabezados;
+}
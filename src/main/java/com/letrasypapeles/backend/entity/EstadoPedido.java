@@ -0,0 +1,41 @@
+package com.letrasypapeles.backend.entity;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Estados del procesamiento de un pedido:
+ * PENDIENTE → CONFIRMADO (stock descontado) → COMPLETADO (puntos y notificación registrados).
+ * Un pedido PENDIENTE sin stock suficiente pasa a RECHAZADO; PENDIENTE y CONFIRMADO pueden cancelarse.
+ */
+public enum EstadoPedido {
+    PENDIENTE,
+    CONFIRMADO,
+    COMPLETADO,
+    RECHAZADO,
+    CANCELADO;
+
+    public Set<EstadoPedido> siguientes() {
+        switch (this) {
+            case PENDIENTE:
+                return EnumSet.of(CONFIRMADO, RECHAZADO, CANCELADO);
+            case CONFIRMADO:
+                return EnumSet.of(COMPLETADO, CANCELADO);
+            default:
+                return EnumSet.noneOf(EstadoPedido.class);
+        }
+    }
+
+    public boolean puedeCambiarA(EstadoPedido destino) {
+        return siguientes().contains(destino);
+    }
+
+    /**
+     * @throws IllegalStateException si la transición no está permitida
+     */
+    public void validarTransicion(EstadoPedido destino) {
+        if (!puedeCambiarA(destino)) {
+            throw new IllegalStateException("Transición de estado inválida: " + this + " -> " + destino);
+        }
+    }
+}
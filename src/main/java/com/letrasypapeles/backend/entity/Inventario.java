@@ -1,5 +1,6 @@
 package com.letrasypapeles.backend.entity;
 
+import com.letrasypapeles.backend.event.EntidadCambiadaListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -7,7 +8,10 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "inventarios")
+@Table(name = "inventarios",
+       uniqueConstraints = @UniqueConstraint(name = "uk_inventarios_producto_sucursal",
+                                             columnNames = {"producto_id", "sucursal_id"}))
+@EntityListeners(EntidadCambiadaListener.class)
 @Data
 @Builder
 @NoArgsConstructor
@@ -18,8 +22,12 @@ public class Inventario {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    /** Unidades físicas en la sucursal, incluidas las apartadas */
     private Integer cantidad;
 
+    /** Unidades apartadas por reservas PENDIENTES; disponible = cantidad - reservado (null equivale a 0) */
+    private Integer reservado;
+
     private Integer umbral;
 
     @ManyToOne
@@ -0,0 +1,41 @@
+package com.letrasypapeles.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Movimiento del libro de puntos de fidelidad. Los movimientos solo se agregan; el saldo del
+ * cliente es {@code Cliente.puntosFidelidad} más la suma de los movimientos aún no plegados.
+ */
+@Entity
+@Table(name = "movimientos_puntos",
+       indexes = @Index(name = "idx_movimientos_puntos_cliente", columnList = "cliente_id, plegado"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovimientoPuntos {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cliente_id", nullable = false)
+    private Long clienteId;
+
+    @Column(nullable = false)
+    private Integer puntos;
+
+    private String motivo;
+
+    private LocalDateTime fecha;
+
+    /** true cuando los puntos ya se sumaron a {@code Cliente.puntosFidelidad} */
+    @Column(nullable = false)
+    private boolean plegado;
+}
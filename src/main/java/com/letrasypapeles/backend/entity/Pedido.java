@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -36,4 +37,12 @@ public class Pedido {
             inverseJoinColumns = @JoinColumn(name = "producto_id")
     )
     private List<Producto> listaProductos;
+
+    @OneToMany(mappedBy = "pedido", cascade = CascadeType.ALL, orphanRemoval = true)
+    private List<PedidoLinea> lineas;
+
+    private BigDecimal total;
+
+    /** Región preferida para surtir el pedido (opcional) */
+    private String region;
 }
@@ -0,0 +1,46 @@
+package com.letrasypapeles.backend.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+/**
+ * Línea de un pedido. Guarda el precio unitario vigente al crear el pedido, de modo que
+ * los totales históricos no cambian cuando cambia el precio del producto.
+ */
+@Entity
+@Table(name = "pedido_lineas")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PedidoLinea {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "pedido_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @JsonIgnore
+    private Pedido pedido;
+
+    @ManyToOne
+    @JoinColumn(name = "producto_id")
+    private Producto producto;
+
+    private Integer cantidad;
+
+    private BigDecimal precioUnitario;
+
+    private BigDecimal totalLinea;
+}
@@ -1,5 +1,6 @@
 package com.letrasypapeles.backend.entity;
 
+import com.letrasypapeles.backend.event.EntidadCambiadaListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -10,6 +11,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "reservas")
+@EntityListeners(EntidadCambiadaListener.class)
 @Data
 @Builder
 @NoArgsConstructor
@@ -33,4 +35,15 @@ public class Reserva {
     @ManyToOne
     @JoinColumn(name = "producto_id")
     private Producto producto;
+
+    /** Sucursal de cuyo inventario se apartó la cantidad reservada; null si el producto no tiene inventarios */
+    @ManyToOne
+    @JoinColumn(name = "sucursal_id")
+    private Sucursal sucursal;
+
+    /**
+     * Unidades apartadas mientras la reserva está PENDIENTE; al confirmarla o cancelarla pasa a 0.
+     * Es null en reservas creadas antes de llevar la cuenta de lo apartado.
+     */
+    private Integer cantidadApartada;
 }
@@ -0,0 +1,45 @@
+package com.letrasypapeles.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Respuesta guardada para una clave de idempotencia. Una solicitud repetida con la misma
+ * clave recibe esta respuesta en vez de volver a ejecutarse.
+ */
+@Entity
+@Table(name = "respuestas_idempotentes",
+       indexes = @Index(name = "idx_respuestas_idempotentes_expira", columnList = "expira"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RespuestaIdempotente {
+
+    /** Usuario, método, ruta y valor del encabezado Idempotency-Key */
+    @Id
+    @Column(length = 512)
+    private String clave;
+
+    /** SHA-256 del cuerpo de la solicitud original */
+    @Column(length = 64, nullable = false)
+    private String huella;
+
+    private int estado;
+
+    private String tipoContenido;
+
+    @Lob
+    @ToString.Exclude
+    private byte[] cuerpo;
+
+    private LocalDateTime creada;
+
+    private LocalDateTime expira;
+}
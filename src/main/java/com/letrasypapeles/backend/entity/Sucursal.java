@@ -1,5 +1,6 @@
 package com.letrasypapeles.backend.entity;
 
+import com.letrasypapeles.backend.event.EntidadCambiadaListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -8,6 +9,7 @@ import lombok.NoArgsConstructor;
 
 @Entity
 @Table(name = "sucursales")
+@EntityListeners(EntidadCambiadaListener.class)
 @Data
 @Builder
 @NoArgsConstructor
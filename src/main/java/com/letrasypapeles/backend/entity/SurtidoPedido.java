@@ -0,0 +1,37 @@
+package com.letrasypapeles.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cantidad de un producto que una sucursal aporta a un pedido. Un producto puede surtirse desde
+ * varias sucursales cuando ninguna tiene stock suficiente por sí sola.
+ */
+@Entity
+@Table(name = "surtidos_pedido",
+       indexes = @Index(name = "idx_surtidos_pedido_pedido", columnList = "pedido_id"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SurtidoPedido {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "pedido_id", nullable = false)
+    private Long pedidoId;
+
+    @Column(name = "producto_id", nullable = false)
+    private Long productoId;
+
+    @Column(name = "sucursal_id", nullable = false)
+    private Long sucursalId;
+
+    @Column(nullable = false)
+    private Integer cantidad;
+}
@@ -0,0 +1,38 @@
+package com.letrasypapeles.backend.event;
+
+import lombok.Getter;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.ResolvableTypeProvider;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Evento publicado cada vez que JPA inserta, actualiza o elimina una entidad observada.
+ * Es genérico para que los listeners puedan suscribirse a un tipo concreto,
+ * por ejemplo {@code EntidadCambiadaEvent<Inventario>}.
+ * <p>
+ * Cada evento recibe una secuencia creciente al crearse, justo después de ejecutarse la sentencia
+ * SQL (no hay lotes JDBC). Desde ese momento la transacción retiene el bloqueo de la fila hasta
+ * confirmar, así que para una misma fila la secuencia sigue el orden de confirmación aunque los
+ * listeners posteriores a la confirmación se ejecuten en otro orden.
+ */
+@Getter
+public class EntidadCambiadaEvent<T> implements ResolvableTypeProvider {
+
+    private static final AtomicLong SECUENCIA = new AtomicLong();
+
+    private final T entidad;
+    private final TipoCambio tipo;
+    private final long secuencia;
+
+    public EntidadCambiadaEvent(T entidad, TipoCambio tipo) {
+        this.entidad = entidad;
+        this.tipo = tipo;
+        this.secuencia = SECUENCIA.incrementAndGet();
+    }
+
+    @Override
+    public ResolvableType getResolvableType() {
+        return ResolvableType.forClassWithGenerics(getClass(), ResolvableType.forInstance(entidad));
+    }
+}
@@ -0,0 +1,35 @@
+package com.letrasypapeles.backend.event;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * Listener JPA que traduce las escrituras de una entidad en {@link EntidadCambiadaEvent}.
+ * Se registra con {@code @EntityListeners} y Hibernate lo instancia a través de Spring,
+ * por lo que recibe el publicador de eventos por constructor.
+ */
+public class EntidadCambiadaListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    public EntidadCambiadaListener(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    @PostPersist
+    public void creada(Object entidad) {
+        publisher.publishEvent(new EntidadCambiadaEvent<>(entidad, TipoCambio.CREADA));
+    }
+
+    @PostUpdate
+    public void actualizada(Object entidad) {
+        publisher.publishEvent(new EntidadCambiadaEvent<>(entidad, TipoCambio.ACTUALIZADA));
+    }
+
+    @PostRemove
+    public void eliminada(Object entidad) {
+        publisher.publishEvent(new EntidadCambiadaEvent<>(entidad, TipoCambio.ELIMINADA));
+    }
+}
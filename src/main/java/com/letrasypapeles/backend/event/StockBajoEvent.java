@@ -0,0 +1,17 @@
+package com.letrasypapeles.backend.event;
+
+import com.letrasypapeles.backend.dto.AlertaStockBajo;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Se publica solo cuando un inventario cruza su umbral: al entrar en stock bajo
+ * ({@code bajoUmbral = true}) o al salir de él ({@code bajoUmbral = false}).
+ */
+@Getter
+@AllArgsConstructor
+public class StockBajoEvent {
+
+    private final AlertaStockBajo alerta;
+    private final boolean bajoUmbral;
+}
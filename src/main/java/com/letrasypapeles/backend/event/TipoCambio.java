@@ -0,0 +1,7 @@
+package com.letrasypapeles.backend.event;
+
+public enum TipoCambio {
+    CREADA,
+    ACTUALIZADA,
+    ELIMINADA
+}
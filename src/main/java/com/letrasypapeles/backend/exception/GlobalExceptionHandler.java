@@ -10,6 +10,7 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -48,6 +49,16 @@ public class GlobalExceptionHandler {
                 .body(new MessageResponse(errorMessage.toString()));
     }
 
+    /**
+     * Conserva el estado de las excepciones que ya lo traen, como los parámetros faltantes en
+     * las operaciones de actuator
+     */
+    @ExceptionHandler(value = {ResponseStatusException.class})
+    public ResponseEntity<?> handleResponseStatusException(ResponseStatusException ex, WebRequest request) {
+        return ResponseEntity.status(ex.getStatusCode())
+                .body(new MessageResponse(ex.getReason() != null ? ex.getReason() : ex.getMessage()));
+    }
+
     @ExceptionHandler(value = {Exception.class})
     public ResponseEntity<?> handleGlobalException(Exception ex, WebRequest request) {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -20,9 +20,17 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
 
     @Modifying
     @Transactional
-    @Query("UPDATE Cliente c SET c.puntosFidelidad = c.puntosFidelidad + :puntos WHERE c.id = :clienteId")
+    @Query("UPDATE Cliente c SET c.puntosFidelidad = COALESCE(c.puntosFidelidad, 0) + :puntos WHERE c.id = :clienteId")
     void actualizarPuntosFidelidad(@Param("clienteId") Long clienteId, @Param("puntos") Integer puntos);
 
     @Query("SELECT c.puntosFidelidad FROM Cliente c WHERE c.id = :clienteId")
     Integer obtenerPuntosFidelidad(@Param("clienteId") Long clienteId);
+
+    /**
+     * Saldo de puntos: el saldo plegado más los movimientos del libro aún no plegados.
+     * Se lee en una sola sentencia para no contar dos veces un plegado concurrente.
+     */
+    @Query("SELECT COALESCE(c.puntosFidelidad, 0) + COALESCE((SELECT SUM(m.puntos) FROM MovimientoPuntos m " +
+           "WHERE m.clienteId = c.id AND m.plegado = false), 0) FROM Cliente c WHERE c.id = :clienteId")
+    Long obtenerSaldoPuntos(@Param("clienteId") Long clienteId);
 }
@@ -1,9 +1,16 @@
 package com.letrasypapeles.backend.repository;
 
 import com.letrasypapeles.backend.entity.Inventario;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,5 +23,67 @@ public interface InventarioRepository extends JpaRepository<Inventario, Long> {
 
     List<Inventario> findByCantidadLessThan(Integer umbral);
 
+    /**
+     * Inventarios cuya cantidad disponible (descontando lo apartado) está bajo el umbral
+     */
+    @Query("SELECT i FROM Inventario i WHERE i.cantidad - COALESCE(i.reservado, 0) < i.umbral")
+    List<Inventario> findConStockBajo();
+
     Optional<Inventario> findByProductoIdAndSucursalId(Long productoId, Long sucursalId);
+
+    /**
+     * Proyección liviana para cargar el índice de disponibilidad sin materializar entidades.
+     * Cada fila es [inventarioId, productoId, sucursalId, disponible], con disponible = cantidad - reservado.
+     */
+    @Query("SELECT i.id, i.producto.id, i.sucursal.id, i.cantidad - COALESCE(i.reservado, 0) FROM Inventario i")
+    List<Object[]> findExistencias();
+
+    /**
+     * Igual que {@link #findExistencias()}, limitada a los productos indicados
+     */
+    @Query("SELECT i.id, i.producto.id, i.sucursal.id, i.cantidad - COALESCE(i.reservado, 0) FROM Inventario i " +
+           "WHERE i.producto.id IN :productoIds")
+    List<Object[]> findExistenciasPorProductos(@Param("productoIds") Collection<Long> productoIds);
+
+    /**
+     * Cantidad disponible para prometer (cantidad - reservado) de un producto en una sucursal,
+     * resuelta con el índice (producto_id, sucursal_id)
+     */
+    @Query("SELECT i.cantidad - COALESCE(i.reservado, 0) FROM Inventario i " +
+           "WHERE i.producto.id = :productoId AND i.sucursal.id = :sucursalId")
+    Optional<Integer> findDisponible(@Param("productoId") Long productoId, @Param("sucursalId") Long sucursalId);
+
+    /**
+     * Bloquea (SELECT ... FOR UPDATE) los inventarios de los productos y sucursales indicados.
+     * Las filas se bloquean siempre en orden de ID para que dos transferencias concurrentes
+     * no puedan esperarse mutuamente (deadlock).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "3000"))
+    @Query("SELECT i FROM Inventario i WHERE i.producto.id IN :productoIds AND i.sucursal.id IN :sucursalIds ORDER BY i.id")
+    List<Inventario> bloquearPorProductosYSucursales(@Param("productoIds") Collection<Long> productoIds,
+                                                     @Param("sucursalIds") Collection<Long> sucursalIds);
+
+    /**
+     * Bloquea en orden de ID todos los inventarios de los productos indicados.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "3000"))
+    @Query("SELECT i FROM Inventario i WHERE i.producto.id IN :productoIds ORDER BY i.id")
+    List<Inventario> bloquearPorProductos(@Param("productoIds") Collection<Long> productoIds);
+
+    /**
+     * Bloquea en orden de ID los inventarios indicados. Las entidades que ya estaban en el
+     * contexto de persistencia no se refrescan: la cantidad vigente se lee con {@link #findCantidadesPorIds}.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "3000"))
+    @Query("SELECT i FROM Inventario i WHERE i.id IN :ids ORDER BY i.id")
+    List<Inventario> bloquearPorIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Cantidades actuales leídas directamente de la base de datos; cada fila es [inventarioId, cantidad, reservado]
+     */
+    @Query("SELECT i.id, i.cantidad, i.reservado FROM Inventario i WHERE i.id IN :ids")
+    List<Object[]> findCantidadesPorIds(@Param("ids") Collection<Long> ids);
 }
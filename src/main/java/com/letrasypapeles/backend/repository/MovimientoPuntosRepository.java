@@ -0,0 +1,35 @@
+package com.letrasypapeles.backend.repository;
+
+import com.letrasypapeles.backend.entity.MovimientoPuntos;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MovimientoPuntosRepository extends JpaRepository<MovimientoPuntos, Long> {
+
+    List<MovimientoPuntos> findByClienteIdOrderByIdDesc(Long clienteId);
+
+    /**
+     * Bloquea en orden de ID los movimientos aún no plegados. Los movimientos de transacciones
+     * sin confirmar no son visibles y quedan para un plegado posterior.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "3000"))
+    @Query("SELECT m FROM MovimientoPuntos m WHERE m.plegado = false ORDER BY m.id")
+    List<MovimientoPuntos> bloquearNoPlegados(Pageable pagina);
+
+    @Modifying
+    @Query("UPDATE MovimientoPuntos m SET m.plegado = true WHERE m.id IN :ids")
+    int marcarPlegados(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,46 @@
+package com.letrasypapeles.backend.repository;
+
+import com.letrasypapeles.backend.dto.IngresoProducto;
+import com.letrasypapeles.backend.entity.PedidoLinea;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PedidoLineaRepository extends JpaRepository<PedidoLinea, Long> {
+
+    List<PedidoLinea> findByPedidoId(Long pedidoId);
+
+    /**
+     * Cantidades pedidas por producto; cada fila es [pedidoId, productoId, cantidad]
+     */
+    @Query("SELECT l.pedido.id, l.producto.id, l.cantidad FROM PedidoLinea l " +
+           "WHERE l.pedido.id IN :pedidoIds ORDER BY l.pedido.id, l.id")
+    List<Object[]> findCantidadesPorPedidos(@Param("pedidoIds") Collection<Long> pedidoIds);
+
+    /**
+     * Precio unitario guardado en cada línea del pedido; cada fila es [productoId, precioUnitario]
+     */
+    @Query("SELECT l.producto.id, l.precioUnitario FROM PedidoLinea l WHERE l.pedido.id = :pedidoId ORDER BY l.id")
+    List<Object[]> findPreciosPorPedido(@Param("pedidoId") Long pedidoId);
+
+    /**
+     * Unidades e ingresos por producto calculados en SQL sobre los precios guardados en cada línea
+     * de los pedidos en los estados indicados. Los límites de fecha son opcionales.
+     */
+    @Query("SELECT new com.letrasypapeles.backend.dto.IngresoProducto(" +
+           "l.producto.id, l.producto.nombre, SUM(l.cantidad), SUM(l.totalLinea)) " +
+           "FROM PedidoLinea l " +
+           "WHERE l.pedido.estado IN :estados " +
+           "AND (:desde IS NULL OR l.pedido.fecha >= :desde) AND (:hasta IS NULL OR l.pedido.fecha < :hasta) " +
+           "GROUP BY l.producto.id, l.producto.nombre " +
+           "ORDER BY SUM(l.totalLinea) DESC")
+    List<IngresoProducto> ingresosPorProducto(@Param("desde") LocalDateTime desde,
+                                              @Param("hasta") LocalDateTime hasta,
+                                              @Param("estados") Collection<String> estados);
+}
@@ -1,9 +1,19 @@
 package com.letrasypapeles.backend.repository;
 
 import com.letrasypapeles.backend.entity.Pedido;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,4 +22,36 @@ public interface PedidoRepository extends JpaRepository<Pedido, Long> {
     List<Pedido> findByClienteId(Long clienteId);
 
     List<Pedido> findByEstado(String estado);
+
+    /**
+     * Cantidad de pedidos en los estados indicados y suma de sus totales guardados; cada fila es [pedidos, ingresos].
+     * Los límites de fecha son opcionales.
+     */
+    @Query("SELECT COUNT(p), COALESCE(SUM(p.total), 0) FROM Pedido p " +
+           "WHERE p.estado IN :estados " +
+           "AND (:desde IS NULL OR p.fecha >= :desde) AND (:hasta IS NULL OR p.fecha < :hasta)")
+    List<Object[]> resumirVentas(@Param("desde") LocalDateTime desde, @Param("hasta") LocalDateTime hasta,
+                                 @Param("estados") Collection<String> estados);
+
+    /**
+     * Bloquea en orden de ID los pedidos indicados que siguen en el estado dado
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "3000"))
+    @Query("SELECT p FROM Pedido p WHERE p.id IN :ids AND p.estado = :estado ORDER BY p.id")
+    List<Pedido> bloquearPorEstado(@Param("ids") Collection<Long> ids, @Param("estado") String estado);
+
+    /**
+     * Estado leído directamente de la base de datos: tras bloquear, descarta los pedidos que otra
+     * transacción cambió mientras se esperaba el bloqueo
+     */
+    @Query("SELECT p.id FROM Pedido p WHERE p.id IN :ids AND p.estado = :estado ORDER BY p.id")
+    List<Long> findIdsPorIdsYEstado(@Param("ids") Collection<Long> ids, @Param("estado") String estado);
+
+    @Modifying
+    @Query("UPDATE Pedido p SET p.estado = :hacia WHERE p.id IN :ids AND p.estado = :desde")
+    int cambiarEstado(@Param("ids") Collection<Long> ids, @Param("desde") String desde, @Param("hacia") String hacia);
+
+    @Query("SELECT p.id FROM Pedido p WHERE p.estado IN :estados ORDER BY p.id")
+    List<Long> findIdsPorEstados(@Param("estados") Collection<String> estados, Pageable pagina);
 }
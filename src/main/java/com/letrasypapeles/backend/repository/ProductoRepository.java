@@ -1,10 +1,77 @@
 package com.letrasypapeles.backend.repository;
 
 import com.letrasypapeles.backend.entity.Producto;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface ProductoRepository extends JpaRepository<Producto, Long> {
-    // Métodos personalizados si es necesario
+
+    /**
+     * Suma (o resta, con cantidad negativa) stock en una sola sentencia atómica
+     */
+    @Modifying
+    @Query("UPDATE Producto p SET p.stock = COALESCE(p.stock, 0) + :cantidad WHERE p.id = :id")
+    int sumarStock(@Param("id") Long id, @Param("cantidad") Integer cantidad);
+
+    /**
+     * Descuenta stock solo si alcanza; devuelve 0 si otra transacción lo dejó sin stock suficiente
+     */
+    @Modifying
+    @Query("UPDATE Producto p SET p.stock = p.stock - :cantidad WHERE p.id = :id AND p.stock >= :cantidad")
+    int descontarStockSiAlcanza(@Param("id") Long id, @Param("cantidad") Integer cantidad);
+
+    /**
+     * Stock actual leído directamente de la base de datos; cada fila es [productoId, stock]
+     */
+    @Query("SELECT p.id, p.stock FROM Producto p WHERE p.id IN :ids")
+    List<Object[]> findStockPorIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Bloquea en orden de ID los productos indicados. Las entidades que ya estaban en el contexto
+     * de persistencia no se refrescan: el stock vigente se lee con {@link #findStockPorIds}.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "3000"))
+    @Query("SELECT p FROM Producto p WHERE p.id IN :ids ORDER BY p.id")
+    List<Producto> bloquearPorIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Menor y mayor ID de producto; una sola fila [min, max], con nulos si no hay productos
+     */
+    @Query("SELECT MIN(p.id), MAX(p.id) FROM Producto p")
+    List<Object[]> findRangoIds();
+
+    /**
+     * Stock de cada producto del rango junto a la suma de lo disponible en sus inventarios (cantidad
+     * menos lo apartado), calculada en la base de datos. Solo incluye productos con inventario. Cada
+     * fila es [productoId, stock, totalInventario].
+     * El resultado se recorre con un cursor de solo lectura y debe cerrarse dentro de la transacción.
+     */
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT p.id, p.stock, SUM(i.cantidad - COALESCE(i.reservado, 0)) FROM Producto p JOIN Inventario i ON i.producto.id = p.id " +
+           "WHERE p.id BETWEEN :desde AND :hasta GROUP BY p.id, p.stock ORDER BY p.id")
+    Stream<Object[]> streamTotalesInventario(@Param("desde") Long desde, @Param("hasta") Long hasta);
+
+    /**
+     * Iguala el stock de los productos indicados a la suma vigente de lo disponible en sus inventarios
+     */
+    @Modifying
+    @Query("UPDATE Producto p SET p.stock = COALESCE(" +
+           "(SELECT SUM(i.cantidad - COALESCE(i.reservado, 0)) FROM Inventario i WHERE i.producto.id = p.id), p.stock) WHERE p.id IN :ids")
+    int igualarStockConInventario(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,95 @@
+package com.letrasypapeles.backend.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Consultas que leen solo las columnas pedidas, con una proyección de tuplas de Criteria en lugar
+ * de materializar la entidad. Un campo como {@code categoria.nombre} se resuelve con un LEFT JOIN
+ * y se devuelve anidado; si la asociación no existe, el objeto anidado es null.
+ * Los campos deben venir ya validados contra la lista de permitidos.
+ */
+@Repository
+public class ProyeccionCamposRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public List<Map<String, Object>> proyectar(Class<?> entidad, List<String> campos) {
+        return consultar(entidad, campos, null);
+    }
+
+    public Optional<Map<String, Object>> proyectarPorId(Class<?> entidad, Long id, List<String> campos) {
+        return consultar(entidad, campos, id).stream().findFirst();
+    }
+
+    private List<Map<String, Object>> consultar(Class<?> entidad, List<String> campos, Long id) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<?> root = query.from(entidad);
+
+        Map<String, From<?, ?>> uniones = new HashMap<>();
+        List<Selection<?>> columnas = new ArrayList<>(campos.size());
+        for (int i = 0; i < campos.size(); i++) {
+            columnas.add(ruta(root, uniones, campos.get(i)).alias("c" + i));
+        }
+        query.multiselect(columnas);
+        if (id != null) {
+            query.where(cb.equal(root.get("id"), id));
+        }
+        query.orderBy(cb.asc(root.get("id")));
+
+        List<Map<String, Object>> filas = new ArrayList<>();
+        for (Tuple tupla : entityManager.createQuery(query).getResultList()) {
+            filas.add(fila(tupla, campos));
+        }
+        return filas;
+    }
+
+    private static Path<?> ruta(Root<?> root, Map<String, From<?, ?>> uniones, String campo) {
+        int punto = campo.indexOf('.');
+        if (punto < 0) {
+            return root.get(campo);
+        }
+        String asociacion = campo.substring(0, punto);
+        From<?, ?> union = uniones.computeIfAbsent(asociacion, a -> root.join(a, JoinType.LEFT));
+        return union.get(campo.substring(punto + 1));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> fila(Tuple tupla, List<String> campos) {
+        Map<String, Object> fila = new LinkedHashMap<>();
+        for (int i = 0; i < campos.size(); i++) {
+            String campo = campos.get(i);
+            Object valor = tupla.get(i);
+            int punto = campo.indexOf('.');
+            if (punto < 0) {
+                fila.put(campo, valor);
+            } else {
+                Map<String, Object> anidado = (Map<String, Object>) fila.computeIfAbsent(
+                        campo.substring(0, punto), a -> new LinkedHashMap<String, Object>());
+                anidado.put(campo.substring(punto + 1), valor);
+            }
+        }
+        // Una asociación ausente se devuelve como null y no como un objeto con todos sus campos en null
+        fila.replaceAll((campo, valor) -> valor instanceof Map<?, ?> anidado &&
+                anidado.values().stream().allMatch(v -> v == null) ? null : valor);
+        return fila;
+    }
+}
@@ -1,11 +1,18 @@
 package com.letrasypapeles.backend.repository;
 
 import com.letrasypapeles.backend.entity.Reserva;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,4 +27,38 @@ public interface ReservaRepository extends JpaRepository<Reserva, Long> {
 
     @Query("SELECT r FROM Reserva r LEFT JOIN FETCH r.cliente LEFT JOIN FETCH r.producto WHERE r.id = :id")
     Optional<Reserva> findByIdWithRelations(@Param("id") Long id);
+
+    /**
+     * Proyección liviana para reconstruir el expirador de reservas sin materializar entidades.
+     * Cada fila es [reservaId, fechaReserva].
+     */
+    @Query("SELECT r.id, r.fechaReserva FROM Reserva r WHERE r.estado = :estado")
+    List<Object[]> findFechasPorEstado(@Param("estado") String estado);
+
+    /**
+     * Bloquea en orden de ID las reservas indicadas que siguen PENDIENTES y cuya fecha es
+     * anterior o igual al límite; las que ya cambiaron de estado quedan fuera.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "3000"))
+    @Query("SELECT r FROM Reserva r WHERE r.id IN :ids AND r.estado = 'PENDIENTE' " +
+           "AND r.fechaReserva <= :limite ORDER BY r.id")
+    List<Reserva> bloquearPendientesVencidas(@Param("ids") Collection<Long> ids,
+                                              @Param("limite") LocalDateTime limite);
+
+    /**
+     * Bloquea en orden de ID las reservas indicadas, cualquiera sea su estado.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "3000"))
+    @Query("SELECT r FROM Reserva r WHERE r.id IN :ids ORDER BY r.id")
+    List<Reserva> bloquearPorIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Cambia el estado de reservas PENDIENTES ya bloqueadas; confirmarlas o cancelarlas resuelve
+     * lo que tenían apartado, por lo que su cantidad apartada queda en 0
+     */
+    @Modifying
+    @Query("UPDATE Reserva r SET r.estado = :estado, r.cantidadApartada = 0 WHERE r.id IN :ids")
+    int actualizarEstado(@Param("ids") Collection<Long> ids, @Param("estado") String estado);
 }
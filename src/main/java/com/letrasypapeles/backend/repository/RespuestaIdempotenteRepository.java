@@ -0,0 +1,20 @@
+package com.letrasypapeles.backend.repository;
+
+import com.letrasypapeles.backend.entity.RespuestaIdempotente;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface RespuestaIdempotenteRepository extends JpaRepository<RespuestaIdempotente, String> {
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RespuestaIdempotente r WHERE r.expira <= :ahora")
+    int eliminarExpiradas(@Param("ahora") LocalDateTime ahora);
+}
@@ -0,0 +1,13 @@
+package com.letrasypapeles.backend.repository;
+
+import com.letrasypapeles.backend.entity.SurtidoPedido;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SurtidoPedidoRepository extends JpaRepository<SurtidoPedido, Long> {
+
+    List<SurtidoPedido> findByPedidoIdOrderByProductoIdAscSucursalIdAsc(Long pedidoId);
+}
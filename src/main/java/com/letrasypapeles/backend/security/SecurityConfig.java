@@ -1,6 +1,8 @@
 package com.letrasypapeles.backend.security;
 
 import com.letrasypapeles.backend.service.UsuarioService;
+import com.letrasypapeles.backend.web.CacheRespuestasProductoFilter;
+import com.letrasypapeles.backend.web.IdempotenciaFilter;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -12,6 +14,7 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.http.MediaType;
@@ -25,11 +28,17 @@ public class SecurityConfig {
 
     private final UsuarioService usuarioService;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final IdempotenciaFilter idempotenciaFilter;
+    private final CacheRespuestasProductoFilter cacheRespuestasProductoFilter;
 
     public SecurityConfig(UsuarioService usuarioService,
-                          JwtAuthenticationFilter jwtAuthenticationFilter) {
+                          JwtAuthenticationFilter jwtAuthenticationFilter,
+                          IdempotenciaFilter idempotenciaFilter,
+                          CacheRespuestasProductoFilter cacheRespuestasProductoFilter) {
         this.usuarioService = usuarioService;
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.idempotenciaFilter = idempotenciaFilter;
+        this.cacheRespuestasProductoFilter = cacheRespuestasProductoFilter;
     }
 
     @Bean
@@ -72,6 +81,7 @@ public class SecurityConfig {
                 "/swagger-ui/**", 
                 "/v3/api-docs/**"
             ).permitAll()
+                    .requestMatchers("/actuator/conciliacion/**").hasRole("ADMIN")
                     .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session
@@ -82,6 +92,10 @@ public class SecurityConfig {
                 )
                 .authenticationProvider(authenticationProvider())
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // Después de autorizar: las claves de idempotencia se separan por usuario
+                .addFilterAfter(idempotenciaFilter, AuthorizationFilter.class)
+                // También después de autorizar: una respuesta guardada no se entrega sin autenticación
+                .addFilterAfter(cacheRespuestasProductoFilter, AuthorizationFilter.class)
                 .headers(headers -> headers.frameOptions(frameOptions -> frameOptions.disable()));
 
         return http.build();
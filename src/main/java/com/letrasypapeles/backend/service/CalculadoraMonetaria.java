@@ -0,0 +1,123 @@
+package com.letrasypapeles.backend.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Cálculos monetarios sobre montos representados como centavos en un {@code long}.
+ * Los totales de línea, descuentos, impuestos y puntos de fidelidad se calculan sin crear
+ * objetos ni usar punto flotante; la conversión a {@link BigDecimal} se hace solo al recibir
+ * o entregar montos (entidades y API). Los desbordes lanzan {@link ArithmeticException}.
+ * Los porcentajes se expresan en puntos básicos (1900 = 19%).
+ */
+public final class CalculadoraMonetaria {
+
+    public static final int ESCALA = 2;
+    public static final int PUNTOS_BASICOS = 10_000;
+
+    /** Regla de negocio: 1 punto de fidelidad por cada $10 de compra */
+    public static final long CENTAVOS_POR_PUNTO = 1_000;
+
+    private CalculadoraMonetaria() {
+    }
+
+    public static long aCentavos(BigDecimal monto) {
+        if (monto == null) {
+            return 0;
+        }
+        return monto.setScale(ESCALA, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static long aCentavos(Double monto) {
+        return monto != null ? aCentavos(BigDecimal.valueOf(monto)) : 0;
+    }
+
+    public static BigDecimal aBigDecimal(long centavos) {
+        return BigDecimal.valueOf(centavos, ESCALA);
+    }
+
+    public static long totalLinea(long precioUnitario, int cantidad) {
+        return Math.multiplyExact(precioUnitario, cantidad);
+    }
+
+    /**
+     * Porcentaje de un monto redondeado al centavo (mitades se alejan de cero)
+     * @param monto Monto en centavos
+     * @param puntosBasicos Porcentaje en puntos básicos
+     */
+    public static long porcentaje(long monto, int puntosBasicos) {
+        long producto = Math.multiplyExact(monto, puntosBasicos);
+        long mitad = producto >= 0 ? PUNTOS_BASICOS / 2 : -(PUNTOS_BASICOS / 2);
+        return (producto + mitad) / PUNTOS_BASICOS;
+    }
+
+    public static long aplicarDescuento(long monto, int puntosBasicos) {
+        return monto - porcentaje(monto, puntosBasicos);
+    }
+
+    public static long impuesto(long monto, int puntosBasicos) {
+        return porcentaje(monto, puntosBasicos);
+    }
+
+    public static int puntosFidelidad(long centavos) {
+        return centavos > 0 ? Math.toIntExact(centavos / CENTAVOS_POR_PUNTO) : 0;
+    }
+
+    /**
+     * Totaliza un pedido: suma las líneas, aplica el descuento sobre el subtotal y el impuesto
+     * sobre el monto descontado
+     * @param precios Precios unitarios en centavos
+     * @param cantidades Cantidades de cada línea
+     * @param lineas Cantidad de líneas a considerar
+     * @param descuento Descuento en puntos básicos
+     * @param tasaImpuesto Impuesto en puntos básicos
+     */
+    public static Totales totalizar(long[] precios, int[] cantidades, int lineas, int descuento, int tasaImpuesto) {
+        long subtotal = 0;
+        for (int i = 0; i < lineas; i++) {
+            subtotal = Math.addExact(subtotal, totalLinea(precios[i], cantidades[i]));
+        }
+        long montoDescuento = porcentaje(subtotal, descuento);
+        long neto = subtotal - montoDescuento;
+        long montoImpuesto = impuesto(neto, tasaImpuesto);
+        return new Totales(subtotal, montoDescuento, montoImpuesto, Math.addExact(neto, montoImpuesto));
+    }
+
+    /**
+     * Totales de un pedido en centavos
+     */
+    public static final class Totales {
+
+        private final long subtotal;
+        private final long descuento;
+        private final long impuesto;
+        private final long total;
+
+        Totales(long subtotal, long descuento, long impuesto, long total) {
+            this.subtotal = subtotal;
+            this.descuento = descuento;
+            this.impuesto = impuesto;
+            this.total = total;
+        }
+
+        public long getSubtotal() {
+            return subtotal;
+        }
+
+        public long getDescuento() {
+            return descuento;
+        }
+
+        public long getImpuesto() {
+            return impuesto;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public int getPuntosFidelidad() {
+            return puntosFidelidad(total);
+        }
+    }
+}
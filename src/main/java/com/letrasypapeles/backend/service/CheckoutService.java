@@ -0,0 +1,196 @@
+package com.letrasypapeles.backend.service;
+
+import com.letrasypapeles.backend.dto.AsignacionSurtido;
+import com.letrasypapeles.backend.dto.CheckoutRequest;
+import com.letrasypapeles.backend.dto.LineaPedidoRequest;
+import com.letrasypapeles.backend.entity.Cliente;
+import com.letrasypapeles.backend.entity.EstadoPedido;
+import com.letrasypapeles.backend.entity.Pedido;
+import com.letrasypapeles.backend.entity.PedidoLinea;
+import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.entity.Reserva;
+import com.letrasypapeles.backend.entity.SurtidoPedido;
+import com.letrasypapeles.backend.repository.ClienteRepository;
+import com.letrasypapeles.backend.repository.ProductoRepository;
+import com.letrasypapeles.backend.repository.ReservaRepository;
+import com.letrasypapeles.backend.repository.SurtidoPedidoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Checkout en una sola llamada: confirma las reservas del cliente, descuenta el stock de las
+ * líneas sin reserva, las surte desde las sucursales con {@link RuteadorSurtido} y crea el pedido
+ * CONFIRMADO en una transacción, con las sucursales de cada línea registradas como
+ * {@link SurtidoPedido}. Los puntos de fidelidad y
+ * la notificación no forman parte de la respuesta: el pedido se encola al confirmar la
+ * transacción y {@link ProcesadorPedidos} lo completa en segundo plano.
+ */
+@Service
+public class CheckoutService {
+
+    static final int MAX_ELEMENTOS = 1000;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private ProcesadorPedidos procesadorPedidos;
+
+    @Autowired
+    private RuteadorSurtido ruteadorSurtido;
+
+    @Autowired
+    private SurtidoPedidoRepository surtidoPedidoRepository;
+
+    /**
+     * @param request Cliente, reservas PENDIENTES a confirmar y líneas adicionales sin reserva
+     * @return Pedido creado en estado CONFIRMADO
+     * @throws RuntimeException si algún elemento no es válido; en ese caso no se aplica ningún cambio
+     */
+    @Transactional
+    public Pedido checkout(CheckoutRequest request) {
+        if (request.getClienteId() == null) {
+            throw new RuntimeException("Debe indicar el cliente");
+        }
+        Set<Long> reservasIds = request.getReservasIds() != null
+                ? new LinkedHashSet<>(request.getReservasIds()) : new LinkedHashSet<>();
+        reservasIds.remove(null);
+        List<LineaPedidoRequest> lineasAdicionales = request.getLineas() != null ? request.getLineas() : List.of();
+        if (reservasIds.isEmpty() && lineasAdicionales.isEmpty()) {
+            throw new RuntimeException("Debe indicar al menos una reserva o una línea");
+        }
+        if (reservasIds.size() + lineasAdicionales.size() > MAX_ELEMENTOS) {
+            throw new RuntimeException("El checkout no puede superar " + MAX_ELEMENTOS + " reservas y líneas");
+        }
+
+        Cliente cliente = clienteRepository.findById(request.getClienteId())
+                .orElseThrow(() -> new RuntimeException("Cliente no encontrado con ID: " + request.getClienteId()));
+
+        List<PedidoLinea> lineas = new ArrayList<>();
+        List<SurtidoPedido> surtidos = new ArrayList<>();
+        lineas.addAll(confirmarReservas(reservasIds, cliente.getId(), surtidos));
+        lineas.addAll(descontarLineas(lineasAdicionales, surtidos));
+
+        Pedido pedido = pedidoService.guardar(Pedido.builder()
+                .cliente(cliente)
+                .lineas(lineas)
+                .estado(EstadoPedido.CONFIRMADO.name())
+                .build());
+        if (!surtidos.isEmpty()) {
+            surtidos.forEach(surtido -> surtido.setPedidoId(pedido.getId()));
+            surtidoPedidoRepository.saveAll(surtidos);
+        }
+        procesadorPedidos.encolar(pedido.getId());
+        return pedido;
+    }
+
+    /**
+     * Bloquea las reservas en orden de ID y las marca CONFIRMADAS. Su stock ya se descontó del
+     * producto al crearlas; lo apartado en sus sucursales pasa a descontarse de la cantidad física
+     * y la sucursal de cada reserva se agrega a {@code surtidos}.
+     */
+    private List<PedidoLinea> confirmarReservas(Set<Long> ids, Long clienteId, List<SurtidoPedido> surtidos) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        List<Reserva> reservas = reservaRepository.bloquearPorIds(ids);
+        if (reservas.size() != ids.size()) {
+            Set<Long> faltantes = new LinkedHashSet<>(ids);
+            reservas.forEach(reserva -> faltantes.remove(reserva.getId()));
+            throw new RuntimeException("Reserva no encontrada con ID: " + faltantes.iterator().next());
+        }
+
+        List<PedidoLinea> lineas = new ArrayList<>(reservas.size());
+        for (Reserva reserva : reservas) {
+            if (reserva.getCliente() == null || !clienteId.equals(reserva.getCliente().getId())) {
+                throw new RuntimeException("La reserva " + reserva.getId() + " no pertenece al cliente");
+            }
+            if (!"PENDIENTE".equals(reserva.getEstado())) {
+                throw new RuntimeException("Solo se pueden confirmar reservas en estado PENDIENTE");
+            }
+            if (reserva.getProducto() == null) {
+                throw new RuntimeException("La reserva " + reserva.getId() + " no tiene producto");
+            }
+            lineas.add(PedidoLinea.builder()
+                    .producto(reserva.getProducto())
+                    .cantidad(reserva.getCantidad() != null ? reserva.getCantidad() : 1)
+                    .build());
+            Integer surtida = reserva.getCantidadApartada() != null ? reserva.getCantidadApartada() : reserva.getCantidad();
+            if (reserva.getSucursal() != null && surtida != null && surtida > 0) {
+                surtidos.add(SurtidoPedido.builder()
+                        .productoId(reserva.getProducto().getId())
+                        .sucursalId(reserva.getSucursal().getId())
+                        .cantidad(surtida)
+                        .build());
+            }
+        }
+        reservaService.convertirApartados(reservas);
+        reservaRepository.actualizarEstado(ids, "CONFIRMADA");
+        return lineas;
+    }
+
+    /**
+     * Descuenta el stock de las líneas sin reserva con una actualización condicional por producto,
+     * en orden de ID, y las surte desde las sucursales, agregando las asignaciones a {@code surtidos}
+     */
+    private List<PedidoLinea> descontarLineas(List<LineaPedidoRequest> lineasAdicionales, List<SurtidoPedido> surtidos) {
+        if (lineasAdicionales.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Integer> cantidadPorProducto = new TreeMap<>();
+        List<PedidoLinea> lineas = new ArrayList<>(lineasAdicionales.size());
+        for (LineaPedidoRequest linea : lineasAdicionales) {
+            if (linea.getProductoId() == null) {
+                throw new RuntimeException("Cada línea debe indicar un producto");
+            }
+            int cantidad = linea.getCantidad() != null ? linea.getCantidad() : 1;
+            if (cantidad < 1) {
+                throw new RuntimeException("La cantidad de cada línea debe ser mayor a 0");
+            }
+            cantidadPorProducto.merge(linea.getProductoId(), cantidad, Integer::sum);
+            lineas.add(PedidoLinea.builder()
+                    .producto(Producto.builder().id(linea.getProductoId()).build())
+                    .cantidad(cantidad)
+                    .build());
+        }
+
+        cantidadPorProducto.forEach((productoId, cantidad) -> {
+            if (productoRepository.descontarStockSiAlcanza(productoId, cantidad) == 0) {
+                throw new RuntimeException(productoRepository.existsById(productoId)
+                        ? "Stock insuficiente para el producto con ID: " + productoId
+                        : "Producto no encontrado con ID: " + productoId);
+            }
+        });
+
+        List<AsignacionSurtido> plan = ruteadorSurtido.surtir(cantidadPorProducto, null, true)
+                .orElseThrow(() -> new RuntimeException("Las sucursales no tienen stock suficiente para las líneas del pedido"));
+        plan.forEach(asignacion -> surtidos.add(SurtidoPedido.builder()
+                .productoId(asignacion.getProductoId())
+                .sucursalId(asignacion.getSucursalId())
+                .cantidad(asignacion.getCantidad())
+                .build()));
+        return lineas;
+    }
+}
@@ -1,6 +1,7 @@
 package com.letrasypapeles.backend.service;
 
 import com.letrasypapeles.backend.entity.Cliente;
+import com.letrasypapeles.backend.entity.MovimientoPuntos;
 import com.letrasypapeles.backend.entity.Role;
 import com.letrasypapeles.backend.repository.ClienteRepository;
 import com.letrasypapeles.backend.repository.RoleRepository;
@@ -22,6 +23,9 @@ public class ClienteService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private LibroPuntos libroPuntos;
+
     public List<Cliente> obtenerTodos() {
         return clienteRepository.findAll();
     }
@@ -34,6 +38,10 @@ public class ClienteService {
         return clienteRepository.findById(id);
     }
 
+    public List<Cliente> obtenerPorIds(Collection<Long> ids) {
+        return clienteRepository.findAllById(ids);
+    }
+
     public Cliente obtenerClientePorId(Long id) {
         return clienteRepository.findById(id).orElse(null);
     }
@@ -70,21 +78,39 @@ public class ClienteService {
     }
 
     /**
-     * Acumula puntos de fidelidad para un cliente basado en el monto de compra
+     * Acumula puntos de fidelidad para un cliente basado en el monto de compra. Los puntos se
+     * agregan al libro de puntos, sin bloquear ni reescribir la fila del cliente.
      * @param clienteId ID del cliente
      * @param montoCompra Monto de la compra
-     * @return Cliente actualizado con los nuevos puntos
+     * @return Puntos ganados con la compra
      */
-    public Cliente acumularPuntosFidelidad(Long clienteId, Double montoCompra) {
-        Cliente cliente = clienteRepository.findById(clienteId)
-                .orElseThrow(() -> new RuntimeException("Cliente no encontrado"));
+    public int acumularPuntosFidelidad(Long clienteId, Double montoCompra) {
+        if (!clienteRepository.existsById(clienteId)) {
+            throw new RuntimeException("Cliente no encontrado");
+        }
 
         // Regla de negocio: 1 punto por cada $10 de compra
-        int puntosGanados = (int) (montoCompra / 10);
-        int puntosActuales = cliente.getPuntosFidelidad() != null ? cliente.getPuntosFidelidad() : 0;
-        cliente.setPuntosFidelidad(puntosActuales + puntosGanados);
+        int puntosGanados = CalculadoraMonetaria.puntosFidelidad(CalculadoraMonetaria.aCentavos(montoCompra));
+        libroPuntos.registrar(clienteId, puntosGanados, "COMPRA");
+        return puntosGanados;
+    }
 
-        return clienteRepository.save(cliente);
+    /**
+     * Saldo de puntos de fidelidad, incluidos los movimientos que aún no se pliegan al cliente
+     * @param clienteId ID del cliente
+     * @return Saldo de puntos
+     */
+    public long obtenerSaldoPuntos(Long clienteId) {
+        return libroPuntos.saldo(clienteId);
+    }
+
+    /**
+     * Historial de movimientos de puntos de un cliente, del más reciente al más antiguo
+     * @param clienteId ID del cliente
+     * @return Movimientos del cliente
+     */
+    public List<MovimientoPuntos> obtenerMovimientosPuntos(Long clienteId) {
+        return libroPuntos.movimientos(clienteId);
     }
 
     /**
@@ -136,11 +162,23 @@ public class ClienteService {
     }
 
     /**
-     * Actualiza los puntos de fidelidad de un cliente usando una consulta directa
+     * Registra puntos de fidelidad para un cliente en el libro de puntos
      * @param clienteId ID del cliente
      * @param puntos Puntos a agregar
      */
     public void actualizarPuntosFidelidadDirecto(Long clienteId, Integer puntos) {
-        clienteRepository.actualizarPuntosFidelidad(clienteId, puntos);
+        actualizarPuntosFidelidadDirecto(clienteId, puntos, "AJUSTE");
+    }
+
+    /**
+     * Registra puntos de fidelidad para un cliente en el libro de puntos
+     * @param clienteId ID del cliente
+     * @param puntos Puntos a agregar
+     * @param motivo Motivo del movimiento
+     */
+    public void actualizarPuntosFidelidadDirecto(Long clienteId, Integer puntos, String motivo) {
+        if (puntos != null) {
+            libroPuntos.registrar(clienteId, puntos, motivo);
+        }
     }
 }
@@ -0,0 +1,285 @@
+package com.letrasypapeles.backend.service;
+
+import com.letrasypapeles.backend.dto.DiferenciaStock;
+import com.letrasypapeles.backend.dto.ProgresoConciliacion;
+import com.letrasypapeles.backend.repository.ProductoRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Concilia {@code Producto.stock} con la suma de {@code Inventario.cantidad} de cada producto.
+ * El rango de IDs se divide en tramos que un ForkJoinPool propio recorre en paralelo; cada tramo
+ * lee las sumas ya agregadas por la base de datos con un cursor de solo lectura, de modo que la
+ * memoria usada no depende del tamaño de la tabla de inventarios. Las diferencias se informan y,
+ * si se pide, se corrigen en lotes igualando el stock del producto a la suma de sus inventarios.
+ */
+@Service
+public class ConciliacionStockService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConciliacionStockService.class);
+
+    static final String SIN_EJECUTAR = "SIN_EJECUTAR";
+    static final String EN_CURSO = "EN_CURSO";
+    static final String TERMINADA = "TERMINADA";
+    static final String FALLIDA = "FALLIDA";
+
+    private final ProductoRepository productoRepository;
+    private final TransactionTemplate lectura;
+    private final TransactionTemplate escritura;
+    private final int paralelismo;
+    private final int tamanoTramo;
+    private final int tamanoLote;
+    private final int maximoMuestras;
+
+    private final AtomicReference<Ejecucion> ultima = new AtomicReference<>();
+    private final ExecutorService coordinador = Executors.newSingleThreadExecutor(r -> {
+        Thread hilo = new Thread(r, "conciliacion-stock");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    public ConciliacionStockService(ProductoRepository productoRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${conciliacion.paralelismo:4}") int paralelismo,
+                                    @Value("${conciliacion.tramo:10000}") int tamanoTramo,
+                                    @Value("${conciliacion.lote:500}") int tamanoLote,
+                                    @Value("${conciliacion.muestras:100}") int maximoMuestras) {
+        this.productoRepository = productoRepository;
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+        this.escritura = new TransactionTemplate(transactionManager);
+        this.paralelismo = paralelismo;
+        this.tamanoTramo = tamanoTramo;
+        this.tamanoLote = tamanoLote;
+        this.maximoMuestras = maximoMuestras;
+    }
+
+    @PreDestroy
+    public void detener() {
+        coordinador.shutdownNow();
+    }
+
+    /**
+     * Inicia una conciliación en segundo plano
+     * @param corregir Si es true, las diferencias se corrigen además de informarse
+     * @param desde Primer ID de producto a revisar (opcional, por defecto el menor)
+     * @param hasta Último ID de producto a revisar (opcional, por defecto el mayor)
+     * @return Progreso inicial de la ejecución
+     * @throws IllegalStateException si ya hay una conciliación en curso
+     */
+    public ProgresoConciliacion iniciar(boolean corregir, Long desde, Long hasta) {
+        Ejecucion ejecucion = reclamar(corregir, desde, hasta);
+        coordinador.execute(() -> ejecutar(ejecucion));
+        return ejecucion.progreso();
+    }
+
+    /**
+     * Concilia en el hilo que llama y espera a que terminen todos los tramos
+     * @see #iniciar(boolean, Long, Long)
+     */
+    public ProgresoConciliacion conciliar(boolean corregir, Long desde, Long hasta) {
+        Ejecucion ejecucion = reclamar(corregir, desde, hasta);
+        ejecutar(ejecucion);
+        return ejecucion.progreso();
+    }
+
+    /**
+     * Progreso de la conciliación en curso o de la última terminada
+     */
+    public ProgresoConciliacion progreso() {
+        Ejecucion ejecucion = ultima.get();
+        return ejecucion != null ? ejecucion.progreso() : ProgresoConciliacion.builder().estado(SIN_EJECUTAR).build();
+    }
+
+    private Ejecucion reclamar(boolean corregir, Long desde, Long hasta) {
+        if (desde != null && hasta != null && desde > hasta) {
+            throw new IllegalArgumentException("El inicio del rango no puede ser mayor que el final");
+        }
+        Ejecucion nueva = new Ejecucion(corregir, desde, hasta);
+        Ejecucion anterior = ultima.get();
+        if ((anterior != null && EN_CURSO.equals(anterior.estado)) || !ultima.compareAndSet(anterior, nueva)) {
+            throw new IllegalStateException("Ya hay una conciliación de stock en curso");
+        }
+        return nueva;
+    }
+
+    private void ejecutar(Ejecucion ejecucion) {
+        ForkJoinPool pool = new ForkJoinPool(paralelismo);
+        try {
+            Object[] rango = productoRepository.findRangoIds().get(0);
+            if (rango[0] != null) {
+                long desde = Math.max(((Number) rango[0]).longValue(), ejecucion.desde != null ? ejecucion.desde : Long.MIN_VALUE);
+                long hasta = Math.min(((Number) rango[1]).longValue(), ejecucion.hasta != null ? ejecucion.hasta : Long.MAX_VALUE);
+                List<long[]> tramos = dividir(desde, hasta);
+                ejecucion.tramos = tramos.size();
+                pool.invoke(new Tramos(tramos, 0, tramos.size(), ejecucion));
+            }
+            ejecucion.terminar(TERMINADA, null);
+            logger.info("Conciliación de stock terminada: {} productos revisados, {} diferencias, {} corregidos",
+                    ejecucion.revisados.get(), ejecucion.diferencias.get(), ejecucion.corregidos.get());
+        } catch (RuntimeException e) {
+            // ForkJoinPool vuelve a envolver las excepciones lanzadas en otros hilos
+            String mensaje = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            ejecucion.terminar(FALLIDA, mensaje);
+            logger.warn("La conciliación de stock falló: {}", mensaje);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Divide el rango [desde, hasta] en tramos consecutivos de a lo más {@code tamanoTramo} IDs
+     */
+    List<long[]> dividir(long desde, long hasta) {
+        List<long[]> tramos = new ArrayList<>();
+        for (long inicio = desde; inicio <= hasta; inicio += tamanoTramo) {
+            long fin = Math.min(hasta, inicio + tamanoTramo - 1);
+            tramos.add(new long[]{inicio, fin});
+        }
+        return tramos;
+    }
+
+    /**
+     * Revisa un tramo en una transacción de solo lectura y corrige sus diferencias en lotes,
+     * cada uno en su propia transacción
+     */
+    void conciliarTramo(long desde, long hasta, Ejecucion ejecucion) {
+        List<Long> porCorregir = new ArrayList<>();
+        lectura.executeWithoutResult(status -> {
+            try (Stream<Object[]> filas = productoRepository.streamTotalesInventario(desde, hasta)) {
+                filas.forEach(fila -> {
+                    ejecucion.revisados.incrementAndGet();
+                    Integer stock = (Integer) fila[1];
+                    long total = fila[2] != null ? ((Number) fila[2]).longValue() : 0;
+                    if (stock == null || stock != total) {
+                        ejecucion.registrarDiferencia(DiferenciaStock.builder()
+                                .productoId((Long) fila[0])
+                                .stock(stock)
+                                .totalInventario(total)
+                                .build());
+                        if (ejecucion.corregir) {
+                            porCorregir.add((Long) fila[0]);
+                        }
+                    }
+                });
+            }
+        });
+
+        for (int i = 0; i < porCorregir.size(); i += tamanoLote) {
+            List<Long> lote = porCorregir.subList(i, Math.min(porCorregir.size(), i + tamanoLote));
+            Integer corregidos = escritura.execute(status -> productoRepository.igualarStockConInventario(lote));
+            ejecucion.corregidos.addAndGet(corregidos != null ? corregidos : 0);
+        }
+        ejecucion.tramosProcesados.incrementAndGet();
+    }
+
+    /**
+     * Reparte los tramos [inicio, fin) entre los hilos del pool dividiendo la lista por la mitad
+     */
+    private final class Tramos extends RecursiveAction {
+
+        private final List<long[]> tramos;
+        private final int inicio;
+        private final int fin;
+        private final Ejecucion ejecucion;
+
+        Tramos(List<long[]> tramos, int inicio, int fin, Ejecucion ejecucion) {
+            this.tramos = tramos;
+            this.inicio = inicio;
+            this.fin = fin;
+            this.ejecucion = ejecucion;
+        }
+
+        @Override
+        protected void compute() {
+            if (fin - inicio == 1) {
+                long[] tramo = tramos.get(inicio);
+                conciliarTramo(tramo[0], tramo[1], ejecucion);
+            } else if (fin > inicio) {
+                int medio = (inicio + fin) >>> 1;
+                invokeAll(new Tramos(tramos, inicio, medio, ejecucion), new Tramos(tramos, medio, fin, ejecucion));
+            }
+        }
+    }
+
+    /**
+     * Estado mutable de una conciliación; los tramos lo actualizan en paralelo
+     */
+    final class Ejecucion {
+
+        final boolean corregir;
+        final Long desde;
+        final Long hasta;
+        final LocalDateTime inicio = LocalDateTime.now();
+        volatile LocalDateTime fin;
+        volatile String estado = EN_CURSO;
+        volatile String error;
+        volatile int tramos;
+        final AtomicInteger tramosProcesados = new AtomicInteger();
+        final AtomicLong revisados = new AtomicLong();
+        final AtomicLong diferencias = new AtomicLong();
+        final AtomicLong corregidos = new AtomicLong();
+        private final List<DiferenciaStock> muestras = new ArrayList<>();
+
+        Ejecucion(boolean corregir, Long desde, Long hasta) {
+            this.corregir = corregir;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+
+        void registrarDiferencia(DiferenciaStock diferencia) {
+            diferencias.incrementAndGet();
+            synchronized (muestras) {
+                if (muestras.size() < maximoMuestras) {
+                    muestras.add(diferencia);
+                }
+            }
+        }
+
+        void terminar(String estadoFinal, String mensaje) {
+            error = mensaje;
+            fin = LocalDateTime.now();
+            estado = estadoFinal;
+        }
+
+        ProgresoConciliacion progreso() {
+            List<DiferenciaStock> copia;
+            synchronized (muestras) {
+                copia = new ArrayList<>(muestras);
+            }
+            return ProgresoConciliacion.builder()
+                    .estado(estado)
+                    .corregir(corregir)
+                    .desde(desde)
+                    .hasta(hasta)
+                    .inicio(inicio)
+                    .fin(fin)
+                    .tramos(tramos)
+                    .tramosProcesados(tramosProcesados.get())
+                    .productosRevisados(revisados.get())
+                    .diferencias(diferencias.get())
+                    .corregidos(corregidos.get())
+                    .muestras(copia)
+                    .error(error)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.letrasypapeles.backend.service;
+
+import com.letrasypapeles.backend.dto.ResultadoPorId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Lectura de varios registros por {@code ?ids=1,2,3} con una sola consulta: los IDs repetidos se
+ * buscan una vez y el resultado vuelve en el orden pedido, con {@code encontrado=false} para los
+ * que no existen. La cantidad de IDs por llamada está acotada por {@code consulta.ids.maximo}.
+ */
+@Component
+public class ConsultaPorIds {
+
+    private final int maximoIds;
+
+    public ConsultaPorIds(@Value("${consulta.ids.maximo:100}") int maximoIds) {
+        this.maximoIds = maximoIds;
+    }
+
+    /**
+     * @param cargar Carga los registros de los IDs distintos, por ejemplo con {@code findAllById}
+     * @throws IllegalArgumentException si la lista está vacía, tiene un ID inválido o supera el máximo
+     */
+    public <T> List<ResultadoPorId<T>> buscar(String ids, Function<Collection<Long>, List<T>> cargar,
+                                              Function<T, Long> id) {
+        List<Long> pedidos = parsear(ids);
+        if (pedidos.size() > maximoIds) {
+            throw new IllegalArgumentException("Se pueden pedir como máximo " + maximoIds +
+                    " IDs por consulta; se pidieron " + pedidos.size());
+        }
+
+        Map<Long, T> porId = new HashMap<>();
+        for (T registro : cargar.apply(new LinkedHashSet<>(pedidos))) {
+            porId.put(id.apply(registro), registro);
+        }
+        List<ResultadoPorId<T>> resultados = new ArrayList<>(pedidos.size());
+        for (Long pedido : pedidos) {
+            T registro = porId.get(pedido);
+            resultados.add(new ResultadoPorId<>(pedido, registro != null, registro));
+        }
+        return resultados;
+    }
+
+    private static List<Long> parsear(String ids) {
+        List<Long> pedidos = new ArrayList<>();
+        for (String id : ids == null ? new String[0] : ids.split(",")) {
+            id = id.trim();
+            if (id.isEmpty()) {
+                continue;
+            }
+            try {
+                pedidos.add(Long.valueOf(id));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("ID inválido: " + id);
+            }
+        }
+        if (pedidos.isEmpty()) {
+            throw new IllegalArgumentException("Debe indicar al menos un ID");
+        }
+        return pedidos;
+    }
+}
@@ -0,0 +1,86 @@
+package com.letrasypapeles.backend.service;
+
+import com.letrasypapeles.backend.dto.AlertaStockBajo;
+import com.letrasypapeles.backend.event.StockBajoEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Difunde por Server-Sent Events las alertas de stock bajo.
+ * Cada suscriptor recibe primero las alertas vigentes y luego solo los cruces de umbral.
+ * Los envíos se hacen en un hilo propio: los cruces llegan tras confirmar la transacción que los
+ * produjo y un cliente lento no debe retener ese hilo. Un solo hilo conserva el orden de los
+ * eventos, y un suscriptor nuevo se agrega después de recibir las vigentes, en ese mismo hilo.
+ */
+@Component
+public class EmisorAlertasStock {
+
+    static final long TIMEOUT_MS = 30 * 60 * 1000L;
+
+    private final MonitorStockBajo monitorStockBajo;
+    private final List<SseEmitter> suscriptores = new CopyOnWriteArrayList<>();
+    private final ExecutorService difusor = Executors.newSingleThreadExecutor(r -> {
+        Thread hilo = new Thread(r, "alertas-stock-sse");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    public EmisorAlertasStock(MonitorStockBajo monitorStockBajo) {
+        this.monitorStockBajo = monitorStockBajo;
+    }
+
+    @PreDestroy
+    public void detener() {
+        difusor.shutdownNow();
+    }
+
+    public SseEmitter suscribir() {
+        SseEmitter emitter = new SseEmitter(TIMEOUT_MS);
+        emitter.onCompletion(() -> suscriptores.remove(emitter));
+        emitter.onTimeout(() -> suscriptores.remove(emitter));
+        emitter.onError(e -> suscriptores.remove(emitter));
+
+        difusor.execute(() -> {
+            for (AlertaStockBajo alerta : monitorStockBajo.alertasVigentes()) {
+                if (!enviar(emitter, "alerta", alerta)) {
+                    return;
+                }
+            }
+            suscriptores.add(emitter);
+        });
+        return emitter;
+    }
+
+    @EventListener
+    public void alCruzarUmbral(StockBajoEvent evento) {
+        String nombre = evento.isBajoUmbral() ? "alerta" : "resuelta";
+        difusor.execute(() -> {
+            for (SseEmitter emitter : suscriptores) {
+                enviar(emitter, nombre, evento.getAlerta());
+            }
+        });
+    }
+
+    int suscriptores() {
+        return suscriptores.size();
+    }
+
+    private boolean enviar(SseEmitter emitter, String nombre, AlertaStockBajo alerta) {
+        try {
+            emitter.send(SseEmitter.event().name(nombre).data(alerta));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            suscriptores.remove(emitter);
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.letrasypapeles.backend.service;
+
+import com.letrasypapeles.backend.entity.Reserva;
+import com.letrasypapeles.backend.event.EntidadCambiadaEvent;
+import com.letrasypapeles.backend.event.TipoCambio;
+import com.letrasypapeles.backend.repository.ReservaRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cancela automáticamente las reservas PENDIENTES que superan su tiempo de retención y
+ * devuelve su stock. Los vencimientos viven en una {@link RuedaTemporal} que avanza un único
+ * hilo; las reservas vencidas se cancelan en lotes, una transacción por lote.
+ */
+@Component
+public class ExpiradorReservas {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpiradorReservas.class);
+
+    private final ReservaRepository reservaRepository;
+    private final ReservaService reservaService;
+    private final Duration ttl;
+    private final long tickMs;
+    private final int tamanoLote;
+    private final boolean habilitado;
+
+    private final RuedaTemporal rueda;
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread hilo = new Thread(r, "expirador-reservas");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    public ExpiradorReservas(ReservaRepository reservaRepository,
+                             ReservaService reservaService,
+                             @Value("${reservas.expiracion.ttl:PT30M}") Duration ttl,
+                             @Value("${reservas.expiracion.tick:PT1S}") Duration tick,
+                             @Value("${reservas.expiracion.lote:500}") int tamanoLote,
+                             @Value("${reservas.expiracion.habilitada:true}") boolean habilitado) {
+        this.reservaRepository = reservaRepository;
+        this.reservaService = reservaService;
+        this.ttl = ttl;
+        this.tickMs = tick.toMillis();
+        this.tamanoLote = tamanoLote;
+        this.habilitado = habilitado;
+        this.rueda = new RuedaTemporal(System.currentTimeMillis() / tickMs);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (!habilitado) {
+            logger.info("Expiración de reservas deshabilitada");
+            return;
+        }
+
+        int pendientes = 0;
+        for (Object[] fila : reservaRepository.findFechasPorEstado("PENDIENTE")) {
+            programar((Long) fila[0], (LocalDateTime) fila[1]);
+            pendientes++;
+        }
+        logger.info("Expirador de reservas iniciado: {} reservas pendientes, TTL {}", pendientes, ttl);
+
+        ticker.scheduleWithFixedDelay(() -> procesar(System.currentTimeMillis()), tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void detener() {
+        ticker.shutdownNow();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarReserva(EntidadCambiadaEvent<Reserva> evento) {
+        Reserva reserva = evento.getEntidad();
+        if (habilitado && evento.getTipo() != TipoCambio.ELIMINADA && "PENDIENTE".equals(reserva.getEstado())) {
+            programar(reserva.getId(), reserva.getFechaReserva());
+        }
+    }
+
+    /**
+     * Programa el vencimiento de una reserva. Programar dos veces la misma reserva es inofensivo:
+     * al vencer se vuelve a comprobar su estado y fecha en la base de datos.
+     */
+    void programar(Long reservaId, LocalDateTime fechaReserva) {
+        LocalDateTime desde = fechaReserva != null ? fechaReserva : LocalDateTime.now();
+        long venceMs = desde.plus(ttl).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        long vencimiento = (venceMs + tickMs - 1) / tickMs;
+        synchronized (rueda) {
+            if (!rueda.agregar(reservaId, vencimiento)) {
+                // Ya vencida: se procesa en el próximo tick
+                rueda.agregar(reservaId, rueda.tickActual() + 1);
+            }
+        }
+    }
+
+    /**
+     * Avanza la rueda hasta el instante indicado y cancela en lotes las reservas vencidas
+     * @param ahoraMs Instante actual en milisegundos
+     */
+    void procesar(long ahoraMs) {
+        List<Long> vencidas = new ArrayList<>();
+        synchronized (rueda) {
+            rueda.avanzar(ahoraMs / tickMs, vencidas::add);
+        }
+        if (vencidas.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime limite = LocalDateTime.ofInstant(Instant.ofEpochMilli(ahoraMs), ZoneId.systemDefault()).minus(ttl);
+        int canceladas = 0;
+        for (int inicio = 0; inicio < vencidas.size(); inicio += tamanoLote) {
+            List<Long> lote = vencidas.subList(inicio, Math.min(inicio + tamanoLote, vencidas.size()));
+            try {
+                canceladas += reservaService.cancelarVencidas(lote, limite);
+            } catch (RuntimeException e) {
+                logger.warn("No se pudo cancelar un lote de {} reservas vencidas, se reintentará: {}",
+                        lote.size(), e.getMessage());
+                synchronized (rueda) {
+                    for (Long reservaId : lote) {
+                        rueda.agregar(reservaId, rueda.tickActual() + 1);
+                    }
+                }
+            }
+        }
+        if (canceladas > 0) {
+            logger.info("Reservas vencidas canceladas: {}", canceladas);
+        }
+    }
+
+    int pendientesProgramadas() {
+        synchronized (rueda) {
+            return (int) rueda.tamano();
+        }
+    }
+}
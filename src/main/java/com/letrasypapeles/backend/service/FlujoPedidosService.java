@@ -0,0 +1,182 @@
+package com.letrasypapeles.backend.service;
+
+import com.letrasypapeles.backend.dto.AsignacionSurtido;
+import com.letrasypapeles.backend.entity.EstadoPedido;
+import com.letrasypapeles.backend.entity.Notificacion;
+import com.letrasypapeles.backend.entity.Pedido;
+import com.letrasypapeles.backend.entity.SurtidoPedido;
+import com.letrasypapeles.backend.repository.NotificacionRepository;
+import com.letrasypapeles.backend.repository.PedidoLineaRepository;
+import com.letrasypapeles.backend.repository.PedidoRepository;
+import com.letrasypapeles.backend.repository.ProductoRepository;
+import com.letrasypapeles.backend.repository.SurtidoPedidoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Etapas del procesamiento asíncrono de pedidos. Cada etapa procesa un lote de pedidos en una
+ * transacción, agrupa el trabajo de todos ellos (un descuento de stock por producto, una
+ * inserción de movimientos de puntos) y cambia su estado con una sola actualización.
+ */
+@Service
+public class FlujoPedidosService {
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private PedidoLineaRepository pedidoLineaRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private NotificacionRepository notificacionRepository;
+
+    @Autowired
+    private LibroPuntos libroPuntos;
+
+    @Autowired
+    private RuteadorSurtido ruteadorSurtido;
+
+    @Autowired
+    private SurtidoPedidoRepository surtidoPedidoRepository;
+
+    /**
+     * PENDIENTE → CONFIRMADO o RECHAZADO. Los pedidos se atienden en orden de ID y cada uno se
+     * confirma solo si alcanza el stock de todas sus líneas y las sucursales pueden surtirlo;
+     * las sucursales elegidas quedan registradas como {@link SurtidoPedido}.
+     * @param ids Pedidos del lote; los que ya no están PENDIENTES se ignoran
+     * @return Cantidad de pedidos rechazados por falta de stock
+     */
+    @Transactional
+    public int reservarStock(Collection<Long> ids) {
+        List<Pedido> pendientes = bloquear(ids, EstadoPedido.PENDIENTE);
+        if (pendientes.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Map<Long, Integer>> cantidadesPorPedido = new LinkedHashMap<>();
+        Map<Long, String> regionPorPedido = new HashMap<>();
+        pendientes.forEach(pedido -> {
+            cantidadesPorPedido.put(pedido.getId(), new HashMap<>());
+            regionPorPedido.put(pedido.getId(), pedido.getRegion());
+        });
+        for (Object[] fila : pedidoLineaRepository.findCantidadesPorPedidos(cantidadesPorPedido.keySet())) {
+            Long productoId = (Long) fila[1];
+            if (productoId != null) {
+                int cantidad = fila[2] != null ? (Integer) fila[2] : 1;
+                cantidadesPorPedido.get((Long) fila[0]).merge(productoId, cantidad, Integer::sum);
+            }
+        }
+
+        Map<Long, Integer> disponible = new HashMap<>();
+        cantidadesPorPedido.values().forEach(cantidades -> cantidades.keySet().forEach(id -> disponible.put(id, 0)));
+        if (!disponible.isEmpty()) {
+            productoRepository.bloquearPorIds(disponible.keySet());
+            for (Object[] fila : productoRepository.findStockPorIds(disponible.keySet())) {
+                disponible.put((Long) fila[0], fila[1] != null ? (Integer) fila[1] : 0);
+            }
+        }
+
+        List<Long> confirmados = new ArrayList<>();
+        List<Long> rechazados = new ArrayList<>();
+        Map<Long, Integer> descuentos = new TreeMap<>();
+        List<SurtidoPedido> surtidos = new ArrayList<>();
+        cantidadesPorPedido.forEach((pedidoId, cantidades) -> {
+            boolean alcanza = cantidades.entrySet().stream()
+                    .allMatch(linea -> disponible.get(linea.getKey()) >= linea.getValue());
+            Optional<List<AsignacionSurtido>> plan = alcanza
+                    ? ruteadorSurtido.surtir(cantidades, regionPorPedido.get(pedidoId), true)
+                    : Optional.empty();
+            if (plan.isPresent()) {
+                cantidades.forEach((productoId, cantidad) -> {
+                    disponible.merge(productoId, -cantidad, Integer::sum);
+                    descuentos.merge(productoId, cantidad, Integer::sum);
+                });
+                plan.get().forEach(asignacion -> surtidos.add(SurtidoPedido.builder()
+                        .pedidoId(pedidoId)
+                        .productoId(asignacion.getProductoId())
+                        .sucursalId(asignacion.getSucursalId())
+                        .cantidad(asignacion.getCantidad())
+                        .build()));
+                confirmados.add(pedidoId);
+            } else {
+                rechazados.add(pedidoId);
+            }
+        });
+
+        descuentos.forEach((productoId, cantidad) -> productoRepository.sumarStock(productoId, -cantidad));
+        if (!surtidos.isEmpty()) {
+            surtidoPedidoRepository.saveAll(surtidos);
+        }
+        cambiarEstado(confirmados, EstadoPedido.PENDIENTE, EstadoPedido.CONFIRMADO);
+        cambiarEstado(rechazados, EstadoPedido.PENDIENTE, EstadoPedido.RECHAZADO);
+        return rechazados.size();
+    }
+
+    /**
+     * CONFIRMADO → COMPLETADO: otorga los puntos de fidelidad y notifica a cada cliente
+     * @param ids Pedidos del lote; los que no están CONFIRMADOS se ignoran
+     * @return Cantidad de pedidos completados
+     */
+    @Transactional
+    public int completar(Collection<Long> ids) {
+        List<Pedido> confirmados = bloquear(ids, EstadoPedido.CONFIRMADO);
+        if (confirmados.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+        List<Notificacion> notificaciones = new ArrayList<>();
+        List<Long> completados = new ArrayList<>(confirmados.size());
+        for (Pedido pedido : confirmados) {
+            if (pedido.getCliente() != null) {
+                int puntos = CalculadoraMonetaria.puntosFidelidad(CalculadoraMonetaria.aCentavos(pedido.getTotal()));
+                libroPuntos.registrar(pedido.getCliente().getId(), puntos, "PEDIDO " + pedido.getId());
+                notificaciones.add(Notificacion.builder()
+                        .cliente(pedido.getCliente())
+                        .fecha(ahora)
+                        .mensaje("Tu pedido #" + pedido.getId() + " fue procesado. Puntos ganados: " + puntos)
+                        .build());
+            }
+            completados.add(pedido.getId());
+        }
+
+        notificacionRepository.saveAll(notificaciones);
+        cambiarEstado(completados, EstadoPedido.CONFIRMADO, EstadoPedido.COMPLETADO);
+        return completados.size();
+    }
+
+    /**
+     * Bloquea los pedidos del lote que están en el estado indicado
+     */
+    private List<Pedido> bloquear(Collection<Long> ids, EstadoPedido estado) {
+        List<Pedido> bloqueados = pedidoRepository.bloquearPorEstado(ids, estado.name());
+        if (bloqueados.isEmpty()) {
+            return bloqueados;
+        }
+        List<Long> vigentes = pedidoRepository.findIdsPorIdsYEstado(
+                bloqueados.stream().map(Pedido::getId).toList(), estado.name());
+        return bloqueados.stream().filter(pedido -> vigentes.contains(pedido.getId())).toList();
+    }
+
+    private void cambiarEstado(List<Long> ids, EstadoPedido desde, EstadoPedido hacia) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        desde.validarTransicion(hacia);
+        pedidoRepository.cambiarEstado(ids, desde.name(), hacia.name());
+    }
+}
@@ -0,0 +1,245 @@
+package com.letrasypapeles.backend.service;
+
+import com.letrasypapeles.backend.dto.DisponibilidadSucursal;
+import com.letrasypapeles.backend.entity.Inventario;
+import com.letrasypapeles.backend.entity.Sucursal;
+import com.letrasypapeles.backend.event.EntidadCambiadaEvent;
+import com.letrasypapeles.backend.event.TipoCambio;
+import com.letrasypapeles.backend.repository.InventarioRepository;
+import com.letrasypapeles.backend.repository.SucursalRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice en memoria producto → existencias disponibles (cantidad menos lo apartado) por sucursal.
+ * Se carga al iniciar la aplicación y se mantiene con cada escritura confirmada de
+ * {@link Inventario}, de modo que consultar en qué sucursales hay stock no requiere SQL.
+ * Las escrituras confirmadas pueden notificarse en otro orden que el de confirmación: por cada
+ * inventario se recuerda la secuencia del último evento aplicado y se descartan los anteriores.
+ */
+@Component
+public class IndiceDisponibilidad {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndiceDisponibilidad.class);
+
+    private final InventarioRepository inventarioRepository;
+    private final SucursalRepository sucursalRepository;
+
+    private final ConcurrentHashMap<Long, Existencias> existenciasPorProducto = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> productoPorInventario = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, String> regionPorSucursal = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> secuenciaPorInventario = new ConcurrentHashMap<>();
+
+    public IndiceDisponibilidad(InventarioRepository inventarioRepository, SucursalRepository sucursalRepository) {
+        this.inventarioRepository = inventarioRepository;
+        this.sucursalRepository = sucursalRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        existenciasPorProducto.clear();
+        productoPorInventario.clear();
+        regionPorSucursal.clear();
+        secuenciaPorInventario.clear();
+
+        for (Sucursal sucursal : sucursalRepository.findAll()) {
+            registrarSucursal(sucursal.getId(), sucursal.getRegion());
+        }
+        List<Object[]> filas = inventarioRepository.findExistencias();
+        for (Object[] fila : filas) {
+            registrar((Long) fila[0], (Long) fila[1], (Long) fila[2], (Integer) fila[3]);
+        }
+        logger.info("Índice de disponibilidad cargado: {} inventarios, {} productos",
+                filas.size(), existenciasPorProducto.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarInventario(EntidadCambiadaEvent<Inventario> evento) {
+        Inventario inventario = evento.getEntidad();
+        if (inventario.getId() == null) {
+            return;
+        }
+        // Se conserva la secuencia de los eliminados para que un evento atrasado no los reviva
+        secuenciaPorInventario.compute(inventario.getId(), (id, ultima) -> {
+            if (ultima != null && ultima > evento.getSecuencia()) {
+                return ultima;
+            }
+            if (evento.getTipo() == TipoCambio.ELIMINADA) {
+                eliminar(id);
+            } else {
+                registrar(id,
+                        inventario.getProducto() != null ? inventario.getProducto().getId() : null,
+                        inventario.getSucursal() != null ? inventario.getSucursal().getId() : null,
+                        disponible(inventario));
+            }
+            return evento.getSecuencia();
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarSucursal(EntidadCambiadaEvent<Sucursal> evento) {
+        Sucursal sucursal = evento.getEntidad();
+        if (evento.getTipo() == TipoCambio.ELIMINADA) {
+            regionPorSucursal.remove(sucursal.getId());
+        } else {
+            registrarSucursal(sucursal.getId(), sucursal.getRegion());
+        }
+    }
+
+    /**
+     * Cantidad que una sucursal puede prometer: la física menos la apartada por reservas
+     */
+    static int disponible(Inventario inventario) {
+        int cantidad = inventario.getCantidad() != null ? inventario.getCantidad() : 0;
+        return cantidad - (inventario.getReservado() != null ? inventario.getReservado() : 0);
+    }
+
+    /**
+     * Obtiene las sucursales con stock disponible de un producto
+     * @param productoId ID del producto
+     * @param region Región de la sucursal (opcional, no distingue mayúsculas)
+     * @return Sucursales con cantidad disponible mayor a 0
+     */
+    public List<DisponibilidadSucursal> consultar(Long productoId, String region) {
+        Existencias existencias = existenciasPorProducto.get(productoId);
+        if (existencias == null) {
+            return List.of();
+        }
+
+        List<DisponibilidadSucursal> resultado = new ArrayList<>(existencias.tamano());
+        for (int i = 0; i < existencias.tamano(); i++) {
+            if (existencias.cantidades[i] <= 0) {
+                continue;
+            }
+            long sucursalId = existencias.sucursalIds[i];
+            if (region != null && !region.equalsIgnoreCase(regionPorSucursal.get(sucursalId))) {
+                continue;
+            }
+            resultado.add(new DisponibilidadSucursal(sucursalId, existencias.cantidades[i]));
+        }
+        return resultado;
+    }
+
+    /**
+     * Existencias de un producto tal como están en el índice, o null si no tiene inventarios.
+     * La instancia es inmutable: sirve de foto consistente mientras se usa.
+     */
+    Existencias existencias(Long productoId) {
+        return existenciasPorProducto.get(productoId);
+    }
+
+    String region(long sucursalId) {
+        return regionPorSucursal.get(sucursalId);
+    }
+
+    void registrar(Long inventarioId, Long productoId, Long sucursalId, Integer cantidad) {
+        if (inventarioId == null) {
+            return;
+        }
+        if (productoId == null || sucursalId == null) {
+            eliminar(inventarioId);
+            return;
+        }
+
+        Long productoAnterior = productoPorInventario.put(inventarioId, productoId);
+        if (productoAnterior != null && !productoAnterior.equals(productoId)) {
+            existenciasPorProducto.computeIfPresent(productoAnterior, (id, e) -> e.sin(inventarioId));
+        }
+        int valor = cantidad != null ? cantidad : 0;
+        existenciasPorProducto.compute(productoId, (id, e) ->
+                (e != null ? e : Existencias.VACIAS).con(inventarioId, sucursalId, valor));
+    }
+
+    void eliminar(Long inventarioId) {
+        Long productoId = productoPorInventario.remove(inventarioId);
+        if (productoId != null) {
+            existenciasPorProducto.computeIfPresent(productoId, (id, e) -> e.sin(inventarioId));
+        }
+    }
+
+    void registrarSucursal(Long sucursalId, String region) {
+        if (region != null) {
+            regionPorSucursal.put(sucursalId, region);
+        } else {
+            regionPorSucursal.remove(sucursalId);
+        }
+    }
+
+    /**
+     * Existencias de un producto como arreglos paralelos inmutables.
+     * Cada escritura reemplaza la instancia completa (copy-on-write), así las lecturas nunca se bloquean.
+     */
+    static final class Existencias {
+
+        static final Existencias VACIAS = new Existencias(new long[0], new long[0], new int[0]);
+
+        final long[] inventarioIds;
+        final long[] sucursalIds;
+        final int[] cantidades;
+
+        private Existencias(long[] inventarioIds, long[] sucursalIds, int[] cantidades) {
+            this.inventarioIds = inventarioIds;
+            this.sucursalIds = sucursalIds;
+            this.cantidades = cantidades;
+        }
+
+        int tamano() {
+            return inventarioIds.length;
+        }
+
+        private int posicion(long inventarioId) {
+            for (int i = 0; i < inventarioIds.length; i++) {
+                if (inventarioIds[i] == inventarioId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        Existencias con(long inventarioId, long sucursalId, int cantidad) {
+            int i = posicion(inventarioId);
+            if (i >= 0 && sucursalIds[i] == sucursalId && cantidades[i] == cantidad) {
+                return this;
+            }
+            int n = i >= 0 ? inventarioIds.length : inventarioIds.length + 1;
+            int destino = i >= 0 ? i : n - 1;
+            long[] ids = Arrays.copyOf(inventarioIds, n);
+            long[] sucursales = Arrays.copyOf(sucursalIds, n);
+            int[] valores = Arrays.copyOf(cantidades, n);
+            ids[destino] = inventarioId;
+            sucursales[destino] = sucursalId;
+            valores[destino] = cantidad;
+            return new Existencias(ids, sucursales, valores);
+        }
+
+        Existencias sin(long inventarioId) {
+            int i = posicion(inventarioId);
+            if (i < 0) {
+                return this;
+            }
+            if (inventarioIds.length == 1) {
+                return null;
+            }
+            int n = inventarioIds.length - 1;
+            long[] ids = new long[n];
+            long[] sucursales = new long[n];
+            int[] valores = new int[n];
+            System.arraycopy(inventarioIds, 0, ids, 0, i);
+            System.arraycopy(inventarioIds, i + 1, ids, i, n - i);
+            System.arraycopy(sucursalIds, 0, sucursales, 0, i);
+            System.arraycopy(sucursalIds, i + 1, sucursales, i, n - i);
+            System.arraycopy(cantidades, 0, valores, 0, i);
+            System.arraycopy(cantidades, i + 1, valores, i, n - i);
+            return new Existencias(ids, sucursales, valores);
+        }
+    }
+}
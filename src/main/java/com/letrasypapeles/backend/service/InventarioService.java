@@ -5,9 +5,9 @@ import com.letrasypapeles.backend.repository.InventarioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class InventarioService {
@@ -15,6 +15,9 @@ public class InventarioService {
     @Autowired
     private InventarioRepository inventarioRepository;
 
+    @Autowired
+    private MonitorStockBajo monitorStockBajo;
+
     public List<Inventario> obtenerTodos() {
         return inventarioRepository.findAll();
     }
@@ -23,6 +26,10 @@ public class InventarioService {
         return inventarioRepository.findById(id);
     }
 
+    public List<Inventario> obtenerPorIds(Collection<Long> ids) {
+        return inventarioRepository.findAllById(ids);
+    }
+
     public Inventario guardar(Inventario inventario) {
         return inventarioRepository.save(inventario);
     }
@@ -39,6 +46,18 @@ public class InventarioService {
         return inventarioRepository.findBySucursalId(sucursalId);
     }
 
+    public Optional<Inventario> obtenerPorProductoYSucursal(Long productoId, Long sucursalId) {
+        return inventarioRepository.findByProductoIdAndSucursalId(productoId, sucursalId);
+    }
+
+    /**
+     * Cantidad disponible para prometer (cantidad menos lo apartado) de un producto en una sucursal
+     * @return Vacío si el producto no tiene inventario en la sucursal
+     */
+    public Optional<Integer> obtenerDisponible(Long productoId, Long sucursalId) {
+        return inventarioRepository.findDisponible(productoId, sucursalId);
+    }
+
     public List<Inventario> obtenerInventarioBajoUmbral(Integer umbral) {
         return inventarioRepository.findByCantidadLessThan(umbral);
     }
@@ -53,7 +72,7 @@ public class InventarioService {
                 .orElseThrow(() -> new RuntimeException("Inventario no encontrado"));
 
         return inventario.getCantidad() != null && inventario.getUmbral() != null &&
-               inventario.getCantidad() < inventario.getUmbral();
+               IndiceDisponibilidad.disponible(inventario) < inventario.getUmbral();
     }
 
     /**
@@ -61,16 +80,12 @@ public class InventarioService {
      * @return Lista de inventarios con stock bajo
      */
     public List<Inventario> obtenerInventariosConStockBajo() {
-        List<Inventario> todosLosInventarios = inventarioRepository.findAll();
-        return todosLosInventarios.stream()
-                .filter(inventario -> inventario.getCantidad() != null &&
-                                    inventario.getUmbral() != null &&
-                                    inventario.getCantidad() < inventario.getUmbral())
-                .collect(Collectors.toList());
+        return inventarioRepository.findConStockBajo();
     }
 
     /**
-     * Actualiza la cantidad en inventario después de una venta o reserva
+     * Actualiza la cantidad en inventario después de una venta o reserva.
+     * Solo se puede reducir lo disponible: las unidades apartadas por reservas no se tocan.
      * @param inventarioId ID del inventario
      * @param cantidadReducir Cantidad a reducir
      * @return Inventario actualizado
@@ -79,10 +94,11 @@ public class InventarioService {
         Inventario inventario = inventarioRepository.findById(inventarioId)
                 .orElseThrow(() -> new RuntimeException("Inventario no encontrado"));
 
-        if (inventario.getCantidad() == null || inventario.getCantidad() < cantidadReducir) {
-            throw new RuntimeException("Cantidad insuficiente en inventario. Cantidad actual: " +
-                (inventario.getCantidad() != null ? inventario.getCantidad() : 0) +
-                ", cantidad a reducir: " + cantidadReducir);
+        int disponible = IndiceDisponibilidad.disponible(inventario);
+        if (inventario.getCantidad() == null || disponible < cantidadReducir) {
+            throw new RuntimeException("Cantidad insuficiente en inventario. Cantidad disponible: " + disponible +
+                " (apartada por reservas: " + (inventario.getReservado() != null ? inventario.getReservado() : 0) +
+                "), cantidad a reducir: " + cantidadReducir);
         }
 
         inventario.setCantidad(inventario.getCantidad() - cantidadReducir);
@@ -127,21 +143,12 @@ public class InventarioService {
     }
 
     /**
-     * Genera alerta de restock para inventarios con stock bajo
+     * Genera alerta de restock para inventarios con stock bajo.
+     * Las alertas se mantienen al escribir inventario, por lo que no se recorre la tabla completa
      * @return Lista de mensajes de alerta
      */
     public List<String> generarAlertasDeRestock() {
-        List<Inventario> inventariosConStockBajo = obtenerInventariosConStockBajo();
-        return inventariosConStockBajo.stream()
-                .map(inventario -> String.format(
-                    "ALERTA: Producto '%s' en sucursal '%s' tiene stock bajo. " +
-                    "Cantidad actual: %d, Umbral: %d",
-                    inventario.getProducto() != null ? inventario.getProducto().getNombre() : "Desconocido",
-                    inventario.getSucursal() != null ? inventario.getSucursal().getNombre() : "Desconocida",
-                    inventario.getCantidad(),
-                    inventario.getUmbral()
-                ))
-                .collect(Collectors.toList());
+        return monitorStockBajo.mensajesVigentes();
     }
 
     /**
@@ -0,0 +1,203 @@
+package com.letrasypapeles.backend.service;
+
+import com.letrasypapeles.backend.entity.MovimientoPuntos;
+import com.letrasypapeles.backend.repository.ClienteRepository;
+import com.letrasypapeles.backend.repository.MovimientoPuntosRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Libro de puntos de fidelidad de solo inserción. Acumular puntos agrega un movimiento en vez
+ * de actualizar la fila del cliente; un plegado periódico suma los movimientos pendientes a
+ * {@code Cliente.puntosFidelidad}. Dentro de una transacción los movimientos se acumulan y se
+ * insertan en un único lote antes de confirmarla.
+ */
+@Component
+public class LibroPuntos {
+
+    private static final Logger logger = LoggerFactory.getLogger(LibroPuntos.class);
+
+    static final String INSERTAR =
+            "INSERT INTO movimientos_puntos (cliente_id, puntos, motivo, fecha, plegado) VALUES (?, ?, ?, ?, false)";
+
+    private final MovimientoPuntosRepository movimientoRepository;
+    private final ClienteRepository clienteRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanoLote;
+    private final boolean plegadoHabilitado;
+
+    public LibroPuntos(MovimientoPuntosRepository movimientoRepository,
+                       ClienteRepository clienteRepository,
+                       JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${puntos.plegado.lote:1000}") int tamanoLote,
+                       @Value("${puntos.plegado.habilitado:true}") boolean plegadoHabilitado) {
+        this.movimientoRepository = movimientoRepository;
+        this.clienteRepository = clienteRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanoLote = tamanoLote;
+        this.plegadoHabilitado = plegadoHabilitado;
+    }
+
+    /**
+     * Registra un movimiento de puntos. Dentro de una transacción se inserta al confirmarla
+     * junto con los demás movimientos de la misma transacción.
+     * @param clienteId ID del cliente
+     * @param puntos Puntos a sumar (negativos para descontar)
+     * @param motivo Descripción del movimiento
+     */
+    public void registrar(Long clienteId, int puntos, String motivo) {
+        if (puntos == 0) {
+            return;
+        }
+        MovimientoPuntos movimiento = MovimientoPuntos.builder()
+                .clienteId(clienteId)
+                .puntos(puntos)
+                .motivo(motivo)
+                .fecha(LocalDateTime.now())
+                .build();
+
+        List<MovimientoPuntos> pendientes = pendientesDeLaTransaccion();
+        if (pendientes != null) {
+            pendientes.add(movimiento);
+        } else {
+            insertar(List.of(movimiento));
+        }
+    }
+
+    /**
+     * Saldo de puntos del cliente, incluidos los movimientos aún no plegados y los registrados
+     * en la transacción en curso
+     */
+    public long saldo(Long clienteId) {
+        Long saldo = clienteRepository.obtenerSaldoPuntos(clienteId);
+        long total = saldo != null ? saldo : 0;
+
+        @SuppressWarnings("unchecked")
+        List<MovimientoPuntos> pendientes = (List<MovimientoPuntos>) TransactionSynchronizationManager.getResource(this);
+        if (pendientes != null) {
+            for (MovimientoPuntos movimiento : pendientes) {
+                if (clienteId.equals(movimiento.getClienteId())) {
+                    total += movimiento.getPuntos();
+                }
+            }
+        }
+        return total;
+    }
+
+    public List<MovimientoPuntos> movimientos(Long clienteId) {
+        return movimientoRepository.findByClienteIdOrderByIdDesc(clienteId);
+    }
+
+    @Scheduled(initialDelayString = "${puntos.plegado.intervalo:PT5S}",
+               fixedDelayString = "${puntos.plegado.intervalo:PT5S}")
+    public void plegarPeriodicamente() {
+        if (!plegadoHabilitado) {
+            return;
+        }
+        try {
+            int plegados = plegar();
+            if (plegados > 0) {
+                logger.debug("Movimientos de puntos plegados: {}", plegados);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("No se pudieron plegar los movimientos de puntos, se reintentará: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Pliega todos los movimientos pendientes confirmados, un lote por transacción
+     * @return Cantidad de movimientos plegados
+     */
+    public int plegar() {
+        int total = 0;
+        int plegados;
+        do {
+            Integer resultado = transactionTemplate.execute(status -> plegarLote());
+            plegados = resultado != null ? resultado : 0;
+            total += plegados;
+        } while (plegados == tamanoLote);
+        return total;
+    }
+
+    /**
+     * Bloquea un lote de movimientos pendientes, suma sus puntos por cliente con una única
+     * actualización por cliente y los marca como plegados
+     */
+    int plegarLote() {
+        List<MovimientoPuntos> movimientos = movimientoRepository.bloquearNoPlegados(PageRequest.of(0, tamanoLote));
+        if (movimientos.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, Integer> puntosPorCliente = new TreeMap<>();
+        List<Long> ids = new ArrayList<>(movimientos.size());
+        for (MovimientoPuntos movimiento : movimientos) {
+            puntosPorCliente.merge(movimiento.getClienteId(), movimiento.getPuntos(), Integer::sum);
+            ids.add(movimiento.getId());
+        }
+        puntosPorCliente.forEach((clienteId, puntos) -> {
+            if (puntos != 0) {
+                clienteRepository.actualizarPuntosFidelidad(clienteId, puntos);
+            }
+        });
+        movimientoRepository.marcarPlegados(ids);
+        return movimientos.size();
+    }
+
+    private void insertar(List<MovimientoPuntos> movimientos) {
+        jdbcTemplate.batchUpdate(INSERTAR, movimientos, tamanoLote, (ps, movimiento) -> {
+            ps.setLong(1, movimiento.getClienteId());
+            ps.setInt(2, movimiento.getPuntos());
+            ps.setString(3, movimiento.getMotivo());
+            ps.setTimestamp(4, Timestamp.valueOf(movimiento.getFecha()));
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<MovimientoPuntos> pendientesDeLaTransaccion() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() ||
+            !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return null;
+        }
+
+        List<MovimientoPuntos> pendientes = (List<MovimientoPuntos>) TransactionSynchronizationManager.getResource(this);
+        if (pendientes == null) {
+            List<MovimientoPuntos> nuevos = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, nuevos);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    if (!nuevos.isEmpty()) {
+                        insertar(nuevos);
+                    }
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(LibroPuntos.this);
+                }
+            });
+            pendientes = nuevos;
+        }
+        return pendientes;
+    }
+}
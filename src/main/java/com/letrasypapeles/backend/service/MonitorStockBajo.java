@@ -0,0 +1,233 @@
+package com.letrasypapeles.backend.service;
+
+import com.letrasypapeles.backend.dto.AlertaStockBajo;
+import com.letrasypapeles.backend.entity.Inventario;
+import com.letrasypapeles.backend.event.EntidadCambiadaEvent;
+import com.letrasypapeles.backend.event.StockBajoEvent;
+import com.letrasypapeles.backend.event.TipoCambio;
+import com.letrasypapeles.backend.repository.InventarioRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mantiene el conjunto de inventarios bajo su umbral a medida que se escriben.
+ * Un inventario entra al conjunto cuando su cantidad disponible (descontando lo apartado por
+ * reservas) cae por debajo del umbral y sale cuando lo recupera; solo esos cruces, una vez
+ * confirmados, publican un {@link StockBajoEvent}. Escribir un inventario que sigue bajo el
+ * umbral sin cambiar sus cifras conserva la misma alerta, y el texto del mensaje no se arma al
+ * escribir: se arma una sola vez por alerta, al publicarla o al leerla por primera vez.
+ * Los cambios se aplican según la secuencia de su evento: uno confirmado antes que otro sobre el
+ * mismo inventario pero notificado después se descarta, igual que en {@link IndiceDisponibilidad}.
+ */
+@Component
+public class MonitorStockBajo {
+
+    private static final Logger logger = LoggerFactory.getLogger(MonitorStockBajo.class);
+
+    private final InventarioRepository inventarioRepository;
+    private final ApplicationEventPublisher publisher;
+
+    private final ConcurrentHashMap<Long, AlertaStockBajo> alertas = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> secuenciaPorInventario = new ConcurrentHashMap<>();
+
+    public MonitorStockBajo(InventarioRepository inventarioRepository, ApplicationEventPublisher publisher) {
+        this.inventarioRepository = inventarioRepository;
+        this.publisher = publisher;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        alertas.clear();
+        secuenciaPorInventario.clear();
+        for (Inventario inventario : inventarioRepository.findConStockBajo()) {
+            alertas.put(inventario.getId(), crearAlerta(inventario, null));
+        }
+        logger.info("Monitor de stock bajo cargado: {} inventarios bajo el umbral", alertas.size());
+    }
+
+    /**
+     * Dentro de una transacción los cambios quedan pendientes y solo son visibles para esa misma
+     * transacción; se aplican al conjunto compartido (y se publican los cruces) al confirmarla.
+     */
+    @EventListener
+    public void alCambiarInventario(EntidadCambiadaEvent<Inventario> evento) {
+        Inventario inventario = evento.getEntidad();
+        if (inventario.getId() == null) {
+            return;
+        }
+
+        Map<Long, Pendiente> pendientes = pendientesDeLaTransaccion();
+        AlertaStockBajo alerta = null;
+        if (evento.getTipo() != TipoCambio.ELIMINADA && estaBajoUmbral(inventario)) {
+            Pendiente pendiente = pendientes != null ? pendientes.get(inventario.getId()) : null;
+            AlertaStockBajo anterior = pendiente != null ? pendiente.alerta : alertas.get(inventario.getId());
+            alerta = crearAlerta(inventario, anterior);
+        }
+
+        if (pendientes != null) {
+            pendientes.put(inventario.getId(), new Pendiente(alerta, evento.getSecuencia()));
+        } else {
+            aplicar(inventario.getId(), alerta, evento.getSecuencia());
+        }
+    }
+
+    /**
+     * Alertas vigentes; el costo depende solo de cuántos inventarios están bajo el umbral
+     * @return Alertas de los inventarios actualmente bajo su umbral
+     */
+    public Collection<AlertaStockBajo> alertasVigentes() {
+        @SuppressWarnings("unchecked")
+        Map<Long, Pendiente> pendientes = (Map<Long, Pendiente>) TransactionSynchronizationManager.getResource(this);
+        if (pendientes == null || pendientes.isEmpty()) {
+            List<AlertaStockBajo> vigentes = new ArrayList<>(alertas.values());
+            vigentes.forEach(MonitorStockBajo::conMensaje);
+            return vigentes;
+        }
+
+        Map<Long, AlertaStockBajo> vista = new LinkedHashMap<>(alertas);
+        pendientes.forEach((id, pendiente) -> {
+            if (pendiente.alerta != null) {
+                vista.put(id, pendiente.alerta);
+            } else {
+                vista.remove(id);
+            }
+        });
+        vista.values().forEach(MonitorStockBajo::conMensaje);
+        return new ArrayList<>(vista.values());
+    }
+
+    public List<String> mensajesVigentes() {
+        Collection<AlertaStockBajo> vigentes = alertasVigentes();
+        List<String> mensajes = new ArrayList<>(vigentes.size());
+        vigentes.forEach(alerta -> mensajes.add(alerta.getMensaje()));
+        return mensajes;
+    }
+
+    /**
+     * Aplica el cambio si su secuencia no es anterior a la última aplicada para el inventario; la
+     * de los inventarios que salen del conjunto se conserva para que un evento atrasado no los
+     * vuelva a meter. El cruce se publica fuera del cálculo para no retener la entrada del mapa.
+     */
+    private void aplicar(Long inventarioId, AlertaStockBajo alerta, long secuencia) {
+        StockBajoEvent[] cruce = new StockBajoEvent[1];
+        secuenciaPorInventario.compute(inventarioId, (id, ultima) -> {
+            if (ultima != null && ultima > secuencia) {
+                return ultima;
+            }
+            if (alerta != null) {
+                if (alertas.put(id, alerta) == null) {
+                    cruce[0] = new StockBajoEvent(conMensaje(alerta), true);
+                }
+            } else {
+                AlertaStockBajo anterior = alertas.remove(id);
+                if (anterior != null) {
+                    cruce[0] = new StockBajoEvent(conMensaje(anterior), false);
+                }
+            }
+            return secuencia;
+        });
+        if (cruce[0] != null) {
+            publisher.publishEvent(cruce[0]);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Pendiente> pendientesDeLaTransaccion() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() ||
+            !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return null;
+        }
+
+        Map<Long, Pendiente> pendientes = (Map<Long, Pendiente>) TransactionSynchronizationManager.getResource(this);
+        if (pendientes == null) {
+            Map<Long, Pendiente> nuevos = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, nuevos);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    nuevos.forEach((id, pendiente) -> aplicar(id, pendiente.alerta, pendiente.secuencia));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(MonitorStockBajo.this);
+                }
+            });
+            pendientes = nuevos;
+        }
+        return pendientes;
+    }
+
+    /**
+     * Último cambio de un inventario dentro de la transacción; alerta nula si quedó fuera del conjunto
+     */
+    private static final class Pendiente {
+
+        final AlertaStockBajo alerta;
+        final long secuencia;
+
+        Pendiente(AlertaStockBajo alerta, long secuencia) {
+            this.alerta = alerta;
+            this.secuencia = secuencia;
+        }
+    }
+
+    private static boolean estaBajoUmbral(Inventario inventario) {
+        return inventario.getCantidad() != null && inventario.getUmbral() != null &&
+               IndiceDisponibilidad.disponible(inventario) < inventario.getUmbral();
+    }
+
+    /**
+     * Alerta con las cifras actuales del inventario; si no cambiaron respecto de la anterior se
+     * devuelve la misma, con su mensaje ya armado. El mensaje de una alerta nueva queda pendiente.
+     */
+    private static AlertaStockBajo crearAlerta(Inventario inventario, AlertaStockBajo anterior) {
+        String producto = inventario.getProducto() != null ? inventario.getProducto().getNombre() : "Desconocido";
+        String sucursal = inventario.getSucursal() != null ? inventario.getSucursal().getNombre() : "Desconocida";
+        int disponible = IndiceDisponibilidad.disponible(inventario);
+        if (anterior != null && anterior.getCantidad() == disponible &&
+            Objects.equals(anterior.getUmbral(), inventario.getUmbral()) &&
+            Objects.equals(anterior.getProductoNombre(), producto) &&
+            Objects.equals(anterior.getSucursalNombre(), sucursal)) {
+            return anterior;
+        }
+
+        return AlertaStockBajo.builder()
+                .inventarioId(inventario.getId())
+                .productoId(inventario.getProducto() != null ? inventario.getProducto().getId() : null)
+                .productoNombre(producto)
+                .sucursalId(inventario.getSucursal() != null ? inventario.getSucursal().getId() : null)
+                .sucursalNombre(sucursal)
+                .cantidad(disponible)
+                .umbral(inventario.getUmbral())
+                .build();
+    }
+
+    /**
+     * Arma el mensaje la primera vez que se necesita; las cifras de una alerta no cambian, así
+     * que dos hilos que lo armen a la vez escriben el mismo texto.
+     */
+    private static AlertaStockBajo conMensaje(AlertaStockBajo alerta) {
+        if (alerta.getMensaje() == null) {
+            alerta.setMensaje(String.format(
+                    "ALERTA: Producto '%s' en sucursal '%s' tiene stock bajo. " +
+                    "Cantidad actual: %d, Umbral: %d",
+                    alerta.getProductoNombre(), alerta.getSucursalNombre(), alerta.getCantidad(), alerta.getUmbral()));
+        }
+        return alerta;
+    }
+}
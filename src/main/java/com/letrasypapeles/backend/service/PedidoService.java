@@ -1,23 +1,50 @@
 package com.letrasypapeles.backend.service;
 
+import com.letrasypapeles.backend.dto.IngresoProducto;
+import com.letrasypapeles.backend.dto.LineaPedidoRequest;
 import com.letrasypapeles.backend.dto.PedidoRequest;
+import com.letrasypapeles.backend.dto.ResumenVentas;
 import com.letrasypapeles.backend.entity.Cliente;
+import com.letrasypapeles.backend.entity.EstadoPedido;
+import com.letrasypapeles.backend.entity.Inventario;
 import com.letrasypapeles.backend.entity.Pedido;
+import com.letrasypapeles.backend.entity.PedidoLinea;
 import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.entity.SurtidoPedido;
 import com.letrasypapeles.backend.repository.ClienteRepository;
+import com.letrasypapeles.backend.repository.InventarioRepository;
+import com.letrasypapeles.backend.repository.PedidoLineaRepository;
 import com.letrasypapeles.backend.repository.PedidoRepository;
 import com.letrasypapeles.backend.repository.ProductoRepository;
+import com.letrasypapeles.backend.repository.SurtidoPedidoRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 @Service
 public class PedidoService {
 
+    /**
+     * Estados que cuentan como venta: el stock ya se descontó y el pedido no fue cancelado
+     */
+    static final List<String> ESTADOS_VENDIDOS = List.of(EstadoPedido.CONFIRMADO.name(), EstadoPedido.COMPLETADO.name());
+
     @Autowired
     private PedidoRepository pedidoRepository;
 
@@ -27,6 +54,18 @@ public class PedidoService {
     @Autowired
     private ProductoRepository productoRepository;
 
+    @Autowired
+    private PedidoLineaRepository pedidoLineaRepository;
+
+    @Autowired
+    private SurtidoPedidoRepository surtidoPedidoRepository;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     public List<Pedido> obtenerTodos() {
         return pedidoRepository.findAll();
     }
@@ -35,7 +74,26 @@ public class PedidoService {
         return pedidoRepository.findById(id);
     }
 
+    /**
+     * Sucursales desde las que se surtió un pedido
+     * @param pedidoId ID del pedido
+     * @return Cantidades por producto y sucursal (vacía si aún no se reserva stock), o vacío si el pedido no existe
+     */
+    public Optional<List<SurtidoPedido>> obtenerSurtido(Long pedidoId) {
+        if (!pedidoRepository.existsById(pedidoId)) {
+            return Optional.empty();
+        }
+        return Optional.of(surtidoPedidoRepository.findByPedidoIdOrderByProductoIdAscSucursalIdAsc(pedidoId));
+    }
+
     public Pedido guardar(Pedido pedido) {
+        Timer.Sample muestra = Timer.start(meterRegistry);
+
+        // An existing order keeps the unit price stored for the products it already had
+        Map<Long, BigDecimal> preciosGuardados = pedido.getId() != null
+                ? preciosGuardados(pedido.getId())
+                : new HashMap<>();
+
         // Resolve cliente relationship if only ID is provided (incomplete object)
         if (pedido.getCliente() != null && pedido.getCliente().getId() != null &&
             (pedido.getCliente().getNombre() == null || pedido.getCliente().getEmail() == null)) {
@@ -44,21 +102,47 @@ public class PedidoService {
             pedido.setCliente(cliente);
         }
 
-        // Resolve productos relationships if only IDs are provided (incomplete objects)
-        if (pedido.getListaProductos() != null && !pedido.getListaProductos().isEmpty()) {
-            List<Producto> productosCompletos = new ArrayList<>();
+        // Resolve productos (of listaProductos and lineas) given only by ID, all in one query
+        List<Long> idsIncompletos = new ArrayList<>();
+        if (pedido.getListaProductos() != null) {
             for (Producto producto : pedido.getListaProductos()) {
-                if (producto.getId() != null &&
-                    (producto.getNombre() == null || producto.getPrecio() == null)) {
-                    Producto productoCompleto = productoRepository.findById(producto.getId())
-                            .orElseThrow(() -> new RuntimeException("Producto no encontrado con ID: " + producto.getId()));
-                    productosCompletos.add(productoCompleto);
-                } else {
-                    productosCompletos.add(producto);
+                if (esIncompleto(producto)) {
+                    idsIncompletos.add(producto.getId());
                 }
             }
+        }
+        if (pedido.getLineas() != null) {
+            for (PedidoLinea linea : pedido.getLineas()) {
+                if (esIncompleto(linea.getProducto())) {
+                    idsIncompletos.add(linea.getProducto().getId());
+                }
+            }
+        }
+
+        Map<Long, Producto> productosPorId = resolverProductos(idsIncompletos);
+        if (pedido.getListaProductos() != null && !pedido.getListaProductos().isEmpty()) {
+            List<Producto> productosCompletos = new ArrayList<>(pedido.getListaProductos().size());
+            for (Producto producto : pedido.getListaProductos()) {
+                Producto productoCompleto = productosPorId.get(producto.getId());
+                productosCompletos.add(productoCompleto != null ? productoCompleto : producto);
+            }
             pedido.setListaProductos(productosCompletos);
         }
+        if (pedido.getLineas() != null) {
+            for (PedidoLinea linea : pedido.getLineas()) {
+                if (linea.getProducto() != null && productosPorId.containsKey(linea.getProducto().getId())) {
+                    linea.setProducto(productosPorId.get(linea.getProducto().getId()));
+                }
+            }
+        }
+
+        // Without explicit lines, each distinct product of listaProductos becomes a line
+        if (pedido.getLineas() == null || pedido.getLineas().isEmpty()) {
+            pedido.setLineas(lineasDesdeProductos(pedido.getListaProductos()));
+        } else if (pedido.getListaProductos() == null || pedido.getListaProductos().isEmpty()) {
+            pedido.setListaProductos(productosDeLineas(pedido.getLineas()));
+        }
+        completarLineas(pedido, preciosGuardados);
 
         // Set fecha if not provided
         if (pedido.getFecha() == null) {
@@ -70,7 +154,56 @@ public class PedidoService {
             pedido.setEstado("PENDIENTE");
         }
 
-        return pedidoRepository.save(pedido);
+        Pedido guardado = pedidoRepository.save(pedido);
+        registrarDuracion(muestra, pedido.getLineas().size());
+        return guardado;
+    }
+
+    /**
+     * Actualiza un pedido existente con los datos recibidos. Sin estado se conserva el guardado.
+     * El único cambio de estado aceptado es la cancelación: confirmar, rechazar y completar los
+     * hace el procesamiento de pedidos, que descuenta el stock y otorga los puntos. Cancelar un
+     * pedido CONFIRMADO devuelve su stock al producto y a las sucursales que lo surtieron.
+     * Un pedido que dejó de estar PENDIENTE, o que se cancela, conserva sus líneas, total y
+     * cliente; de él solo cambian la fecha, la región y el estado.
+     * @param existente Pedido guardado
+     * @param cambios Nuevos datos del pedido
+     * @throws IllegalArgumentException si el estado indicado no existe
+     * @throws IllegalStateException si el cambio de estado no es una cancelación permitida, si
+     * intenta cambiar líneas, total o cliente de un pedido que ya no puede modificarse, o si otra
+     * transacción cambió el estado del pedido
+     */
+    @Transactional
+    public Pedido actualizar(Pedido existente, Pedido cambios) {
+        EstadoPedido actual = estadoDe(existente.getEstado());
+        EstadoPedido destino = cambios.getEstado() == null || cambios.getEstado().trim().isEmpty()
+                ? actual
+                : estadoDe(cambios.getEstado());
+        if (destino != actual) {
+            if (destino != EstadoPedido.CANCELADO) {
+                throw new IllegalStateException("Un pedido solo puede cambiarse a CANCELADO; " + actual + " -> " +
+                        destino + " lo realiza el procesamiento de pedidos");
+            }
+            actual.validarTransicion(destino);
+        }
+
+        Pedido bloqueado = bloquear(existente.getId(), actual);
+        if (actual == EstadoPedido.PENDIENTE && destino == EstadoPedido.PENDIENTE) {
+            cambios.setId(bloqueado.getId());
+            cambios.setEstado(actual.name());
+            return guardar(cambios);
+        }
+
+        validarSinCambiosDeContenido(bloqueado, cambios);
+        if (actual == EstadoPedido.CONFIRMADO && destino == EstadoPedido.CANCELADO) {
+            liberarStock(bloqueado.getId());
+        }
+        if (cambios.getFecha() != null) {
+            bloqueado.setFecha(cambios.getFecha());
+        }
+        bloqueado.setRegion(cambios.getRegion());
+        bloqueado.setEstado(destino.name());
+        return pedidoRepository.save(bloqueado);
     }
 
     public void eliminar(Long id) {
@@ -86,28 +219,322 @@ public class PedidoService {
     }
 
     public Pedido crearDesdePedidoRequest(PedidoRequest pedidoRequest) {
+        Timer.Sample muestra = Timer.start(meterRegistry);
+
         // Fetch cliente
         Cliente cliente = clienteRepository.findById(pedidoRequest.getClienteId())
                 .orElseThrow(() -> new RuntimeException("Cliente no encontrado con ID: " + pedidoRequest.getClienteId()));
 
-        // Fetch productos
+        // Fetch productos (of productosIds and lineas) with a single query
+        List<Long> ids = new ArrayList<>();
+        if (pedidoRequest.getProductosIds() != null) {
+            ids.addAll(pedidoRequest.getProductosIds());
+        }
+        if (pedidoRequest.getLineas() != null) {
+            for (LineaPedidoRequest linea : pedidoRequest.getLineas()) {
+                if (linea.getProductoId() == null) {
+                    throw new RuntimeException("Cada línea debe indicar un producto");
+                }
+                ids.add(linea.getProductoId());
+            }
+        }
+        Map<Long, Producto> productosPorId = resolverProductos(ids);
+
+        // Duplicated IDs keep their position in the order
         List<Producto> productos = new ArrayList<>();
-        if (pedidoRequest.getProductosIds() != null && !pedidoRequest.getProductosIds().isEmpty()) {
+        if (pedidoRequest.getProductosIds() != null) {
             for (Long productoId : pedidoRequest.getProductosIds()) {
-                Producto producto = productoRepository.findById(productoId)
-                        .orElseThrow(() -> new RuntimeException("Producto no encontrado con ID: " + productoId));
-                productos.add(producto);
+                productos.add(productosPorId.get(productoId));
             }
         }
 
+        List<PedidoLinea> lineas;
+        if (pedidoRequest.getLineas() != null && !pedidoRequest.getLineas().isEmpty()) {
+            lineas = new ArrayList<>(pedidoRequest.getLineas().size());
+            for (LineaPedidoRequest linea : pedidoRequest.getLineas()) {
+                lineas.add(PedidoLinea.builder()
+                        .producto(productosPorId.get(linea.getProductoId()))
+                        .cantidad(linea.getCantidad())
+                        .build());
+            }
+            if (productos.isEmpty()) {
+                productos = productosDeLineas(lineas);
+            }
+        } else {
+            lineas = lineasDesdeProductos(productos);
+        }
+
         // Create Pedido
         Pedido pedido = Pedido.builder()
                 .cliente(cliente)
                 .listaProductos(productos)
+                .lineas(lineas)
                 .estado(pedidoRequest.getEstado() != null ? pedidoRequest.getEstado() : "PENDIENTE")
                 .fecha(pedidoRequest.getFecha() != null ? pedidoRequest.getFecha() : LocalDateTime.now())
+                .region(pedidoRequest.getRegion())
+                .build();
+        completarLineas(pedido, new HashMap<>());
+
+        Pedido guardado = pedidoRepository.save(pedido);
+        registrarDuracion(muestra, lineas.size());
+        return guardado;
+    }
+
+    /**
+     * Resumen de ventas calculado en SQL sobre los totales guardados de los pedidos confirmados o completados
+     * @param desde Fecha inicial inclusiva (opcional)
+     * @param hasta Fecha final exclusiva (opcional)
+     * @return Cantidad de pedidos, ingresos y ticket promedio
+     */
+    public ResumenVentas resumirVentas(LocalDateTime desde, LocalDateTime hasta) {
+        Object[] fila = pedidoRepository.resumirVentas(desde, hasta, ESTADOS_VENDIDOS).get(0);
+        long pedidos = ((Number) fila[0]).longValue();
+        BigDecimal ingresos = fila[1] instanceof BigDecimal ? (BigDecimal) fila[1] : new BigDecimal(fila[1].toString());
+        BigDecimal ticketPromedio = pedidos > 0
+                ? ingresos.divide(BigDecimal.valueOf(pedidos), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+
+        return ResumenVentas.builder()
+                .pedidos(pedidos)
+                .ingresos(ingresos)
+                .ticketPromedio(ticketPromedio)
                 .build();
+    }
+
+    /**
+     * Unidades vendidas e ingresos por producto de los pedidos confirmados o completados, de mayor a menor ingreso
+     * @param desde Fecha inicial inclusiva (opcional)
+     * @param hasta Fecha final exclusiva (opcional)
+     */
+    public List<IngresoProducto> obtenerIngresosPorProducto(LocalDateTime desde, LocalDateTime hasta) {
+        return pedidoLineaRepository.ingresosPorProducto(desde, hasta, ESTADOS_VENDIDOS);
+    }
+
+    /**
+     * Bloquea el pedido y comprueba que sigue en el estado leído; el estado se relee de la base
+     * de datos porque el procesamiento de pedidos pudo cambiarlo mientras se esperaba el bloqueo
+     * @throws IllegalStateException si el pedido ya no está en ese estado
+     */
+    private Pedido bloquear(Long pedidoId, EstadoPedido estado) {
+        List<Pedido> bloqueados = pedidoRepository.bloquearPorEstado(List.of(pedidoId), estado.name());
+        if (bloqueados.isEmpty() || pedidoRepository.findIdsPorIdsYEstado(List.of(pedidoId), estado.name()).isEmpty()) {
+            throw new IllegalStateException("El pedido ya no está en estado " + estado + "; vuelva a consultarlo");
+        }
+        return bloqueados.get(0);
+    }
 
-        return pedidoRepository.save(pedido);
+    /**
+     * Rechaza los cambios de líneas, total o cliente. Las líneas se comparan como cantidad por
+     * producto, así que reenviar el pedido tal como está no cuenta como cambio; omitirlas tampoco.
+     */
+    private void validarSinCambiosDeContenido(Pedido pedido, Pedido cambios) {
+        Map<Long, Integer> pedidas = null;
+        if (cambios.getLineas() != null && !cambios.getLineas().isEmpty()) {
+            pedidas = new TreeMap<>();
+            for (PedidoLinea linea : cambios.getLineas()) {
+                Long productoId = linea.getProducto() != null ? linea.getProducto().getId() : null;
+                pedidas.merge(productoId, linea.getCantidad() != null ? linea.getCantidad() : 1, Integer::sum);
+            }
+        } else if (cambios.getListaProductos() != null && !cambios.getListaProductos().isEmpty()) {
+            pedidas = new TreeMap<>();
+            for (Producto producto : cambios.getListaProductos()) {
+                pedidas.merge(producto.getId(), 1, Integer::sum);
+            }
+        }
+        if (pedidas != null && !pedidas.equals(cantidadesPorProducto(pedido.getId()))) {
+            throw new IllegalStateException("No se pueden modificar las líneas de un pedido en estado " + pedido.getEstado());
+        }
+        if (cambios.getTotal() != null && (pedido.getTotal() == null || cambios.getTotal().compareTo(pedido.getTotal()) != 0)) {
+            throw new IllegalStateException("No se puede modificar el total de un pedido en estado " + pedido.getEstado());
+        }
+        if (cambios.getCliente() != null && cambios.getCliente().getId() != null && pedido.getCliente() != null &&
+            !cambios.getCliente().getId().equals(pedido.getCliente().getId())) {
+            throw new IllegalStateException("No se puede modificar el cliente de un pedido en estado " + pedido.getEstado());
+        }
+    }
+
+    private Map<Long, Integer> cantidadesPorProducto(Long pedidoId) {
+        Map<Long, Integer> cantidades = new TreeMap<>();
+        for (Object[] fila : pedidoLineaRepository.findCantidadesPorPedidos(List.of(pedidoId))) {
+            cantidades.merge((Long) fila[1], fila[2] != null ? (Integer) fila[2] : 1, Integer::sum);
+        }
+        return cantidades;
+    }
+
+    /**
+     * Devuelve el stock de un pedido CONFIRMADO: sus cantidades al producto, con una actualización
+     * por producto, y lo surtido a cada sucursal según sus {@link SurtidoPedido}. Los inventarios
+     * bloqueados pueden estar desactualizados, así que la cantidad vigente se lee de la base de datos.
+     */
+    private void liberarStock(Long pedidoId) {
+        cantidadesPorProducto(pedidoId).forEach((productoId, cantidad) -> {
+            if (productoId != null) {
+                productoRepository.sumarStock(productoId, cantidad);
+            }
+        });
+
+        Map<Long, Map<Long, Integer>> surtido = new TreeMap<>();
+        TreeSet<Long> sucursalIds = new TreeSet<>();
+        for (SurtidoPedido fila : surtidoPedidoRepository.findByPedidoIdOrderByProductoIdAscSucursalIdAsc(pedidoId)) {
+            surtido.computeIfAbsent(fila.getProductoId(), id -> new HashMap<>())
+                    .merge(fila.getSucursalId(), fila.getCantidad(), Integer::sum);
+            sucursalIds.add(fila.getSucursalId());
+        }
+        if (surtido.isEmpty()) {
+            return;
+        }
+
+        List<Inventario> bloqueados = inventarioRepository.bloquearPorProductosYSucursales(surtido.keySet(), sucursalIds);
+        List<Long> inventarioIds = new ArrayList<>(bloqueados.size());
+        bloqueados.forEach(inventario -> inventarioIds.add(inventario.getId()));
+        Map<Long, Integer> vigentes = new HashMap<>();
+        for (Object[] fila : inventarioRepository.findCantidadesPorIds(inventarioIds)) {
+            vigentes.put((Long) fila[0], fila[1] != null ? (Integer) fila[1] : 0);
+        }
+        for (Inventario inventario : bloqueados) {
+            Integer devolver = surtido.get(inventario.getProducto().getId()).get(inventario.getSucursal().getId());
+            if (devolver != null && vigentes.containsKey(inventario.getId())) {
+                inventario.setCantidad(vigentes.get(inventario.getId()) + devolver);
+            }
+        }
+    }
+
+    private static EstadoPedido estadoDe(String estado) {
+        try {
+            return EstadoPedido.valueOf(estado);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Estado de pedido inválido: " + estado);
+        }
+    }
+
+    private static boolean esIncompleto(Producto producto) {
+        return producto != null && producto.getId() != null &&
+               (producto.getNombre() == null || producto.getPrecio() == null);
+    }
+
+    /**
+     * Agrupa los productos repetidos en una línea por producto, con la cantidad de repeticiones
+     */
+    private static List<PedidoLinea> lineasDesdeProductos(List<Producto> productos) {
+        List<PedidoLinea> lineas = new ArrayList<>();
+        if (productos == null) {
+            return lineas;
+        }
+
+        Map<Long, PedidoLinea> lineaPorProducto = new HashMap<>();
+        for (Producto producto : productos) {
+            PedidoLinea linea = producto.getId() != null ? lineaPorProducto.get(producto.getId()) : null;
+            if (linea != null) {
+                linea.setCantidad(linea.getCantidad() + 1);
+            } else {
+                linea = PedidoLinea.builder().producto(producto).cantidad(1).build();
+                lineas.add(linea);
+                if (producto.getId() != null) {
+                    lineaPorProducto.put(producto.getId(), linea);
+                }
+            }
+        }
+        return lineas;
+    }
+
+    private static List<Producto> productosDeLineas(List<PedidoLinea> lineas) {
+        List<Producto> productos = new ArrayList<>(lineas.size());
+        for (PedidoLinea linea : lineas) {
+            if (linea.getProducto() != null && !productos.contains(linea.getProducto())) {
+                productos.add(linea.getProducto());
+            }
+        }
+        return productos;
+    }
+
+    /**
+     * Precio unitario guardado por producto en las líneas actuales del pedido
+     */
+    private Map<Long, BigDecimal> preciosGuardados(Long pedidoId) {
+        Map<Long, BigDecimal> precios = new HashMap<>();
+        for (Object[] fila : pedidoLineaRepository.findPreciosPorPedido(pedidoId)) {
+            precios.putIfAbsent((Long) fila[0], (BigDecimal) fila[1]);
+        }
+        return precios;
+    }
+
+    /**
+     * Fija en cada línea su precio unitario y total, y guarda el total del pedido.
+     * Los productos con precio en {@code preciosGuardados} lo conservan; los demás toman el precio vigente.
+     */
+    private static void completarLineas(Pedido pedido, Map<Long, BigDecimal> preciosGuardados) {
+        if (pedido.getLineas() == null) {
+            pedido.setLineas(new ArrayList<>());
+        }
+
+        long total = 0;
+        for (PedidoLinea linea : pedido.getLineas()) {
+            if (linea.getCantidad() == null) {
+                linea.setCantidad(1);
+            } else if (linea.getCantidad() < 1) {
+                throw new RuntimeException("La cantidad de cada línea debe ser mayor a 0");
+            }
+
+            Producto producto = linea.getProducto();
+            BigDecimal precioGuardado = producto != null ? preciosGuardados.get(producto.getId()) : null;
+            long precio = CalculadoraMonetaria.aCentavos(precioGuardado != null ? precioGuardado
+                    : producto != null ? producto.getPrecio() : null);
+            long totalLinea = CalculadoraMonetaria.totalLinea(precio, linea.getCantidad());
+            total = Math.addExact(total, totalLinea);
+
+            linea.setPedido(pedido);
+            linea.setPrecioUnitario(CalculadoraMonetaria.aBigDecimal(precio));
+            linea.setTotalLinea(CalculadoraMonetaria.aBigDecimal(totalLinea));
+        }
+        pedido.setTotal(CalculadoraMonetaria.aBigDecimal(total));
+    }
+
+    /**
+     * Carga todos los productos referenciados con un único findAllById
+     * @param ids IDs de productos (pueden repetirse)
+     * @return Productos por ID
+     * @throws RuntimeException con el primer ID que no existe
+     */
+    private Map<Long, Producto> resolverProductos(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        Set<Long> idsUnicos = new LinkedHashSet<>(ids);
+        Map<Long, Producto> productosPorId = new HashMap<>();
+        for (Producto producto : productoRepository.findAllById(idsUnicos)) {
+            productosPorId.put(producto.getId(), producto);
+        }
+        for (Long id : idsUnicos) {
+            if (!productosPorId.containsKey(id)) {
+                throw new RuntimeException("Producto no encontrado con ID: " + id);
+            }
+        }
+        return productosPorId;
+    }
+
+    /**
+     * Registra la duración de creación del pedido agrupada por tramo de líneas, para ver cómo
+     * escala con el tamaño del pedido sin generar una serie por cada cantidad exacta.
+     */
+    private void registrarDuracion(Timer.Sample muestra, int lineas) {
+        muestra.stop(Timer.builder("pedidos.creacion.duracion")
+                .description("Duración de la creación de pedidos por cantidad de líneas")
+                .tag("lineas", tramoDeLineas(lineas))
+                .register(meterRegistry));
+        meterRegistry.summary("pedidos.creacion.lineas").record(lineas);
+    }
+
+    static String tramoDeLineas(int lineas) {
+        if (lineas <= 1) {
+            return "0-1";
+        } else if (lineas <= 10) {
+            return "2-10";
+        } else if (lineas <= 50) {
+            return "11-50";
+        } else if (lineas <= 200) {
+            return "51-200";
+        }
+        return "200+";
     }
 }
@@ -0,0 +1,217 @@
+package com.letrasypapeles.backend.service;
+
+import com.letrasypapeles.backend.entity.EstadoPedido;
+import com.letrasypapeles.backend.repository.PedidoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Procesa en segundo plano los pedidos creados. Los IDs se encolan al confirmarse la
+ * transacción que crea el pedido, en una cola acotada; un grupo fijo de hilos toma lotes de la
+ * cola y los hace avanzar por las etapas de {@link FlujoPedidosService}. Si la cola está llena
+ * el pedido queda PENDIENTE y lo recoge el siguiente barrido.
+ */
+@Component
+public class ProcesadorPedidos {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcesadorPedidos.class);
+
+    private static final List<String> ESTADOS_EN_CURSO =
+            List.of(EstadoPedido.PENDIENTE.name(), EstadoPedido.CONFIRMADO.name());
+
+    private final FlujoPedidosService flujo;
+    private final PedidoRepository pedidoRepository;
+    private final int hilos;
+    private final int tamanoLote;
+    private final boolean habilitado;
+
+    private final BlockingQueue<Long> cola;
+    private final Set<Long> encolados = ConcurrentHashMap.newKeySet();
+    private final ExecutorService trabajadores;
+
+    private final Timer etapaReserva;
+    private final Timer etapaCompletado;
+    private final Counter completados;
+    private final Counter rechazados;
+    private final Counter errores;
+    private final Counter desbordes;
+
+    public ProcesadorPedidos(FlujoPedidosService flujo,
+                             PedidoRepository pedidoRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${pedidos.procesamiento.hilos:2}") int hilos,
+                             @Value("${pedidos.procesamiento.capacidad:10000}") int capacidad,
+                             @Value("${pedidos.procesamiento.lote:50}") int tamanoLote,
+                             @Value("${pedidos.procesamiento.habilitado:true}") boolean habilitado) {
+        this.flujo = flujo;
+        this.pedidoRepository = pedidoRepository;
+        this.hilos = hilos;
+        this.tamanoLote = tamanoLote;
+        this.habilitado = habilitado;
+        this.cola = new LinkedBlockingQueue<>(capacidad);
+
+        AtomicInteger numero = new AtomicInteger();
+        this.trabajadores = Executors.newFixedThreadPool(hilos, r -> {
+            Thread hilo = new Thread(r, "procesador-pedidos-" + numero.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+
+        Gauge.builder("pedidos.cola.profundidad", cola, BlockingQueue::size)
+                .description("Pedidos esperando ser procesados")
+                .register(meterRegistry);
+        this.etapaReserva = Timer.builder("pedidos.etapa.duracion")
+                .description("Duración de cada etapa del procesamiento por lote")
+                .tag("etapa", "reserva")
+                .register(meterRegistry);
+        this.etapaCompletado = Timer.builder("pedidos.etapa.duracion")
+                .description("Duración de cada etapa del procesamiento por lote")
+                .tag("etapa", "completado")
+                .register(meterRegistry);
+        this.completados = Counter.builder("pedidos.procesados")
+                .description("Pedidos que terminaron su procesamiento")
+                .tag("resultado", "completado")
+                .register(meterRegistry);
+        this.rechazados = Counter.builder("pedidos.procesados")
+                .description("Pedidos que terminaron su procesamiento")
+                .tag("resultado", "rechazado")
+                .register(meterRegistry);
+        this.errores = Counter.builder("pedidos.procesamiento.errores")
+                .description("Lotes de pedidos que fallaron y se reintentarán")
+                .register(meterRegistry);
+        this.desbordes = Counter.builder("pedidos.cola.desbordes")
+                .description("Pedidos que no cupieron en la cola y esperan el barrido")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (!habilitado) {
+            logger.info("Procesamiento de pedidos deshabilitado");
+            return;
+        }
+        for (int i = 0; i < hilos; i++) {
+            trabajadores.execute(this::trabajar);
+        }
+        int recuperados = barrer();
+        logger.info("Procesador de pedidos iniciado: {} hilos, {} pedidos recuperados", hilos, recuperados);
+    }
+
+    @PreDestroy
+    public void detener() {
+        trabajadores.shutdownNow();
+    }
+
+    /**
+     * Encola un pedido para procesarlo. Dentro de una transacción se encola al confirmarla,
+     * para que el procesador vea el pedido guardado.
+     */
+    public void encolar(Long pedidoId) {
+        if (!habilitado || pedidoId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ofrecer(pedidoId);
+                }
+            });
+        } else {
+            ofrecer(pedidoId);
+        }
+    }
+
+    /**
+     * Vuelve a encolar los pedidos PENDIENTES o CONFIRMADOS: los que quedaron tras un reinicio,
+     * un desborde de la cola o un lote fallido
+     * @return Cantidad de pedidos encolados
+     */
+    @Scheduled(initialDelayString = "${pedidos.procesamiento.barrido:PT1M}",
+               fixedDelayString = "${pedidos.procesamiento.barrido:PT1M}")
+    public int barrer() {
+        if (!habilitado) {
+            return 0;
+        }
+        int encoladosAhora = 0;
+        int espacio = cola.remainingCapacity();
+        if (espacio > 0) {
+            for (Long pedidoId : pedidoRepository.findIdsPorEstados(ESTADOS_EN_CURSO, PageRequest.of(0, espacio))) {
+                if (ofrecer(pedidoId)) {
+                    encoladosAhora++;
+                }
+            }
+        }
+        return encoladosAhora;
+    }
+
+    private boolean ofrecer(Long pedidoId) {
+        if (!encolados.add(pedidoId)) {
+            return false;
+        }
+        if (!cola.offer(pedidoId)) {
+            encolados.remove(pedidoId);
+            desbordes.increment();
+            logger.warn("Cola de pedidos llena; el pedido {} se procesará en el próximo barrido", pedidoId);
+            return false;
+        }
+        return true;
+    }
+
+    private void trabajar() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<Long> lote = new ArrayList<>(tamanoLote);
+                lote.add(cola.take());
+                cola.drainTo(lote, tamanoLote - 1);
+                lote.forEach(encolados::remove);
+                procesar(lote);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Hace avanzar un lote por todas las etapas. Si una etapa falla los pedidos conservan su
+     * estado y el barrido los reintenta.
+     */
+    void procesar(List<Long> lote) {
+        try {
+            Integer sinStock = etapaReserva.record(() -> flujo.reservarStock(lote));
+            Integer terminados = etapaCompletado.record(() -> flujo.completar(lote));
+            rechazados.increment(sinStock != null ? sinStock : 0);
+            completados.increment(terminados != null ? terminados : 0);
+        } catch (RuntimeException e) {
+            errores.increment();
+            logger.warn("No se pudo procesar un lote de {} pedidos, se reintentará: {}", lote.size(), e.getMessage());
+        }
+    }
+
+    int enCola() {
+        return cola.size();
+    }
+}
@@ -2,9 +2,11 @@ package com.letrasypapeles.backend.service;
 
 import com.letrasypapeles.backend.entity.Producto;
 import com.letrasypapeles.backend.repository.ProductoRepository;
+import com.letrasypapeles.backend.web.CacheRespuestasProducto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +16,9 @@ public class ProductoService {
     @Autowired
     private ProductoRepository productoRepository;
 
+    @Autowired
+    private CacheRespuestasProducto cacheRespuestasProducto;
+
     public List<Producto> obtenerTodos() {
         return productoRepository.findAll();
     }
@@ -22,12 +27,19 @@ public class ProductoService {
         return productoRepository.findById(id);
     }
 
+    public List<Producto> obtenerPorIds(Collection<Long> ids) {
+        return productoRepository.findAllById(ids);
+    }
+
     public Producto guardar(Producto producto) {
-        return productoRepository.save(producto);
+        Producto guardado = productoRepository.save(producto);
+        cacheRespuestasProducto.invalidar(guardado.getId());
+        return guardado;
     }
 
     public void eliminar(Long id) {
         productoRepository.deleteById(id);
+        cacheRespuestasProducto.invalidar(id);
     }
 
     /**
@@ -60,7 +72,9 @@ public class ProductoService {
         }
 
         producto.setStock(producto.getStock() - cantidadReducir);
-        return productoRepository.save(producto);
+        Producto guardado = productoRepository.save(producto);
+        cacheRespuestasProducto.invalidar(productoId);
+        return guardado;
     }
 
     /**
@@ -79,7 +93,9 @@ public class ProductoService {
 
         int stockActual = producto.getStock() != null ? producto.getStock() : 0;
         producto.setStock(stockActual + cantidadAumentar);
-        return productoRepository.save(producto);
+        Producto guardado = productoRepository.save(producto);
+        cacheRespuestasProducto.invalidar(productoId);
+        return guardado;
     }
 
     /**
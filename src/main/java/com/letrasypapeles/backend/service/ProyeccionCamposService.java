@@ -0,0 +1,81 @@
+package com.letrasypapeles.backend.service;
+
+import com.letrasypapeles.backend.entity.Categoria;
+import com.letrasypapeles.backend.entity.Cliente;
+import com.letrasypapeles.backend.entity.Inventario;
+import com.letrasypapeles.backend.entity.Notificacion;
+import com.letrasypapeles.backend.entity.Pedido;
+import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.entity.Proveedor;
+import com.letrasypapeles.backend.entity.Reserva;
+import com.letrasypapeles.backend.entity.Sucursal;
+import com.letrasypapeles.backend.repository.ProyeccionCamposRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Lectura parcial de entidades para el parámetro {@code ?fields=}. Solo se aceptan los campos de
+ * la lista de permitidos de cada entidad, que deja fuera datos sensibles (contraseña, roles) y
+ * colecciones; las asociaciones se piden campo a campo, por ejemplo {@code categoria.nombre}.
+ */
+@Service
+public class ProyeccionCamposService {
+
+    static final Map<Class<?>, List<String>> PERMITIDOS = Map.of(
+            Producto.class, List.of("id", "nombre", "descripcion", "precio", "stock",
+                    "categoria.id", "categoria.nombre", "proveedor.id", "proveedor.nombre"),
+            Categoria.class, List.of("id", "nombre", "descripcion"),
+            Sucursal.class, List.of("id", "nombre", "direccion", "region"),
+            Proveedor.class, List.of("id", "nombre", "contacto"),
+            Cliente.class, List.of("id", "nombre", "apellido", "email", "puntosFidelidad"),
+            Pedido.class, List.of("id", "fecha", "estado", "total", "region", "cliente.id", "cliente.nombre"),
+            Reserva.class, List.of("id", "fechaReserva", "estado", "cantidad", "cantidadApartada",
+                    "cliente.id", "cliente.nombre", "producto.id", "producto.nombre", "sucursal.id", "sucursal.nombre"),
+            Inventario.class, List.of("id", "cantidad", "reservado", "umbral",
+                    "producto.id", "producto.nombre", "sucursal.id", "sucursal.nombre"),
+            Notificacion.class, List.of("id", "mensaje", "fecha", "cliente.id", "cliente.nombre"));
+
+    @Autowired
+    private ProyeccionCamposRepository proyeccionCamposRepository;
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> obtenerTodos(Class<?> entidad, String fields) {
+        return proyeccionCamposRepository.proyectar(entidad, campos(entidad, fields));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> obtenerPorId(Class<?> entidad, Long id, String fields) {
+        return proyeccionCamposRepository.proyectarPorId(entidad, id, campos(entidad, fields));
+    }
+
+    /**
+     * Valida y normaliza la lista separada por comas; los repetidos se ignoran y se mantiene el orden
+     * @throws IllegalArgumentException si la lista está vacía o pide un campo no permitido
+     */
+    List<String> campos(Class<?> entidad, String fields) {
+        List<String> permitidos = PERMITIDOS.get(entidad);
+        List<String> campos = new ArrayList<>();
+        for (String campo : fields == null ? new String[0] : fields.split(",")) {
+            campo = campo.trim();
+            if (campo.isEmpty() || campos.contains(campo)) {
+                continue;
+            }
+            if (!permitidos.contains(campo)) {
+                throw new IllegalArgumentException("Campo no permitido: " + campo +
+                        ". Campos disponibles: " + String.join(",", permitidos));
+            }
+            campos.add(campo);
+        }
+        if (campos.isEmpty()) {
+            throw new IllegalArgumentException("Debe indicar al menos un campo. Campos disponibles: " +
+                    String.join(",", permitidos));
+        }
+        return campos;
+    }
+}
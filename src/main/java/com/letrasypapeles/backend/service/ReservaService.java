@@ -1,22 +1,41 @@
 package com.letrasypapeles.backend.service;
 
+import com.letrasypapeles.backend.dto.AsignacionSurtido;
 import com.letrasypapeles.backend.dto.ReservaRequest;
+import com.letrasypapeles.backend.dto.ResultadoReservaLote;
 import com.letrasypapeles.backend.entity.Reserva;
 import com.letrasypapeles.backend.entity.Producto;
 import com.letrasypapeles.backend.entity.Cliente;
+import com.letrasypapeles.backend.entity.Inventario;
+import com.letrasypapeles.backend.repository.InventarioRepository;
 import com.letrasypapeles.backend.repository.ReservaRepository;
 import com.letrasypapeles.backend.repository.ProductoRepository;
 import com.letrasypapeles.backend.repository.ClienteRepository;
+import com.letrasypapeles.backend.repository.SucursalRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 @Service
 public class ReservaService {
 
+    static final int MAX_RESERVAS_POR_LOTE = 1000;
+    private static final int LARGO_MAXIMO_MOTIVO = 255;
+
     @Autowired
     private ReservaRepository reservaRepository;
 
@@ -26,6 +45,21 @@ public class ReservaService {
     @Autowired
     private ClienteRepository clienteRepository;
 
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private SucursalRepository sucursalRepository;
+
+    @Autowired
+    private RuteadorSurtido ruteadorSurtido;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     public List<Reserva> obtenerTodas() {
         return reservaRepository.findAll();
     }
@@ -69,6 +103,7 @@ public class ReservaService {
         return reservaRepository.save(reserva);
     }
 
+    @Transactional
     public Reserva crearDesdeReservaRequest(ReservaRequest reservaRequest) {
         // Fetch cliente
         Cliente cliente = clienteRepository.findById(reservaRequest.getClienteId())
@@ -85,11 +120,36 @@ public class ReservaService {
                 .cantidad(reservaRequest.getCantidad() != null ? reservaRequest.getCantidad() : 1)
                 .estado(reservaRequest.getEstado() != null ? reservaRequest.getEstado() : "PENDIENTE")
                 .fechaReserva(reservaRequest.getFechaReserva() != null ? reservaRequest.getFechaReserva() : LocalDateTime.now())
+                .cantidadApartada(0)
                 .build();
 
+        if ("PENDIENTE".equals(reserva.getEstado())) {
+            apartar(reserva, null);
+        }
         return reservaRepository.save(reserva);
     }
 
+    /**
+     * Crea una reserva PENDIENTE apartando su cantidad: se descuenta del stock del producto y se
+     * aparta en una sola sucursal, de la región indicada si es posible
+     * @param reserva Reserva con cliente y producto (completos o solo con ID)
+     * @param region Región preferida para la sucursal (opcional)
+     * @return Reserva creada
+     * @throws RuntimeException si no hay stock disponible; en ese caso no se aparta nada
+     */
+    @Transactional
+    public Reserva crearConApartado(Reserva reserva, String region) {
+        if (reserva.getProducto() == null || reserva.getProducto().getId() == null) {
+            throw new RuntimeException("Producto no encontrado");
+        }
+        if (reserva.getCantidad() == null) {
+            reserva.setCantidad(1);
+        }
+        reserva.setEstado("PENDIENTE");
+        apartar(reserva, region);
+        return guardar(reserva);
+    }
+
     public void eliminar(Long id) {
         reservaRepository.deleteById(id);
     }
@@ -111,13 +171,16 @@ public class ReservaService {
     }
 
     /**
-     * Crea una nueva reserva validando que haya stock suficiente
+     * Crea una nueva reserva apartando el stock solicitado
      * @param clienteId ID del cliente
      * @param productoId ID del producto
      * @param cantidad Cantidad a reservar (por defecto 1)
      * @return Reserva creada
      */
+    @Transactional
     public Reserva crearReservaConValidacion(Long clienteId, Long productoId, Integer cantidad) {
+        int solicitada = cantidad != null ? cantidad : 1;
+
         // Validar que el cliente existe
         Cliente cliente = clienteRepository.findById(clienteId)
                 .orElseThrow(() -> new RuntimeException("Cliente no encontrado"));
@@ -127,28 +190,32 @@ public class ReservaService {
                 .orElseThrow(() -> new RuntimeException("Producto no encontrado"));
 
         // Validar stock disponible
-        if (producto.getStock() == null || producto.getStock() < cantidad) {
+        if (producto.getStock() == null || producto.getStock() < solicitada) {
             throw new RuntimeException("Stock insuficiente. Stock disponible: " +
                 (producto.getStock() != null ? producto.getStock() : 0) +
-                ", cantidad solicitada: " + cantidad);
+                ", cantidad solicitada: " + solicitada);
         }
 
-        // Crear la reserva
+        // Crear la reserva apartando su cantidad
         Reserva reserva = Reserva.builder()
                 .cliente(cliente)
                 .producto(producto)
+                .cantidad(solicitada)
                 .fechaReserva(LocalDateTime.now())
                 .estado("PENDIENTE")
                 .build();
+        apartar(reserva, null);
 
         return reservaRepository.save(reserva);
     }
 
     /**
-     * Confirma una reserva y reduce el stock del producto
+     * Confirma una reserva PENDIENTE y otorga sus puntos de fidelidad
      * @param reservaId ID de la reserva
      * @return Reserva confirmada
+     * @see #confirmar(List)
      */
+    @Transactional
     public Reserva confirmarReserva(Long reservaId) {
         Reserva reserva = reservaRepository.findById(reservaId)
                 .orElseThrow(() -> new RuntimeException("Reserva no encontrada"));
@@ -157,26 +224,16 @@ public class ReservaService {
             throw new RuntimeException("Solo se pueden confirmar reservas en estado PENDIENTE");
         }
 
-        // Validar stock nuevamente por si cambió
-        Producto producto = reserva.getProducto();
-        if (producto.getStock() == null || producto.getStock() < 1) {
-            throw new RuntimeException("Stock insuficiente para confirmar la reserva");
-        }
-
-        // Reducir stock
-        producto.setStock(producto.getStock() - 1);
-        productoRepository.save(producto);
-
-        // Actualizar estado de la reserva
-        reserva.setEstado("CONFIRMADA");
-        return reservaRepository.save(reserva);
+        confirmar(List.of(reserva));
+        return reserva;
     }
 
     /**
-     * Cancela una reserva
+     * Cancela una reserva; si estaba PENDIENTE libera exactamente lo que tenía apartado
      * @param reservaId ID de la reserva
      * @return Reserva cancelada
      */
+    @Transactional
     public Reserva cancelarReserva(Long reservaId) {
         Reserva reserva = reservaRepository.findById(reservaId)
                 .orElseThrow(() -> new RuntimeException("Reserva no encontrada"));
@@ -185,7 +242,12 @@ public class ReservaService {
             throw new RuntimeException("No se puede cancelar una reserva ya confirmada");
         }
 
+        if ("PENDIENTE".equals(reserva.getEstado())) {
+            cancelar(List.of(reserva));
+            return reserva;
+        }
         reserva.setEstado("CANCELADA");
+        reserva.setCantidadApartada(0);
         return reservaRepository.save(reserva);
     }
 
@@ -216,4 +278,352 @@ public class ReservaService {
                 .filter(reserva -> "PENDIENTE".equals(reserva.getEstado()))
                 .count();
     }
+
+    /**
+     * Cancela en lote reservas vencidas y devuelve su stock.
+     * Solo se cancelan las que siguen PENDIENTES con fecha anterior o igual al límite, así una
+     * reserva confirmada o modificada después de programar su vencimiento no se toca.
+     * @param ids IDs candidatos a vencer
+     * @param limite Fecha de reserva máxima para considerarla vencida
+     * @return Número de reservas canceladas
+     */
+    @Transactional
+    public int cancelarVencidas(Collection<Long> ids, LocalDateTime limite) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        List<Reserva> vencidas = reservaRepository.bloquearPendientesVencidas(ids, limite);
+        if (vencidas.isEmpty()) {
+            return 0;
+        }
+
+        cancelar(vencidas);
+        return vencidas.size();
+    }
+
+    /**
+     * Confirma un lote de reservas en una sola transacción, con el mismo efecto que confirmarlas
+     * una a una: cada reserva PENDIENTE con producto se confirma y otorga sus puntos
+     * @param ids IDs de las reservas a confirmar
+     * @return Resultado de cada ID, en el orden recibido
+     * @see #confirmar(List)
+     */
+    @Transactional
+    public List<ResultadoReservaLote> confirmarLote(List<Long> ids) {
+        Map<Long, ResultadoReservaLote> resultados = new LinkedHashMap<>();
+        List<Reserva> pendientes = bloquearPendientes(ids, resultados,
+                "Solo se pueden confirmar reservas en estado PENDIENTE");
+
+        List<Reserva> confirmables = new ArrayList<>(pendientes.size());
+        for (Reserva reserva : pendientes) {
+            if (reserva.getProducto() == null) {
+                resultados.put(reserva.getId(), fallo(reserva.getId(), reserva.getEstado(), "La reserva no tiene producto"));
+            } else {
+                confirmables.add(reserva);
+            }
+        }
+
+        confirmar(confirmables);
+        confirmables.forEach(reserva -> resultados.put(reserva.getId(), exito(reserva.getId(), "CONFIRMADA")));
+        return new ArrayList<>(resultados.values());
+    }
+
+    /**
+     * Cancela un lote de reservas PENDIENTES en una sola transacción y restaura su stock, con el
+     * mismo efecto que cancelarlas una a una
+     * @param ids IDs de las reservas a cancelar
+     * @return Resultado de cada ID, en el orden recibido
+     * @see #cancelar(List)
+     */
+    @Transactional
+    public List<ResultadoReservaLote> cancelarLote(List<Long> ids) {
+        Map<Long, ResultadoReservaLote> resultados = new LinkedHashMap<>();
+        List<Reserva> pendientes = bloquearPendientes(ids, resultados,
+                "Solo se pueden cancelar reservas en estado PENDIENTE");
+
+        cancelar(pendientes);
+        pendientes.forEach(reserva -> resultados.put(reserva.getId(), exito(reserva.getId(), "CANCELADA")));
+        return new ArrayList<>(resultados.values());
+    }
+
+    /**
+     * Confirma reservas PENDIENTES; es el único camino de confirmación, tanto individual como en
+     * lote. El stock del producto ya se descontó al crear cada reserva, así que no se vuelve a
+     * descontar: lo apartado en una sucursal pasa a descontarse de su cantidad física y lo
+     * apartado queda en 0. Cada reserva otorga los puntos de fidelidad de su compra, sumados en
+     * un solo movimiento por cliente.
+     */
+    private void confirmar(List<Reserva> reservas) {
+        if (reservas.isEmpty()) {
+            return;
+        }
+        convertirApartados(reservas);
+        otorgarPuntos(reservas);
+        cambiarEstado(reservas, "CONFIRMADA");
+    }
+
+    /**
+     * Cancela reservas PENDIENTES; es el único camino de cancelación, tanto individual, como en
+     * lote o por vencimiento. Devuelve su stock y deja lo apartado en 0.
+     */
+    private void cancelar(List<Reserva> reservas) {
+        if (reservas.isEmpty()) {
+            return;
+        }
+        liberarStock(reservas);
+        Map<Long, Producto> productos = new LinkedHashMap<>();
+        for (Reserva reserva : reservas) {
+            if (reserva.getProducto() != null) {
+                productos.putIfAbsent(reserva.getProducto().getId(), reserva.getProducto());
+            }
+        }
+        cambiarEstado(reservas, "CANCELADA");
+        productos.values().forEach(this::alinearStock);
+    }
+
+    /**
+     * Cambia el estado de las reservas con una sola actualización y lo refleja en las entidades.
+     * Se desacoplan del contexto de persistencia antes de asignarlo para que al confirmar la
+     * transacción no se vuelvan a escribir una a una.
+     */
+    private void cambiarEstado(List<Reserva> reservas, String estado) {
+        List<Long> ids = new ArrayList<>(reservas.size());
+        reservas.forEach(reserva -> ids.add(reserva.getId()));
+        reservaRepository.actualizarEstado(ids, estado);
+        for (Reserva reserva : reservas) {
+            entityManager.detach(reserva);
+            reserva.setEstado(estado);
+            reserva.setCantidadApartada(0);
+        }
+    }
+
+    /**
+     * Calcula los puntos de cada reserva como si se confirmara sola y registra un solo movimiento
+     * por cliente con la suma
+     */
+    private void otorgarPuntos(List<Reserva> reservas) {
+        Map<Long, Integer> puntosPorCliente = new TreeMap<>();
+        Map<Long, List<Long>> reservasPorCliente = new HashMap<>();
+        for (Reserva reserva : reservas) {
+            if (reserva.getCliente() == null || reserva.getProducto() == null || reserva.getProducto().getPrecio() == null) {
+                continue;
+            }
+            int cantidad = reserva.getCantidad() != null ? reserva.getCantidad() : 1;
+            long totalCompra = CalculadoraMonetaria.totalLinea(
+                    CalculadoraMonetaria.aCentavos(reserva.getProducto().getPrecio()), cantidad);
+            Long clienteId = reserva.getCliente().getId();
+            puntosPorCliente.merge(clienteId, CalculadoraMonetaria.puntosFidelidad(totalCompra), Integer::sum);
+            reservasPorCliente.computeIfAbsent(clienteId, id -> new ArrayList<>()).add(reserva.getId());
+        }
+        puntosPorCliente.forEach((clienteId, puntos) ->
+                clienteService.actualizarPuntosFidelidadDirecto(clienteId, puntos, motivo(reservasPorCliente.get(clienteId))));
+    }
+
+    /**
+     * "RESERVA 7" para una reserva y "RESERVAS 7,8,9" para varias; si la lista no cabe en el
+     * motivo del movimiento se indica solo cuántas fueron
+     */
+    private static String motivo(List<Long> reservaIds) {
+        if (reservaIds.size() == 1) {
+            return "RESERVA " + reservaIds.get(0);
+        }
+        String motivo = "RESERVAS " + reservaIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        return motivo.length() <= LARGO_MAXIMO_MOTIVO ? motivo : "RESERVAS EN LOTE (" + reservaIds.size() + ")";
+    }
+
+    /**
+     * Bloquea las reservas del lote y devuelve las PENDIENTES; el resto queda registrado como
+     * fallido en resultados, que conserva el orden recibido y descarta IDs repetidos.
+     */
+    private List<Reserva> bloquearPendientes(List<Long> ids, Map<Long, ResultadoReservaLote> resultados,
+                                             String mensajeEstadoInvalido) {
+        if (ids == null || ids.isEmpty()) {
+            throw new RuntimeException("Debe indicar al menos una reserva");
+        }
+        if (ids.size() > MAX_RESERVAS_POR_LOTE) {
+            throw new RuntimeException("El lote no puede superar " + MAX_RESERVAS_POR_LOTE + " reservas");
+        }
+
+        for (Long id : ids) {
+            if (id != null) {
+                resultados.put(id, fallo(id, null, "Reserva no encontrada"));
+            }
+        }
+        if (resultados.isEmpty()) {
+            return List.of();
+        }
+
+        List<Reserva> pendientes = new ArrayList<>();
+        for (Reserva reserva : reservaRepository.bloquearPorIds(resultados.keySet())) {
+            if ("PENDIENTE".equals(reserva.getEstado())) {
+                pendientes.add(reserva);
+            } else {
+                resultados.put(reserva.getId(), fallo(reserva.getId(), reserva.getEstado(), mensajeEstadoInvalido));
+            }
+        }
+        return pendientes;
+    }
+
+    private static ResultadoReservaLote exito(Long reservaId, String estado) {
+        return ResultadoReservaLote.builder().reservaId(reservaId).exito(true).estado(estado).build();
+    }
+
+    private static ResultadoReservaLote fallo(Long reservaId, String estado, String mensaje) {
+        return ResultadoReservaLote.builder().reservaId(reservaId).exito(false).estado(estado).mensaje(mensaje).build();
+    }
+
+    /**
+     * Aparta la cantidad de la reserva: la descuenta del stock del producto con una actualización
+     * condicional y la aparta en el inventario de una sola sucursal. Si el producto no tiene
+     * inventarios, lo apartado queda solo en el producto.
+     */
+    private void apartar(Reserva reserva, String region) {
+        Long productoId = reserva.getProducto().getId();
+        int cantidad = reserva.getCantidad();
+        if (cantidad <= 0) {
+            throw new RuntimeException("La cantidad debe ser mayor a 0");
+        }
+        if (productoRepository.descontarStockSiAlcanza(productoId, cantidad) == 0) {
+            throw new RuntimeException("Stock insuficiente");
+        }
+        alinearStock(reserva.getProducto());
+
+        List<AsignacionSurtido> plan = ruteadorSurtido.apartar(Map.of(productoId, cantidad), region, false)
+                .orElseThrow(() -> new RuntimeException("Stock insuficiente"));
+        if (!plan.isEmpty()) {
+            reserva.setSucursal(sucursalRepository.findById(plan.get(0).getSucursalId()).orElse(null));
+        }
+        reserva.setCantidadApartada(cantidad);
+    }
+
+    /**
+     * La actualización directa no refresca la entidad si ya estaba en el contexto de persistencia:
+     * se le asigna el stock vigente para que no se devuelva (ni se escriba) el anterior
+     */
+    private void alinearStock(Producto producto) {
+        if (producto == null || producto.getId() == null) {
+            return;
+        }
+        for (Object[] fila : productoRepository.findStockPorIds(List.of(producto.getId()))) {
+            producto.setStock((Integer) fila[1]);
+        }
+    }
+
+    /**
+     * Convierte lo apartado por reservas que se confirman en descuento de la cantidad física de
+     * sus sucursales; el stock del producto ya se descontó al apartar
+     */
+    public void convertirApartados(List<Reserva> reservas) {
+        ajustarApartados(apartadosPorSucursal(reservas), true);
+    }
+
+    /**
+     * Devuelve las cantidades de las reservas indicadas al producto, con una sola actualización
+     * por producto. Las que apartaron stock liberan exactamente lo apartado en su sucursal; las
+     * anteriores al apartado devuelven su cantidad al inventario de la sucursal de la que
+     * salieron o, si no tienen sucursal, al primer inventario del producto.
+     */
+    void liberarStock(List<Reserva> reservas) {
+        Map<Long, Integer> cantidadPorProducto = new TreeMap<>();
+        Map<Long, Integer> sinSucursal = new HashMap<>();
+        Map<Long, Map<Long, Integer>> porSucursal = new HashMap<>();
+        for (Reserva reserva : reservas) {
+            Integer cantidad = reserva.getCantidadApartada() != null ? reserva.getCantidadApartada() : reserva.getCantidad();
+            if (reserva.getProducto() != null && cantidad != null) {
+                Long productoId = reserva.getProducto().getId();
+                cantidadPorProducto.merge(productoId, cantidad, Integer::sum);
+                if (reserva.getCantidadApartada() != null) {
+                    continue;
+                }
+                if (reserva.getSucursal() != null) {
+                    porSucursal.computeIfAbsent(productoId, id -> new HashMap<>())
+                            .merge(reserva.getSucursal().getId(), cantidad, Integer::sum);
+                } else {
+                    sinSucursal.merge(productoId, cantidad, Integer::sum);
+                }
+            }
+        }
+        if (cantidadPorProducto.isEmpty()) {
+            return;
+        }
+
+        cantidadPorProducto.forEach(productoRepository::sumarStock);
+        ajustarApartados(apartadosPorSucursal(reservas), false);
+
+        TreeSet<Long> sinApartado = new TreeSet<>(porSucursal.keySet());
+        sinApartado.addAll(sinSucursal.keySet());
+        if (sinApartado.isEmpty()) {
+            return;
+        }
+        for (Inventario inventario : inventarioRepository.bloquearPorProductos(sinApartado)) {
+            Long productoId = inventario.getProducto().getId();
+            int devolver = 0;
+            Map<Long, Integer> sucursales = porSucursal.get(productoId);
+            if (sucursales != null && inventario.getSucursal() != null) {
+                devolver += sucursales.getOrDefault(inventario.getSucursal().getId(), 0);
+                sucursales.remove(inventario.getSucursal().getId());
+            }
+            Integer primerInventario = sinSucursal.remove(productoId);
+            if (primerInventario != null && inventario.getCantidad() != null) {
+                devolver += primerInventario;
+            }
+            if (devolver > 0) {
+                int cantidadActual = inventario.getCantidad() != null ? inventario.getCantidad() : 0;
+                inventario.setCantidad(cantidadActual + devolver);
+            }
+        }
+    }
+
+    /**
+     * Cantidad apartada por producto y sucursal de las reservas que apartaron stock en una sucursal
+     */
+    private static Map<Long, Map<Long, Integer>> apartadosPorSucursal(List<Reserva> reservas) {
+        Map<Long, Map<Long, Integer>> apartados = new TreeMap<>();
+        for (Reserva reserva : reservas) {
+            if (reserva.getProducto() != null && reserva.getSucursal() != null &&
+                reserva.getCantidadApartada() != null && reserva.getCantidadApartada() > 0) {
+                apartados.computeIfAbsent(reserva.getProducto().getId(), id -> new HashMap<>())
+                        .merge(reserva.getSucursal().getId(), reserva.getCantidadApartada(), Integer::sum);
+            }
+        }
+        return apartados;
+    }
+
+    /**
+     * Libera lo apartado en los inventarios bloqueados y, si se consume, lo descuenta además de su cantidad física
+     */
+    private void ajustarApartados(Map<Long, Map<Long, Integer>> apartados, boolean consumir) {
+        if (apartados.isEmpty()) {
+            return;
+        }
+
+        TreeSet<Long> sucursalIds = new TreeSet<>();
+        apartados.values().forEach(porSucursal -> sucursalIds.addAll(porSucursal.keySet()));
+        List<Inventario> bloqueados = inventarioRepository.bloquearPorProductosYSucursales(apartados.keySet(), sucursalIds);
+        if (bloqueados.isEmpty()) {
+            return;
+        }
+
+        // Las entidades bloqueadas pueden estar desactualizadas: cantidad y reservado se leen de la base de datos
+        List<Long> inventarioIds = new ArrayList<>(bloqueados.size());
+        bloqueados.forEach(inventario -> inventarioIds.add(inventario.getId()));
+        Map<Long, Object[]> vigentes = new HashMap<>();
+        for (Object[] fila : inventarioRepository.findCantidadesPorIds(inventarioIds)) {
+            vigentes.put((Long) fila[0], fila);
+        }
+
+        for (Inventario inventario : bloqueados) {
+            Map<Long, Integer> porSucursal = apartados.get(inventario.getProducto().getId());
+            Integer apartado = porSucursal != null ? porSucursal.get(inventario.getSucursal().getId()) : null;
+            Object[] vigente = vigentes.get(inventario.getId());
+            if (apartado == null || vigente == null) {
+                continue;
+            }
+            int cantidad = vigente[1] != null ? (Integer) vigente[1] : 0;
+            int reservado = vigente[2] != null ? (Integer) vigente[2] : 0;
+            inventario.setReservado(Math.max(0, reservado - apartado));
+            inventario.setCantidad(consumir ? cantidad - apartado : cantidad);
+        }
+    }
 }
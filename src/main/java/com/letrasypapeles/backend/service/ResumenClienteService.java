@@ -0,0 +1,209 @@
+package com.letrasypapeles.backend.service;
+
+import com.letrasypapeles.backend.dto.ResumenCliente;
+import com.letrasypapeles.backend.entity.Notificacion;
+import com.letrasypapeles.backend.entity.Pedido;
+import com.letrasypapeles.backend.entity.Reserva;
+import com.letrasypapeles.backend.repository.ClienteRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Arma el resumen de un cliente lanzando a la vez las consultas de pedidos, reservas,
+ * notificaciones y saldo de puntos (el mismo de {@code GET /api/clientes/{id}/puntos}), más la
+ * comprobación de que el cliente existe, de modo que la latencia es la de la consulta más lenta
+ * y no la suma de todas. Cada rama tiene su propio plazo ({@code clientes.resumen.espera}),
+ * contado desde que empieza a ejecutarse y no desde que entra en la cola de hilos; la que no llega
+ * a empezar dentro de ese mismo plazo desde que se lanza también se da por vencida. La que no termina a tiempo o
+ * falla deja su sección en null y se informa en {@code incompletos}. Al salir se cancelan las
+ * ramas pendientes: las que aún esperan en la cola ya no se ejecutan y las que están en curso
+ * reciben una interrupción. Una consulta que no atiende la interrupción (por ejemplo, una
+ * sentencia JDBC ya enviada) sigue ocupando su hilo hasta terminar, y su resultado se descarta.
+ */
+@Service
+public class ResumenClienteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumenClienteService.class);
+
+    static final String PEDIDOS = "pedidos";
+    static final String RESERVAS = "reservas";
+    static final String NOTIFICACIONES = "notificaciones";
+    static final String PUNTOS = "puntosFidelidad";
+
+    private final ClienteRepository clienteRepository;
+    private final ClienteService clienteService;
+    private final PedidoService pedidoService;
+    private final ReservaService reservaService;
+    private final NotificacionService notificacionService;
+    private final Duration espera;
+    private final ExecutorService hilos;
+
+    public ResumenClienteService(ClienteRepository clienteRepository,
+                                 ClienteService clienteService,
+                                 PedidoService pedidoService,
+                                 ReservaService reservaService,
+                                 NotificacionService notificacionService,
+                                 @Value("${clientes.resumen.hilos:16}") int hilos,
+                                 @Value("${clientes.resumen.espera:PT2S}") Duration espera) {
+        this.clienteRepository = clienteRepository;
+        this.clienteService = clienteService;
+        this.pedidoService = pedidoService;
+        this.reservaService = reservaService;
+        this.notificacionService = notificacionService;
+        this.espera = espera;
+        AtomicInteger numero = new AtomicInteger();
+        this.hilos = Executors.newFixedThreadPool(hilos, r -> {
+            Thread hilo = new Thread(r, "resumen-cliente-" + numero.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    @PreDestroy
+    public void detener() {
+        hilos.shutdownNow();
+    }
+
+    /**
+     * @return El resumen del cliente, o vacío si el cliente no existe
+     * @throws IllegalStateException si no se pudo comprobar a tiempo que el cliente existe
+     */
+    public Optional<ResumenCliente> obtener(Long clienteId) {
+        Rama<Boolean> existe = rama(() -> clienteRepository.existsById(clienteId));
+        Rama<List<ResumenCliente.PedidoBreve>> pedidos = rama(() ->
+                pedidoService.obtenerPorClienteId(clienteId).stream().map(ResumenClienteService::breve).toList());
+        Rama<List<ResumenCliente.ReservaBreve>> reservas = rama(() ->
+                reservaService.obtenerPorClienteId(clienteId).stream().map(ResumenClienteService::breve).toList());
+        Rama<List<ResumenCliente.NotificacionBreve>> notificaciones = rama(() ->
+                notificacionService.obtenerPorClienteId(clienteId).stream().map(ResumenClienteService::breve).toList());
+        Rama<Long> puntos = rama(() -> clienteService.obtenerSaldoPuntos(clienteId));
+
+        try {
+            if (!comprobarExistencia(existe, clienteId)) {
+                return Optional.empty();
+            }
+            List<String> incompletos = new ArrayList<>();
+            return Optional.of(ResumenCliente.builder()
+                    .clienteId(clienteId)
+                    .puntosFidelidad(resultado(puntos, PUNTOS, clienteId, incompletos))
+                    .pedidos(resultado(pedidos, PEDIDOS, clienteId, incompletos))
+                    .reservas(resultado(reservas, RESERVAS, clienteId, incompletos))
+                    .notificaciones(resultado(notificaciones, NOTIFICACIONES, clienteId, incompletos))
+                    .incompletos(incompletos)
+                    .build());
+        } finally {
+            // FutureTask.cancel(true) interrumpe el hilo; CompletableFuture.cancel no lo hace
+            Stream.of(existe, pedidos, reservas, notificaciones, puntos).forEach(rama -> rama.tarea.cancel(true));
+        }
+    }
+
+    private <T> Rama<T> rama(Callable<T> consulta) {
+        Rama<T> rama = new Rama<>(consulta);
+        hilos.execute(rama.tarea);
+        return rama;
+    }
+
+    /**
+     * Espera a que la rama empiece y luego, como máximo, hasta {@code espera} después de su inicio
+     */
+    private <T> T esperar(Rama<T> rama) throws InterruptedException, ExecutionException, TimeoutException {
+        if (!rama.iniciada.await(Math.max(0, rama.lanzada + espera.toNanos() - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+            throw new TimeoutException("La consulta no empezó en " + espera);
+        }
+        long restante = rama.inicio + espera.toNanos() - System.nanoTime();
+        return rama.tarea.get(Math.max(0, restante), TimeUnit.NANOSECONDS);
+    }
+
+    private boolean comprobarExistencia(Rama<Boolean> existe, Long clienteId) {
+        try {
+            return esperar(existe);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("No se pudo comprobar si existe el cliente " + clienteId, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("No se pudo comprobar si existe el cliente " + clienteId, e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("No se pudo comprobar si existe el cliente " + clienteId, e);
+        }
+    }
+
+    private <T> T resultado(Rama<T> rama, String nombre, Long clienteId, List<String> incompletos) {
+        try {
+            return esperar(rama);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return incompleto(nombre, clienteId, e, incompletos);
+        } catch (ExecutionException e) {
+            return incompleto(nombre, clienteId, e.getCause(), incompletos);
+        } catch (TimeoutException e) {
+            return incompleto(nombre, clienteId, e, incompletos);
+        }
+    }
+
+    private static <T> T incompleto(String nombre, Long clienteId, Throwable causa, List<String> incompletos) {
+        logger.warn("Resumen del cliente {} sin {}: {}", clienteId, nombre, causa.toString());
+        incompletos.add(nombre);
+        return null;
+    }
+
+    /** Consulta de una sección del resumen; anota cuándo empieza a ejecutarse para contar su plazo desde ahí */
+    private static final class Rama<T> {
+        private final long lanzada = System.nanoTime();
+        private final CountDownLatch iniciada = new CountDownLatch(1);
+        private final FutureTask<T> tarea;
+        private volatile long inicio;
+
+        private Rama(Callable<T> consulta) {
+            this.tarea = new FutureTask<>(() -> {
+                inicio = System.nanoTime();
+                iniciada.countDown();
+                return consulta.call();
+            });
+        }
+    }
+
+    private static ResumenCliente.PedidoBreve breve(Pedido pedido) {
+        return ResumenCliente.PedidoBreve.builder()
+                .id(pedido.getId())
+                .fecha(pedido.getFecha())
+                .estado(pedido.getEstado())
+                .total(pedido.getTotal())
+                .build();
+    }
+
+    private static ResumenCliente.ReservaBreve breve(Reserva reserva) {
+        return ResumenCliente.ReservaBreve.builder()
+                .id(reserva.getId())
+                .productoId(reserva.getProducto() != null ? reserva.getProducto().getId() : null)
+                .cantidad(reserva.getCantidad())
+                .estado(reserva.getEstado())
+                .fechaReserva(reserva.getFechaReserva())
+                .build();
+    }
+
+    private static ResumenCliente.NotificacionBreve breve(Notificacion notificacion) {
+        return ResumenCliente.NotificacionBreve.builder()
+                .id(notificacion.getId())
+                .mensaje(notificacion.getMensaje())
+                .fecha(notificacion.getFecha())
+                .build();
+    }
+}
@@ -0,0 +1,124 @@
+package com.letrasypapeles.backend.service;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Rueda de tiempo jerárquica para programar millones de vencimientos sin una tarea por entrada.
+ * Cada nivel tiene 64 ranuras y el nivel n abarca 64^(n+1) ticks; una entrada se ubica en el
+ * nivel más bajo que alcanza su vencimiento y baja de nivel a medida que éste se acerca.
+ * Agregar y avanzar un tick cuestan O(1) amortizado, y las entradas se guardan como pares
+ * (id, vencimiento) en arreglos primitivos.
+ * No es segura para hilos: quien la usa debe sincronizar el acceso.
+ */
+final class RuedaTemporal {
+
+    private static final int BITS = 6;
+    private static final int RANURAS = 1 << BITS;
+    private static final int MASCARA = RANURAS - 1;
+    private static final int NIVELES = 6;
+
+    /** Máxima distancia programable en ticks (64^6); vencimientos más lejanos se acercan a este límite. */
+    static final long HORIZONTE = 1L << (BITS * NIVELES);
+
+    private final Ranura[][] niveles = new Ranura[NIVELES][RANURAS];
+    private long tickActual;
+    private long tamano;
+
+    RuedaTemporal(long tickInicial) {
+        this.tickActual = tickInicial;
+    }
+
+    long tickActual() {
+        return tickActual;
+    }
+
+    long tamano() {
+        return tamano;
+    }
+
+    /**
+     * Programa una entrada
+     * @param id Identificador de la entrada
+     * @param vencimiento Tick en que vence
+     * @return false si ya estaba vencida, en cuyo caso no se agrega
+     */
+    boolean agregar(long id, long vencimiento) {
+        long distancia = vencimiento - tickActual;
+        if (distancia <= 0) {
+            return false;
+        }
+        if (distancia >= HORIZONTE) {
+            distancia = HORIZONTE - 1;
+            vencimiento = tickActual + distancia;
+        }
+
+        int nivel = (63 - Long.numberOfLeadingZeros(distancia)) / BITS;
+        int indice = (int) ((vencimiento >>> (BITS * nivel)) & MASCARA);
+        Ranura ranura = niveles[nivel][indice];
+        if (ranura == null) {
+            ranura = new Ranura();
+            niveles[nivel][indice] = ranura;
+        }
+        ranura.agregar(id, vencimiento);
+        tamano++;
+        return true;
+    }
+
+    /**
+     * Avanza la rueda hasta el tick indicado entregando cada entrada vencida
+     * @param hasta Tick destino
+     * @param alVencer Recibe el id de cada entrada vencida
+     */
+    void avanzar(long hasta, LongConsumer alVencer) {
+        while (tickActual < hasta) {
+            if (tamano == 0) {
+                tickActual = hasta;
+                return;
+            }
+            tickActual++;
+
+            for (int nivel = 1; nivel < NIVELES; nivel++) {
+                if ((tickActual & ((1L << (BITS * nivel)) - 1)) != 0) {
+                    break;
+                }
+                Ranura ranura = extraer(nivel, (int) ((tickActual >>> (BITS * nivel)) & MASCARA));
+                for (int i = 0; ranura != null && i < ranura.tamano; i++) {
+                    tamano--;
+                    if (!agregar(ranura.ids[i], ranura.vencimientos[i])) {
+                        alVencer.accept(ranura.ids[i]);
+                    }
+                }
+            }
+
+            Ranura ranura = extraer(0, (int) (tickActual & MASCARA));
+            for (int i = 0; ranura != null && i < ranura.tamano; i++) {
+                tamano--;
+                alVencer.accept(ranura.ids[i]);
+            }
+        }
+    }
+
+    private Ranura extraer(int nivel, int indice) {
+        Ranura ranura = niveles[nivel][indice];
+        niveles[nivel][indice] = null;
+        return ranura;
+    }
+
+    private static final class Ranura {
+
+        private long[] ids = new long[8];
+        private long[] vencimientos = new long[8];
+        private int tamano;
+
+        void agregar(long id, long vencimiento) {
+            if (tamano == ids.length) {
+                ids = Arrays.copyOf(ids, tamano * 2);
+                vencimientos = Arrays.copyOf(vencimientos, tamano * 2);
+            }
+            ids[tamano] = id;
+            vencimientos[tamano] = vencimiento;
+            tamano++;
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package com.letrasypapeles.backend.service;
+
+import com.letrasypapeles.backend.dto.AsignacionSurtido;
+import com.letrasypapeles.backend.entity.Inventario;
+import com.letrasypapeles.backend.repository.InventarioRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Decide desde qué sucursales se surte un conjunto de productos. El plan se arma sobre la foto en
+ * memoria de {@link IndiceDisponibilidad}, sin SQL: primero busca una sola sucursal con stock para
+ * todo, prefiriendo la región indicada, y si no la hay divide cada producto entre sucursales
+ * reutilizando las ya elegidas. Al surtir, los inventarios del plan se bloquean en orden de ID y
+ * se verifican contra la base de datos antes de descontar o apartar; si la foto estaba desactualizada se
+ * corrige y se vuelve a planificar. Los productos que el índice no conoce se buscan en la base de
+ * datos, porque sus inventarios pueden haberse creado en la transacción en curso.
+ */
+@Component
+public class RuteadorSurtido {
+
+    static final int MAX_INTENTOS = 3;
+
+    private final IndiceDisponibilidad indice;
+    private final InventarioRepository inventarioRepository;
+
+    public RuteadorSurtido(IndiceDisponibilidad indice, InventarioRepository inventarioRepository) {
+        this.indice = indice;
+        this.inventarioRepository = inventarioRepository;
+    }
+
+    /**
+     * Planifica sin modificar inventarios
+     * @param cantidades Cantidad pedida por ID de producto
+     * @param region Región preferida (opcional, no distingue mayúsculas)
+     * @param permitirDivision Si es false, todo debe salir de una misma sucursal
+     * @return Asignaciones por producto y sucursal; los productos sin inventarios no se asignan
+     * @throws RuntimeException si las sucursales no tienen stock suficiente
+     */
+    public List<AsignacionSurtido> planificar(Map<Long, Integer> cantidades, String region, boolean permitirDivision) {
+        return planificar(cantidades, region, permitirDivision, existencias(cantidades.keySet(), false),
+                vigentesDeLaTransaccion());
+    }
+
+    /**
+     * Planifica y descuenta los inventarios asignados en la transacción en curso
+     * @return Asignaciones aplicadas, o vacío si las sucursales no tienen stock suficiente
+     * @see #planificar(Map, String, boolean)
+     */
+    @Transactional
+    public Optional<List<AsignacionSurtido>> surtir(Map<Long, Integer> cantidades, String region, boolean permitirDivision) {
+        return aplicar(cantidades, region, permitirDivision, false);
+    }
+
+    /**
+     * Planifica y aparta en los inventarios asignados lo pedido: la cantidad física no cambia,
+     * pero deja de estar disponible para otros surtidos y apartados
+     * @return Asignaciones apartadas, o vacío si las sucursales no tienen stock disponible suficiente
+     * @see #planificar(Map, String, boolean)
+     */
+    @Transactional
+    public Optional<List<AsignacionSurtido>> apartar(Map<Long, Integer> cantidades, String region, boolean permitirDivision) {
+        return aplicar(cantidades, region, permitirDivision, true);
+    }
+
+    private Optional<List<AsignacionSurtido>> aplicar(Map<Long, Integer> cantidades, String region,
+                                                      boolean permitirDivision, boolean apartar) {
+        Map<Long, Integer> vigentes = vigentesDeLaTransaccion();
+        Map<Long, IndiceDisponibilidad.Existencias> existencias = existencias(cantidades.keySet(), true);
+        for (int intento = 1; intento <= MAX_INTENTOS; intento++) {
+            List<AsignacionSurtido> plan;
+            try {
+                plan = planificar(cantidades, region, permitirDivision, existencias, vigentes);
+            } catch (RuntimeException e) {
+                return Optional.empty();
+            }
+            if (plan.isEmpty()) {
+                return Optional.of(plan);
+            }
+
+            Map<Long, Integer> porInventario = new TreeMap<>();
+            plan.forEach(asignacion -> porInventario.merge(asignacion.getInventarioId(), asignacion.getCantidad(), Integer::sum));
+            List<Inventario> bloqueados = inventarioRepository.bloquearPorIds(porInventario.keySet());
+            Map<Long, int[]> actuales = new HashMap<>();
+            for (Object[] fila : inventarioRepository.findCantidadesPorIds(porInventario.keySet())) {
+                actuales.put((Long) fila[0], new int[]{
+                        fila[1] != null ? (Integer) fila[1] : 0,
+                        fila[2] != null ? (Integer) fila[2] : 0});
+            }
+
+            boolean alcanza = true;
+            for (Map.Entry<Long, Integer> entrada : porInventario.entrySet()) {
+                int[] actual = actuales.getOrDefault(entrada.getKey(), new int[2]);
+                int disponible = actual[0] - actual[1];
+                vigentes.put(entrada.getKey(), disponible);
+                if (disponible < entrada.getValue()) {
+                    alcanza = false;
+                }
+            }
+            if (alcanza) {
+                for (Inventario inventario : bloqueados) {
+                    int[] actual = actuales.get(inventario.getId());
+                    int asignado = porInventario.get(inventario.getId());
+                    // Se escriben ambas columnas con sus valores vigentes: la entidad bloqueada puede estar desactualizada
+                    inventario.setCantidad(apartar ? actual[0] : actual[0] - asignado);
+                    inventario.setReservado(apartar ? actual[1] + asignado : actual[1]);
+                    vigentes.put(inventario.getId(), actual[0] - actual[1] - asignado);
+                }
+                return Optional.of(plan);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Existencias del índice
+     * @param buscarFueraDelIndice Si es true, las de productos que no figuran en él se leen de la base de datos
+     */
+    private Map<Long, IndiceDisponibilidad.Existencias> existencias(Collection<Long> productoIds, boolean buscarFueraDelIndice) {
+        Map<Long, IndiceDisponibilidad.Existencias> existencias = new HashMap<>();
+        List<Long> fueraDelIndice = new ArrayList<>();
+        for (Long productoId : productoIds) {
+            IndiceDisponibilidad.Existencias delIndice = indice.existencias(productoId);
+            if (delIndice != null) {
+                existencias.put(productoId, delIndice);
+            } else if (buscarFueraDelIndice) {
+                fueraDelIndice.add(productoId);
+            }
+        }
+        if (!fueraDelIndice.isEmpty()) {
+            for (Object[] fila : inventarioRepository.findExistenciasPorProductos(fueraDelIndice)) {
+                if (fila[2] != null) {
+                    existencias.merge((Long) fila[1],
+                            IndiceDisponibilidad.Existencias.VACIAS.con((Long) fila[0], (Long) fila[2], fila[3] != null ? (Integer) fila[3] : 0),
+                            (actuales, nueva) -> actuales.con(nueva.inventarioIds[0], nueva.sucursalIds[0], nueva.cantidades[0]));
+                }
+            }
+        }
+        return existencias;
+    }
+
+    /**
+     * @param existencias Existencias por ID de producto; los productos sin existencias no se asignan
+     * @param vigentes Cantidades disponibles por ID de inventario que reemplazan a las de {@code existencias}:
+     *                 las ya descontadas, apartadas o verificadas en la transacción en curso
+     */
+    List<AsignacionSurtido> planificar(Map<Long, Integer> cantidades, String region, boolean permitirDivision,
+                                       Map<Long, IndiceDisponibilidad.Existencias> existencias,
+                                       Map<Long, Integer> vigentes) {
+        List<Linea> lineas = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entrada : new TreeMap<>(cantidades).entrySet()) {
+            IndiceDisponibilidad.Existencias delProducto = existencias.get(entrada.getKey());
+            if (entrada.getValue() != null && entrada.getValue() > 0 && delProducto != null && delProducto.tamano() > 0) {
+                lineas.add(new Linea(entrada.getKey(), entrada.getValue(), delProducto, vigentes));
+            }
+        }
+        if (lineas.isEmpty()) {
+            return List.of();
+        }
+
+        Long sucursal = elegirSucursalUnica(lineas, region);
+        if (sucursal != null) {
+            List<AsignacionSurtido> plan = new ArrayList<>();
+            for (Linea linea : lineas) {
+                int faltan = linea.cantidad;
+                for (int i = 0; i < linea.existencias.tamano() && faltan > 0; i++) {
+                    if (linea.existencias.sucursalIds[i] == sucursal) {
+                        faltan -= asignar(plan, linea, i, faltan);
+                    }
+                }
+            }
+            return plan;
+        }
+        if (!permitirDivision) {
+            throw new RuntimeException("Ninguna sucursal tiene stock suficiente");
+        }
+        return dividir(lineas, region);
+    }
+
+    /**
+     * Sucursal con stock para todas las líneas: de la región preferida si la hay, y entre
+     * iguales la de menor ID
+     */
+    private Long elegirSucursalUnica(List<Linea> lineas, String region) {
+        Map<Long, Integer> candidatas = lineas.get(0).disponiblePorSucursal();
+        candidatas.values().removeIf(disponible -> disponible < lineas.get(0).cantidad);
+        for (int l = 1; l < lineas.size() && !candidatas.isEmpty(); l++) {
+            Linea linea = lineas.get(l);
+            Map<Long, Integer> disponibles = linea.disponiblePorSucursal();
+            candidatas.keySet().removeIf(id -> disponibles.getOrDefault(id, 0) < linea.cantidad);
+        }
+
+        Long elegida = null;
+        boolean elegidaEnRegion = false;
+        for (Long sucursalId : candidatas.keySet()) {
+            boolean enRegion = enRegion(sucursalId, region);
+            if (elegida == null || (enRegion && !elegidaEnRegion) ||
+                (enRegion == elegidaEnRegion && sucursalId < elegida)) {
+                elegida = sucursalId;
+                elegidaEnRegion = enRegion;
+            }
+        }
+        return elegida;
+    }
+
+    /**
+     * Cada producto sale, si puede, de una sola sucursal: primero una ya usada por el plan,
+     * luego una de la región y luego cualquiera. Si ninguna alcanza sola, se reparte empezando
+     * por las de mayor disponibilidad.
+     */
+    private List<AsignacionSurtido> dividir(List<Linea> lineas, String region) {
+        List<AsignacionSurtido> plan = new ArrayList<>();
+        Set<Long> usadas = new HashSet<>();
+        for (Linea linea : lineas) {
+            int mejor = -1;
+            int mejorPrioridad = -1;
+            for (int i = 0; i < linea.existencias.tamano(); i++) {
+                if (linea.disponible(i) < linea.cantidad) {
+                    continue;
+                }
+                long sucursalId = linea.existencias.sucursalIds[i];
+                int prioridad = (usadas.contains(sucursalId) ? 2 : 0) + (enRegion(sucursalId, region) ? 1 : 0);
+                if (prioridad > mejorPrioridad ||
+                    (prioridad == mejorPrioridad && sucursalId < linea.existencias.sucursalIds[mejor])) {
+                    mejor = i;
+                    mejorPrioridad = prioridad;
+                }
+            }
+            if (mejor >= 0) {
+                asignar(plan, linea, mejor, linea.cantidad);
+                usadas.add(linea.existencias.sucursalIds[mejor]);
+                continue;
+            }
+
+            Integer[] orden = new Integer[linea.existencias.tamano()];
+            Arrays.setAll(orden, i -> i);
+            Arrays.sort(orden, Comparator.<Integer>comparingInt(i -> usadas.contains(linea.existencias.sucursalIds[i]) ? 0 : 1)
+                    .thenComparingInt(i -> enRegion(linea.existencias.sucursalIds[i], region) ? 0 : 1)
+                    .thenComparingInt(i -> -linea.disponible(i))
+                    .thenComparingLong(i -> linea.existencias.sucursalIds[i]));
+            int faltan = linea.cantidad;
+            for (int k = 0; k < orden.length && faltan > 0; k++) {
+                int asignado = asignar(plan, linea, orden[k], faltan);
+                if (asignado > 0) {
+                    usadas.add(linea.existencias.sucursalIds[orden[k]]);
+                    faltan -= asignado;
+                }
+            }
+            if (faltan > 0) {
+                throw new RuntimeException("Stock insuficiente en sucursales para el producto con ID: " + linea.productoId);
+            }
+        }
+        return plan;
+    }
+
+    private static int asignar(List<AsignacionSurtido> plan, Linea linea, int i, int faltan) {
+        int cantidad = Math.min(linea.disponible(i), faltan);
+        if (cantidad > 0) {
+            plan.add(AsignacionSurtido.builder()
+                    .productoId(linea.productoId)
+                    .sucursalId(linea.existencias.sucursalIds[i])
+                    .inventarioId(linea.existencias.inventarioIds[i])
+                    .cantidad(cantidad)
+                    .build());
+        }
+        return cantidad;
+    }
+
+    private boolean enRegion(long sucursalId, String region) {
+        return region != null && region.equalsIgnoreCase(indice.region(sucursalId));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Integer> vigentesDeLaTransaccion() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() ||
+            !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return new HashMap<>();
+        }
+
+        Map<Long, Integer> vigentes = (Map<Long, Integer>) TransactionSynchronizationManager.getResource(this);
+        if (vigentes == null) {
+            vigentes = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, vigentes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(RuteadorSurtido.this);
+                }
+            });
+        }
+        return vigentes;
+    }
+
+    /**
+     * Producto pedido junto a sus existencias, con las cantidades vigentes de la transacción
+     */
+    private static final class Linea {
+
+        final Long productoId;
+        final int cantidad;
+        final IndiceDisponibilidad.Existencias existencias;
+        final Map<Long, Integer> vigentes;
+
+        Linea(Long productoId, int cantidad, IndiceDisponibilidad.Existencias existencias, Map<Long, Integer> vigentes) {
+            this.productoId = productoId;
+            this.cantidad = cantidad;
+            this.existencias = existencias;
+            this.vigentes = vigentes;
+        }
+
+        int disponible(int i) {
+            Integer vigente = vigentes.isEmpty() ? null : vigentes.get(existencias.inventarioIds[i]);
+            return Math.max(0, vigente != null ? vigente : existencias.cantidades[i]);
+        }
+
+        Map<Long, Integer> disponiblePorSucursal() {
+            Map<Long, Integer> disponibles = new HashMap<>();
+            for (int i = 0; i < existencias.tamano(); i++) {
+                disponibles.merge(existencias.sucursalIds[i], disponible(i), Integer::sum);
+            }
+            return disponibles;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.letrasypapeles.backend.service;
+
+import com.letrasypapeles.backend.dto.TransferenciaRequest;
+import com.letrasypapeles.backend.entity.Inventario;
+import com.letrasypapeles.backend.entity.Sucursal;
+import com.letrasypapeles.backend.repository.InventarioRepository;
+import com.letrasypapeles.backend.repository.SucursalRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Mueve cantidad entre los inventarios de un mismo producto en dos sucursales.
+ * Cada lote se aplica en una sola transacción, bloqueando las filas en orden de ID,
+ * y se reintenta completo si la base de datos reporta un conflicto de bloqueo. Un inventario de
+ * destino que no existe se crea sin bloqueo previo; si otra transferencia crea el mismo a la vez,
+ * la restricción única de (producto, sucursal) rechaza el segundo y el reintento lo encuentra y
+ * lo bloquea.
+ */
+@Service
+public class TransferenciaInventarioService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferenciaInventarioService.class);
+
+    static final int MAX_INTENTOS = 3;
+
+    private final InventarioRepository inventarioRepository;
+    private final SucursalRepository sucursalRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter transferencias;
+    private final Counter unidadesTransferidas;
+    private final Counter conflictos;
+    private final Counter reintentos;
+    private final Timer duracion;
+
+    public TransferenciaInventarioService(InventarioRepository inventarioRepository,
+                                          SucursalRepository sucursalRepository,
+                                          PlatformTransactionManager transactionManager,
+                                          MeterRegistry meterRegistry) {
+        this.inventarioRepository = inventarioRepository;
+        this.sucursalRepository = sucursalRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transferencias = Counter.builder("inventario.transferencias")
+                .description("Transferencias entre sucursales aplicadas")
+                .register(meterRegistry);
+        this.unidadesTransferidas = Counter.builder("inventario.transferencias.unidades")
+                .description("Unidades movidas entre sucursales")
+                .register(meterRegistry);
+        this.conflictos = Counter.builder("inventario.transferencias.conflictos")
+                .description("Conflictos de bloqueo detectados al transferir")
+                .register(meterRegistry);
+        this.reintentos = Counter.builder("inventario.transferencias.reintentos")
+                .description("Lotes de transferencia reintentados tras un conflicto")
+                .register(meterRegistry);
+        this.duracion = Timer.builder("inventario.transferencias.duracion")
+                .description("Duración de cada lote de transferencias")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Transfiere stock de un producto entre dos sucursales
+     * @param transferencia Producto, sucursales de origen y destino y cantidad
+     * @return Inventarios de origen y destino actualizados
+     */
+    public List<Inventario> transferir(TransferenciaRequest transferencia) {
+        return transferirLote(List.of(transferencia));
+    }
+
+    /**
+     * Aplica un lote de transferencias de forma atómica: o se aplican todas o ninguna
+     * @param lote Transferencias a aplicar
+     * @return Inventarios afectados, en el orden en que aparecen en el lote
+     */
+    public List<Inventario> transferirLote(List<TransferenciaRequest> lote) {
+        if (lote == null || lote.isEmpty()) {
+            throw new RuntimeException("Debe indicar al menos una transferencia");
+        }
+        lote.forEach(this::validar);
+
+        for (int intento = 1; ; intento++) {
+            try {
+                List<Inventario> resultado = duracion.record(() -> transactionTemplate.execute(status -> aplicar(lote)));
+                transferencias.increment(lote.size());
+                lote.forEach(t -> unidadesTransferidas.increment(t.getCantidad()));
+                return resultado;
+            } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+                conflictos.increment();
+                if (intento >= MAX_INTENTOS) {
+                    throw new RuntimeException("No fue posible completar la transferencia por conflictos de concurrencia", e);
+                }
+                reintentos.increment();
+                logger.warn("Conflicto al transferir inventario (intento {} de {}): {}", intento, MAX_INTENTOS, e.getMessage());
+            }
+        }
+    }
+
+    private void validar(TransferenciaRequest transferencia) {
+        if (transferencia.getProductoId() == null || transferencia.getSucursalOrigenId() == null ||
+            transferencia.getSucursalDestinoId() == null) {
+            throw new RuntimeException("La transferencia requiere producto, sucursal de origen y sucursal de destino");
+        }
+        if (transferencia.getCantidad() == null || transferencia.getCantidad() <= 0) {
+            throw new RuntimeException("La cantidad a transferir debe ser mayor a 0");
+        }
+        if (transferencia.getSucursalOrigenId().equals(transferencia.getSucursalDestinoId())) {
+            throw new RuntimeException("La sucursal de origen y destino deben ser distintas");
+        }
+    }
+
+    private List<Inventario> aplicar(List<TransferenciaRequest> lote) {
+        Set<Long> productoIds = new LinkedHashSet<>();
+        Set<Long> sucursalIds = new LinkedHashSet<>();
+        for (TransferenciaRequest t : lote) {
+            productoIds.add(t.getProductoId());
+            sucursalIds.add(t.getSucursalOrigenId());
+            sucursalIds.add(t.getSucursalDestinoId());
+        }
+
+        Map<String, Inventario> inventarios = new HashMap<>();
+        for (Inventario inventario : inventarioRepository.bloquearPorProductosYSucursales(productoIds, sucursalIds)) {
+            inventarios.put(clave(inventario.getProducto().getId(), inventario.getSucursal().getId()), inventario);
+        }
+
+        Map<String, Inventario> afectados = new LinkedHashMap<>();
+        for (TransferenciaRequest t : lote) {
+            Inventario origen = inventarios.get(clave(t.getProductoId(), t.getSucursalOrigenId()));
+            if (origen == null) {
+                throw new RuntimeException("Inventario no encontrado para el producto " + t.getProductoId() +
+                        " en la sucursal " + t.getSucursalOrigenId());
+            }
+
+            // Lo apartado por reservas no se puede transferir
+            int actual = origen.getCantidad() != null ? origen.getCantidad() : 0;
+            int disponible = actual - (origen.getReservado() != null ? origen.getReservado() : 0);
+            if (disponible < t.getCantidad()) {
+                throw new RuntimeException("Cantidad insuficiente en inventario. Cantidad actual: " + disponible +
+                        ", cantidad a transferir: " + t.getCantidad());
+            }
+
+            String claveDestino = clave(t.getProductoId(), t.getSucursalDestinoId());
+            Inventario destino = inventarios.computeIfAbsent(claveDestino,
+                    k -> nuevoInventario(origen, t.getSucursalDestinoId()));
+
+            origen.setCantidad(actual - t.getCantidad());
+            destino.setCantidad((destino.getCantidad() != null ? destino.getCantidad() : 0) + t.getCantidad());
+            afectados.put(clave(t.getProductoId(), t.getSucursalOrigenId()), origen);
+            afectados.put(claveDestino, destino);
+        }
+
+        return new ArrayList<>(inventarioRepository.saveAll(afectados.values()));
+    }
+
+    private Inventario nuevoInventario(Inventario origen, Long sucursalDestinoId) {
+        Sucursal sucursal = sucursalRepository.findById(sucursalDestinoId)
+                .orElseThrow(() -> new RuntimeException("Sucursal no encontrada con ID: " + sucursalDestinoId));
+
+        return Inventario.builder()
+                .producto(origen.getProducto())
+                .sucursal(sucursal)
+                .cantidad(0)
+                .umbral(origen.getUmbral())
+                .build();
+    }
+
+    private static String clave(Long productoId, Long sucursalId) {
+        return productoId + ":" + sucursalId;
+    }
+}
@@ -0,0 +1,152 @@
+package com.letrasypapeles.backend.web;
+
+import com.letrasypapeles.backend.entity.RespuestaIdempotente;
+import com.letrasypapeles.backend.repository.RespuestaIdempotenteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Respuestas guardadas por clave de idempotencia. Las más usadas viven en un mapa LRU acotado
+ * en memoria; todas se guardan además en la tabla {@code respuestas_idempotentes}, que sirve de
+ * respaldo tras un reinicio o cuando la entrada ya salió de memoria. Ambas expiran según el TTL.
+ * También registra las ejecuciones en curso para que las solicitudes simultáneas con la misma
+ * clave esperen el resultado de una sola ejecución.
+ */
+@Component
+public class AlmacenIdempotencia {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlmacenIdempotencia.class);
+
+    private final RespuestaIdempotenteRepository repository;
+    private final Duration ttl;
+
+    private final Map<String, RespuestaIdempotente> memoria;
+    private final ConcurrentHashMap<String, CompletableFuture<RespuestaIdempotente>> enCurso = new ConcurrentHashMap<>();
+
+    public AlmacenIdempotencia(RespuestaIdempotenteRepository repository,
+                               @Value("${idempotencia.ttl:PT24H}") Duration ttl,
+                               @Value("${idempotencia.memoria.maximo:10000}") int maximoEnMemoria) {
+        this.repository = repository;
+        this.ttl = ttl;
+        this.memoria = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RespuestaIdempotente> eldest) {
+                return size() > maximoEnMemoria;
+            }
+        };
+    }
+
+    public Optional<RespuestaIdempotente> buscar(String clave) {
+        return buscar(clave, LocalDateTime.now());
+    }
+
+    /**
+     * Busca una respuesta vigente, primero en memoria y luego en la tabla
+     * @param clave Clave completa (usuario, ruta y encabezado)
+     * @param ahora Instante de referencia para la expiración
+     */
+    Optional<RespuestaIdempotente> buscar(String clave, LocalDateTime ahora) {
+        synchronized (memoria) {
+            RespuestaIdempotente respuesta = memoria.get(clave);
+            if (respuesta != null) {
+                if (vigente(respuesta, ahora)) {
+                    return Optional.of(respuesta);
+                }
+                memoria.remove(clave);
+            }
+        }
+
+        Optional<RespuestaIdempotente> guardada = repository.findById(clave).filter(r -> vigente(r, ahora));
+        guardada.ifPresent(respuesta -> {
+            synchronized (memoria) {
+                memoria.put(clave, respuesta);
+            }
+        });
+        return guardada;
+    }
+
+    public RespuestaIdempotente crear(String clave, String huella, int estado, String tipoContenido, byte[] cuerpo) {
+        LocalDateTime ahora = LocalDateTime.now();
+        return RespuestaIdempotente.builder()
+                .clave(clave)
+                .huella(huella)
+                .estado(estado)
+                .tipoContenido(tipoContenido)
+                .cuerpo(cuerpo)
+                .creada(ahora)
+                .expira(ahora.plus(ttl))
+                .build();
+    }
+
+    /**
+     * Guarda una respuesta en memoria y en la tabla. Si la tabla falla la respuesta queda
+     * solo en memoria; la operación original ya se ejecutó y no debe fallar por esto.
+     */
+    public void guardar(RespuestaIdempotente respuesta) {
+        synchronized (memoria) {
+            memoria.put(respuesta.getClave(), respuesta);
+        }
+        try {
+            repository.save(respuesta);
+        } catch (DataAccessException e) {
+            logger.warn("No se pudo persistir la respuesta idempotente {}: {}", respuesta.getClave(), e.getMessage());
+        }
+    }
+
+    /**
+     * Reclama la ejecución de una clave
+     * @param clave Clave completa
+     * @param propio Futuro que completará quien llama si obtiene la ejecución
+     * @return null si quien llama debe ejecutar la solicitud; si no, el futuro de la ejecución en curso
+     */
+    public CompletableFuture<RespuestaIdempotente> reclamar(String clave, CompletableFuture<RespuestaIdempotente> propio) {
+        return enCurso.putIfAbsent(clave, propio);
+    }
+
+    /**
+     * Termina una ejecución reclamada y entrega su resultado a quienes la esperan
+     * @param resultado Respuesta obtenida, o null si la ejecución falló con una excepción
+     */
+    public void liberar(String clave, CompletableFuture<RespuestaIdempotente> propio, RespuestaIdempotente resultado) {
+        enCurso.remove(clave, propio);
+        propio.complete(resultado);
+    }
+
+    @Scheduled(fixedDelayString = "${idempotencia.purga.intervalo:PT10M}")
+    public void purgarExpiradas() {
+        LocalDateTime ahora = LocalDateTime.now();
+        synchronized (memoria) {
+            memoria.values().removeIf(respuesta -> !vigente(respuesta, ahora));
+        }
+        try {
+            int eliminadas = repository.eliminarExpiradas(ahora);
+            if (eliminadas > 0) {
+                logger.info("Respuestas idempotentes expiradas eliminadas: {}", eliminadas);
+            }
+        } catch (DataAccessException e) {
+            logger.warn("No se pudieron eliminar las respuestas idempotentes expiradas: {}", e.getMessage());
+        }
+    }
+
+    int enMemoria() {
+        synchronized (memoria) {
+            return memoria.size();
+        }
+    }
+
+    private static boolean vigente(RespuestaIdempotente respuesta, LocalDateTime ahora) {
+        return respuesta.getExpira() != null && respuesta.getExpira().isAfter(ahora);
+    }
+}
@@ -0,0 +1,144 @@
+package com.letrasypapeles.backend.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Respuestas ya serializadas de {@code GET /api/productos/{id}}, en claro y comprimidas con gzip,
+ * agrupadas por producto y por representación (base de los enlaces, {@code Accept} y parámetros).
+ * El total de bytes está acotado: al pasarse se descartan los productos usados hace más tiempo.
+ * Cada entrada guarda la versión del catálogo con la que se generó y deja de servirse en cuanto
+ * esa versión cambia, lo que cubre también las escrituras masivas que no pasan por
+ * {@code ProductoService}; las escrituras del servicio además la descartan de inmediato.
+ */
+@Component
+public class CacheRespuestasProducto {
+
+    @Getter
+    public static class Entrada {
+
+        private final long version;
+        private final String tipoContenido;
+        private final String etag;
+        private final byte[] cuerpo;
+        private final byte[] cuerpoGzip;
+
+        Entrada(long version, String tipoContenido, String etag, byte[] cuerpo) {
+            this.version = version;
+            this.tipoContenido = tipoContenido;
+            this.etag = etag;
+            this.cuerpo = cuerpo;
+            this.cuerpoGzip = comprimir(cuerpo);
+        }
+
+        int bytes() {
+            return cuerpo.length + cuerpoGzip.length;
+        }
+    }
+
+    private final long bytesMaximos;
+    private final LinkedHashMap<Long, Map<String, Entrada>> productos = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    private final Counter aciertos;
+    private final Counter fallos;
+
+    public CacheRespuestasProducto(@Value("${productos.cache.bytes-maximos:8388608}") long bytesMaximos,
+                                   MeterRegistry meterRegistry) {
+        this.bytesMaximos = bytesMaximos;
+        this.aciertos = Counter.builder("productos.cache.respuestas")
+                .description("GET de producto respondidos con los bytes guardados")
+                .tag("resultado", "acierto")
+                .register(meterRegistry);
+        this.fallos = Counter.builder("productos.cache.respuestas")
+                .description("GET de producto respondidos con los bytes guardados")
+                .tag("resultado", "fallo")
+                .register(meterRegistry);
+        Gauge.builder("productos.cache.bytes", this, CacheRespuestasProducto::bytes)
+                .description("Bytes ocupados por las respuestas guardadas")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param version Versión actual del catálogo; una entrada de otra versión no se devuelve
+     */
+    public Optional<Entrada> buscar(Long productoId, String representacion, long version) {
+        Entrada entrada;
+        synchronized (productos) {
+            Map<String, Entrada> representaciones = productos.get(productoId);
+            entrada = representaciones != null ? representaciones.get(representacion) : null;
+            if (entrada != null && entrada.version != version) {
+                representaciones.remove(representacion);
+                bytes -= entrada.bytes();
+                entrada = null;
+            }
+        }
+        (entrada != null ? aciertos : fallos).increment();
+        return Optional.ofNullable(entrada);
+    }
+
+    public void guardar(Long productoId, String representacion, long version, String tipoContenido,
+                        String etag, byte[] cuerpo) {
+        Entrada entrada = new Entrada(version, tipoContenido, etag, cuerpo);
+        if (entrada.bytes() > bytesMaximos) {
+            return;
+        }
+        synchronized (productos) {
+            Entrada anterior = productos.computeIfAbsent(productoId, id -> new HashMap<>()).put(representacion, entrada);
+            bytes += entrada.bytes() - (anterior != null ? anterior.bytes() : 0);
+            Iterator<Map.Entry<Long, Map<String, Entrada>>> masAntiguos = productos.entrySet().iterator();
+            while (bytes > bytesMaximos && masAntiguos.hasNext()) {
+                Map.Entry<Long, Map<String, Entrada>> masAntiguo = masAntiguos.next();
+                if (!masAntiguo.getKey().equals(productoId)) {
+                    masAntiguo.getValue().values().forEach(descartada -> bytes -= descartada.bytes());
+                    masAntiguos.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Descarta todas las representaciones guardadas de un producto
+     */
+    public void invalidar(Long productoId) {
+        if (productoId == null) {
+            return;
+        }
+        synchronized (productos) {
+            Map<String, Entrada> representaciones = productos.remove(productoId);
+            if (representaciones != null) {
+                representaciones.values().forEach(descartada -> bytes -= descartada.bytes());
+            }
+        }
+    }
+
+    long bytes() {
+        synchronized (productos) {
+            return bytes;
+        }
+    }
+
+    private static byte[] comprimir(byte[] cuerpo) {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(Math.max(64, cuerpo.length / 2));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(cuerpo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return salida.toByteArray();
+    }
+}
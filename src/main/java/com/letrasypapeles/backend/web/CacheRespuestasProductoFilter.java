@@ -0,0 +1,123 @@
+package com.letrasypapeles.backend.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Sirve {@code GET /api/productos/{id}} desde {@link CacheRespuestasProducto}: en un acierto los
+ * bytes guardados (comprimidos si el cliente acepta gzip) se escriben directo en la respuesta, sin
+ * cargar la entidad, armar enlaces ni pasar por Jackson. En un fallo la solicitud sigue su curso y
+ * la respuesta 200 se guarda. Las solicitudes con {@code If-None-Match} pasan de largo: las responde
+ * {@link EtagCatalogoInterceptor}, que ya evita cargar la entidad.
+ * Se registra en la cadena de seguridad después de autorizar.
+ */
+@Component
+public class CacheRespuestasProductoFilter extends OncePerRequestFilter {
+
+    private static final Pattern RUTA = Pattern.compile("/api/productos/(\\d+)");
+
+    private final CacheRespuestasProducto cache;
+    private final VersionesCatalogo versiones;
+
+    public CacheRespuestasProductoFilter(CacheRespuestasProducto cache, VersionesCatalogo versiones) {
+        this.cache = cache;
+        this.versiones = versiones;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod()) ||
+               request.getHeader(HttpHeaders.IF_NONE_MATCH) != null ||
+               !RUTA.matcher(ruta(request)).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Matcher ruta = RUTA.matcher(ruta(request));
+        ruta.matches();
+        Long productoId = Long.valueOf(ruta.group(1));
+        String representacion = representacion(request);
+        // La versión se lee antes de cargar nada: si cambia mientras tanto, la entrada nace vencida
+        long version = versiones.version(VersionesCatalogo.TABLAS_PRODUCTO);
+
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        CacheRespuestasProducto.Entrada entrada = cache.buscar(productoId, representacion, version).orElse(null);
+        if (entrada != null) {
+            escribir(entrada, request, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper envoltura = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, envoltura);
+            if (envoltura.getStatus() == HttpServletResponse.SC_OK && envoltura.getContentType() != null &&
+                    envoltura.getHeader(HttpHeaders.CONTENT_ENCODING) == null) {
+                cache.guardar(productoId, representacion, version, envoltura.getContentType(),
+                        envoltura.getHeader(HttpHeaders.ETAG), envoltura.getContentAsByteArray());
+            }
+        } finally {
+            envoltura.copyBodyToResponse();
+        }
+    }
+
+    private void escribir(CacheRespuestasProducto.Entrada entrada, HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        byte[] cuerpo = entrada.getCuerpo();
+        if (aceptaGzip(request)) {
+            cuerpo = entrada.getCuerpoGzip();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(entrada.getTipoContenido());
+        if (entrada.getEtag() != null) {
+            response.setHeader(HttpHeaders.ETAG, entrada.getEtag());
+        }
+        response.setContentLength(cuerpo.length);
+        response.getOutputStream().write(cuerpo);
+    }
+
+    private static boolean aceptaGzip(HttpServletRequest request) {
+        String encabezado = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (encabezado == null) {
+            return false;
+        }
+        for (String codificacion : encabezado.split(",")) {
+            String[] partes = codificacion.trim().split(";");
+            if (partes[0].trim().equalsIgnoreCase("gzip")) {
+                return partes.length < 2 || !partes[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Lo que distingue una representación de otra: la base de los enlaces, el Accept y los parámetros
+     */
+    private static String representacion(HttpServletRequest request) {
+        StringBuilder clave = new StringBuilder(ServletUriComponentsBuilder.fromServletMapping(request).toUriString())
+                .append('|').append(request.getHeader(HttpHeaders.ACCEPT));
+        for (Map.Entry<String, String[]> parametro : new TreeMap<>(request.getParameterMap()).entrySet()) {
+            clave.append('|').append(parametro.getKey()).append('=').append(Arrays.toString(parametro.getValue()));
+        }
+        return clave.toString();
+    }
+
+    private static String ruta(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
@@ -0,0 +1,275 @@
+package com.letrasypapeles.backend.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.letrasypapeles.backend.dto.RespuestaLote;
+import com.letrasypapeles.backend.dto.SolicitudLote;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.ServletConfig;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.access.WebInvocationPrivilegeEvaluator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecuta las sub-solicitudes GET de {@code POST /api/batch} directamente en el
+ * {@link DispatcherServlet} propio (sobre el mismo contexto de la aplicación, para no depender de
+ * que el del contenedor ya esté inicializado), sin volver a pasar por la cadena de filtros: la autenticación es la
+ * del lote, hecha una sola vez, y cada ruta se autoriza con las mismas reglas de
+ * {@code SecurityConfig} mediante {@link WebInvocationPrivilegeEvaluator}; las anotaciones
+ * {@code @PreAuthorize} se evalúan como siempre. Las lecturas son independientes y corren en
+ * paralelo en un grupo acotado de hilos ({@code batch.hilos}) con una cola también acotada
+ * ({@code batch.cola}); la que no cabe en la cola se informa con 503 y la que no termina dentro
+ * de {@code batch.espera} se interrumpe y se informa con 504.
+ */
+@Component
+public class EjecutorLotes {
+
+    private final WebApplicationContext contexto;
+    private volatile DispatcherServlet dispatcherServlet;
+    private final WebInvocationPrivilegeEvaluator privilegios;
+    private final ObjectMapper objectMapper;
+    private final int maximo;
+    private final Duration espera;
+    private final ExecutorService hilos;
+    private final MeterRegistry meterRegistry;
+
+    public EjecutorLotes(WebApplicationContext contexto,
+                         WebInvocationPrivilegeEvaluator privilegios,
+                         ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry,
+                         @Value("${batch.hilos:8}") int hilos,
+                         @Value("${batch.cola:64}") int cola,
+                         @Value("${batch.maximo:20}") int maximo,
+                         @Value("${batch.espera:PT10S}") Duration espera) {
+        this.contexto = contexto;
+        this.privilegios = privilegios;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.maximo = maximo;
+        this.espera = espera;
+        AtomicInteger numero = new AtomicInteger();
+        // Sin la cola acotada, varios lotes lentos acumularían sub-solicitudes sin límite
+        this.hilos = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(cola), r -> {
+            Thread hilo = new Thread(r, "lote-" + numero.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    @PreDestroy
+    public void detener() {
+        hilos.shutdownNow();
+        if (dispatcherServlet != null) {
+            dispatcherServlet.destroy();
+        }
+    }
+
+    /**
+     * @return Una respuesta por sub-solicitud, en el mismo orden
+     * @throws IllegalArgumentException si el lote está vacío o supera {@code batch.maximo}
+     */
+    public List<RespuestaLote> ejecutar(HttpServletRequest lote, HttpServletResponse respuestaLote,
+                                        List<SolicitudLote> solicitudes) {
+        if (solicitudes == null || solicitudes.isEmpty()) {
+            throw new IllegalArgumentException("El lote debe incluir al menos una solicitud");
+        }
+        if (solicitudes.size() > maximo) {
+            throw new IllegalArgumentException("Un lote admite como máximo " + maximo +
+                    " solicitudes; se enviaron " + solicitudes.size());
+        }
+
+        DispatcherServlet despachador = despachador(lote.getServletContext());
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        List<Future<RespuestaLote>> pendientes = new ArrayList<>(solicitudes.size());
+        for (SolicitudLote solicitud : solicitudes) {
+            RespuestaLote rechazo = rechazo(lote, solicitud, autenticacion);
+            if (rechazo != null) {
+                pendientes.add(CompletableFuture.completedFuture(rechazo));
+                continue;
+            }
+            // La sub-solicitud se arma aquí, en el hilo del lote, que es el único que puede leer la original
+            SolicitudInterna interna = new SolicitudInterna(lote, solicitud.getRuta(), solicitud.getEncabezados());
+            try {
+                // submit y no supplyAsync: cancelar el Future interrumpe el hilo de la sub-solicitud
+                pendientes.add(hilos.submit(
+                        () -> despachar(despachador, solicitud, interna, new RespuestaInterna(respuestaLote), autenticacion)));
+            } catch (RejectedExecutionException e) {
+                pendientes.add(CompletableFuture.completedFuture(error(solicitud, HttpStatus.SERVICE_UNAVAILABLE,
+                        "Demasiadas solicitudes en curso; vuelva a intentarlo más tarde")));
+            }
+        }
+
+        long limite = System.nanoTime() + espera.toNanos();
+        List<RespuestaLote> respuestas = new ArrayList<>(pendientes.size());
+        for (int i = 0; i < pendientes.size(); i++) {
+            respuestas.add(esperar(pendientes.get(i), solicitudes.get(i), limite));
+        }
+        respuestas.forEach(respuesta -> contador(respuesta.getEstado()).increment());
+        return respuestas;
+    }
+
+    private RespuestaLote rechazo(HttpServletRequest lote, SolicitudLote solicitud, Authentication autenticacion) {
+        if (solicitud.getMetodo() != null && !"GET".equalsIgnoreCase(solicitud.getMetodo())) {
+            return error(solicitud, HttpStatus.METHOD_NOT_ALLOWED, "Solo se admiten solicitudes GET en un lote");
+        }
+        String ruta = solicitud.getRuta();
+        String rutaSinConsulta = ruta == null ? null : ruta.contains("?") ? ruta.substring(0, ruta.indexOf('?')) : ruta;
+        // Solo rutas ya normalizadas: la autorización se evalúa sobre el texto tal como viene
+        if (rutaSinConsulta == null || !rutaSinConsulta.startsWith("/api/") || rutaSinConsulta.startsWith("/api/batch") ||
+                rutaSinConsulta.matches(".*(\\.\\.|//|[;%\\\\]).*")) {
+            return error(solicitud, HttpStatus.BAD_REQUEST, "Ruta inválida: " + ruta);
+        }
+        if (!privilegios.isAllowed(lote.getContextPath(), rutaSinConsulta, "GET", autenticacion)) {
+            return error(solicitud, HttpStatus.FORBIDDEN, "No tiene permisos para acceder a este recurso");
+        }
+        return null;
+    }
+
+    private DispatcherServlet despachador(ServletContext servletContext) {
+        DispatcherServlet despachador = dispatcherServlet;
+        if (despachador == null) {
+            synchronized (this) {
+                despachador = dispatcherServlet;
+                if (despachador == null) {
+                    despachador = new DispatcherServlet(contexto);
+                    despachador.setPublishContext(false);
+                    try {
+                        despachador.init(configuracion(servletContext));
+                    } catch (ServletException e) {
+                        throw new IllegalStateException("No se pudo inicializar el despachador de lotes", e);
+                    }
+                    dispatcherServlet = despachador;
+                }
+            }
+        }
+        return despachador;
+    }
+
+    private static ServletConfig configuracion(ServletContext servletContext) {
+        return new ServletConfig() {
+            @Override
+            public String getServletName() {
+                return "lotes";
+            }
+
+            @Override
+            public ServletContext getServletContext() {
+                return servletContext;
+            }
+
+            @Override
+            public String getInitParameter(String nombre) {
+                return null;
+            }
+
+            @Override
+            public Enumeration<String> getInitParameterNames() {
+                return Collections.emptyEnumeration();
+            }
+        };
+    }
+
+    private RespuestaLote despachar(DispatcherServlet despachador, SolicitudLote solicitud, SolicitudInterna interna, RespuestaInterna respuesta,
+                                    Authentication autenticacion) {
+        SecurityContext contexto = SecurityContextHolder.createEmptyContext();
+        contexto.setAuthentication(autenticacion);
+        SecurityContextHolder.setContext(contexto);
+        try {
+            despachador.service(interna, respuesta);
+            return RespuestaLote.builder()
+                    .id(solicitud.getId())
+                    .estado(respuesta.getStatus())
+                    .encabezados(encabezados(respuesta))
+                    .cuerpo(cuerpo(respuesta))
+                    .build();
+        } catch (Exception e) {
+            return error(solicitud, HttpStatus.INTERNAL_SERVER_ERROR, "Error del servidor: " + e.getMessage());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private RespuestaLote esperar(Future<RespuestaLote> pendiente, SolicitudLote solicitud, long limite) {
+        try {
+            return pendiente.get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            pendiente.cancel(true);
+            return error(solicitud, HttpStatus.GATEWAY_TIMEOUT, "La solicitud no terminó en " + espera);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return error(solicitud, HttpStatus.SERVICE_UNAVAILABLE, "Lote interrumpido");
+        } catch (ExecutionException e) {
+            return error(solicitud, HttpStatus.INTERNAL_SERVER_ERROR, "Error del servidor: " + e.getCause().getMessage());
+        }
+    }
+
+    private static Map<String, String> encabezados(RespuestaInterna respuesta) {
+        Map<String, String> encabezados = new LinkedHashMap<>();
+        respuesta.encabezados().forEach((nombre, valores) -> encabezados.put(nombre, String.join(", ", valores)));
+        return encabezados;
+    }
+
+    private Object cuerpo(RespuestaInterna respuesta) throws IOException {
+        byte[] bytes = respuesta.cuerpo();
+        if (bytes.length == 0) {
+            return null;
+        }
+        String tipo = respuesta.getContentType();
+        if (tipo != null && esJson(MediaType.parseMediaType(tipo))) {
+            return objectMapper.readTree(bytes);
+        }
+        return new String(bytes, respuesta.charset());
+    }
+
+    private static boolean esJson(MediaType tipo) {
+        return MediaType.APPLICATION_JSON.isCompatibleWith(tipo) || tipo.getSubtype().endsWith("+json");
+    }
+
+    private static RespuestaLote error(SolicitudLote solicitud, HttpStatus estado, String mensaje) {
+        return RespuestaLote.builder()
+                .id(solicitud.getId())
+                .estado(estado.value())
+                .encabezados(Map.of())
+                .cuerpo(Map.of("error", mensaje))
+                .build();
+    }
+
+    private Counter contador(int estado) {
+        return Counter.builder("batch.subsolicitudes")
+                .description("Sub-solicitudes ejecutadas dentro de POST /api/batch")
+                .tag("estado", (estado / 100) + "xx")
+                .register(meterRegistry);
+    }
+}
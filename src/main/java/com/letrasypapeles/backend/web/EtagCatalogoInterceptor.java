@@ -0,0 +1,86 @@
+package com.letrasypapeles.backend.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * ETag fuerte y GET condicional para los recursos del catálogo. La ETag se arma con la versión de
+ * las tablas de las que depende la respuesta ({@link VersionesCatalogo}) y con la URI, los parámetros
+ * y el {@code Accept}, porque cada representación necesita su propia ETag. Si {@code If-None-Match}
+ * coincide se responde 304 antes de llegar al controlador, sin cargar ni serializar entidades.
+ * Las métricas {@code catalogo.etag} (etiquetas recurso y resultado) muestran la tasa de aciertos.
+ */
+@Component
+public class EtagCatalogoInterceptor implements HandlerInterceptor {
+
+    private static final Map<String, List<String>> TABLAS = Map.of(
+            "/api/productos", VersionesCatalogo.TABLAS_PRODUCTO,
+            "/api/productos/{id}", VersionesCatalogo.TABLAS_PRODUCTO,
+            "/api/categorias", List.of("categorias"),
+            "/api/categorias/{id}", List.of("categorias"),
+            "/api/sucursales", List.of("sucursales"),
+            "/api/sucursales/{id}", List.of("sucursales"),
+            "/api/proveedores", List.of("proveedores"),
+            "/api/proveedores/{id}", List.of("proveedores"));
+
+    private final VersionesCatalogo versiones;
+    private final MeterRegistry meterRegistry;
+
+    // Los contadores se reinician con la aplicación: la época evita repetir ETags de un arranque anterior
+    private final String epoca = Long.toString(System.currentTimeMillis(), 36);
+
+    public EtagCatalogoInterceptor(VersionesCatalogo versiones, MeterRegistry meterRegistry) {
+        this.versiones = versiones;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod())) {
+            return true;
+        }
+        String patron = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        List<String> tablas = patron != null ? TABLAS.get(patron) : null;
+        if (tablas == null) {
+            return true;
+        }
+
+        String etag = etag(request, tablas);
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            contador(patron, "304").increment();
+            return false;
+        }
+        contador(patron, "200").increment();
+        return true;
+    }
+
+    private String etag(HttpServletRequest request, List<String> tablas) {
+        int representacion = Objects.hash(request.getRequestURI(), request.getHeader(HttpHeaders.ACCEPT));
+        for (Map.Entry<String, String[]> parametro : new TreeMap<>(request.getParameterMap()).entrySet()) {
+            representacion = 31 * representacion + parametro.getKey().hashCode();
+            representacion = 31 * representacion + Arrays.hashCode(parametro.getValue());
+        }
+        return "\"" + epoca + "-" + versiones.version(tablas) + "-" + Integer.toHexString(representacion) + "\"";
+    }
+
+    private Counter contador(String recurso, String resultado) {
+        return Counter.builder("catalogo.etag")
+                .description("GET condicionales del catálogo; resultado 304 es un acierto de ETag")
+                .tag("recurso", recurso)
+                .tag("resultado", resultado)
+                .register(meterRegistry);
+    }
+}
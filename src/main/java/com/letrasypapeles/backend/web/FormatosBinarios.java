@@ -0,0 +1,34 @@
+package com.letrasypapeles.backend.web;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Respuestas y cuerpos de solicitud en CBOR ({@code application/cbor}) y Smile
+ * ({@code application/x-jackson-smile}) para los clientes de sincronización que mueven colecciones
+ * grandes. Los mapeadores salen del mismo {@link Jackson2ObjectMapperBuilder} que arma el de JSON,
+ * así que respetan las anotaciones de las entidades y la configuración {@code spring.jackson.*};
+ * solo cambia la codificación. Al declararlos como beans reemplazan a los convertidores binarios
+ * por defecto de Spring MVC, que se arman sin esa configuración.
+ * Los enlaces HATEOAS van en la forma genérica ({@code links}) porque HAL es un tipo JSON.
+ */
+@Configuration
+public class FormatosBinarios {
+
+    public static final String SMILE = "application/x-jackson-smile";
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter convertidorCbor(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter convertidorSmile(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,251 @@
+package com.letrasypapeles.backend.web;
+
+import com.letrasypapeles.backend.entity.RespuestaIdempotente;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Soporte del encabezado {@code Idempotency-Key} para el checkout y la creación de pedidos y reservas.
+ * La primera solicitud con una clave se ejecuta y, si termina en 2xx, su respuesta se guarda;
+ * las repeticiones reciben esa misma respuesta sin volver a ejecutarse. Las repeticiones que
+ * llegan mientras la original sigue en curso esperan su resultado. Las claves se separan por
+ * usuario y por ruta.
+ */
+@Component
+public class IdempotenciaFilter extends OncePerRequestFilter {
+
+    public static final String ENCABEZADO = "Idempotency-Key";
+    public static final String ENCABEZADO_REPETIDA = "Idempotent-Replayed";
+
+    static final int LARGO_MAXIMO_CLAVE = 255;
+
+    private static final Set<String> RUTAS = Set.of(
+            "/api/pedidos", "/api/pedidos/crear", "/api/reservas", "/api/reservas/crear", "/api/checkout");
+
+    private final AlmacenIdempotencia almacen;
+    private final Duration espera;
+
+    public IdempotenciaFilter(AlmacenIdempotencia almacen,
+                              @Value("${idempotencia.espera:PT30S}") Duration espera) {
+        this.almacen = almacen;
+        this.espera = espera;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) ||
+               request.getHeader(ENCABEZADO) == null ||
+               !RUTAS.contains(ruta(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String valor = request.getHeader(ENCABEZADO).trim();
+        if (valor.isEmpty() || valor.length() > LARGO_MAXIMO_CLAVE) {
+            error(response, HttpStatus.BAD_REQUEST,
+                    "El encabezado " + ENCABEZADO + " debe tener entre 1 y " + LARGO_MAXIMO_CLAVE + " caracteres");
+            return;
+        }
+
+        byte[] cuerpo = StreamUtils.copyToByteArray(request.getInputStream());
+        String huella = huella(cuerpo);
+        String clave = usuario() + "|" + ruta(request) + "|" + valor;
+
+        Optional<RespuestaIdempotente> guardada = almacen.buscar(clave);
+        if (guardada.isPresent()) {
+            repetir(guardada.get(), huella, response);
+            return;
+        }
+
+        CompletableFuture<RespuestaIdempotente> propio = new CompletableFuture<>();
+        CompletableFuture<RespuestaIdempotente> enCurso = almacen.reclamar(clave, propio);
+        if (enCurso != null) {
+            esperar(enCurso, huella, response);
+            return;
+        }
+
+        RespuestaIdempotente resultado = null;
+        try {
+            // La ejecución anterior pudo terminar entre la búsqueda y el reclamo
+            guardada = almacen.buscar(clave);
+            if (guardada.isPresent()) {
+                resultado = guardada.get();
+                repetir(resultado, huella, response);
+                return;
+            }
+
+            ContentCachingResponseWrapper envoltura = new ContentCachingResponseWrapper(response);
+            try {
+                filterChain.doFilter(new SolicitudConCuerpo(request, cuerpo), envoltura);
+                resultado = almacen.crear(clave, huella, envoltura.getStatus(), envoltura.getContentType(),
+                        envoltura.getContentAsByteArray());
+                if (HttpStatus.valueOf(resultado.getEstado()).is2xxSuccessful()) {
+                    almacen.guardar(resultado);
+                }
+            } finally {
+                envoltura.copyBodyToResponse();
+            }
+        } finally {
+            almacen.liberar(clave, propio, resultado);
+        }
+    }
+
+    private void esperar(CompletableFuture<RespuestaIdempotente> enCurso, String huella, HttpServletResponse response)
+            throws IOException {
+        RespuestaIdempotente resultado;
+        try {
+            resultado = enCurso.get(espera.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            error(response, HttpStatus.CONFLICT, "Hay una solicitud en curso con la misma clave de idempotencia");
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error(response, HttpStatus.CONFLICT, "Hay una solicitud en curso con la misma clave de idempotencia");
+            return;
+        } catch (ExecutionException e) {
+            resultado = null;
+        }
+
+        if (resultado == null) {
+            error(response, HttpStatus.CONFLICT, "La solicitud original con esta clave de idempotencia falló; reintente");
+        } else {
+            repetir(resultado, huella, response);
+        }
+    }
+
+    private void repetir(RespuestaIdempotente respuesta, String huella, HttpServletResponse response) throws IOException {
+        if (!respuesta.getHuella().equals(huella)) {
+            error(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    "La clave de idempotencia ya se usó con una solicitud distinta");
+            return;
+        }
+        response.setStatus(respuesta.getEstado());
+        if (respuesta.getTipoContenido() != null) {
+            response.setContentType(respuesta.getTipoContenido());
+        }
+        response.setHeader(ENCABEZADO_REPETIDA, "true");
+        byte[] cuerpo = respuesta.getCuerpo() != null ? respuesta.getCuerpo() : new byte[0];
+        response.setContentLength(cuerpo.length);
+        response.getOutputStream().write(cuerpo);
+    }
+
+    private static void error(HttpServletResponse response, HttpStatus estado, String mensaje) throws IOException {
+        response.setStatus(estado.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"error\":\"" + mensaje + "\"}");
+    }
+
+    private static String ruta(HttpServletRequest request) {
+        String ruta = request.getRequestURI().substring(request.getContextPath().length());
+        return ruta.length() > 1 && ruta.endsWith("/") ? ruta.substring(0, ruta.length() - 1) : ruta;
+    }
+
+    private static String usuario() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : "anonimo";
+    }
+
+    static String huella(byte[] cuerpo) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(cuerpo));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    /**
+     * Solicitud cuyo cuerpo ya se leyó para calcular la huella y se entrega de nuevo al controlador
+     */
+    private static final class SolicitudConCuerpo extends HttpServletRequestWrapper {
+
+        private final byte[] cuerpo;
+
+        SolicitudConCuerpo(HttpServletRequest request, byte[] cuerpo) {
+            super(request);
+            this.cuerpo = cuerpo;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream entrada = new ByteArrayInputStream(cuerpo);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return entrada.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * El cuerpo ya está en memoria: todo está disponible de inmediato, así que el
+                 * listener se notifica en el acto en lugar de esperar al contenedor
+                 */
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            readListener.onAllDataRead();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return entrada.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return entrada.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String codificacion = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(getInputStream(), Charset.forName(codificacion)));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.letrasypapeles.backend.web;
+
+import jakarta.persistence.Entity;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.core.MethodParameter;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Carga lateral de referencias: con {@code ?refs=id&include=cliente,producto} la respuesta se
+ * envuelve en {@code {"content": ..., "incluidos": {"cliente": [...], "producto": [...]}}}, donde
+ * cada entidad referenciada aparece una sola vez aunque la compartan muchos elementos. Así una
+ * lista de n pedidos de k clientes pesa O(n + k) en lugar de O(n · k). Los nombres de
+ * {@code include} que no son asociaciones de los elementos se ignoran.
+ */
+@ControllerAdvice
+public class IncluirReferenciasAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body == null || !(request instanceof ServletServerHttpRequest servletRequest) ||
+                !ReferenciasAsociaciones.VALOR.equals(servletRequest.getServletRequest().getParameter(ReferenciasAsociaciones.PARAMETRO))) {
+            return body;
+        }
+        String include = servletRequest.getServletRequest().getParameter(ReferenciasAsociaciones.INCLUIR);
+        if (include == null || include.isBlank()) {
+            return body;
+        }
+        List<Object> entidades = entidades(body);
+        if (entidades.isEmpty()) {
+            return body;
+        }
+
+        Map<String, Collection<Object>> incluidos = new LinkedHashMap<>();
+        for (String asociacion : include.split(",")) {
+            asociacion = asociacion.trim();
+            if (!asociacion.isEmpty() && !incluidos.containsKey(asociacion) &&
+                    ReferenciasAsociaciones.esAsociacion(entidades.get(0).getClass(), asociacion)) {
+                incluidos.put(asociacion, referenciadas(entidades, asociacion));
+            }
+        }
+        Map<String, Object> envoltura = new LinkedHashMap<>();
+        envoltura.put("content", body);
+        envoltura.put("incluidos", incluidos);
+        return envoltura;
+    }
+
+    /**
+     * Entidades de la respuesta, sacadas de los modelos HATEOAS o de la colección
+     */
+    private static List<Object> entidades(Object body) {
+        Collection<?> elementos;
+        if (body instanceof CollectionModel<?> coleccion) {
+            elementos = coleccion.getContent();
+        } else if (body instanceof Collection<?> coleccion) {
+            elementos = coleccion;
+        } else {
+            elementos = List.of(body);
+        }
+        List<Object> entidades = new ArrayList<>(elementos.size());
+        for (Object elemento : elementos) {
+            Object entidad = elemento instanceof EntityModel<?> modelo ? modelo.getContent() : elemento;
+            if (entidad == null || !entidad.getClass().isAnnotationPresent(Entity.class)) {
+                return List.of();
+            }
+            entidades.add(entidad);
+        }
+        return entidades;
+    }
+
+    private static Collection<Object> referenciadas(List<Object> entidades, String asociacion) {
+        Map<Object, Object> porId = new LinkedHashMap<>();
+        for (Object entidad : entidades) {
+            Object valor = new BeanWrapperImpl(entidad).getPropertyValue(asociacion);
+            if (valor instanceof Collection<?> coleccion) {
+                coleccion.forEach(referenciada -> porId.putIfAbsent(ReferenciasAsociaciones.identificador(referenciada), referenciada));
+            } else if (valor != null) {
+                porId.putIfAbsent(ReferenciasAsociaciones.identificador(valor), valor);
+            }
+        }
+        return porId.values();
+    }
+}
@@ -0,0 +1,137 @@
+package com.letrasypapeles.backend.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import jakarta.persistence.ManyToMany;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToOne;
+import jakarta.servlet.http.HttpServletRequest;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.beans.BeanUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Modo de serialización por referencias, activado con {@code ?refs=id} en cualquier solicitud:
+ * las asociaciones de una entidad con otras ({@code @ManyToOne}, {@code @OneToOne},
+ * {@code @ManyToMany}) se escriben solo con su id, como {@code "cliente":{"id":5}}, en lugar de
+ * repetir la entidad completa en cada elemento. Las {@code @OneToMany} son partes de la entidad
+ * (por ejemplo las líneas de un pedido) y se siguen escribiendo completas.
+ * Con {@code &include=cliente,...} {@link IncluirReferenciasAdvice} agrega una sola vez las
+ * entidades referenciadas. El módulo se registra en el ObjectMapper de la aplicación, así que
+ * aplica igual a JSON, HAL, CBOR y Smile.
+ */
+@Component
+public class ReferenciasAsociaciones extends SimpleModule {
+
+    public static final String PARAMETRO = "refs";
+    public static final String VALOR = "id";
+    public static final String INCLUIR = "include";
+
+    private static final Map<Class<?>, Method> LECTORES_ID = new ConcurrentHashMap<>();
+
+    public ReferenciasAsociaciones() {
+        super("ReferenciasAsociaciones");
+        setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc,
+                                                             List<BeanPropertyWriter> propiedades) {
+                propiedades.replaceAll(propiedad -> esAsociacion(propiedad) ? new EscritorReferencia(propiedad) : propiedad);
+                return propiedades;
+            }
+        });
+    }
+
+    /**
+     * Indica si la solicitud en curso pidió {@code refs=id}; fuera de una solicitud siempre es false
+     */
+    public static boolean activo() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes atributos)) {
+            return false;
+        }
+        HttpServletRequest request = atributos.getRequest();
+        return VALOR.equals(request.getParameter(PARAMETRO));
+    }
+
+    static boolean esAsociacion(BeanPropertyWriter propiedad) {
+        return propiedad.getAnnotation(ManyToOne.class) != null ||
+               propiedad.getAnnotation(OneToOne.class) != null ||
+               propiedad.getAnnotation(ManyToMany.class) != null;
+    }
+
+    static boolean esAsociacion(Class<?> entidad, String propiedad) {
+        Field campo = ReflectionUtils.findField(entidad, propiedad);
+        return campo != null && (campo.isAnnotationPresent(ManyToOne.class) ||
+                                 campo.isAnnotationPresent(OneToOne.class) ||
+                                 campo.isAnnotationPresent(ManyToMany.class));
+    }
+
+    /**
+     * Id de una entidad; en un proxy de Hibernate se lee sin inicializarlo
+     */
+    static Object identificador(Object entidad) {
+        if (entidad instanceof HibernateProxy proxy) {
+            return proxy.getHibernateLazyInitializer().getIdentifier();
+        }
+        Method lector = LECTORES_ID.computeIfAbsent(entidad.getClass(), clase -> {
+            PropertyDescriptor id = BeanUtils.getPropertyDescriptor(clase, "id");
+            if (id == null || id.getReadMethod() == null) {
+                throw new IllegalStateException("La entidad " + clase.getSimpleName() + " no expone su id");
+            }
+            return id.getReadMethod();
+        });
+        return ReflectionUtils.invokeMethod(lector, entidad);
+    }
+
+    static class EscritorReferencia extends BeanPropertyWriter {
+
+        EscritorReferencia(BeanPropertyWriter base) {
+            super(base);
+        }
+
+        @Override
+        public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+            if (!activo()) {
+                super.serializeAsField(bean, gen, prov);
+                return;
+            }
+            Object valor = get(bean);
+            gen.writeFieldName(_name);
+            if (valor == null) {
+                gen.writeNull();
+            } else if (valor instanceof Collection<?> coleccion) {
+                gen.writeStartArray();
+                for (Object elemento : coleccion) {
+                    escribirReferencia(elemento, gen, prov);
+                }
+                gen.writeEndArray();
+            } else {
+                escribirReferencia(valor, gen, prov);
+            }
+        }
+
+        private static void escribirReferencia(Object entidad, JsonGenerator gen, SerializerProvider prov)
+                throws IOException {
+            gen.writeStartObject();
+            gen.writeFieldName(VALOR);
+            prov.defaultSerializeValue(identificador(entidad), gen);
+            gen.writeEndObject();
+        }
+    }
+}
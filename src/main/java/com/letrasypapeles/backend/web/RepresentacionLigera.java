@@ -0,0 +1,16 @@
+package com.letrasypapeles.backend.web;
+
+/**
+ * Formas de pedir una colección sin los enlaces HATEOAS de cada elemento, para clientes que
+ * no los recorren: con el parámetro {@code ?links=none} (respuesta HAL) o con el tipo
+ * {@link #TIPO} en {@code Accept} (JSON plano). En ambos casos los elementos van como un
+ * arreglo simple y solo la colección lleva su enlace {@code self}.
+ */
+public final class RepresentacionLigera {
+
+    public static final String TIPO = "application/vnd.letrasypapeles.ligero+json";
+    public static final String PARAMETRO = "links=none";
+
+    private RepresentacionLigera() {
+    }
+}
@@ -0,0 +1,282 @@
+package com.letrasypapeles.backend.web;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Respuesta de una sub-solicitud de un lote: estado, encabezados y cuerpo quedan en memoria y
+ * nada llega a la respuesta real del lote, que se arma al final con todas las sub-respuestas.
+ */
+class RespuestaInterna extends HttpServletResponseWrapper {
+
+    private int estado = SC_OK;
+    private final Map<String, List<String>> encabezados = new LinkedCaseInsensitiveMap<>();
+    private final ByteArrayOutputStream cuerpo = new ByteArrayOutputStream();
+    private String codificacion = StandardCharsets.UTF_8.name();
+    private Locale idioma = Locale.getDefault();
+    private ServletOutputStream salida;
+    private PrintWriter escritor;
+    private boolean confirmada;
+
+    RespuestaInterna(HttpServletResponse lote) {
+        super(lote);
+    }
+
+    /**
+     * Bytes escritos por el controlador, con lo que quedara pendiente en el escritor
+     */
+    byte[] cuerpo() {
+        if (escritor != null) {
+            escritor.flush();
+        }
+        return cuerpo.toByteArray();
+    }
+
+    Map<String, List<String>> encabezados() {
+        return encabezados;
+    }
+
+    Charset charset() {
+        return Charset.forName(codificacion);
+    }
+
+    @Override
+    public void setStatus(int estado) {
+        if (!confirmada) {
+            this.estado = estado;
+        }
+    }
+
+    @Override
+    public int getStatus() {
+        return estado;
+    }
+
+    @Override
+    public void sendError(int estado) {
+        sendError(estado, null);
+    }
+
+    @Override
+    public void sendError(int estado, String mensaje) {
+        this.estado = estado;
+        this.confirmada = true;
+    }
+
+    @Override
+    public void sendRedirect(String ubicacion) {
+        this.estado = SC_FOUND;
+        setHeader(HttpHeaders.LOCATION, ubicacion);
+        this.confirmada = true;
+    }
+
+    @Override
+    public void setHeader(String nombre, String valor) {
+        if (valor == null) {
+            encabezados.remove(nombre);
+        } else {
+            encabezados.put(nombre, new ArrayList<>(List.of(valor)));
+        }
+    }
+
+    @Override
+    public void addHeader(String nombre, String valor) {
+        if (valor != null) {
+            encabezados.computeIfAbsent(nombre, n -> new ArrayList<>()).add(valor);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String nombre, int valor) {
+        setHeader(nombre, Integer.toString(valor));
+    }
+
+    @Override
+    public void addIntHeader(String nombre, int valor) {
+        addHeader(nombre, Integer.toString(valor));
+    }
+
+    @Override
+    public void setDateHeader(String nombre, long fecha) {
+        setHeader(nombre, fecha(fecha));
+    }
+
+    @Override
+    public void addDateHeader(String nombre, long fecha) {
+        addHeader(nombre, fecha(fecha));
+    }
+
+    private static String fecha(long fecha) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(fecha).atZone(ZoneOffset.UTC));
+    }
+
+    @Override
+    public boolean containsHeader(String nombre) {
+        return encabezados.containsKey(nombre);
+    }
+
+    @Override
+    public String getHeader(String nombre) {
+        List<String> valores = encabezados.get(nombre);
+        return valores != null && !valores.isEmpty() ? valores.get(0) : null;
+    }
+
+    @Override
+    public Collection<String> getHeaders(String nombre) {
+        return encabezados.getOrDefault(nombre, List.of());
+    }
+
+    @Override
+    public Collection<String> getHeaderNames() {
+        return new ArrayList<>(encabezados.keySet());
+    }
+
+    @Override
+    public void setContentType(String tipo) {
+        if (tipo == null) {
+            encabezados.remove(HttpHeaders.CONTENT_TYPE);
+            return;
+        }
+        MediaType tipoMedio = MediaType.parseMediaType(tipo);
+        if (tipoMedio.getCharset() != null) {
+            codificacion = tipoMedio.getCharset().name();
+        }
+        setHeader(HttpHeaders.CONTENT_TYPE, tipo);
+    }
+
+    @Override
+    public String getContentType() {
+        return getHeader(HttpHeaders.CONTENT_TYPE);
+    }
+
+    @Override
+    public void setCharacterEncoding(String codificacion) {
+        if (codificacion != null) {
+            this.codificacion = codificacion;
+        }
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return codificacion;
+    }
+
+    @Override
+    public void setContentLength(int largo) {
+    }
+
+    @Override
+    public void setContentLengthLong(long largo) {
+    }
+
+    @Override
+    public void setLocale(Locale idioma) {
+        this.idioma = idioma;
+    }
+
+    @Override
+    public Locale getLocale() {
+        return idioma;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (salida == null) {
+            salida = new ServletOutputStream() {
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * La salida se acumula en memoria y nunca se bloquea, así que el listener se
+                 * notifica en el acto en lugar de esperar al contenedor
+                 */
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                    try {
+                        writeListener.onWritePossible();
+                    } catch (IOException | RuntimeException e) {
+                        writeListener.onError(e);
+                    }
+                }
+
+                @Override
+                public void write(int b) {
+                    cuerpo.write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    cuerpo.write(b, off, len);
+                }
+            };
+        }
+        return salida;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (escritor == null) {
+            escritor = new PrintWriter(new OutputStreamWriter(cuerpo, charset()));
+        }
+        return escritor;
+    }
+
+    @Override
+    public void flushBuffer() {
+        if (escritor != null) {
+            escritor.flush();
+        }
+        confirmada = true;
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return confirmada;
+    }
+
+    @Override
+    public void reset() {
+        resetBuffer();
+        encabezados.clear();
+        estado = SC_OK;
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (escritor != null) {
+            escritor.flush();
+        }
+        cuerpo.reset();
+    }
+
+    @Override
+    public void setBufferSize(int tamano) {
+    }
+
+    @Override
+    public int getBufferSize() {
+        return cuerpo.size();
+    }
+}
@@ -0,0 +1,300 @@
+package com.letrasypapeles.backend.web;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.util.LinkedCaseInsensitiveMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Sub-solicitud GET de un lote, sin cuerpo, con su propia ruta, parámetros, encabezados y
+ * atributos. Los datos de la conexión (esquema, servidor, contexto, idioma) se copian de la
+ * solicitud del lote al crearla, porque la sub-solicitud corre en otro hilo y la original no es
+ * segura entre hilos ni vive más allá de su respuesta.
+ */
+class SolicitudInterna extends HttpServletRequestWrapper {
+
+    private final String ruta;
+    private final String consulta;
+    private final Map<String, String[]> parametros = new LinkedHashMap<>();
+    private final Map<String, String> encabezados = new LinkedCaseInsensitiveMap<>();
+    private final Map<String, Object> atributos = new HashMap<>();
+
+    private final String esquema;
+    private final String servidor;
+    private final int puerto;
+    private final String contexto;
+    private final boolean seguro;
+    private final String direccionRemota;
+    private final Locale idioma;
+
+    SolicitudInterna(HttpServletRequest lote, String rutaConConsulta, Map<String, String> encabezados) {
+        super(lote);
+        UriComponents uri = UriComponentsBuilder.fromUriString(rutaConConsulta).build();
+        this.ruta = uri.getPath();
+        this.consulta = uri.getQuery();
+        MultiValueMap<String, String> valores = uri.getQueryParams();
+        valores.forEach((nombre, lista) -> parametros.put(decodificar(nombre),
+                lista.stream().map(valor -> valor == null ? "" : decodificar(valor)).toArray(String[]::new)));
+        if (encabezados != null) {
+            this.encabezados.putAll(encabezados);
+        }
+
+        this.esquema = lote.getScheme();
+        this.servidor = lote.getServerName();
+        this.puerto = lote.getServerPort();
+        this.contexto = lote.getContextPath();
+        this.seguro = lote.isSecure();
+        this.direccionRemota = lote.getRemoteAddr();
+        this.idioma = lote.getLocale();
+    }
+
+    private static String decodificar(String valor) {
+        return UriUtils.decode(valor, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String getMethod() {
+        return "GET";
+    }
+
+    @Override
+    public DispatcherType getDispatcherType() {
+        return DispatcherType.REQUEST;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return contexto + ruta;
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        StringBuffer url = new StringBuffer(esquema).append("://").append(servidor);
+        if (!("http".equals(esquema) && puerto == 80) && !("https".equals(esquema) && puerto == 443)) {
+            url.append(':').append(puerto);
+        }
+        return url.append(getRequestURI());
+    }
+
+    @Override
+    public String getServletPath() {
+        return ruta;
+    }
+
+    @Override
+    public String getPathInfo() {
+        return null;
+    }
+
+    @Override
+    public String getQueryString() {
+        return consulta;
+    }
+
+    @Override
+    public String getContextPath() {
+        return contexto;
+    }
+
+    @Override
+    public String getScheme() {
+        return esquema;
+    }
+
+    @Override
+    public String getServerName() {
+        return servidor;
+    }
+
+    @Override
+    public int getServerPort() {
+        return puerto;
+    }
+
+    @Override
+    public boolean isSecure() {
+        return seguro;
+    }
+
+    @Override
+    public String getRemoteAddr() {
+        return direccionRemota;
+    }
+
+    @Override
+    public Locale getLocale() {
+        return idioma;
+    }
+
+    @Override
+    public Enumeration<Locale> getLocales() {
+        return Collections.enumeration(List.of(idioma));
+    }
+
+    @Override
+    public String getParameter(String nombre) {
+        String[] valores = parametros.get(nombre);
+        return valores != null && valores.length > 0 ? valores[0] : null;
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return Collections.unmodifiableMap(parametros);
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(parametros.keySet());
+    }
+
+    @Override
+    public String[] getParameterValues(String nombre) {
+        return parametros.get(nombre);
+    }
+
+    @Override
+    public String getHeader(String nombre) {
+        return encabezados.get(nombre);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String nombre) {
+        String valor = encabezados.get(nombre);
+        return Collections.enumeration(valor != null ? List.of(valor) : List.of());
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(new ArrayList<>(encabezados.keySet()));
+    }
+
+    @Override
+    public int getIntHeader(String nombre) {
+        String valor = encabezados.get(nombre);
+        return valor != null ? Integer.parseInt(valor) : -1;
+    }
+
+    @Override
+    public long getDateHeader(String nombre) {
+        String valor = encabezados.get(nombre);
+        if (valor == null) {
+            return -1;
+        }
+        try {
+            return ZonedDateTime.parse(valor, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Fecha inválida en el encabezado " + nombre + ": " + valor);
+        }
+    }
+
+    @Override
+    public String getContentType() {
+        return null;
+    }
+
+    @Override
+    public int getContentLength() {
+        return 0;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return 0;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        return new ServletInputStream() {
+            @Override
+            public boolean isFinished() {
+                return true;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            /** Una sub-solicitud GET no tiene cuerpo: la lectura termina en el acto */
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                try {
+                    readListener.onAllDataRead();
+                } catch (IOException | RuntimeException e) {
+                    readListener.onError(e);
+                }
+            }
+
+            @Override
+            public int read() {
+                return -1;
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        return new BufferedReader(new StringReader(""));
+    }
+
+    @Override
+    public HttpSession getSession(boolean crear) {
+        return null;
+    }
+
+    @Override
+    public HttpSession getSession() {
+        return null;
+    }
+
+    @Override
+    public boolean isAsyncSupported() {
+        return false;
+    }
+
+    @Override
+    public Object getAttribute(String nombre) {
+        return atributos.get(nombre);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(new ArrayList<>(atributos.keySet()));
+    }
+
+    @Override
+    public void setAttribute(String nombre, Object valor) {
+        if (valor == null) {
+            atributos.remove(nombre);
+        } else {
+            atributos.put(nombre, valor);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String nombre) {
+        atributos.remove(nombre);
+    }
+}
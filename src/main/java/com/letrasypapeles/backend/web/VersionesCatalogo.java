@@ -0,0 +1,93 @@
+package com.letrasypapeles.backend.web;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contador de cambios por tabla del catálogo (productos, categorías, sucursales y proveedores).
+ * Se alimenta del SQL que emite Hibernate, no de los listeners de entidad, para contar también
+ * las actualizaciones masivas en JPQL como {@code sumarStock} o {@code descontarStockSiAlcanza}.
+ * Dentro de una transacción el contador sube recién al terminarla, para que nadie vea una versión
+ * nueva con datos todavía sin confirmar.
+ */
+@Component
+public class VersionesCatalogo implements StatementInspector, HibernatePropertiesCustomizer {
+
+    /**
+     * Tablas de las que depende la representación de un producto, que incluye su categoría y su proveedor
+     */
+    public static final List<String> TABLAS_PRODUCTO = List.of("productos", "categorias", "proveedores");
+
+    private final Map<String, AtomicLong> contadores = Map.of(
+            "productos", new AtomicLong(),
+            "categorias", new AtomicLong(),
+            "sucursales", new AtomicLong(),
+            "proveedores", new AtomicLong());
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, this);
+    }
+
+    /**
+     * Suma de los contadores de las tablas indicadas; cambia cada vez que cambia alguna de ellas
+     */
+    public long version(Collection<String> tablas) {
+        long version = 0;
+        for (String tabla : tablas) {
+            version += contadores.get(tabla).get();
+        }
+        return version;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        String tabla = tablaEscrita(sql);
+        AtomicLong contador = tabla != null ? contadores.get(tabla) : null;
+        if (contador != null) {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        contador.incrementAndGet();
+                    }
+                });
+            } else {
+                contador.incrementAndGet();
+            }
+        }
+        return sql;
+    }
+
+    /**
+     * Tabla afectada por un INSERT, UPDATE o DELETE, o null para cualquier otra sentencia
+     */
+    static String tablaEscrita(String sql) {
+        String sentencia = sql.stripLeading().toLowerCase(Locale.ROOT);
+        int inicio;
+        if (sentencia.startsWith("insert into ")) {
+            inicio = "insert into ".length();
+        } else if (sentencia.startsWith("update ")) {
+            inicio = "update ".length();
+        } else if (sentencia.startsWith("delete from ")) {
+            inicio = "delete from ".length();
+        } else {
+            return null;
+        }
+        int fin = inicio;
+        while (fin < sentencia.length() && (Character.isLetterOrDigit(sentencia.charAt(fin)) || sentencia.charAt(fin) == '_')) {
+            fin++;
+        }
+        return sentencia.substring(inicio, fin);
+    }
+}
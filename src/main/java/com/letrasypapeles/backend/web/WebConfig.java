@@ -0,0 +1,20 @@
+package com.letrasypapeles.backend.web;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final EtagCatalogoInterceptor etagCatalogoInterceptor;
+
+    public WebConfig(EtagCatalogoInterceptor etagCatalogoInterceptor) {
+        this.etagCatalogoInterceptor = etagCatalogoInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(etagCatalogoInterceptor);
+    }
+}
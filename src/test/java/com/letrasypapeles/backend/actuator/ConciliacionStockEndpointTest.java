@@ -0,0 +1,68 @@
+package com.letrasypapeles.backend.actuator;
+
+import com.letrasypapeles.backend.dto.ProgresoConciliacion;
+import com.letrasypapeles.backend.service.ConciliacionStockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ConciliacionStockEndpointTest {
+
+    @Mock
+    private ConciliacionStockService conciliacionStockService;
+
+    private ConciliacionStockEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        endpoint = new ConciliacionStockEndpoint(conciliacionStockService);
+    }
+
+    @Test
+    void iniciarDevuelveAceptado() {
+        // Given
+        ProgresoConciliacion progreso = ProgresoConciliacion.builder().estado("EN_CURSO").corregir(true).build();
+        when(conciliacionStockService.iniciar(true, 1L, 100L)).thenReturn(progreso);
+
+        // When
+        WebEndpointResponse<ProgresoConciliacion> respuesta = endpoint.iniciarRango(1L, 100L, true);
+
+        // Then
+        assertEquals(202, respuesta.getStatus());
+        assertSame(progreso, respuesta.getBody());
+    }
+
+    @Test
+    void iniciarConOtraEnCursoDevuelveConflicto() {
+        // Given
+        ProgresoConciliacion actual = ProgresoConciliacion.builder().estado("EN_CURSO").build();
+        when(conciliacionStockService.iniciar(false, null, null)).thenThrow(new IllegalStateException("en curso"));
+        when(conciliacionStockService.progreso()).thenReturn(actual);
+
+        // When
+        WebEndpointResponse<ProgresoConciliacion> respuesta = endpoint.iniciar(false);
+
+        // Then
+        assertEquals(409, respuesta.getStatus());
+        assertSame(actual, respuesta.getBody());
+    }
+
+    @Test
+    void rangoInvalidoDevuelveBadRequest() {
+        // Given
+        when(conciliacionStockService.iniciar(false, 9L, 1L)).thenThrow(new IllegalArgumentException("rango"));
+
+        // When
+        WebEndpointResponse<ProgresoConciliacion> respuesta = endpoint.iniciarRango(9L, 1L, false);
+
+        // Then
+        assertEquals(400, respuesta.getStatus());
+    }
+}
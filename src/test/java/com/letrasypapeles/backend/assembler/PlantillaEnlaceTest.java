@@ -0,0 +1,114 @@
+package com.letrasypapeles.backend.assembler;
+
+import com.letrasypapeles.backend.controller.CategoriaController;
+import com.letrasypapeles.backend.controller.ClienteController;
+import com.letrasypapeles.backend.controller.PedidoController;
+import com.letrasypapeles.backend.controller.ProductoController;
+import com.letrasypapeles.backend.controller.ReservaController;
+import com.letrasypapeles.backend.entity.Categoria;
+import com.letrasypapeles.backend.entity.Cliente;
+import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.entity.Reserva;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+public class PlantillaEnlaceTest {
+
+    @AfterEach
+    void limpiarPeticion() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private static void enPeticion(String host, int puerto) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setServerName(host);
+        request.setServerPort(puerto);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @Test
+    void expandeLaRutaConElId() {
+        // Given
+        PlantillaEnlace plantilla = PlantillaEnlace.desdeRuta("/api/reservas/{id}/confirmar");
+
+        // When
+        Link enlace = plantilla.enlace("http://localhost", 7L, "confirmar");
+
+        // Then
+        assertEquals("http://localhost/api/reservas/7/confirmar", enlace.getHref());
+        assertEquals("confirmar", enlace.getRel().value());
+    }
+
+    @Test
+    void rechazaRutasConMasDeUnaVariable() {
+        // When / Then
+        assertThrows(IllegalArgumentException.class,
+                () -> PlantillaEnlace.desdeRuta("/api/clientes/{clienteId}/pedidos/{id}"));
+    }
+
+    private static List<String> enlaces(EntityModel<?> modelo) {
+        return modelo.getLinks().stream().map(Link::toString).toList();
+    }
+
+    private static List<String> enlaces(Link... esperados) {
+        return List.of(esperados).stream().map(Link::toString).toList();
+    }
+
+    @Test
+    void generaLosMismosEnlacesQueLinkToDentroDeUnaPeticion() {
+        // Given: los ensambladores se crean dentro de la petición, como en un bean perezoso
+        enPeticion("tienda.example.com", 8443);
+        Producto producto = Producto.builder().id(5L).nombre("Cuaderno")
+                .categoria(Categoria.builder().id(2L).build()).build();
+        Reserva reserva = Reserva.builder().id(9L).estado("PENDIENTE")
+                .cliente(Cliente.builder().id(3L).build()).producto(producto).build();
+        Cliente cliente = Cliente.builder().id(3L).build();
+
+        // When
+        EntityModel<Producto> productoModel = new ProductoModelAssembler().toModel(producto);
+        EntityModel<Reserva> reservaModel = new ReservaModelAssembler().toModel(reserva);
+        EntityModel<Cliente> clienteModel = new ClienteModelAssembler().toModel(cliente);
+
+        // Then
+        assertEquals(enlaces(
+                linkTo(methodOn(ProductoController.class).obtenerPorId(5L)).withSelfRel(),
+                linkTo(ProductoController.class).withRel("productos"),
+                linkTo(methodOn(CategoriaController.class).obtenerPorId(2L)).withRel("categoria"),
+                linkTo(methodOn(ProductoController.class).actualizarProducto(5L, producto)).withRel("update"),
+                linkTo(methodOn(ProductoController.class).eliminarProducto(5L)).withRel("delete")),
+                enlaces(productoModel));
+        assertEquals(linkTo(methodOn(ReservaController.class).confirmarReserva(9L)).withRel("confirmar").toString(),
+                reservaModel.getRequiredLink("confirmar").toString());
+        assertEquals(linkTo(methodOn(ReservaController.class).cancelarReserva(9L)).withRel("cancelar").toString(),
+                reservaModel.getRequiredLink("cancelar").toString());
+        assertEquals(linkTo(methodOn(ClienteController.class).obtenerPorId(3L)).withRel("cliente").toString(),
+                reservaModel.getRequiredLink("cliente").toString());
+        assertEquals(linkTo(methodOn(PedidoController.class).obtenerPorClienteId(3L)).withRel("pedidos").toString(),
+                clienteModel.getRequiredLink("pedidos").toString());
+        assertTrue(productoModel.getRequiredLink("self").getHref().startsWith("http://tienda.example.com:8443/"));
+    }
+
+    @Test
+    void generaEnlacesRelativosFueraDeUnaPeticion() {
+        // Given
+        Producto producto = Producto.builder().id(5L).build();
+
+        // When
+        EntityModel<Producto> productoModel = new ProductoModelAssembler().toModel(producto);
+
+        // Then
+        assertEquals(linkTo(methodOn(ProductoController.class).obtenerPorId(5L)).withSelfRel().toString(),
+                productoModel.getRequiredLink("self").toString());
+    }
+}
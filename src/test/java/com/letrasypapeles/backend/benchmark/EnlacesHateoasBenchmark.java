@@ -0,0 +1,117 @@
+package com.letrasypapeles.backend.benchmark;
+
+import com.letrasypapeles.backend.assembler.ReservaModelAssembler;
+import com.letrasypapeles.backend.controller.ClienteController;
+import com.letrasypapeles.backend.controller.ProductoController;
+import com.letrasypapeles.backend.controller.ReservaController;
+import com.letrasypapeles.backend.entity.Cliente;
+import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.entity.Reserva;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * Compara el ensamblado HATEOAS de una página de reservas con {@link ReservaModelAssembler}
+ * (plantillas resueltas al inicio) contra el mismo conjunto de enlaces armado con
+ * {@code linkTo(methodOn(...))} por enlace, como lo hacían antes los ensambladores.
+ * Cada operación corresponde a una nueva petición, así que la base se vuelve a calcular.
+ * Ejecutar con: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=EnlacesHateoas
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnlacesHateoasBenchmark {
+
+    @Param({"1000"})
+    private int reservas;
+
+    private List<Reserva> pagina;
+    private ReservaModelAssembler ensamblador;
+
+    @Setup
+    public void preparar() {
+        ensamblador = new ReservaModelAssembler();
+        pagina = new ArrayList<>(reservas);
+        for (int i = 0; i < reservas; i++) {
+            pagina.add(Reserva.builder()
+                    .id((long) i + 1)
+                    .estado(i % 2 == 0 ? "PENDIENTE" : "CONFIRMADA")
+                    .cliente(Cliente.builder().id((long) i % 50 + 1).build())
+                    .producto(Producto.builder().id((long) i % 200 + 1).build())
+                    .build());
+        }
+    }
+
+    @TearDown
+    public void limpiar() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private static void nuevaPeticion() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setServerName("tienda.example.com");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @Benchmark
+    public void plantillas(Blackhole blackhole) {
+        nuevaPeticion();
+        for (Reserva reserva : pagina) {
+            blackhole.consume(ensamblador.toModel(reserva));
+        }
+    }
+
+    @Benchmark
+    public void methodOnPorEnlace(Blackhole blackhole) {
+        nuevaPeticion();
+        for (Reserva reserva : pagina) {
+            blackhole.consume(ensamblarConMethodOn(reserva));
+        }
+    }
+
+    private static EntityModel<Reserva> ensamblarConMethodOn(Reserva reserva) {
+        EntityModel<Reserva> reservaModel = EntityModel.of(reserva);
+        reservaModel.add(linkTo(methodOn(ReservaController.class).obtenerPorId(reserva.getId())).withSelfRel());
+        reservaModel.add(linkTo(ReservaController.class).withRel("reservas"));
+        reservaModel.add(linkTo(methodOn(ClienteController.class)
+                .obtenerPorId(reserva.getCliente().getId())).withRel("cliente"));
+        reservaModel.add(linkTo(methodOn(ProductoController.class)
+                .obtenerPorId(reserva.getProducto().getId())).withRel("producto"));
+        reservaModel.add(linkTo(methodOn(ReservaController.class)
+                .actualizarReserva(reserva.getId(), reserva)).withRel("update"));
+        reservaModel.add(linkTo(methodOn(ReservaController.class)
+                .eliminarReserva(reserva.getId())).withRel("delete"));
+        if ("PENDIENTE".equals(reserva.getEstado())) {
+            reservaModel.add(linkTo(methodOn(ReservaController.class)
+                    .confirmarReserva(reserva.getId())).withRel("confirmar"));
+            reservaModel.add(linkTo(methodOn(ReservaController.class)
+                    .cancelarReserva(reserva.getId())).withRel("cancelar"));
+        }
+        return reservaModel;
+    }
+}
@@ -0,0 +1,134 @@
+package com.letrasypapeles.backend.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.letrasypapeles.backend.entity.Categoria;
+import com.letrasypapeles.backend.entity.Inventario;
+import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.entity.Proveedor;
+import com.letrasypapeles.backend.entity.Sucursal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara escribir y leer una lista de inventario en JSON, CBOR y Smile con mapeadores armados como
+ * los de la aplicación (ver {@code FormatosBinarios}). El tamaño de cada codificación se imprime al
+ * preparar el estado, porque no depende de la iteración.
+ * Ejecutar con: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=SerializacionBinaria
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacionBinariaBenchmark {
+
+    private static final TypeReference<List<Inventario>> LISTA = new TypeReference<>() { };
+
+    @Param({"10000"})
+    private int inventarios;
+
+    private List<Inventario> lista;
+    private ObjectMapper json;
+    private ObjectMapper cbor;
+    private ObjectMapper smile;
+    private byte[] enJson;
+    private byte[] enCbor;
+    private byte[] enSmile;
+
+    @Setup
+    public void preparar() throws Exception {
+        json = new Jackson2ObjectMapperBuilder().build();
+        cbor = new Jackson2ObjectMapperBuilder().factory(new CBORFactory()).build();
+        smile = new Jackson2ObjectMapperBuilder().factory(new SmileFactory()).build();
+
+        List<Producto> productos = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            productos.add(Producto.builder()
+                    .id((long) i + 1)
+                    .nombre("Producto " + (i + 1))
+                    .descripcion("Artículo de librería número " + (i + 1))
+                    .precio(new BigDecimal(990 + i * 10))
+                    .stock(100 + i)
+                    .categoria(Categoria.builder().id((long) i % 20 + 1).nombre("Categoría " + (i % 20 + 1)).build())
+                    .proveedor(Proveedor.builder().id((long) i % 10 + 1).nombre("Proveedor " + (i % 10 + 1)).build())
+                    .build());
+        }
+        List<Sucursal> sucursales = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            sucursales.add(Sucursal.builder()
+                    .id((long) i + 1)
+                    .nombre("Sucursal " + (i + 1))
+                    .direccion("Calle " + (i + 1) + " #" + (100 + i))
+                    .region("Región " + (i % 5 + 1))
+                    .build());
+        }
+        lista = new ArrayList<>(inventarios);
+        for (int i = 0; i < inventarios; i++) {
+            lista.add(Inventario.builder()
+                    .id((long) i + 1)
+                    .cantidad(i % 300)
+                    .reservado(i % 7)
+                    .umbral(10)
+                    .producto(productos.get(i % productos.size()))
+                    .sucursal(sucursales.get(i % sucursales.size()))
+                    .build());
+        }
+
+        enJson = json.writeValueAsBytes(lista);
+        enCbor = cbor.writeValueAsBytes(lista);
+        enSmile = smile.writeValueAsBytes(lista);
+        System.out.printf("%n%d inventarios -> JSON: %d bytes, CBOR: %d bytes (%.0f%%), Smile: %d bytes (%.0f%%)%n",
+                inventarios, enJson.length,
+                enCbor.length, 100.0 * enCbor.length / enJson.length,
+                enSmile.length, 100.0 * enSmile.length / enJson.length);
+    }
+
+    @Benchmark
+    public byte[] escribirJson() throws Exception {
+        return json.writeValueAsBytes(lista);
+    }
+
+    @Benchmark
+    public byte[] escribirCbor() throws Exception {
+        return cbor.writeValueAsBytes(lista);
+    }
+
+    @Benchmark
+    public byte[] escribirSmile() throws Exception {
+        return smile.writeValueAsBytes(lista);
+    }
+
+    @Benchmark
+    public List<Inventario> leerJson() throws Exception {
+        return json.readValue(enJson, LISTA);
+    }
+
+    @Benchmark
+    public List<Inventario> leerCbor() throws Exception {
+        return cbor.readValue(enCbor, LISTA);
+    }
+
+    @Benchmark
+    public List<Inventario> leerSmile() throws Exception {
+        return smile.readValue(enSmile, LISTA);
+    }
+}
@@ -0,0 +1,94 @@
+package com.letrasypapeles.backend.benchmark;
+
+import com.letrasypapeles.backend.service.CalculadoraMonetaria;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el total de un pedido (líneas, descuento, impuesto y puntos) calculado con
+ * {@link CalculadoraMonetaria} contra el mismo cálculo con {@link BigDecimal}.
+ * Ejecutar con: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=TotalesPedido
+ * (agregar "-prof gc" a los argumentos de JMH para ver las asignaciones por operación).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TotalesPedidoBenchmark {
+
+    private static final int DESCUENTO = 500;
+    private static final int IMPUESTO = 1900;
+    private static final BigDecimal DESCUENTO_DECIMAL = new BigDecimal("0.05");
+    private static final BigDecimal IMPUESTO_DECIMAL = new BigDecimal("0.19");
+    private static final BigDecimal DIEZ = BigDecimal.TEN;
+
+    @Param({"100"})
+    private int lineas;
+
+    private BigDecimal[] preciosDecimales;
+    private long[] precios;
+    private int[] cantidades;
+
+    @Setup
+    public void preparar() {
+        Random random = new Random(42);
+        preciosDecimales = new BigDecimal[lineas];
+        precios = new long[lineas];
+        cantidades = new int[lineas];
+        for (int i = 0; i < lineas; i++) {
+            preciosDecimales[i] = BigDecimal.valueOf(100 + random.nextInt(5_000_000), 2);
+            precios[i] = CalculadoraMonetaria.aCentavos(preciosDecimales[i]);
+            cantidades[i] = 1 + random.nextInt(10);
+        }
+    }
+
+    @Benchmark
+    public long centavos() {
+        CalculadoraMonetaria.Totales totales = CalculadoraMonetaria.totalizar(precios, cantidades, lineas, DESCUENTO, IMPUESTO);
+        return totales.getTotal() + totales.getPuntosFidelidad();
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (int i = 0; i < lineas; i++) {
+            subtotal = subtotal.add(preciosDecimales[i].multiply(BigDecimal.valueOf(cantidades[i])));
+        }
+        BigDecimal descuento = subtotal.multiply(DESCUENTO_DECIMAL).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal neto = subtotal.subtract(descuento);
+        BigDecimal impuesto = neto.multiply(IMPUESTO_DECIMAL).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal total = neto.add(impuesto);
+        int puntos = total.divide(DIEZ, 0, RoundingMode.DOWN).intValue();
+        return total.add(BigDecimal.valueOf(puntos));
+    }
+
+    /**
+     * Ruta con conversión en el borde: los precios llegan como BigDecimal (entidades) y el
+     * total se entrega como BigDecimal, calculando en centavos en medio.
+     */
+    @Benchmark
+    public BigDecimal centavosDesdeBigDecimal() {
+        long[] convertidos = new long[lineas];
+        for (int i = 0; i < lineas; i++) {
+            convertidos[i] = CalculadoraMonetaria.aCentavos(preciosDecimales[i]);
+        }
+        CalculadoraMonetaria.Totales totales = CalculadoraMonetaria.totalizar(convertidos, cantidades, lineas, DESCUENTO, IMPUESTO);
+        return CalculadoraMonetaria.aBigDecimal(totales.getTotal());
+    }
+}
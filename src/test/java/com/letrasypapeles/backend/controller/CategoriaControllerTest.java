@@ -3,6 +3,7 @@ package com.letrasypapeles.backend.controller;
 import com.letrasypapeles.backend.assembler.CategoriaModelAssembler;
 import com.letrasypapeles.backend.entity.Categoria;
 import com.letrasypapeles.backend.service.CategoriaService;
+import com.letrasypapeles.backend.service.ProyeccionCamposService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -14,6 +15,7 @@ import org.springframework.http.ResponseEntity;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -28,6 +30,9 @@ class CategoriaControllerTest {
     @Mock
     private CategoriaModelAssembler categoriaModelAssembler;
 
+    @Mock
+    private ProyeccionCamposService proyeccionCamposService;
+
     @InjectMocks
     private CategoriaController categoriaController;
 
@@ -75,6 +80,37 @@ class CategoriaControllerTest {
         assertEquals(404, response.getStatusCode().value());
     }
 
+    @Test
+    void testObtenerTodasCampos() {
+        List<Map<String, Object>> filas = List.of(Map.of("id", 1L, "nombre", "Papelería"));
+        when(proyeccionCamposService.obtenerTodos(Categoria.class, "id,nombre")).thenReturn(filas);
+
+        ResponseEntity<?> response = categoriaController.obtenerTodasCampos("id,nombre");
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(filas, response.getBody());
+    }
+
+    @Test
+    void testObtenerPorIdCamposNoEncontrado() {
+        when(proyeccionCamposService.obtenerPorId(Categoria.class, 1L, "nombre")).thenReturn(Optional.empty());
+
+        ResponseEntity<?> response = categoriaController.obtenerPorIdCampos(1L, "nombre");
+
+        assertEquals(404, response.getStatusCode().value());
+    }
+
+    @Test
+    void testObtenerTodasCamposNoPermitido() {
+        when(proyeccionCamposService.obtenerTodos(Categoria.class, "productos"))
+                .thenThrow(new IllegalArgumentException("Campo no permitido: productos"));
+
+        ResponseEntity<?> response = categoriaController.obtenerTodasCampos("productos");
+
+        assertEquals(400, response.getStatusCode().value());
+        assertEquals(Map.of("error", "Campo no permitido: productos"), response.getBody());
+    }
+
     @Test
     void testCrearCategoria() {
         EntityModel<Categoria> categoriaModel = EntityModel.of(categoria);
@@ -0,0 +1,63 @@
+package com.letrasypapeles.backend.controller;
+
+import com.letrasypapeles.backend.assembler.PedidoModelAssembler;
+import com.letrasypapeles.backend.dto.CheckoutRequest;
+import com.letrasypapeles.backend.entity.Pedido;
+import com.letrasypapeles.backend.service.CheckoutService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CheckoutControllerTest {
+
+    @Mock
+    private CheckoutService checkoutService;
+
+    @Mock
+    private PedidoModelAssembler pedidoModelAssembler;
+
+    @InjectMocks
+    private CheckoutController checkoutController;
+
+    private CheckoutRequest request;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        request = CheckoutRequest.builder().clienteId(1L).reservasIds(List.of(10L)).build();
+    }
+
+    @Test
+    void testCheckout_CreaPedido() {
+        Pedido pedido = Pedido.builder().id(5L).estado("CONFIRMADO").build();
+        EntityModel<Pedido> pedidoModel = EntityModel.of(pedido);
+        when(checkoutService.checkout(request)).thenReturn(pedido);
+        when(pedidoModelAssembler.toModel(pedido)).thenReturn(pedidoModel);
+
+        ResponseEntity<?> response = checkoutController.checkout(request);
+
+        assertEquals(201, response.getStatusCode().value());
+        assertSame(pedidoModel, response.getBody());
+    }
+
+    @Test
+    void testCheckout_ErrorDevuelveBadRequest() {
+        when(checkoutService.checkout(request)).thenThrow(new RuntimeException("Stock insuficiente para el producto con ID: 3"));
+
+        ResponseEntity<?> response = checkoutController.checkout(request);
+
+        assertEquals(400, response.getStatusCode().value());
+        assertEquals(Map.of("error", "Stock insuficiente para el producto con ID: 3"), response.getBody());
+        verifyNoInteractions(pedidoModelAssembler);
+    }
+}
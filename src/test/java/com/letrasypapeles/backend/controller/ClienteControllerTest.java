@@ -1,7 +1,9 @@
 package com.letrasypapeles.backend.controller;
 
 import com.letrasypapeles.backend.assembler.ClienteModelAssembler;
+import com.letrasypapeles.backend.dto.SaldoPuntos;
 import com.letrasypapeles.backend.entity.Cliente;
+import com.letrasypapeles.backend.entity.MovimientoPuntos;
 import com.letrasypapeles.backend.service.ClienteService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -72,6 +74,41 @@ class ClienteControllerTest {
         assertNull(response.getBody().getContent().getContraseña());
     }
 
+    @Test
+    void testObtenerSaldoPuntos() {
+        when(clienteService.obtenerPorId(1L)).thenReturn(Optional.of(cliente));
+        when(clienteService.obtenerSaldoPuntos(1L)).thenReturn(37L);
+
+        ResponseEntity<SaldoPuntos> response = clienteController.obtenerSaldoPuntos(1L);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(1L, response.getBody().getClienteId());
+        assertEquals(37L, response.getBody().getSaldo());
+    }
+
+    @Test
+    void testObtenerSaldoPuntosClienteNoEncontrado() {
+        when(clienteService.obtenerPorId(1L)).thenReturn(Optional.empty());
+
+        ResponseEntity<SaldoPuntos> response = clienteController.obtenerSaldoPuntos(1L);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        verify(clienteService, never()).obtenerSaldoPuntos(1L);
+    }
+
+    @Test
+    void testObtenerMovimientosPuntos() {
+        MovimientoPuntos movimiento = MovimientoPuntos.builder().id(1L).clienteId(1L).puntos(10).motivo("COMPRA").build();
+        when(clienteService.obtenerPorId(1L)).thenReturn(Optional.of(cliente));
+        when(clienteService.obtenerMovimientosPuntos(1L)).thenReturn(Arrays.asList(movimiento));
+
+        ResponseEntity<List<MovimientoPuntos>> response = clienteController.obtenerMovimientosPuntos(1L);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(1, response.getBody().size());
+        assertEquals("COMPRA", response.getBody().get(0).getMotivo());
+    }
+
     @Test
     void testObtenerPorIdNoEncontrado() {
         when(clienteService.obtenerPorId(1L)).thenReturn(Optional.empty());
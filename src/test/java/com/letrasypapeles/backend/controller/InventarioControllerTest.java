@@ -1,9 +1,16 @@
 package com.letrasypapeles.backend.controller;
 
+import com.letrasypapeles.backend.dto.AlertaStockBajo;
+import com.letrasypapeles.backend.dto.DisponibilidadSucursal;
+import com.letrasypapeles.backend.dto.MessageResponse;
+import com.letrasypapeles.backend.dto.TransferenciaRequest;
 import com.letrasypapeles.backend.entity.Inventario;
 import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.service.EmisorAlertasStock;
 import com.letrasypapeles.backend.service.InventarioService;
+import com.letrasypapeles.backend.service.MonitorStockBajo;
 import com.letrasypapeles.backend.service.ProductoService;
+import com.letrasypapeles.backend.service.TransferenciaInventarioService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,6 +21,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -32,6 +40,15 @@ class InventarioControllerTest {
     @Mock
     private ProductoService productoService;
 
+    @Mock
+    private TransferenciaInventarioService transferenciaInventarioService;
+
+    @Mock
+    private MonitorStockBajo monitorStockBajo;
+
+    @Mock
+    private EmisorAlertasStock emisorAlertasStock;
+
     @InjectMocks
     private InventarioController inventarioController;
 
@@ -273,4 +290,61 @@ class InventarioControllerTest {
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
         verify(inventarioService).obtenerPorId(1L);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testTransferir() {
+        TransferenciaRequest transferencia = new TransferenciaRequest(1L, 1L, 2L, 5);
+        Inventario destino = new Inventario();
+        destino.setId(2L);
+        when(transferenciaInventarioService.transferir(transferencia)).thenReturn(Arrays.asList(inventario, destino));
+
+        ResponseEntity<?> response = inventarioController.transferir(transferencia);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, ((List<?>) response.getBody()).size());
+    }
+
+    @Test
+    void testTransferirLote_CantidadInsuficiente() {
+        List<TransferenciaRequest> lote = List.of(new TransferenciaRequest(1L, 1L, 2L, 500));
+        when(transferenciaInventarioService.transferirLote(lote))
+                .thenThrow(new RuntimeException("Cantidad insuficiente en inventario"));
+
+        ResponseEntity<?> response = inventarioController.transferirLote(lote);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Cantidad insuficiente en inventario", ((MessageResponse) response.getBody()).getMessage());
+    }
+
+    @Test
+    void testObtenerAlertas() {
+        AlertaStockBajo alerta = AlertaStockBajo.builder().inventarioId(1L).cantidad(2).umbral(10).build();
+        when(monitorStockBajo.alertasVigentes()).thenReturn(List.of(alerta));
+
+        ResponseEntity<Collection<AlertaStockBajo>> response = inventarioController.obtenerAlertas();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().size());
+        verify(inventarioService, never()).obtenerTodos();
+    }
+
+    @Test
+    void testObtenerDisponible() {
+        when(inventarioService.obtenerDisponible(1L, 2L)).thenReturn(Optional.of(7));
+
+        ResponseEntity<DisponibilidadSucursal> response = inventarioController.obtenerDisponible(1L, 2L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2L, response.getBody().getSucursalId());
+        assertEquals(7, response.getBody().getCantidad());
+    }
+
+    @Test
+    void testObtenerDisponibleSinInventario() {
+        when(inventarioService.obtenerDisponible(1L, 2L)).thenReturn(Optional.empty());
+
+        ResponseEntity<DisponibilidadSucursal> response = inventarioController.obtenerDisponible(1L, 2L);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+}
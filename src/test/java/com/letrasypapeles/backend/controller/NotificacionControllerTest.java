@@ -2,6 +2,7 @@ package com.letrasypapeles.backend.controller;
 
 import com.letrasypapeles.backend.entity.Notificacion;
 import com.letrasypapeles.backend.service.NotificacionService;
+import com.letrasypapeles.backend.service.ProyeccionCamposService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -12,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -23,6 +25,9 @@ class NotificacionControllerTest {
     @Mock
     private NotificacionService notificacionService;
 
+    @Mock
+    private ProyeccionCamposService proyeccionCamposService;
+
     @InjectMocks
     private NotificacionController notificacionController;
 
@@ -106,4 +111,24 @@ class NotificacionControllerTest {
 
         assertEquals(404, response.getStatusCodeValue());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testObtenerPorIdCampos() {
+        when(proyeccionCamposService.obtenerPorId(Notificacion.class, 1L, "mensaje"))
+                .thenReturn(Optional.of(Map.of("mensaje", "Test mensaje")));
+
+        ResponseEntity<?> response = notificacionController.obtenerPorIdCampos(1L, "mensaje");
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(Map.of("mensaje", "Test mensaje"), response.getBody());
+    }
+
+    @Test
+    void testObtenerPorIdCamposNoEncontrado() {
+        when(proyeccionCamposService.obtenerPorId(Notificacion.class, 1L, "mensaje")).thenReturn(Optional.empty());
+
+        ResponseEntity<?> response = notificacionController.obtenerPorIdCampos(1L, "mensaje");
+
+        assertEquals(404, response.getStatusCode().value());
+    }
+}
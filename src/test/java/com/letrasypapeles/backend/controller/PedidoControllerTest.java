@@ -1,8 +1,13 @@
 package com.letrasypapeles.backend.controller;
 
 import com.letrasypapeles.backend.assembler.PedidoModelAssembler;
+import com.letrasypapeles.backend.dto.PedidoRequest;
+import com.letrasypapeles.backend.dto.ResumenVentas;
 import com.letrasypapeles.backend.entity.Pedido;
+import com.letrasypapeles.backend.entity.SurtidoPedido;
 import com.letrasypapeles.backend.service.PedidoService;
+import com.letrasypapeles.backend.service.ProcesadorPedidos;
+import com.letrasypapeles.backend.service.ProyeccionCamposService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -14,6 +19,7 @@ import org.springframework.http.ResponseEntity;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -28,6 +34,12 @@ class PedidoControllerTest {
     @Mock
     private PedidoModelAssembler pedidoModelAssembler;
 
+    @Mock
+    private ProcesadorPedidos procesadorPedidos;
+
+    @Mock
+    private ProyeccionCamposService proyeccionCamposService;
+
     @InjectMocks
     private PedidoController pedidoController;
 
@@ -73,6 +85,27 @@ class PedidoControllerTest {
         assertEquals(404, response.getStatusCode().value());
     }
 
+    @Test
+    void testObtenerSurtido() {
+        List<SurtidoPedido> surtido = List.of(
+                SurtidoPedido.builder().pedidoId(1L).productoId(10L).sucursalId(2L).cantidad(3).build());
+        when(pedidoService.obtenerSurtido(1L)).thenReturn(Optional.of(surtido));
+
+        ResponseEntity<List<SurtidoPedido>> response = pedidoController.obtenerSurtido(1L);
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(surtido, response.getBody());
+    }
+
+    @Test
+    void testObtenerSurtidoPedidoNoEncontrado() {
+        when(pedidoService.obtenerSurtido(1L)).thenReturn(Optional.empty());
+
+        ResponseEntity<List<SurtidoPedido>> response = pedidoController.obtenerSurtido(1L);
+
+        assertEquals(404, response.getStatusCode().value());
+    }
+
     @Test
     void testObtenerPorClienteId() {
         List<Pedido> pedidos = Arrays.asList(pedido);
@@ -89,31 +122,62 @@ class PedidoControllerTest {
     @Test
     void testCrearPedido() {
         EntityModel<Pedido> pedidoModel = EntityModel.of(pedido);
+        pedido.setEstado("COMPLETADO");
         when(pedidoService.guardar(any(Pedido.class))).thenReturn(pedido);
         when(pedidoModelAssembler.toModel(pedido)).thenReturn(pedidoModel);
 
         ResponseEntity<EntityModel<Pedido>> response = pedidoController.crearPedido(pedido);
 
-        assertEquals(201, response.getStatusCode().value());
+        assertEquals(202, response.getStatusCode().value());
+        assertEquals("PENDIENTE", pedido.getEstado());
+        verify(procesadorPedidos).encolar(1L);
+    }
+
+    @Test
+    void testCrearPedidoConIds_EncolaPedidoPendiente() {
+        PedidoRequest request = PedidoRequest.builder().clienteId(1L).estado("COMPLETADO").build();
+        EntityModel<Pedido> pedidoModel = EntityModel.of(pedido);
+        when(pedidoService.crearDesdePedidoRequest(request)).thenReturn(pedido);
+        when(pedidoModelAssembler.toModel(pedido)).thenReturn(pedidoModel);
+
+        ResponseEntity<EntityModel<Pedido>> response = pedidoController.crearPedidoConIds(request);
+
+        assertEquals(202, response.getStatusCode().value());
+        assertEquals("PENDIENTE", request.getEstado());
+        verify(procesadorPedidos).encolar(1L);
     }
 
     @Test
     void testActualizarPedido() {
         EntityModel<Pedido> pedidoModel = EntityModel.of(pedido);
         when(pedidoService.obtenerPorId(1L)).thenReturn(Optional.of(pedido));
-        when(pedidoService.guardar(any(Pedido.class))).thenReturn(pedido);
+        when(pedidoService.actualizar(pedido, pedido)).thenReturn(pedido);
         when(pedidoModelAssembler.toModel(pedido)).thenReturn(pedidoModel);
 
-        ResponseEntity<EntityModel<Pedido>> response = pedidoController.actualizarPedido(1L, pedido);
+        ResponseEntity<?> response = pedidoController.actualizarPedido(1L, pedido);
 
         assertEquals(200, response.getStatusCode().value());
     }
 
+    @Test
+    void testActualizarPedidoConTransicionInvalida() {
+        Pedido cambios = Pedido.builder().estado("PENDIENTE").build();
+        when(pedidoService.obtenerPorId(1L)).thenReturn(Optional.of(pedido));
+        when(pedidoService.actualizar(pedido, cambios))
+                .thenThrow(new IllegalStateException("Transición de estado inválida: COMPLETADO -> PENDIENTE"));
+
+        ResponseEntity<?> response = pedidoController.actualizarPedido(1L, cambios);
+
+        assertEquals(400, response.getStatusCode().value());
+        assertEquals(Map.of("error", "Transición de estado inválida: COMPLETADO -> PENDIENTE"), response.getBody());
+        verify(pedidoModelAssembler, never()).toModel(any());
+    }
+
     @Test
     void testActualizarPedidoNoEncontrado() {
         when(pedidoService.obtenerPorId(1L)).thenReturn(Optional.empty());
 
-        ResponseEntity<EntityModel<Pedido>> response = pedidoController.actualizarPedido(1L, pedido);
+        ResponseEntity<?> response = pedidoController.actualizarPedido(1L, pedido);
 
         assertEquals(404, response.getStatusCode().value());
     }
@@ -136,4 +200,43 @@ class PedidoControllerTest {
 
         assertEquals(404, response.getStatusCode().value());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testObtenerResumenVentas() {
+        ResumenVentas resumen = ResumenVentas.builder()
+                .pedidos(2L)
+                .ingresos(new java.math.BigDecimal("100.00"))
+                .ticketPromedio(new java.math.BigDecimal("50.00"))
+                .build();
+        when(pedidoService.resumirVentas(java.time.LocalDateTime.of(2025, 1, 1, 0, 0),
+                java.time.LocalDateTime.of(2025, 2, 1, 0, 0))).thenReturn(resumen);
+
+        ResponseEntity<ResumenVentas> response = pedidoController.obtenerResumenVentas(
+                java.time.LocalDate.of(2025, 1, 1), java.time.LocalDate.of(2025, 1, 31));
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(resumen, response.getBody());
+    }
+
+    @Test
+    void testObtenerTodosCampos() {
+        List<Map<String, Object>> filas = List.of(Map.of("id", 1L, "estado", "PENDIENTE"));
+        when(proyeccionCamposService.obtenerTodos(Pedido.class, "id,estado")).thenReturn(filas);
+
+        ResponseEntity<?> response = pedidoController.obtenerTodosCampos("id,estado");
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(filas, response.getBody());
+    }
+
+    @Test
+    void testObtenerPorIdCamposNoPermitido() {
+        when(proyeccionCamposService.obtenerPorId(Pedido.class, 1L, "lineas"))
+                .thenThrow(new IllegalArgumentException("Campo no permitido: lineas"));
+
+        ResponseEntity<?> response = pedidoController.obtenerPorIdCampos(1L, "lineas");
+
+        assertEquals(400, response.getStatusCode().value());
+        assertEquals(Map.of("error", "Campo no permitido: lineas"), response.getBody());
+    }
+}
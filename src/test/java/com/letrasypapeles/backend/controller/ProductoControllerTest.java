@@ -1,7 +1,9 @@
 package com.letrasypapeles.backend.controller;
 
 import com.letrasypapeles.backend.assembler.ProductoModelAssembler;
+import com.letrasypapeles.backend.dto.DisponibilidadSucursal;
 import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.service.IndiceDisponibilidad;
 import com.letrasypapeles.backend.service.ProductoService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -29,6 +31,9 @@ class ProductoControllerTest {
     @Mock
     private ProductoModelAssembler productoModelAssembler;
 
+    @Mock
+    private IndiceDisponibilidad indiceDisponibilidad;
+
     @InjectMocks
     private ProductoController productoController;
 
@@ -57,6 +62,18 @@ class ProductoControllerTest {
         assertEquals(1, response.getBody().getContent().size());
     }
 
+    @Test
+    void testObtenerTodosLigero() {
+        when(productoService.obtenerTodos()).thenReturn(Arrays.asList(producto));
+
+        ResponseEntity<CollectionModel<Producto>> response = productoController.obtenerTodosLigero();
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(List.of(producto), List.copyOf(response.getBody().getContent()));
+        assertTrue(response.getBody().getLink("self").isPresent());
+        verify(productoModelAssembler, never()).toModel(any());
+    }
+
     @Test
     void testObtenerPorId() {
         EntityModel<Producto> productoModel = EntityModel.of(producto);
@@ -130,4 +147,16 @@ class ProductoControllerTest {
 
         assertEquals(404, response.getStatusCode().value());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testObtenerDisponibilidad() {
+        List<DisponibilidadSucursal> disponibilidad = Arrays.asList(new DisponibilidadSucursal(2L, 15));
+        when(indiceDisponibilidad.consultar(1L, "Metropolitana")).thenReturn(disponibilidad);
+
+        ResponseEntity<List<DisponibilidadSucursal>> response = productoController.obtenerDisponibilidad(1L, "Metropolitana");
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(15, response.getBody().get(0).getCantidad());
+        verify(productoService, never()).obtenerPorId(any());
+    }
+}
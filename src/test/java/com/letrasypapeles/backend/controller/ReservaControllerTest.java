@@ -1,15 +1,16 @@
 package com.letrasypapeles.backend.controller;
 
 import com.letrasypapeles.backend.assembler.ReservaModelAssembler;
+import com.letrasypapeles.backend.dto.ResultadoReservaLote;
 import com.letrasypapeles.backend.entity.Reserva;
 import com.letrasypapeles.backend.entity.Cliente;
 import com.letrasypapeles.backend.entity.Producto;
 import com.letrasypapeles.backend.entity.Inventario;
+import com.letrasypapeles.backend.entity.Sucursal;
 import com.letrasypapeles.backend.service.ReservaService;
 import com.letrasypapeles.backend.service.ClienteService;
 import com.letrasypapeles.backend.service.ProductoService;
 import com.letrasypapeles.backend.service.InventarioService;
-import com.letrasypapeles.backend.repository.ClienteRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -29,6 +30,8 @@ import java.math.BigDecimal;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.doNothing;
 
@@ -46,9 +49,6 @@ class ReservaControllerTest {
     @Mock
     private InventarioService inventarioService;
 
-    @Mock
-    private ClienteRepository clienteRepository;
-
     @Mock
     private ReservaModelAssembler reservaModelAssembler;
 
@@ -60,6 +60,8 @@ class ReservaControllerTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        // Por defecto el apartado siempre alcanza
+        when(reservaService.crearConApartado(any(Reserva.class), any())).thenAnswer(inv -> inv.getArgument(0));
         reserva = new Reserva();
         reserva.setId(1L);
     }
@@ -77,6 +79,18 @@ class ReservaControllerTest {
         assertEquals(1, response.getBody().getContent().size());
     }
 
+    @Test
+    void testObtenerTodasLigero() {
+        when(reservaService.obtenerTodas()).thenReturn(Arrays.asList(reserva));
+
+        ResponseEntity<CollectionModel<Reserva>> response = reservaController.obtenerTodasLigero();
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(List.of(reserva), List.copyOf(response.getBody().getContent()));
+        assertTrue(response.getBody().getLink("self").isPresent());
+        verify(reservaModelAssembler, never()).toModel(any());
+    }
+
     @Test
     void testObtenerPorId() {
         EntityModel<Reserva> reservaModel = EntityModel.of(reserva);
@@ -301,78 +315,34 @@ class ReservaControllerTest {
     }
 
     @Test
-    void testConfirmarReserva_CantidadNull() {
-        // Test cantidad null exception (lines 186-187)
-        Reserva reserva = new Reserva();
-        reserva.setId(1L);
-        reserva.setEstado("PENDIENTE");
-        reserva.setCantidad(null); // This will trigger the exception
-
-        Cliente cliente = new Cliente();
-        cliente.setId(1L);
-        Producto producto = new Producto();
-        producto.setId(1L);
-        reserva.setCliente(cliente);
-        reserva.setProducto(producto);
-
+    void testConfirmarReserva_NoPendiente() {
+        // Given: una reserva ya confirmada no se vuelve a confirmar ni otorga puntos otra vez
+        Reserva reserva = Reserva.builder().id(1L).estado("CONFIRMADA").cantidad(2).build();
         when(reservaService.obtenerPorIdConRelaciones(1L)).thenReturn(Optional.of(reserva));
 
+        // When
         ResponseEntity<?> response = reservaController.confirmarReserva(1L);
 
-        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
-        verify(reservaService).obtenerPorIdConRelaciones(1L);
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(reservaService, never()).confirmarReserva(any());
+        verify(reservaService, never()).guardar(any(Reserva.class));
+        verifyNoInteractions(clienteService);
     }
 
     @Test
-    void testConfirmarReserva_PrecioNull() {
-        // Test precio null exception (lines 189-190)
-        Reserva reserva = new Reserva();
-        reserva.setId(1L);
-        reserva.setEstado("PENDIENTE");
-        reserva.setCantidad(2);
-
-        Cliente cliente = new Cliente();
-        cliente.setId(1L);
-        Producto producto = new Producto();
-        producto.setId(1L);
-        producto.setPrecio(null); // This will trigger the exception
-        reserva.setCliente(cliente);
-        reserva.setProducto(producto);
-
+    void testConfirmarReserva_ErrorDelServicio() {
+        // Given
+        Reserva reserva = Reserva.builder().id(1L).estado("PENDIENTE").cantidad(2).build();
         when(reservaService.obtenerPorIdConRelaciones(1L)).thenReturn(Optional.of(reserva));
+        when(reservaService.confirmarReserva(1L)).thenThrow(new RuntimeException("Reserva no encontrada"));
 
+        // When
         ResponseEntity<?> response = reservaController.confirmarReserva(1L);
 
+        // Then
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
-        verify(reservaService).obtenerPorIdConRelaciones(1L);
-    }
-
-    @Test
-    void testConfirmarReserva_PuntosActualizadosNull() {
-        // Test puntos actualizados null (lines 199-200)
-        Reserva reserva = new Reserva();
-        reserva.setId(1L);
-        reserva.setEstado("PENDIENTE");
-        reserva.setCantidad(2);
-
-        Cliente cliente = new Cliente();
-        cliente.setId(1L);
-        Producto producto = new Producto();
-        producto.setId(1L);
-        producto.setPrecio(java.math.BigDecimal.valueOf(10.0));
-        reserva.setCliente(cliente);
-        reserva.setProducto(producto);
-
-        when(reservaService.obtenerPorIdConRelaciones(1L)).thenReturn(Optional.of(reserva));
-        when(reservaService.guardar(any(Reserva.class))).thenReturn(reserva);
-        doNothing().when(clienteService).actualizarPuntosFidelidadDirecto(1L, 2);
-        when(clienteRepository.obtenerPuntosFidelidad(1L)).thenReturn(null); // This triggers the branch
-
-        ResponseEntity<?> response = reservaController.confirmarReserva(1L);
-
-        assertEquals(HttpStatus.OK, response.getStatusCode());
-        verify(reservaService).obtenerPorIdConRelaciones(1L);
-        verify(clienteRepository).obtenerPuntosFidelidad(1L);
+        assertEquals("Reserva no encontrada", ((Map<?, ?>) response.getBody()).get("error"));
     }
 
     @Test
@@ -431,74 +401,144 @@ class ReservaControllerTest {
 
     @Test
     void testCancelarReserva_ProductoOCantidadNull() {
-        // Test producto or cantidad null (lines 232-245)
+        // Given: la reserva no tiene producto ni cantidad; el servicio no libera nada
         Reserva reserva = new Reserva();
         reserva.setId(1L);
         reserva.setEstado("PENDIENTE");
-        reserva.setProducto(null); // This will skip the stock restoration
+        reserva.setProducto(null);
         reserva.setCantidad(null);
+        Reserva cancelada = Reserva.builder().id(1L).estado("CANCELADA").build();
 
         when(reservaService.obtenerPorIdConRelaciones(1L)).thenReturn(Optional.of(reserva));
-        when(reservaService.guardar(any(Reserva.class))).thenReturn(reserva);
+        when(reservaService.cancelarReserva(1L)).thenReturn(cancelada);
 
+        // When
         ResponseEntity<?> response = reservaController.cancelarReserva(1L);
 
+        // Then
         assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(cancelada, response.getBody());
         verify(reservaService).obtenerPorIdConRelaciones(1L);
-        verify(reservaService).guardar(any(Reserva.class));
     }
 
     @Test
-    void testCancelarReserva_InventarioVacio() {
-        // Test empty inventory list (lines 238-244)
+    void testCancelarReserva_LiberaLoApartadoEnElServicio() {
+        // Given
         Reserva reserva = new Reserva();
         reserva.setId(1L);
         reserva.setEstado("PENDIENTE");
         reserva.setCantidad(2);
-
-        Producto producto = new Producto();
-        producto.setId(1L);
-        producto.setStock(10);
-        reserva.setProducto(producto);
+        reserva.setCantidadApartada(2);
+        reserva.setProducto(Producto.builder().id(1L).stock(10).build());
+        reserva.setSucursal(Sucursal.builder().id(3L).build());
 
         when(reservaService.obtenerPorIdConRelaciones(1L)).thenReturn(Optional.of(reserva));
-        when(reservaService.guardar(any(Reserva.class))).thenReturn(reserva);
-        when(productoService.guardar(any(Producto.class))).thenReturn(producto);
-        when(inventarioService.obtenerPorProductoId(1L)).thenReturn(Arrays.asList()); // Empty list
+        when(reservaService.cancelarReserva(1L)).thenReturn(reserva);
 
+        // When
         ResponseEntity<?> response = reservaController.cancelarReserva(1L);
 
+        // Then: el controlador no modifica stock ni inventarios por su cuenta
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        verify(reservaService).obtenerPorIdConRelaciones(1L);
-        verify(inventarioService).obtenerPorProductoId(1L);
+        verify(reservaService).cancelarReserva(1L);
+        verify(reservaService, never()).guardar(any(Reserva.class));
+        verifyNoInteractions(productoService, inventarioService);
     }
 
     @Test
-    void testCancelarReserva_InventarioCantidadNull() {
-        // Test inventory cantidad null (lines 240-243)
-        Reserva reserva = new Reserva();
-        reserva.setId(1L);
-        reserva.setEstado("PENDIENTE");
-        reserva.setCantidad(2);
+    void testCancelarReserva_ErrorDelServicio() {
+        // Given: la reserva cambió de estado después de leerla
+        Reserva reserva = Reserva.builder().id(1L).estado("PENDIENTE").build();
+        when(reservaService.obtenerPorIdConRelaciones(1L)).thenReturn(Optional.of(reserva));
+        when(reservaService.cancelarReserva(1L))
+                .thenThrow(new RuntimeException("No se puede cancelar una reserva ya confirmada"));
 
-        Producto producto = new Producto();
-        producto.setId(1L);
-        producto.setStock(10);
-        reserva.setProducto(producto);
+        // When
+        ResponseEntity<?> response = reservaController.cancelarReserva(1L);
 
-        Inventario inventario = new Inventario();
-        inventario.setCantidad(null); // This will skip the inventory update
+        // Then
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals("No se puede cancelar una reserva ya confirmada", ((Map<?, ?>) response.getBody()).get("error"));
+    }
 
+    @Test
+    void testConfirmarReserva_DelegaEnElServicio() {
+        // Given
+        Cliente cliente = Cliente.builder().id(1L).build();
+        Producto producto = Producto.builder().id(1L).precio(BigDecimal.valueOf(10.0)).build();
+        Reserva reserva = Reserva.builder().id(1L).estado("PENDIENTE").cantidad(2).cantidadApartada(2)
+                .cliente(cliente).producto(producto).build();
+        Reserva confirmada = Reserva.builder().id(1L).estado("CONFIRMADA").cantidad(2).cantidadApartada(0)
+                .cliente(cliente).producto(producto).build();
         when(reservaService.obtenerPorIdConRelaciones(1L)).thenReturn(Optional.of(reserva));
-        when(reservaService.guardar(any(Reserva.class))).thenReturn(reserva);
-        when(productoService.guardar(any(Producto.class))).thenReturn(producto);
-        when(inventarioService.obtenerPorProductoId(1L)).thenReturn(Arrays.asList(inventario));
+        when(reservaService.confirmarReserva(1L)).thenReturn(confirmada);
 
-        ResponseEntity<?> response = reservaController.cancelarReserva(1L);
+        // When
+        ResponseEntity<?> response = reservaController.confirmarReserva(1L);
 
+        // Then: la conversión de lo apartado y los puntos son del servicio, igual que en los lotes
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        verify(reservaService).obtenerPorIdConRelaciones(1L);
-        verify(inventarioService).obtenerPorProductoId(1L);
+        assertEquals(confirmada, response.getBody());
+        verify(reservaService).confirmarReserva(1L);
+        verify(reservaService, never()).guardar(any(Reserva.class));
+        verifyNoInteractions(clienteService);
+    }
+
+    @Test
+    void testCrearReserva_ApartaEnLaRegionPedida() {
+        // Given
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("clienteId", 1L);
+        requestBody.put("productoId", 1L);
+        requestBody.put("cantidad", 3);
+        requestBody.put("region", "Norte");
+
+        Producto producto = Producto.builder().id(1L).stock(10).build();
+        Sucursal sucursal = Sucursal.builder().id(2L).region("Norte").build();
+        when(clienteService.obtenerPorId(1L)).thenReturn(Optional.of(Cliente.builder().id(1L).build()));
+        when(productoService.obtenerPorId(1L)).thenReturn(Optional.of(producto));
+        when(reservaService.crearConApartado(any(Reserva.class), eq("Norte"))).thenAnswer(inv -> {
+            Reserva apartada = inv.getArgument(0);
+            apartada.setSucursal(sucursal);
+            apartada.setCantidadApartada(apartada.getCantidad());
+            return apartada;
+        });
+
+        // When
+        ResponseEntity<?> response = reservaController.crearReserva(requestBody);
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        Reserva creada = (Reserva) response.getBody();
+        assertEquals(sucursal, creada.getSucursal());
+        assertEquals(3, creada.getCantidad());
+        assertEquals(3, creada.getCantidadApartada());
+        assertEquals(producto, creada.getProducto());
+        assertEquals(10, producto.getStock());
+        verify(productoService, never()).guardar(any(Producto.class));
+    }
+
+    @Test
+    void testCrearReserva_SinSucursalConStock() {
+        // Given: el producto tiene stock pero ninguna sucursal alcanza sola
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("clienteId", 1L);
+        requestBody.put("productoId", 1L);
+        requestBody.put("cantidad", 3);
+
+        Producto producto = Producto.builder().id(1L).stock(10).build();
+        when(clienteService.obtenerPorId(1L)).thenReturn(Optional.of(Cliente.builder().id(1L).build()));
+        when(productoService.obtenerPorId(1L)).thenReturn(Optional.of(producto));
+        when(reservaService.crearConApartado(any(Reserva.class), isNull()))
+                .thenThrow(new RuntimeException("Stock insuficiente"));
+
+        // When
+        ResponseEntity<?> response = reservaController.crearReserva(requestBody);
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Stock insuficiente", ((Map<?, ?>) response.getBody()).get("error"));
+        verify(reservaService, never()).guardar(any(Reserva.class));
     }
 
     @Test
@@ -696,4 +736,27 @@ class ReservaControllerTest {
         // Then
         assertEquals(HttpStatus.OK, response.getStatusCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testConfirmarLote() {
+        List<ResultadoReservaLote> resultados = Arrays.asList(
+                ResultadoReservaLote.builder().reservaId(1L).exito(true).estado("CONFIRMADA").build(),
+                ResultadoReservaLote.builder().reservaId(2L).exito(false).mensaje("Reserva no encontrada").build());
+        when(reservaService.confirmarLote(Arrays.asList(1L, 2L))).thenReturn(resultados);
+
+        ResponseEntity<?> response = reservaController.confirmarLote(Arrays.asList(1L, 2L));
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals(resultados, response.getBody());
+    }
+
+    @Test
+    void testCancelarLote_ListaVacia() {
+        when(reservaService.cancelarLote(List.of())).thenThrow(new RuntimeException("Debe indicar al menos una reserva"));
+
+        ResponseEntity<?> response = reservaController.cancelarLote(List.of());
+
+        assertEquals(400, response.getStatusCode().value());
+        assertEquals("Debe indicar al menos una reserva", ((Map<?, ?>) response.getBody()).get("error"));
+    }
+}
@@ -0,0 +1,39 @@
+package com.letrasypapeles.backend.entity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EstadoPedidoTest {
+
+    @Test
+    void pendientePuedeConfirmarseRechazarseOCancelarse() {
+        assertTrue(EstadoPedido.PENDIENTE.puedeCambiarA(EstadoPedido.CONFIRMADO));
+        assertTrue(EstadoPedido.PENDIENTE.puedeCambiarA(EstadoPedido.RECHAZADO));
+        assertTrue(EstadoPedido.PENDIENTE.puedeCambiarA(EstadoPedido.CANCELADO));
+        assertFalse(EstadoPedido.PENDIENTE.puedeCambiarA(EstadoPedido.COMPLETADO));
+    }
+
+    @Test
+    void confirmadoSoloPuedeCompletarseOCancelarse() {
+        assertTrue(EstadoPedido.CONFIRMADO.puedeCambiarA(EstadoPedido.COMPLETADO));
+        assertTrue(EstadoPedido.CONFIRMADO.puedeCambiarA(EstadoPedido.CANCELADO));
+        assertFalse(EstadoPedido.CONFIRMADO.puedeCambiarA(EstadoPedido.PENDIENTE));
+        assertFalse(EstadoPedido.CONFIRMADO.puedeCambiarA(EstadoPedido.RECHAZADO));
+    }
+
+    @Test
+    void estadosFinalesNoTienenSiguientes() {
+        assertTrue(EstadoPedido.COMPLETADO.siguientes().isEmpty());
+        assertTrue(EstadoPedido.RECHAZADO.siguientes().isEmpty());
+        assertTrue(EstadoPedido.CANCELADO.siguientes().isEmpty());
+    }
+
+    @Test
+    void validarTransicionInvalidaLanzaExcepcion() {
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> EstadoPedido.COMPLETADO.validarTransicion(EstadoPedido.PENDIENTE));
+        assertEquals("Transición de estado inválida: COMPLETADO -> PENDIENTE", e.getMessage());
+        assertDoesNotThrow(() -> EstadoPedido.PENDIENTE.validarTransicion(EstadoPedido.CONFIRMADO));
+    }
+}
@@ -15,6 +15,7 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.when;
@@ -250,4 +251,18 @@ class GlobalExceptionHandlerTest {
         MessageResponse messageResponse = (MessageResponse) response.getBody();
         assertEquals("No tiene permisos para acceder a este recurso", messageResponse.getMessage());
     }
+
+    @Test
+    void handleResponseStatusException_KeepsItsStatus() {
+        // Given
+        ResponseStatusException exception = new ResponseStatusException(HttpStatus.BAD_REQUEST, "Missing parameters: corregir");
+
+        // When
+        ResponseEntity<?> response = globalExceptionHandler.handleResponseStatusException(exception, webRequest);
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        MessageResponse messageResponse = (MessageResponse) response.getBody();
+        assertEquals("Missing parameters: corregir", messageResponse.getMessage());
+    }
 }
@@ -231,7 +231,7 @@ class BusinessWorkflowIntegrationTest {
         
         // Calcular puntos esperados: 5 * 15.99 = 79.95, puntos = 79.95 / 10 = 7 puntos
         int puntosEsperados = (int) (5 * productoTest.getPrecio().doubleValue() / 10);
-        assertEquals(puntosEsperados, mariaActualizada.getPuntosFidelidad());
+        assertEquals(puntosEsperados, clienteService.obtenerSaldoPuntos(mariaActualizada.getId()));
     }
 
     @Test
@@ -488,7 +488,7 @@ class BusinessWorkflowIntegrationTest {
 
         // 3 compras * 2 unidades * 15.99 = 95.94, puntos = 95.94 / 10 = 9 puntos
         int puntosEsperados = (int) (3 * 2 * productoTest.getPrecio().doubleValue() / 10);
-        assertEquals(puntosEsperados, clienteConPuntos.getPuntosFidelidad());
+        assertEquals(puntosEsperados, clienteService.obtenerSaldoPuntos(clienteConPuntos.getId()));
     }
 
     @Test
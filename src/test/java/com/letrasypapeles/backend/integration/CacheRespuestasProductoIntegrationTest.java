@@ -0,0 +1,144 @@
+package com.letrasypapeles.backend.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.repository.ProductoRepository;
+import com.letrasypapeles.backend.service.ProductoService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Sin @Transactional: la versión del catálogo solo cambia cuando la escritura termina.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CacheRespuestasProductoIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Producto producto;
+
+    @BeforeEach
+    void setUp() {
+        producto = productoRepository.save(Producto.builder()
+                .nombre("Lápiz grafito")
+                .precio(new BigDecimal("590"))
+                .stock(40)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        productoRepository.deleteById(producto.getId());
+    }
+
+    private MvcResult obtener(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request.with(user("admin").roles("ADMIN"))).andReturn();
+    }
+
+    private MvcResult obtenerProducto() throws Exception {
+        return obtener(get("/api/productos/" + producto.getId()));
+    }
+
+    private int stock(MvcResult resultado) throws Exception {
+        return objectMapper.readTree(resultado.getResponse().getContentAsString()).get("stock").asInt();
+    }
+
+    private double aciertos() {
+        return meterRegistry.counter("productos.cache.respuestas", "resultado", "acierto").count();
+    }
+
+    @Test
+    void laSegundaLecturaSaleDeLaCacheConLosMismosBytes() throws Exception {
+        MvcResult primera = obtenerProducto();
+        double aciertosPrevios = aciertos();
+
+        MvcResult segunda = obtenerProducto();
+
+        assertEquals(200, segunda.getResponse().getStatus());
+        assertEquals(aciertosPrevios + 1, aciertos());
+        assertEquals(primera.getResponse().getContentAsString(), segunda.getResponse().getContentAsString());
+        assertEquals(primera.getResponse().getContentType(), segunda.getResponse().getContentType());
+        assertEquals(primera.getResponse().getHeader(HttpHeaders.ETAG), segunda.getResponse().getHeader(HttpHeaders.ETAG));
+        JsonNode cuerpo = objectMapper.readTree(segunda.getResponse().getContentAsString());
+        assertTrue(cuerpo.path("_links").has("self"));
+    }
+
+    @Test
+    void entregaLaVersionComprimidaSiElClienteAceptaGzip() throws Exception {
+        String enClaro = obtenerProducto().getResponse().getContentAsString();
+
+        MvcResult comprimida = obtener(get("/api/productos/" + producto.getId())
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"));
+
+        assertEquals("gzip", comprimida.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING));
+        byte[] descomprimido = new GZIPInputStream(
+                new ByteArrayInputStream(comprimida.getResponse().getContentAsByteArray())).readAllBytes();
+        assertEquals(enClaro, new String(descomprimido, comprimida.getResponse().getCharacterEncoding()));
+    }
+
+    @Test
+    void lasEscriturasDelServicioInvalidanLaRespuesta() throws Exception {
+        assertEquals(40, stock(obtenerProducto()));
+
+        productoService.aumentarStock(producto.getId(), 5);
+
+        assertEquals(45, stock(obtenerProducto()));
+    }
+
+    @Test
+    void lasActualizacionesMasivasTambienInvalidanLaRespuesta() throws Exception {
+        assertEquals(40, stock(obtenerProducto()));
+
+        transactionTemplate.executeWithoutResult(status -> productoRepository.descontarStockSiAlcanza(producto.getId(), 3));
+
+        assertEquals(37, stock(obtenerProducto()));
+    }
+
+    @Test
+    void unaRepresentacionDistintaNoUsaLaEntradaDeOtra() throws Exception {
+        obtener(get("/api/productos/" + producto.getId()).header(HttpHeaders.HOST, "tienda.example.com"));
+
+        MvcResult otraBase = obtener(get("/api/productos/" + producto.getId()).header(HttpHeaders.HOST, "otra.example.com"));
+
+        JsonNode cuerpo = objectMapper.readTree(otraBase.getResponse().getContentAsString());
+        assertTrue(cuerpo.path("_links").path("self").path("href").asText().startsWith("http://otra.example.com/"));
+    }
+}
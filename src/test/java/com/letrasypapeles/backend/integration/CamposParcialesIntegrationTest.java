@@ -0,0 +1,262 @@
+package com.letrasypapeles.backend.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.letrasypapeles.backend.entity.Categoria;
+import com.letrasypapeles.backend.entity.Cliente;
+import com.letrasypapeles.backend.entity.Inventario;
+import com.letrasypapeles.backend.entity.Notificacion;
+import com.letrasypapeles.backend.entity.Pedido;
+import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.entity.Reserva;
+import com.letrasypapeles.backend.entity.Sucursal;
+import com.letrasypapeles.backend.repository.CategoriaRepository;
+import com.letrasypapeles.backend.repository.ClienteRepository;
+import com.letrasypapeles.backend.repository.InventarioRepository;
+import com.letrasypapeles.backend.repository.NotificacionRepository;
+import com.letrasypapeles.backend.repository.PedidoRepository;
+import com.letrasypapeles.backend.repository.ProductoRepository;
+import com.letrasypapeles.backend.repository.ReservaRepository;
+import com.letrasypapeles.backend.repository.SucursalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class CamposParcialesIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private SucursalRepository sucursalRepository;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private NotificacionRepository notificacionRepository;
+
+    private Producto conCategoria;
+    private Producto sinCategoria;
+    private Cliente cliente;
+    private Inventario inventario;
+    private Reserva reserva;
+    private Pedido pedido;
+    private Notificacion notificacion;
+
+    @BeforeEach
+    void setUp() {
+        Categoria categoria = categoriaRepository.save(Categoria.builder()
+                .nombre("Cuadernos")
+                .descripcion("Cuadernos y libretas")
+                .build());
+        conCategoria = productoRepository.save(Producto.builder()
+                .nombre("Cuaderno universitario")
+                .descripcion("100 hojas")
+                .precio(new BigDecimal("2490"))
+                .stock(15)
+                .categoria(categoria)
+                .build());
+        sinCategoria = productoRepository.save(Producto.builder()
+                .nombre("Goma de borrar")
+                .precio(new BigDecimal("390"))
+                .stock(40)
+                .build());
+        cliente = clienteRepository.save(Cliente.builder()
+                .nombre("Ana")
+                .apellido("Campos")
+                .email("ana.campos@letrasypapeles.cl")
+                .contraseña("secreta")
+                .puntosFidelidad(0)
+                .build());
+        Sucursal sucursal = sucursalRepository.save(Sucursal.builder()
+                .nombre("Sucursal Campos")
+                .region("Biobío")
+                .build());
+        inventario = inventarioRepository.save(Inventario.builder()
+                .producto(conCategoria)
+                .sucursal(sucursal)
+                .cantidad(15)
+                .reservado(2)
+                .umbral(3)
+                .build());
+        reserva = reservaRepository.save(Reserva.builder()
+                .fechaReserva(LocalDateTime.now())
+                .estado("PENDIENTE")
+                .cantidad(2)
+                .cantidadApartada(2)
+                .cliente(cliente)
+                .producto(conCategoria)
+                .sucursal(sucursal)
+                .build());
+        pedido = pedidoRepository.save(Pedido.builder()
+                .fecha(LocalDateTime.now())
+                .estado("PENDIENTE")
+                .total(new BigDecimal("4980"))
+                .cliente(cliente)
+                .build());
+        notificacion = notificacionRepository.save(Notificacion.builder()
+                .mensaje("Su pedido fue despachado")
+                .fecha(LocalDateTime.now())
+                .cliente(cliente)
+                .build());
+    }
+
+    private MvcResult obtener(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request.with(user("admin").roles("ADMIN"))).andReturn();
+    }
+
+    private JsonNode cuerpo(MvcResult resultado) throws Exception {
+        assertEquals(200, resultado.getResponse().getStatus());
+        return objectMapper.readTree(resultado.getResponse().getContentAsString());
+    }
+
+    @Test
+    void laListaTraeSoloLosCamposPedidos() throws Exception {
+        JsonNode productos = cuerpo(obtener(get("/api/productos").param("fields", "id,nombre,precio,stock")));
+
+        assertTrue(productos.isArray() && productos.size() >= 2);
+        productos.forEach(producto -> {
+            List<String> campos = new ArrayList<>();
+            producto.fieldNames().forEachRemaining(campos::add);
+            assertEquals(List.of("id", "nombre", "precio", "stock"), campos);
+        });
+    }
+
+    @Test
+    void losCamposDeUnaAsociacionVanAnidados() throws Exception {
+        JsonNode producto = cuerpo(obtener(get("/api/productos/" + conCategoria.getId())
+                .param("fields", "nombre,categoria.nombre")));
+
+        assertEquals("Cuaderno universitario", producto.path("nombre").asText());
+        assertEquals("Cuadernos", producto.path("categoria").path("nombre").asText());
+        assertFalse(producto.has("_links"));
+        assertFalse(producto.has("descripcion"));
+    }
+
+    @Test
+    void unaAsociacionAusenteVaComoNull() throws Exception {
+        JsonNode producto = cuerpo(obtener(get("/api/productos/" + sinCategoria.getId())
+                .param("fields", "id,categoria.nombre")));
+
+        assertEquals(sinCategoria.getId().longValue(), producto.path("id").asLong());
+        assertTrue(producto.path("categoria").isNull());
+    }
+
+    @Test
+    void unCampoNoPermitidoDevuelve400() throws Exception {
+        MvcResult resultado = obtener(get("/api/clientes").param("fields", "email,password"));
+
+        assertEquals(400, resultado.getResponse().getStatus());
+        assertTrue(objectMapper.readTree(resultado.getResponse().getContentAsString())
+                .path("error").asText().startsWith("Campo no permitido: password"));
+    }
+
+    @Test
+    void unIdInexistenteDevuelve404() throws Exception {
+        MvcResult resultado = obtener(get("/api/categorias/999999").param("fields", "nombre"));
+
+        assertEquals(404, resultado.getResponse().getStatus());
+    }
+
+    @Test
+    void losPedidosTraenSoloLosCamposPedidos() throws Exception {
+        JsonNode pedidos = cuerpo(obtener(get("/api/pedidos").param("fields", "id,estado,cliente.nombre")));
+
+        JsonNode encontrado = null;
+        for (JsonNode fila : pedidos) {
+            if (fila.path("id").asLong() == pedido.getId()) {
+                encontrado = fila;
+            }
+        }
+        assertNotNull(encontrado);
+        assertEquals("PENDIENTE", encontrado.path("estado").asText());
+        assertEquals("Ana", encontrado.path("cliente").path("nombre").asText());
+        assertFalse(encontrado.has("total"));
+    }
+
+    @Test
+    void unaReservaTraeSoloLosCamposPedidos() throws Exception {
+        JsonNode fila = cuerpo(obtener(get("/api/reservas/" + reserva.getId())
+                .param("fields", "cantidad,producto.nombre,sucursal.nombre")));
+
+        assertEquals(2, fila.path("cantidad").asInt());
+        assertEquals("Cuaderno universitario", fila.path("producto").path("nombre").asText());
+        assertEquals("Sucursal Campos", fila.path("sucursal").path("nombre").asText());
+        assertFalse(fila.has("_links"));
+    }
+
+    @Test
+    void losCamposTienenPrioridadSobreLaRepresentacionLigera() throws Exception {
+        JsonNode reservas = cuerpo(obtener(get("/api/reservas").param("fields", "id").param("links", "none")));
+
+        assertTrue(reservas.isArray());
+    }
+
+    @Test
+    void unInventarioTraeSoloLosCamposPedidos() throws Exception {
+        JsonNode fila = cuerpo(obtener(get("/api/inventarios/" + inventario.getId())
+                .param("fields", "cantidad,reservado,producto.id")));
+
+        assertEquals(15, fila.path("cantidad").asInt());
+        assertEquals(2, fila.path("reservado").asInt());
+        assertEquals(conCategoria.getId().longValue(), fila.path("producto").path("id").asLong());
+        assertFalse(fila.has("umbral"));
+    }
+
+    @Test
+    void lasNotificacionesNoExponenDatosDelCliente() throws Exception {
+        MvcResult resultado = obtener(get("/api/notificaciones/" + notificacion.getId())
+                .param("fields", "mensaje,cliente.email"));
+
+        assertEquals(400, resultado.getResponse().getStatus());
+        assertEquals("Su pedido fue despachado", cuerpo(obtener(get("/api/notificaciones/" + notificacion.getId())
+                .param("fields", "mensaje"))).path("mensaje").asText());
+    }
+
+    @Test
+    void sinFieldsSeMantieneLaRepresentacionCompleta() throws Exception {
+        JsonNode producto = cuerpo(obtener(get("/api/productos/" + conCategoria.getId())));
+
+        assertTrue(producto.has("_links"));
+        assertTrue(producto.has("descripcion"));
+    }
+}
@@ -0,0 +1,202 @@
+package com.letrasypapeles.backend.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.letrasypapeles.backend.entity.Cliente;
+import com.letrasypapeles.backend.entity.Inventario;
+import com.letrasypapeles.backend.entity.Pedido;
+import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.entity.Reserva;
+import com.letrasypapeles.backend.entity.Sucursal;
+import com.letrasypapeles.backend.entity.SurtidoPedido;
+import com.letrasypapeles.backend.repository.ClienteRepository;
+import com.letrasypapeles.backend.repository.InventarioRepository;
+import com.letrasypapeles.backend.repository.MovimientoPuntosRepository;
+import com.letrasypapeles.backend.repository.NotificacionRepository;
+import com.letrasypapeles.backend.repository.PedidoRepository;
+import com.letrasypapeles.backend.repository.ProductoRepository;
+import com.letrasypapeles.backend.repository.ReservaRepository;
+import com.letrasypapeles.backend.repository.SucursalRepository;
+import com.letrasypapeles.backend.repository.SurtidoPedidoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Sin @Transactional: el pedido debe confirmarse para que el procesador complete la parte asíncrona.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CheckoutIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private NotificacionRepository notificacionRepository;
+
+    @Autowired
+    private MovimientoPuntosRepository movimientoRepository;
+
+    @Autowired
+    private SucursalRepository sucursalRepository;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private SurtidoPedidoRepository surtidoPedidoRepository;
+
+    private Cliente cliente;
+    private Producto reservado;
+    private Producto adicional;
+    private Reserva reserva;
+    private Sucursal sucursal;
+    private Inventario inventario;
+
+    @BeforeEach
+    void setUp() {
+        cliente = clienteRepository.save(Cliente.builder()
+                .nombre("Carla")
+                .apellido("Checkout")
+                .email("carla.checkout@example.com")
+                .puntosFidelidad(0)
+                .build());
+        reservado = productoRepository.save(Producto.builder()
+                .nombre("Agenda 2026")
+                .precio(new BigDecimal("100.00"))
+                .stock(8)
+                .build());
+        adicional = productoRepository.save(Producto.builder()
+                .nombre("Destacador")
+                .precio(new BigDecimal("25.00"))
+                .stock(5)
+                .build());
+        reserva = reservaRepository.save(Reserva.builder()
+                .cliente(cliente)
+                .producto(reservado)
+                .cantidad(2)
+                .estado("PENDIENTE")
+                .fechaReserva(LocalDateTime.now())
+                .build());
+        sucursal = sucursalRepository.save(Sucursal.builder().nombre("Sucursal Checkout").region("Checkout").build());
+        inventario = inventarioRepository.save(Inventario.builder()
+                .producto(adicional).sucursal(sucursal).cantidad(4).umbral(0).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (Pedido pedido : pedidoRepository.findByClienteId(cliente.getId())) {
+            surtidoPedidoRepository.deleteAll(surtidoPedidoRepository.findByPedidoIdOrderByProductoIdAscSucursalIdAsc(pedido.getId()));
+            pedidoRepository.delete(pedido);
+        }
+        reservaRepository.deleteAll(reservaRepository.findByClienteId(cliente.getId()));
+        notificacionRepository.deleteAll(notificacionRepository.findByClienteId(cliente.getId()));
+        movimientoRepository.deleteAll(movimientoRepository.findByClienteIdOrderByIdDesc(cliente.getId()));
+        inventarioRepository.deleteById(inventario.getId());
+        sucursalRepository.deleteById(sucursal.getId());
+        productoRepository.deleteById(reservado.getId());
+        productoRepository.deleteById(adicional.getId());
+        clienteRepository.deleteById(cliente.getId());
+    }
+
+    private MvcResult checkout(int cantidadAdicional) throws Exception {
+        return mockMvc.perform(post("/api/checkout")
+                        .with(user("carla.checkout@example.com").roles("CLIENTE"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"clienteId\":" + cliente.getId() +
+                                 ",\"reservasIds\":[" + reserva.getId() + "]" +
+                                 ",\"lineas\":[{\"productoId\":" + adicional.getId() +
+                                 ",\"cantidad\":" + cantidadAdicional + "}]}"))
+                .andReturn();
+    }
+
+    private String esperarEstado(Long pedidoId, String esperado) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 10_000;
+        String estado = pedidoRepository.findById(pedidoId).orElseThrow().getEstado();
+        while (!esperado.equals(estado) && System.currentTimeMillis() < limite) {
+            Thread.sleep(50);
+            estado = pedidoRepository.findById(pedidoId).orElseThrow().getEstado();
+        }
+        return estado;
+    }
+
+    @Test
+    void checkoutCreaElPedidoYCompletaPuntosYNotificacionEnSegundoPlano() throws Exception {
+        MvcResult resultado = checkout(2);
+
+        assertEquals(201, resultado.getResponse().getStatus());
+        JsonNode pedido = objectMapper.readTree(resultado.getResponse().getContentAsString());
+        assertEquals("CONFIRMADO", pedido.get("estado").asText());
+        assertEquals(0, new BigDecimal("250.00").compareTo(pedido.get("total").decimalValue()));
+
+        assertEquals("CONFIRMADA", reservaRepository.findById(reserva.getId()).orElseThrow().getEstado());
+        assertEquals(8, productoRepository.findById(reservado.getId()).orElseThrow().getStock());
+        assertEquals(3, productoRepository.findById(adicional.getId()).orElseThrow().getStock());
+        assertEquals(2, inventarioRepository.findById(inventario.getId()).orElseThrow().getCantidad());
+
+        Long pedidoId = pedido.get("id").asLong();
+        List<SurtidoPedido> surtidos = surtidoPedidoRepository.findByPedidoIdOrderByProductoIdAscSucursalIdAsc(pedidoId);
+        assertEquals(1, surtidos.size());
+        assertEquals(adicional.getId(), surtidos.get(0).getProductoId());
+        assertEquals(sucursal.getId(), surtidos.get(0).getSucursalId());
+        assertEquals(2, surtidos.get(0).getCantidad());
+        assertEquals("COMPLETADO", esperarEstado(pedidoId, "COMPLETADO"));
+        assertEquals("PEDIDO " + pedidoId,
+                movimientoRepository.findByClienteIdOrderByIdDesc(cliente.getId()).get(0).getMotivo());
+        assertEquals(25, movimientoRepository.findByClienteIdOrderByIdDesc(cliente.getId()).get(0).getPuntos());
+        assertEquals(1, notificacionRepository.findByClienteId(cliente.getId()).size());
+    }
+
+    @Test
+    void checkoutSinStockNoAplicaNingunCambio() throws Exception {
+        MvcResult resultado = checkout(6);
+
+        assertEquals(400, resultado.getResponse().getStatus());
+        assertEquals("PENDIENTE", reservaRepository.findById(reserva.getId()).orElseThrow().getEstado());
+        assertEquals(5, productoRepository.findById(adicional.getId()).orElseThrow().getStock());
+        assertTrue(pedidoRepository.findByClienteId(cliente.getId()).isEmpty());
+    }
+
+    @Test
+    void checkoutSinStockEnSucursalesNoAplicaNingunCambio() throws Exception {
+        MvcResult resultado = checkout(5);
+
+        assertEquals(400, resultado.getResponse().getStatus());
+        assertEquals("PENDIENTE", reservaRepository.findById(reserva.getId()).orElseThrow().getEstado());
+        assertEquals(5, productoRepository.findById(adicional.getId()).orElseThrow().getStock());
+        assertEquals(4, inventarioRepository.findById(inventario.getId()).orElseThrow().getCantidad());
+        assertTrue(pedidoRepository.findByClienteId(cliente.getId()).isEmpty());
+    }
+}
@@ -0,0 +1,125 @@
+package com.letrasypapeles.backend.integration;
+
+import com.letrasypapeles.backend.dto.ProgresoConciliacion;
+import com.letrasypapeles.backend.entity.Inventario;
+import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.repository.InventarioRepository;
+import com.letrasypapeles.backend.repository.ProductoRepository;
+import com.letrasypapeles.backend.service.ConciliacionStockService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sin @Transactional: los tramos se leen desde los hilos del pool y deben ver los datos confirmados.
+ * La conciliación se acota a los productos del test para no tocar el resto de la tabla.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConciliacionStockIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ConciliacionStockService conciliacionStockService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    private Producto cuadrado;
+    private Producto descuadrado;
+
+    @BeforeEach
+    void setUp() {
+        cuadrado = productoRepository.save(Producto.builder()
+                .nombre("Regla 30 cm").precio(new BigDecimal("990")).stock(10).build());
+        descuadrado = productoRepository.save(Producto.builder()
+                .nombre("Compás").precio(new BigDecimal("2990")).stock(3).build());
+        inventarioRepository.save(Inventario.builder().producto(cuadrado).cantidad(4).build());
+        inventarioRepository.save(Inventario.builder().producto(cuadrado).cantidad(6).build());
+        inventarioRepository.save(Inventario.builder().producto(descuadrado).cantidad(5).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        inventarioRepository.deleteAll(inventarioRepository.findByProductoId(cuadrado.getId()));
+        inventarioRepository.deleteAll(inventarioRepository.findByProductoId(descuadrado.getId()));
+        productoRepository.deleteById(cuadrado.getId());
+        productoRepository.deleteById(descuadrado.getId());
+    }
+
+    @Test
+    void informaYCorrigeLasDiferencias() throws Exception {
+        ProgresoConciliacion informe = conciliacionStockService.conciliar(false, cuadrado.getId(), descuadrado.getId());
+
+        assertEquals("TERMINADA", informe.getEstado());
+        assertEquals(2, informe.getProductosRevisados());
+        assertEquals(1, informe.getDiferencias());
+        assertEquals(descuadrado.getId(), informe.getMuestras().get(0).getProductoId());
+        assertEquals(5L, informe.getMuestras().get(0).getTotalInventario());
+        assertEquals(3, productoRepository.findById(descuadrado.getId()).orElseThrow().getStock());
+
+        ProgresoConciliacion correccion = conciliacionStockService.conciliar(true, cuadrado.getId(), descuadrado.getId());
+
+        assertEquals(1, correccion.getCorregidos());
+        assertEquals(5, productoRepository.findById(descuadrado.getId()).orElseThrow().getStock());
+        assertEquals(10, productoRepository.findById(cuadrado.getId()).orElseThrow().getStock());
+
+        mockMvc.perform(get("/actuator/conciliacion").with(user("admin@example.com").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estado").value("TERMINADA"))
+                .andExpect(jsonPath("$.corregidos").value(1));
+    }
+
+    @Test
+    void iniciarPorRangoExigeIndicarSiCorrige() throws Exception {
+        String rango = "/actuator/conciliacion/" + cuadrado.getId() + "/" + descuadrado.getId();
+
+        mockMvc.perform(post(rango).with(user("admin@example.com").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/actuator/conciliacion/" + descuadrado.getId() + "/" + cuadrado.getId())
+                        .with(user("admin@example.com").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"corregir\":false}"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post(rango).with(user("admin@example.com").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"corregir\":false}"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.desde").value(cuadrado.getId()))
+                .andExpect(jsonPath("$.hasta").value(descuadrado.getId()));
+
+        long limite = System.currentTimeMillis() + 10_000;
+        while ("EN_CURSO".equals(conciliacionStockService.progreso().getEstado()) && System.currentTimeMillis() < limite) {
+            Thread.sleep(50);
+        }
+        assertEquals(3, productoRepository.findById(descuadrado.getId()).orElseThrow().getStock());
+    }
+
+    @Test
+    void soloAdminPuedeUsarElEndpoint() throws Exception {
+        mockMvc.perform(get("/actuator/conciliacion").with(user("cliente@example.com").roles("CLIENTE")))
+                .andExpect(status().isForbidden());
+    }
+}
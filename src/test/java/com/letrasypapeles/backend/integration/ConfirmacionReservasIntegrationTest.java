@@ -0,0 +1,198 @@
+package com.letrasypapeles.backend.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.letrasypapeles.backend.entity.Cliente;
+import com.letrasypapeles.backend.entity.Inventario;
+import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.entity.Reserva;
+import com.letrasypapeles.backend.entity.Sucursal;
+import com.letrasypapeles.backend.repository.ClienteRepository;
+import com.letrasypapeles.backend.repository.InventarioRepository;
+import com.letrasypapeles.backend.repository.MovimientoPuntosRepository;
+import com.letrasypapeles.backend.repository.ProductoRepository;
+import com.letrasypapeles.backend.repository.ReservaRepository;
+import com.letrasypapeles.backend.repository.SucursalRepository;
+import com.letrasypapeles.backend.service.ClienteService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Confirmar una reserva sola y confirmarla en lote debe dejar el mismo stock y los mismos puntos.
+ * Sin @Transactional: el apartado en sucursales se apoya en el índice de disponibilidad, que se
+ * actualiza al confirmarse cada escritura.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConfirmacionReservasIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private SucursalRepository sucursalRepository;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private MovimientoPuntosRepository movimientoRepository;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    private Cliente cliente;
+    private Producto producto;
+    private Sucursal sucursal;
+    private Inventario inventario;
+
+    @BeforeEach
+    void setUp() {
+        cliente = clienteRepository.save(Cliente.builder()
+                .nombre("Conrado").apellido("Confirma").email("conrado.confirma@example.com").puntosFidelidad(0).build());
+        producto = productoRepository.save(Producto.builder()
+                .nombre("Carpeta Oficio").precio(new BigDecimal("12.50")).stock(10).build());
+        sucursal = sucursalRepository.save(Sucursal.builder().nombre("Sucursal Confirma").region("Confirma").build());
+        inventario = inventarioRepository.save(Inventario.builder()
+                .producto(producto).sucursal(sucursal).cantidad(10).umbral(0).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservaRepository.deleteAll(reservaRepository.findByClienteId(cliente.getId()));
+        movimientoRepository.deleteAll(movimientoRepository.findByClienteIdOrderByIdDesc(cliente.getId()));
+        inventarioRepository.deleteById(inventario.getId());
+        sucursalRepository.deleteById(sucursal.getId());
+        productoRepository.deleteById(producto.getId());
+        clienteRepository.deleteById(cliente.getId());
+    }
+
+    private Long reservar(int cantidad) throws Exception {
+        MvcResult resultado = mockMvc.perform(post("/api/reservas")
+                        .with(user("admin@example.com").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"clienteId\":" + cliente.getId() + ",\"productoId\":" + producto.getId() +
+                                 ",\"cantidad\":" + cantidad + "}"))
+                .andReturn();
+        assertEquals(200, resultado.getResponse().getStatus());
+        return objectMapper.readTree(resultado.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    /** Reserva anterior al apartado: su stock se descontó al crearla y no apartó nada en sucursales */
+    private Long reservaSinApartado(int cantidad) {
+        return reservaRepository.save(Reserva.builder()
+                .cliente(cliente).producto(producto).cantidad(cantidad)
+                .estado("PENDIENTE").fechaReserva(LocalDateTime.now()).build()).getId();
+    }
+
+    private void confirmarSola(Long reservaId) throws Exception {
+        MvcResult resultado = mockMvc.perform(put("/api/reservas/" + reservaId + "/confirmar")
+                        .with(user("admin@example.com").roles("ADMIN")))
+                .andReturn();
+        assertEquals(200, resultado.getResponse().getStatus());
+    }
+
+    private void confirmarEnLote(Long... reservaIds) throws Exception {
+        MvcResult resultado = mockMvc.perform(post("/api/reservas/confirmar-lote")
+                        .with(user("admin@example.com").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(reservaIds))))
+                .andReturn();
+        assertEquals(200, resultado.getResponse().getStatus());
+        objectMapper.readTree(resultado.getResponse().getContentAsString())
+                .forEach(fila -> assertTrue(fila.get("exito").asBoolean(), fila.toString()));
+    }
+
+    /** Stock del producto, cantidad y reservado de la sucursal y saldo de puntos */
+    private long[] estado() {
+        Inventario actual = inventarioRepository.findById(inventario.getId()).orElseThrow();
+        return new long[]{
+                productoRepository.findById(producto.getId()).orElseThrow().getStock(),
+                actual.getCantidad(),
+                actual.getReservado() != null ? actual.getReservado() : 0,
+                clienteService.obtenerSaldoPuntos(cliente.getId())};
+    }
+
+    private static long[] diferencia(long[] antes, long[] despues) {
+        long[] diferencia = new long[antes.length];
+        for (int i = 0; i < antes.length; i++) {
+            diferencia[i] = despues[i] - antes[i];
+        }
+        return diferencia;
+    }
+
+    @Test
+    void confirmarSolaYEnLoteDejanElMismoStockYLosMismosPuntos() throws Exception {
+        Long apartadaSola = reservar(2);
+        Long apartadaLote = reservar(2);
+        Long anteriorSola = reservaSinApartado(1);
+        Long anteriorLote = reservaSinApartado(1);
+
+        long[] inicio = estado();
+        confirmarSola(apartadaSola);
+        confirmarSola(anteriorSola);
+        long[] trasSola = estado();
+        confirmarEnLote(apartadaLote, anteriorLote);
+        long[] trasLote = estado();
+
+        long[] porSola = diferencia(inicio, trasSola);
+        long[] porLote = diferencia(trasSola, trasLote);
+        assertArrayEquals(porSola, porLote);
+        assertEquals(0, porSola[0], "el stock del producto ya se descontó al reservar");
+        assertEquals(-2, porSola[1]);
+        assertEquals(-2, porSola[2]);
+        assertTrue(porSola[3] > 0);
+        for (Long reservaId : List.of(apartadaSola, apartadaLote, anteriorSola, anteriorLote)) {
+            Reserva reserva = reservaRepository.findById(reservaId).orElseThrow();
+            assertEquals("CONFIRMADA", reserva.getEstado());
+            assertEquals(0, reserva.getCantidadApartada());
+        }
+    }
+
+    @Test
+    void cancelarEnLoteDejaLoApartadoEnCero() throws Exception {
+        Long reservaId = reservar(3);
+
+        MvcResult resultado = mockMvc.perform(post("/api/reservas/cancelar-lote")
+                        .with(user("admin@example.com").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + reservaId + "]"))
+                .andReturn();
+
+        assertEquals(200, resultado.getResponse().getStatus());
+        Reserva reserva = reservaRepository.findById(reservaId).orElseThrow();
+        assertEquals("CANCELADA", reserva.getEstado());
+        assertEquals(0, reserva.getCantidadApartada());
+        assertEquals(10, productoRepository.findById(producto.getId()).orElseThrow().getStock());
+        assertEquals(0, inventarioRepository.findById(inventario.getId()).orElseThrow().getReservado());
+    }
+}
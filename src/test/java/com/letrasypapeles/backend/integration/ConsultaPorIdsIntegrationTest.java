@@ -0,0 +1,118 @@
+package com.letrasypapeles.backend.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.letrasypapeles.backend.entity.Cliente;
+import com.letrasypapeles.backend.entity.Inventario;
+import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.repository.ClienteRepository;
+import com.letrasypapeles.backend.repository.InventarioRepository;
+import com.letrasypapeles.backend.repository.ProductoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class ConsultaPorIdsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    private Producto lapiz;
+    private Producto regla;
+
+    @BeforeEach
+    void setUp() {
+        lapiz = productoRepository.save(Producto.builder()
+                .nombre("Lápiz").precio(new BigDecimal("350")).stock(100).build());
+        regla = productoRepository.save(Producto.builder()
+                .nombre("Regla 30 cm").precio(new BigDecimal("890")).stock(20).build());
+    }
+
+    private MvcResult obtener(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request.with(user("admin").roles("ADMIN"))).andReturn();
+    }
+
+    private JsonNode cuerpo(MvcResult resultado) throws Exception {
+        assertEquals(200, resultado.getResponse().getStatus());
+        return objectMapper.readTree(resultado.getResponse().getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void losProductosVuelvenEnElOrdenPedidoConMarcaDeNoEncontrado() throws Exception {
+        JsonNode resultados = cuerpo(obtener(get("/api/productos")
+                .param("ids", regla.getId() + ",999999," + lapiz.getId())));
+
+        assertEquals(3, resultados.size());
+        assertEquals(regla.getId().longValue(), resultados.get(0).path("id").asLong());
+        assertTrue(resultados.get(0).path("encontrado").asBoolean());
+        assertEquals("Regla 30 cm", resultados.get(0).path("contenido").path("nombre").asText());
+        assertEquals(999999L, resultados.get(1).path("id").asLong());
+        assertFalse(resultados.get(1).path("encontrado").asBoolean());
+        assertTrue(resultados.get(1).path("contenido").isNull());
+        assertEquals("Lápiz", resultados.get(2).path("contenido").path("nombre").asText());
+    }
+
+    @Test
+    void clientesEInventariosTambienAceptanIds() throws Exception {
+        Cliente cliente = clienteRepository.save(Cliente.builder()
+                .nombre("Iván").apellido("Ids").email("ivan.ids@example.com").puntosFidelidad(0).build());
+        Inventario inventario = inventarioRepository.save(Inventario.builder()
+                .producto(lapiz).cantidad(5).umbral(1).build());
+
+        JsonNode clientes = cuerpo(obtener(get("/api/clientes").param("ids", cliente.getId().toString())));
+        JsonNode inventarios = cuerpo(obtener(get("/api/inventarios").param("ids", inventario.getId().toString())));
+
+        assertEquals("ivan.ids@example.com", clientes.get(0).path("contenido").path("email").asText());
+        assertEquals(5, inventarios.get(0).path("contenido").path("cantidad").asInt());
+    }
+
+    @Test
+    void masIdsDeLosPermitidosDevuelve400() throws Exception {
+        String ids = IntStream.rangeClosed(1, 101).mapToObj(Integer::toString).collect(Collectors.joining(","));
+
+        MvcResult resultado = obtener(get("/api/productos").param("ids", ids));
+
+        assertEquals(400, resultado.getResponse().getStatus());
+        assertTrue(objectMapper.readTree(resultado.getResponse().getContentAsString(StandardCharsets.UTF_8))
+                .path("error").asText().startsWith("Se pueden pedir como máximo 100 IDs"));
+    }
+
+    @Test
+    void unIdInvalidoDevuelve400() throws Exception {
+        MvcResult resultado = obtener(get("/api/inventarios").param("ids", "1,dos"));
+
+        assertEquals(400, resultado.getResponse().getStatus());
+    }
+}
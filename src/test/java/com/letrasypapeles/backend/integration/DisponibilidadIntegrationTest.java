@@ -0,0 +1,98 @@
+package com.letrasypapeles.backend.integration;
+
+import com.letrasypapeles.backend.entity.Inventario;
+import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.entity.Sucursal;
+import com.letrasypapeles.backend.repository.InventarioRepository;
+import com.letrasypapeles.backend.repository.ProductoRepository;
+import com.letrasypapeles.backend.repository.SucursalRepository;
+import com.letrasypapeles.backend.service.IndiceDisponibilidad;
+import com.letrasypapeles.backend.service.InventarioService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que el índice de disponibilidad se mantiene con las escrituras confirmadas de inventario.
+ * No es transaccional a propósito: el índice solo se actualiza después del commit.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DisponibilidadIntegrationTest {
+
+    @Autowired
+    private IndiceDisponibilidad indiceDisponibilidad;
+
+    @Autowired
+    private InventarioService inventarioService;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private SucursalRepository sucursalRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Producto producto;
+    private Sucursal sucursal;
+    private Inventario inventario;
+
+    @BeforeEach
+    void setUp() {
+        producto = productoRepository.save(Producto.builder()
+                .nombre("Agenda 2025")
+                .precio(new BigDecimal("9990"))
+                .stock(20)
+                .build());
+        sucursal = sucursalRepository.save(Sucursal.builder()
+                .nombre("Sucursal Integración")
+                .region("Valparaíso")
+                .build());
+        inventario = inventarioService.guardar(Inventario.builder()
+                .producto(producto)
+                .sucursal(sucursal)
+                .cantidad(20)
+                .umbral(5)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        inventarioRepository.deleteById(inventario.getId());
+        sucursalRepository.deleteById(sucursal.getId());
+        productoRepository.deleteById(producto.getId());
+    }
+
+    @Test
+    void indiceReflejaEscriturasConfirmadas() {
+        assertEquals(20, indiceDisponibilidad.consultar(producto.getId(), "Valparaíso").get(0).getCantidad());
+
+        inventarioService.reducirCantidad(inventario.getId(), 8);
+
+        assertEquals(12, indiceDisponibilidad.consultar(producto.getId(), null).get(0).getCantidad());
+    }
+
+    @Test
+    void indiceIgnoraEscriturasRevertidas() {
+        transactionTemplate.executeWithoutResult(status -> {
+            inventarioService.reducirCantidad(inventario.getId(), 20);
+            inventarioRepository.flush();
+            status.setRollbackOnly();
+        });
+
+        assertEquals(20, indiceDisponibilidad.consultar(producto.getId(), null).get(0).getCantidad());
+    }
+}
@@ -0,0 +1,117 @@
+package com.letrasypapeles.backend.integration;
+
+import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.repository.ProductoRepository;
+import com.letrasypapeles.backend.web.RepresentacionLigera;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Sin @Transactional: la versión del catálogo solo cambia cuando la escritura termina.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EtagCatalogoIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Producto producto;
+
+    @BeforeEach
+    void setUp() {
+        producto = productoRepository.save(Producto.builder()
+                .nombre("Carpeta archivadora")
+                .precio(new BigDecimal("3490"))
+                .stock(12)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        productoRepository.deleteById(producto.getId());
+    }
+
+    private MvcResult obtener(MockHttpServletRequestBuilder request) throws Exception {
+        return mockMvc.perform(request.with(user("admin").roles("ADMIN"))).andReturn();
+    }
+
+    private double aciertos() {
+        return meterRegistry.counter("catalogo.etag", "recurso", "/api/productos/{id}", "resultado", "304").count();
+    }
+
+    @Test
+    void respondeNoModificadoMientrasElProductoNoCambie() throws Exception {
+        String ruta = "/api/productos/" + producto.getId();
+        MvcResult primera = obtener(get(ruta));
+        String etag = primera.getResponse().getHeader(HttpHeaders.ETAG);
+        assertEquals(200, primera.getResponse().getStatus());
+        assertNotNull(etag);
+        double aciertosPrevios = aciertos();
+
+        MvcResult segunda = obtener(get(ruta).header(HttpHeaders.IF_NONE_MATCH, etag));
+
+        assertEquals(304, segunda.getResponse().getStatus());
+        assertEquals(0, segunda.getResponse().getContentAsByteArray().length);
+        assertEquals(aciertosPrevios + 1, aciertos());
+    }
+
+    @Test
+    void laActualizacionMasivaDeStockCambiaLaEtag() throws Exception {
+        MvcResult primera = obtener(get("/api/productos"));
+        String etag = primera.getResponse().getHeader(HttpHeaders.ETAG);
+
+        transactionTemplate.executeWithoutResult(status -> productoRepository.sumarStock(producto.getId(), -2));
+        MvcResult segunda = obtener(get("/api/productos").header(HttpHeaders.IF_NONE_MATCH, etag));
+
+        assertEquals(200, segunda.getResponse().getStatus());
+        assertNotEquals(etag, segunda.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void cadaRepresentacionTieneSuPropiaEtag() throws Exception {
+        String completa = obtener(get("/api/productos")).getResponse().getHeader(HttpHeaders.ETAG);
+        String ligera = obtener(get("/api/productos").param("links", "none")).getResponse().getHeader(HttpHeaders.ETAG);
+        String porTipo = obtener(get("/api/productos").accept(RepresentacionLigera.TIPO)).getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotEquals(completa, ligera);
+        assertNotEquals(completa, porTipo);
+        assertEquals(200, obtener(get("/api/productos").param("links", "none")
+                .header(HttpHeaders.IF_NONE_MATCH, completa)).getResponse().getStatus());
+    }
+
+    @Test
+    void losRecursosFueraDelCatalogoNoLlevanEtag() throws Exception {
+        MvcResult resultado = obtener(get("/api/productos/" + producto.getId() + "/disponibilidad"));
+
+        assertEquals(200, resultado.getResponse().getStatus());
+        assertNull(resultado.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+}
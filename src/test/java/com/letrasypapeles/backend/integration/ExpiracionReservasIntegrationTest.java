@@ -0,0 +1,111 @@
+package com.letrasypapeles.backend.integration;
+
+import com.letrasypapeles.backend.entity.Inventario;
+import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.entity.Reserva;
+import com.letrasypapeles.backend.entity.Sucursal;
+import com.letrasypapeles.backend.repository.InventarioRepository;
+import com.letrasypapeles.backend.repository.ProductoRepository;
+import com.letrasypapeles.backend.repository.ReservaRepository;
+import com.letrasypapeles.backend.repository.SucursalRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que el expirador cancela las reservas PENDIENTES vencidas y devuelve su stock.
+ * No es transaccional a propósito: las reservas se programan después del commit.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ExpiracionReservasIntegrationTest {
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private SucursalRepository sucursalRepository;
+
+    private Producto producto;
+    private Sucursal sucursal;
+    private Inventario inventario;
+    private Reserva reserva;
+
+    @BeforeEach
+    void setUp() {
+        producto = productoRepository.save(Producto.builder()
+                .nombre("Cuaderno Universitario")
+                .precio(new BigDecimal("2990"))
+                .stock(10)
+                .build());
+        sucursal = sucursalRepository.save(Sucursal.builder()
+                .nombre("Sucursal Expiración")
+                .region("Biobío")
+                .build());
+        inventario = inventarioRepository.save(Inventario.builder()
+                .producto(producto)
+                .sucursal(sucursal)
+                .cantidad(5)
+                .umbral(1)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (reserva != null) {
+            reservaRepository.deleteById(reserva.getId());
+        }
+        inventarioRepository.deleteById(inventario.getId());
+        sucursalRepository.deleteById(sucursal.getId());
+        productoRepository.deleteById(producto.getId());
+    }
+
+    @Test
+    void cancelaReservaVencidaYDevuelveStock() throws InterruptedException {
+        reserva = reservaRepository.save(Reserva.builder()
+                .producto(producto)
+                .cantidad(2)
+                .estado("PENDIENTE")
+                .fechaReserva(LocalDateTime.now().minusHours(2))
+                .build());
+
+        long limite = System.currentTimeMillis() + 10_000;
+        while (!"CANCELADA".equals(reservaRepository.findById(reserva.getId()).orElseThrow().getEstado())
+               && System.currentTimeMillis() < limite) {
+            Thread.sleep(100);
+        }
+
+        assertEquals("CANCELADA", reservaRepository.findById(reserva.getId()).orElseThrow().getEstado());
+        assertEquals(12, productoRepository.findById(producto.getId()).orElseThrow().getStock());
+        assertEquals(7, inventarioRepository.findById(inventario.getId()).orElseThrow().getCantidad());
+    }
+
+    @Test
+    void noCancelaReservaVigente() throws InterruptedException {
+        reserva = reservaRepository.save(Reserva.builder()
+                .producto(producto)
+                .cantidad(2)
+                .estado("PENDIENTE")
+                .fechaReserva(LocalDateTime.now())
+                .build());
+
+        Thread.sleep(2_000);
+
+        assertEquals("PENDIENTE", reservaRepository.findById(reserva.getId()).orElseThrow().getEstado());
+        assertEquals(10, productoRepository.findById(producto.getId()).orElseThrow().getStock());
+    }
+}
@@ -0,0 +1,137 @@
+package com.letrasypapeles.backend.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.letrasypapeles.backend.entity.Inventario;
+import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.entity.Sucursal;
+import com.letrasypapeles.backend.repository.InventarioRepository;
+import com.letrasypapeles.backend.repository.ProductoRepository;
+import com.letrasypapeles.backend.repository.SucursalRepository;
+import com.letrasypapeles.backend.web.FormatosBinarios;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class FormatosBinariosIntegrationTest {
+
+    private final ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+    private final ObjectMapper smile = new ObjectMapper(new SmileFactory());
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private SucursalRepository sucursalRepository;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @BeforeEach
+    void setUp() {
+        Producto producto = productoRepository.save(Producto.builder()
+                .nombre("Resma carta")
+                .precio(new BigDecimal("4990"))
+                .stock(30)
+                .build());
+        Sucursal sucursal = sucursalRepository.save(Sucursal.builder()
+                .nombre("Sucursal Binaria")
+                .direccion("Av. Siempre Viva 742")
+                .region("RM")
+                .build());
+        inventarioRepository.save(Inventario.builder()
+                .producto(producto)
+                .sucursal(sucursal)
+                .cantidad(12)
+                .umbral(3)
+                .build());
+    }
+
+    private byte[] obtener(String uri, String tipo) throws Exception {
+        MvcResult resultado = mockMvc.perform(get(uri).accept(tipo).with(user("admin").roles("ADMIN"))).andReturn();
+        assertEquals(200, resultado.getResponse().getStatus());
+        assertTrue(MediaType.parseMediaType(tipo)
+                .isCompatibleWith(MediaType.parseMediaType(resultado.getResponse().getContentType())));
+        return resultado.getResponse().getContentAsByteArray();
+    }
+
+    // Los formatos binarios escriben BigDecimal como decimal nativo: el precio se compara por valor
+    private static void assertMismosDatos(JsonNode json, JsonNode binario) {
+        assertEquals(json.size(), binario.size());
+        for (int i = 0; i < json.size(); i++) {
+            ObjectNode productoJson = (ObjectNode) json.get(i).path("producto");
+            ObjectNode productoBinario = (ObjectNode) binario.get(i).path("producto");
+            assertEquals(0, productoJson.remove("precio").decimalValue()
+                    .compareTo(productoBinario.remove("precio").decimalValue()));
+        }
+        assertEquals(json, binario);
+    }
+
+    @Test
+    void elInventarioEnCborTraeLosMismosDatosQueEnJson() throws Exception {
+        JsonNode json = objectMapper.readTree(obtener("/api/inventarios", MediaType.APPLICATION_JSON_VALUE));
+        byte[] bytes = obtener("/api/inventarios", MediaType.APPLICATION_CBOR_VALUE);
+
+        assertMismosDatos(json, cbor.readTree(bytes));
+    }
+
+    @Test
+    void elInventarioEnSmileTraeLosMismosDatosQueEnJson() throws Exception {
+        JsonNode json = objectMapper.readTree(obtener("/api/inventarios", MediaType.APPLICATION_JSON_VALUE));
+        byte[] bytes = obtener("/api/inventarios", FormatosBinarios.SMILE);
+
+        assertMismosDatos(json, smile.readTree(bytes));
+    }
+
+    @Test
+    void seAceptaUnCuerpoEnCbor() throws Exception {
+        byte[] cuerpo = cbor.writeValueAsBytes(Map.of("nombre", "Cartulinas", "descripcion", "En CBOR"));
+
+        MvcResult resultado = mockMvc.perform(post("/api/categorias")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .content(cuerpo)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .with(user("admin").roles("ADMIN")))
+                .andReturn();
+
+        assertEquals(200, resultado.getResponse().getStatus());
+        assertEquals("Cartulinas",
+                objectMapper.readTree(resultado.getResponse().getContentAsString()).path("nombre").asText());
+    }
+
+    @Test
+    void losRecursosHateoasTambienSeSirvenEnSmile() throws Exception {
+        JsonNode productos = smile.readTree(obtener("/api/productos", FormatosBinarios.SMILE));
+
+        assertTrue(productos.has("links"));
+        assertTrue(productos.path("content").size() > 0);
+    }
+}
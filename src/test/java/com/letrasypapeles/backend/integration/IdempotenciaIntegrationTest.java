@@ -0,0 +1,110 @@
+package com.letrasypapeles.backend.integration;
+
+import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.repository.ProductoRepository;
+import com.letrasypapeles.backend.repository.ReservaRepository;
+import com.letrasypapeles.backend.repository.RespuestaIdempotenteRepository;
+import com.letrasypapeles.backend.web.IdempotenciaFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Sin @Transactional: las solicitudes simultáneas deben ver los datos confirmados.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IdempotenciaIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private RespuestaIdempotenteRepository respuestaRepository;
+
+    private Producto producto;
+
+    @BeforeEach
+    void setUp() {
+        producto = productoRepository.save(Producto.builder()
+                .nombre("Resma Carta")
+                .precio(new BigDecimal("4990"))
+                .stock(10)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservaRepository.deleteAll(reservaRepository.findByProductoId(producto.getId()));
+        productoRepository.deleteById(producto.getId());
+        respuestaRepository.deleteAll();
+    }
+
+    private MvcResult reservar(String clave, String usuario) throws Exception {
+        return mockMvc.perform(post("/api/reservas")
+                        .with(user(usuario).roles("VENDEDOR"))
+                        .header(IdempotenciaFilter.ENCABEZADO, clave)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productoId\":" + producto.getId() + ",\"cantidad\":2}"))
+                .andReturn();
+    }
+
+    @Test
+    void reintentosSimultaneosCreanUnaSolaReserva() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(6);
+        List<Future<MvcResult>> intentos = new ArrayList<>();
+        try {
+            for (int i = 0; i < 6; i++) {
+                intentos.add(pool.submit(() -> reservar("pos-1-venta-42", "pos@example.com")));
+            }
+            String primera = intentos.get(0).get().getResponse().getContentAsString();
+            for (Future<MvcResult> intento : intentos) {
+                assertEquals(200, intento.get().getResponse().getStatus());
+                assertEquals(primera, intento.get().getResponse().getContentAsString());
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        MvcResult reintento = reservar("pos-1-venta-42", "pos@example.com");
+        assertEquals("true", reintento.getResponse().getHeader(IdempotenciaFilter.ENCABEZADO_REPETIDA));
+
+        assertEquals(1, reservaRepository.findByProductoId(producto.getId()).size());
+        assertEquals(8, productoRepository.findById(producto.getId()).orElseThrow().getStock());
+    }
+
+    @Test
+    void laMismaClaveDeOtroUsuarioSeEjecuta() throws Exception {
+        reservar("compartida", "pos@example.com");
+        MvcResult otro = reservar("compartida", "otro@example.com");
+
+        assertNull(otro.getResponse().getHeader(IdempotenciaFilter.ENCABEZADO_REPETIDA));
+        assertEquals(2, reservaRepository.findByProductoId(producto.getId()).size());
+        assertEquals(6, productoRepository.findById(producto.getId()).orElseThrow().getStock());
+    }
+}
@@ -0,0 +1,99 @@
+package com.letrasypapeles.backend.integration;
+
+import com.letrasypapeles.backend.entity.Cliente;
+import com.letrasypapeles.backend.entity.MovimientoPuntos;
+import com.letrasypapeles.backend.repository.ClienteRepository;
+import com.letrasypapeles.backend.repository.MovimientoPuntosRepository;
+import com.letrasypapeles.backend.service.ClienteService;
+import com.letrasypapeles.backend.service.LibroPuntos;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sin @Transactional: los movimientos deben confirmarse para que el plegado los vea.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class LibroPuntosIntegrationTest {
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private LibroPuntos libroPuntos;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private MovimientoPuntosRepository movimientoRepository;
+
+    private Cliente cliente;
+
+    @BeforeEach
+    void setUp() {
+        cliente = clienteRepository.save(Cliente.builder()
+                .nombre("Ana")
+                .apellido("Puntos")
+                .email("ana.puntos@example.com")
+                .puntosFidelidad(20)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        movimientoRepository.deleteAll(movimientoRepository.findByClienteIdOrderByIdDesc(cliente.getId()));
+        clienteRepository.deleteById(cliente.getId());
+    }
+
+    @Test
+    void comprasConcurrentesNoPierdenPuntos() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> compras = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                compras.add(pool.submit(() -> clienteService.acumularPuntosFidelidad(cliente.getId(), 100.0)));
+            }
+            for (Future<Integer> compra : compras) {
+                assertEquals(10, compra.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(420L, clienteService.obtenerSaldoPuntos(cliente.getId()));
+        assertEquals(40, clienteService.obtenerMovimientosPuntos(cliente.getId()).size());
+
+        libroPuntos.plegar();
+
+        assertEquals(420, clienteRepository.obtenerPuntosFidelidad(cliente.getId()));
+        assertEquals(420L, clienteService.obtenerSaldoPuntos(cliente.getId()));
+        assertTrue(movimientoRepository.findByClienteIdOrderByIdDesc(cliente.getId()).stream()
+                .allMatch(MovimientoPuntos::isPlegado));
+    }
+
+    @Test
+    void historialDelMasRecienteAlMasAntiguo() {
+        clienteService.actualizarPuntosFidelidadDirecto(cliente.getId(), 7, "RESERVA 1");
+        clienteService.actualizarPuntosFidelidadDirecto(cliente.getId(), -5, "CANJE");
+
+        List<MovimientoPuntos> movimientos = clienteService.obtenerMovimientosPuntos(cliente.getId());
+
+        assertEquals(2, movimientos.size());
+        assertEquals("CANJE", movimientos.get(0).getMotivo());
+        assertEquals(-5, movimientos.get(0).getPuntos());
+        assertEquals(22L, clienteService.obtenerSaldoPuntos(cliente.getId()));
+    }
+}
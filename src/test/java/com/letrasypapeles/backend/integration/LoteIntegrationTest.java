@@ -0,0 +1,150 @@
+package com.letrasypapeles.backend.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.letrasypapeles.backend.dto.SolicitudLote;
+import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.repository.ProductoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// Sin @Transactional: las sub-solicitudes corren en otros hilos y solo ven datos confirmados
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LoteIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    private Producto cuaderno;
+
+    @BeforeEach
+    void setUp() {
+        cuaderno = productoRepository.save(Producto.builder()
+                .nombre("Cuaderno Lote").precio(new BigDecimal("1990")).stock(15).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        productoRepository.deleteById(cuaderno.getId());
+    }
+
+    private static SolicitudLote get(String id, String ruta) {
+        return SolicitudLote.builder().id(id).metodo("GET").ruta(ruta).build();
+    }
+
+    private MvcResult lote(List<SolicitudLote> solicitudes, RequestPostProcessor usuario) throws Exception {
+        return mockMvc.perform(post("/api/batch")
+                        .with(usuario)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(solicitudes)))
+                .andReturn();
+    }
+
+    private JsonNode cuerpo(MvcResult resultado) throws Exception {
+        assertEquals(200, resultado.getResponse().getStatus());
+        return objectMapper.readTree(resultado.getResponse().getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void lasSubRespuestasVuelvenEnOrdenConSuPropioEstado() throws Exception {
+        JsonNode respuestas = cuerpo(lote(List.of(
+                get("producto", "/api/productos/" + cuaderno.getId()),
+                get("categorias", "/api/categorias"),
+                get("inexistente", "/api/productos/999999")), user("admin").roles("ADMIN")));
+
+        assertEquals(3, respuestas.size());
+        assertEquals("producto", respuestas.get(0).path("id").asText());
+        assertEquals(200, respuestas.get(0).path("estado").asInt());
+        assertEquals("Cuaderno Lote", respuestas.get(0).path("cuerpo").path("nombre").asText());
+        assertTrue(respuestas.get(0).path("encabezados").path("Content-Type").asText().contains("json"));
+        assertEquals("categorias", respuestas.get(1).path("id").asText());
+        assertEquals(200, respuestas.get(1).path("estado").asInt());
+        assertEquals(404, respuestas.get(2).path("estado").asInt());
+    }
+
+    @Test
+    void losParametrosDeConsultaLleganALaSubSolicitud() throws Exception {
+        JsonNode respuestas = cuerpo(lote(List.of(
+                get("campos", "/api/productos/" + cuaderno.getId() + "?fields=nombre")), user("admin").roles("ADMIN")));
+
+        JsonNode producto = respuestas.get(0).path("cuerpo");
+        assertEquals(200, respuestas.get(0).path("estado").asInt());
+        assertEquals("Cuaderno Lote", producto.path("nombre").asText());
+        assertTrue(producto.path("precio").isMissingNode());
+    }
+
+    @Test
+    void soloSeAdmitenGetYRutasDeLaApi() throws Exception {
+        JsonNode respuestas = cuerpo(lote(List.of(
+                SolicitudLote.builder().id("borrar").metodo("DELETE").ruta("/api/productos/1").build(),
+                get("anidado", "/api/batch"),
+                get("externo", "/actuator/health"),
+                get("recorrido", "/api/../actuator/health")), user("admin").roles("ADMIN")));
+
+        assertEquals(405, respuestas.get(0).path("estado").asInt());
+        assertEquals(400, respuestas.get(1).path("estado").asInt());
+        assertEquals(400, respuestas.get(2).path("estado").asInt());
+        assertEquals(400, respuestas.get(3).path("estado").asInt());
+    }
+
+    @Test
+    void cadaSubSolicitudSeAutorizaConElUsuarioDelLote() throws Exception {
+        JsonNode respuestas = cuerpo(lote(List.of(
+                get("clientes", "/api/clientes"),
+                get("productos", "/api/productos/" + cuaderno.getId())), user("cliente").roles("CLIENTE")));
+
+        assertEquals(403, respuestas.get(0).path("estado").asInt());
+        assertEquals(200, respuestas.get(1).path("estado").asInt());
+    }
+
+    @Test
+    void unLoteSinAutenticacionEsRechazado() throws Exception {
+        MvcResult resultado = mockMvc.perform(post("/api/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(get("categorias", "/api/categorias")))))
+                .andReturn();
+
+        assertEquals(401, resultado.getResponse().getStatus());
+    }
+
+    @Test
+    void unLoteVacioOMasGrandeQueElMaximoDevuelve400() throws Exception {
+        List<SolicitudLote> demasiadas = IntStream.rangeClosed(1, 21)
+                .mapToObj(i -> get("s" + i, "/api/categorias"))
+                .toList();
+
+        MvcResult vacio = lote(List.of(), user("admin").roles("ADMIN"));
+        MvcResult grande = lote(demasiadas, user("admin").roles("ADMIN"));
+
+        assertEquals(400, vacio.getResponse().getStatus());
+        assertEquals(400, grande.getResponse().getStatus());
+        assertTrue(objectMapper.readTree(grande.getResponse().getContentAsString(StandardCharsets.UTF_8))
+                .path("error").asText().startsWith("Un lote admite como máximo 20 solicitudes"));
+    }
+}
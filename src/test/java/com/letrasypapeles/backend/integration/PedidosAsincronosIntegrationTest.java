@@ -0,0 +1,229 @@
+package com.letrasypapeles.backend.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.letrasypapeles.backend.dto.LineaPedidoRequest;
+import com.letrasypapeles.backend.dto.PedidoRequest;
+import com.letrasypapeles.backend.entity.Cliente;
+import com.letrasypapeles.backend.entity.Inventario;
+import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.entity.Sucursal;
+import com.letrasypapeles.backend.repository.ClienteRepository;
+import com.letrasypapeles.backend.repository.InventarioRepository;
+import com.letrasypapeles.backend.repository.MovimientoPuntosRepository;
+import com.letrasypapeles.backend.repository.NotificacionRepository;
+import com.letrasypapeles.backend.repository.PedidoRepository;
+import com.letrasypapeles.backend.repository.ProductoRepository;
+import com.letrasypapeles.backend.repository.SucursalRepository;
+import com.letrasypapeles.backend.repository.SurtidoPedidoRepository;
+import com.letrasypapeles.backend.service.FlujoPedidosService;
+import com.letrasypapeles.backend.service.PedidoService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Sin @Transactional: el pedido debe confirmarse para que el procesador lo encole y lo vea.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PedidosAsincronosIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private NotificacionRepository notificacionRepository;
+
+    @Autowired
+    private MovimientoPuntosRepository movimientoRepository;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private SucursalRepository sucursalRepository;
+
+    @Autowired
+    private SurtidoPedidoRepository surtidoPedidoRepository;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private FlujoPedidosService flujoPedidosService;
+
+    private Cliente cliente;
+    private Producto producto;
+    private Sucursal sucursal;
+
+    @BeforeEach
+    void setUp() {
+        cliente = clienteRepository.save(Cliente.builder()
+                .nombre("Eva")
+                .apellido("Asincrona")
+                .email("eva.asincrona@example.com")
+                .puntosFidelidad(0)
+                .build());
+        producto = productoRepository.save(Producto.builder()
+                .nombre("Cuaderno Universitario")
+                .precio(new BigDecimal("50.00"))
+                .stock(5)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (sucursal != null) {
+            inventarioRepository.deleteAll(inventarioRepository.findBySucursalId(sucursal.getId()));
+            sucursalRepository.deleteById(sucursal.getId());
+        }
+        pedidoRepository.findByClienteId(cliente.getId()).forEach(pedido -> surtidoPedidoRepository.deleteAll(
+                surtidoPedidoRepository.findByPedidoIdOrderByProductoIdAscSucursalIdAsc(pedido.getId())));
+        pedidoRepository.deleteAll(pedidoRepository.findByClienteId(cliente.getId()));
+        notificacionRepository.deleteAll(notificacionRepository.findByClienteId(cliente.getId()));
+        movimientoRepository.deleteAll(movimientoRepository.findByClienteIdOrderByIdDesc(cliente.getId()));
+        productoRepository.deleteById(producto.getId());
+        clienteRepository.deleteById(cliente.getId());
+    }
+
+    private Long crearPedido(int cantidad) throws Exception {
+        MvcResult resultado = mockMvc.perform(post("/api/pedidos/crear")
+                        .with(user("admin@example.com").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"clienteId\":" + cliente.getId() + ",\"lineas\":[{\"productoId\":" +
+                                 producto.getId() + ",\"cantidad\":" + cantidad + "}]}"))
+                .andReturn();
+
+        assertEquals(202, resultado.getResponse().getStatus());
+        JsonNode cuerpo = objectMapper.readTree(resultado.getResponse().getContentAsString());
+        assertEquals("PENDIENTE", cuerpo.get("estado").asText());
+        return cuerpo.get("id").asLong();
+    }
+
+    private String esperarEstadoFinal(Long pedidoId) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < limite) {
+            String estado = pedidoRepository.findById(pedidoId).orElseThrow().getEstado();
+            if (!"PENDIENTE".equals(estado) && !"CONFIRMADO".equals(estado)) {
+                return estado;
+            }
+            Thread.sleep(50);
+        }
+        return pedidoRepository.findById(pedidoId).orElseThrow().getEstado();
+    }
+
+    @Test
+    void pedidoAceptadoSeCompletaEnSegundoPlano() throws Exception {
+        Long pedidoId = crearPedido(3);
+
+        assertEquals("COMPLETADO", esperarEstadoFinal(pedidoId));
+        assertEquals(2, productoRepository.findById(producto.getId()).orElseThrow().getStock());
+        assertEquals(1, movimientoRepository.findByClienteIdOrderByIdDesc(cliente.getId()).size());
+        assertEquals("PEDIDO " + pedidoId,
+                movimientoRepository.findByClienteIdOrderByIdDesc(cliente.getId()).get(0).getMotivo());
+        assertEquals(1, notificacionRepository.findByClienteId(cliente.getId()).size());
+    }
+
+    @Test
+    void pedidoSinStockSuficienteSeRechaza() throws Exception {
+        Long primero = crearPedido(3);
+        assertEquals("COMPLETADO", esperarEstadoFinal(primero));
+
+        Long segundo = crearPedido(3);
+
+        assertEquals("RECHAZADO", esperarEstadoFinal(segundo));
+        assertEquals(2, productoRepository.findById(producto.getId()).orElseThrow().getStock());
+        assertEquals(1, notificacionRepository.findByClienteId(cliente.getId()).size());
+    }
+
+    @Test
+    void actualizarPedidoCompletadoNoLoDevuelveAPendiente() throws Exception {
+        Long pedidoId = crearPedido(3);
+        assertEquals("COMPLETADO", esperarEstadoFinal(pedidoId));
+        String lineas = "\"cliente\":{\"id\":" + cliente.getId() + "},\"lineas\":[{\"producto\":{\"id\":" +
+                        producto.getId() + "},\"cantidad\":3}]";
+
+        MvcResult sinEstado = mockMvc.perform(put("/api/pedidos/" + pedidoId)
+                        .with(user("admin@example.com").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{" + lineas + ",\"region\":\"Maule\"}"))
+                .andReturn();
+        assertEquals(200, sinEstado.getResponse().getStatus());
+        assertEquals("COMPLETADO", pedidoRepository.findById(pedidoId).orElseThrow().getEstado());
+
+        MvcResult retroceso = mockMvc.perform(put("/api/pedidos/" + pedidoId)
+                        .with(user("admin@example.com").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{" + lineas + ",\"estado\":\"PENDIENTE\"}"))
+                .andReturn();
+        assertEquals(400, retroceso.getResponse().getStatus());
+
+        Thread.sleep(300);
+        assertEquals("COMPLETADO", pedidoRepository.findById(pedidoId).orElseThrow().getEstado());
+        assertEquals(2, productoRepository.findById(producto.getId()).orElseThrow().getStock());
+        assertEquals(1, movimientoRepository.findByClienteIdOrderByIdDesc(cliente.getId()).size());
+    }
+
+    @Test
+    void cancelarPedidoConfirmadoDevuelveElStock() throws Exception {
+        // Sin encolar: el pedido se confirma aquí y se cancela antes de completarse
+        sucursal = sucursalRepository.save(Sucursal.builder().nombre("Sucursal Cancelación").region("Maule").build());
+        Inventario inventario = inventarioRepository.save(Inventario.builder()
+                .producto(producto).sucursal(sucursal).cantidad(5).umbral(0).build());
+        Long pedidoId = pedidoService.crearDesdePedidoRequest(PedidoRequest.builder()
+                .clienteId(cliente.getId())
+                .lineas(List.of(LineaPedidoRequest.builder().productoId(producto.getId()).cantidad(3).build()))
+                .build()).getId();
+        assertEquals(0, flujoPedidosService.reservarStock(List.of(pedidoId)));
+        assertEquals("CONFIRMADO", pedidoRepository.findById(pedidoId).orElseThrow().getEstado());
+        assertEquals(2, inventarioRepository.findById(inventario.getId()).orElseThrow().getCantidad());
+
+        MvcResult completar = mockMvc.perform(put("/api/pedidos/" + pedidoId)
+                        .with(user("admin@example.com").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"estado\":\"COMPLETADO\"}"))
+                .andReturn();
+        assertEquals(400, completar.getResponse().getStatus());
+
+        MvcResult cancelar = mockMvc.perform(put("/api/pedidos/" + pedidoId)
+                        .with(user("admin@example.com").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"estado\":\"CANCELADO\"}"))
+                .andReturn();
+
+        assertEquals(200, cancelar.getResponse().getStatus());
+        assertEquals("CANCELADO", pedidoRepository.findById(pedidoId).orElseThrow().getEstado());
+        assertEquals(5, productoRepository.findById(producto.getId()).orElseThrow().getStock());
+        assertEquals(5, inventarioRepository.findById(inventario.getId()).orElseThrow().getCantidad());
+        assertTrue(movimientoRepository.findByClienteIdOrderByIdDesc(cliente.getId()).isEmpty());
+    }
+}
@@ -0,0 +1,160 @@
+package com.letrasypapeles.backend.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.letrasypapeles.backend.entity.Categoria;
+import com.letrasypapeles.backend.entity.Cliente;
+import com.letrasypapeles.backend.entity.Notificacion;
+import com.letrasypapeles.backend.entity.Pedido;
+import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.entity.Reserva;
+import com.letrasypapeles.backend.repository.CategoriaRepository;
+import com.letrasypapeles.backend.repository.ClienteRepository;
+import com.letrasypapeles.backend.repository.NotificacionRepository;
+import com.letrasypapeles.backend.repository.PedidoRepository;
+import com.letrasypapeles.backend.repository.ProductoRepository;
+import com.letrasypapeles.backend.repository.ReservaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class ReferenciasAsociacionesIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private NotificacionRepository notificacionRepository;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    private Cliente ana;
+    private Cliente beto;
+    private Pedido pedido;
+
+    @BeforeEach
+    void setUp() {
+        ana = clienteRepository.save(Cliente.builder()
+                .nombre("Ana").apellido("Referencia").email("ana.referencia@example.com").puntosFidelidad(0).build());
+        beto = clienteRepository.save(Cliente.builder()
+                .nombre("Beto").apellido("Referencia").email("beto.referencia@example.com").puntosFidelidad(0).build());
+        Categoria categoria = categoriaRepository.save(Categoria.builder().nombre("Adhesivos").build());
+        Producto producto = productoRepository.save(Producto.builder()
+                .nombre("Pegamento en barra").precio(new BigDecimal("1290")).stock(50).categoria(categoria).build());
+
+        for (Cliente cliente : List.of(ana, ana, beto, beto)) {
+            reservaRepository.save(Reserva.builder()
+                    .cliente(cliente).producto(producto).cantidad(1).estado("PENDIENTE")
+                    .fechaReserva(LocalDateTime.now()).build());
+            notificacionRepository.save(Notificacion.builder()
+                    .cliente(cliente).mensaje("Aviso para " + cliente.getNombre()).fecha(LocalDateTime.now()).build());
+        }
+        pedido = pedidoRepository.save(Pedido.builder()
+                .cliente(ana).estado("PENDIENTE").fecha(LocalDateTime.now())
+                .listaProductos(new ArrayList<>(List.of(producto))).total(new BigDecimal("1290")).build());
+    }
+
+    private JsonNode obtener(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult resultado = mockMvc.perform(request.with(user("admin").roles("ADMIN"))).andReturn();
+        assertEquals(200, resultado.getResponse().getStatus());
+        return objectMapper.readTree(resultado.getResponse().getContentAsString());
+    }
+
+    @Test
+    void conRefsIdLasAsociacionesVanSoloConSuId() throws Exception {
+        JsonNode reservas = obtener(get("/api/reservas").param("refs", "id")).path("_embedded").path("reservaList");
+
+        assertTrue(reservas.size() >= 4);
+        reservas.forEach(reserva -> {
+            assertEquals(1, reserva.path("cliente").size());
+            assertTrue(reserva.path("cliente").path("id").isNumber());
+            assertEquals(1, reserva.path("producto").size());
+            assertTrue(reserva.path("_links").has("self"));
+        });
+    }
+
+    @Test
+    void sinRefsLasAsociacionesVanCompletas() throws Exception {
+        JsonNode notificaciones = obtener(get("/api/notificaciones/cliente/" + ana.getId()));
+
+        assertEquals(2, notificaciones.size());
+        assertEquals("Ana", notificaciones.get(0).path("cliente").path("nombre").asText());
+    }
+
+    @Test
+    void lasColeccionesAsociadasVanComoIdsYLasLineasSiguenCompletas() throws Exception {
+        JsonNode cuerpo = obtener(get("/api/pedidos/" + pedido.getId()).param("refs", "id"));
+
+        assertEquals(ana.getId().longValue(), cuerpo.path("cliente").path("id").asLong());
+        assertFalse(cuerpo.path("cliente").has("nombre"));
+        assertEquals(1, cuerpo.path("listaProductos").size());
+        assertEquals(1, cuerpo.path("listaProductos").get(0).size());
+    }
+
+    @Test
+    void includeCargaCadaReferenciaUnaSolaVez() throws Exception {
+        JsonNode cuerpo = obtener(get("/api/notificaciones").param("refs", "id").param("include", "cliente,mensaje"));
+
+        JsonNode notificaciones = cuerpo.path("content");
+        assertTrue(notificaciones.size() >= 4);
+        notificaciones.forEach(notificacion -> assertFalse(notificacion.path("cliente").has("nombre")));
+
+        JsonNode incluidos = cuerpo.path("incluidos");
+        assertFalse(incluidos.has("mensaje"));
+        Set<Long> ids = new HashSet<>();
+        incluidos.path("cliente").forEach(cliente -> {
+            assertTrue(ids.add(cliente.path("id").asLong()));
+            assertTrue(cliente.has("nombre"));
+        });
+        assertTrue(ids.containsAll(List.of(ana.getId(), beto.getId())));
+    }
+
+    @Test
+    void lasEntidadesIncluidasTambienLlevanReferencias() throws Exception {
+        JsonNode cuerpo = obtener(get("/api/reservas/cliente/" + beto.getId())
+                .param("refs", "id").param("include", "producto"));
+
+        JsonNode productos = cuerpo.path("incluidos").path("producto");
+        assertEquals(1, productos.size());
+        assertEquals("Pegamento en barra", productos.get(0).path("nombre").asText());
+        assertEquals(1, productos.get(0).path("categoria").size());
+    }
+}
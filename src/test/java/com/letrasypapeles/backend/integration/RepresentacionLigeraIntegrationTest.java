@@ -0,0 +1,128 @@
+package com.letrasypapeles.backend.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.letrasypapeles.backend.entity.Cliente;
+import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.entity.Reserva;
+import com.letrasypapeles.backend.repository.ClienteRepository;
+import com.letrasypapeles.backend.repository.ProductoRepository;
+import com.letrasypapeles.backend.repository.ReservaRepository;
+import com.letrasypapeles.backend.web.RepresentacionLigera;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class RepresentacionLigeraIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @BeforeEach
+    void setUp() {
+        Cliente cliente = clienteRepository.save(Cliente.builder()
+                .nombre("Lorena")
+                .apellido("Ligera")
+                .email("lorena.ligera@example.com")
+                .puntosFidelidad(0)
+                .build());
+        Producto producto = productoRepository.save(Producto.builder()
+                .nombre("Block de notas")
+                .precio(new BigDecimal("1990"))
+                .stock(10)
+                .build());
+        reservaRepository.save(Reserva.builder()
+                .cliente(cliente)
+                .producto(producto)
+                .cantidad(1)
+                .estado("PENDIENTE")
+                .fechaReserva(LocalDateTime.now())
+                .build());
+    }
+
+    private JsonNode obtener(MockHttpServletRequestBuilder request, String tipoEsperado) throws Exception {
+        MvcResult resultado = mockMvc.perform(request.with(user("admin").roles("ADMIN"))).andReturn();
+        assertEquals(200, resultado.getResponse().getStatus());
+        assertTrue(MediaType.parseMediaType(tipoEsperado)
+                .isCompatibleWith(MediaType.parseMediaType(resultado.getResponse().getContentType())));
+        return objectMapper.readTree(resultado.getResponse().getContentAsString());
+    }
+
+    @Test
+    void porDefectoCadaProductoLlevaSusEnlaces() throws Exception {
+        JsonNode cuerpo = obtener(get("/api/productos"), MediaTypes.HAL_JSON_VALUE);
+
+        JsonNode productos = cuerpo.path("_embedded").path("productoList");
+        assertTrue(productos.size() > 0);
+        productos.forEach(producto -> assertTrue(producto.has("_links")));
+        assertTrue(cuerpo.path("_links").has("self"));
+    }
+
+    @Test
+    void conLinksNoneLosProductosVanSinEnlaces() throws Exception {
+        JsonNode cuerpo = obtener(get("/api/productos").param("links", "none"), MediaTypes.HAL_JSON_VALUE);
+
+        JsonNode productos = cuerpo.path("_embedded").path("productoList");
+        assertTrue(productos.size() > 0);
+        productos.forEach(producto -> {
+            assertFalse(producto.has("_links"));
+            assertTrue(producto.has("nombre"));
+        });
+        assertTrue(cuerpo.path("_links").path("self").path("href").asText().endsWith("/api/productos"));
+    }
+
+    @Test
+    void conElTipoLigeroLasReservasVanComoArregloPlano() throws Exception {
+        JsonNode cuerpo = obtener(get("/api/reservas").accept(RepresentacionLigera.TIPO), RepresentacionLigera.TIPO);
+
+        JsonNode reservas = cuerpo.path("content");
+        assertTrue(reservas.isArray() && reservas.size() > 0);
+        reservas.forEach(reserva -> {
+            assertFalse(reserva.has("_links"));
+            assertFalse(reserva.has("links"));
+        });
+        assertEquals(1, cuerpo.path("links").size());
+        assertEquals("self", cuerpo.path("links").get(0).path("rel").asText());
+    }
+
+    @Test
+    void halExplicitoSigueUsandoLaRepresentacionCompleta() throws Exception {
+        JsonNode cuerpo = obtener(get("/api/reservas").accept(MediaTypes.HAL_JSON), MediaTypes.HAL_JSON_VALUE);
+
+        JsonNode reservas = cuerpo.path("_embedded").path("reservaList");
+        assertTrue(reservas.size() > 0);
+        reservas.forEach(reserva -> assertTrue(reserva.path("_links").has("self")));
+    }
+}
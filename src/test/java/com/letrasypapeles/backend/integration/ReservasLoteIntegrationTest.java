@@ -0,0 +1,86 @@
+package com.letrasypapeles.backend.integration;
+
+import com.letrasypapeles.backend.dto.ResultadoReservaLote;
+import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.entity.Reserva;
+import com.letrasypapeles.backend.repository.ProductoRepository;
+import com.letrasypapeles.backend.repository.ReservaRepository;
+import com.letrasypapeles.backend.service.ReservaService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class ReservasLoteIntegrationTest {
+
+    @Autowired
+    private ReservaService reservaService;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    private Producto producto;
+
+    @BeforeEach
+    void setUp() {
+        producto = productoRepository.save(Producto.builder()
+                .nombre("Lápiz Grafito")
+                .precio(new BigDecimal("490"))
+                .stock(10)
+                .build());
+    }
+
+    private Reserva pendiente(int cantidad) {
+        return reservaRepository.save(Reserva.builder()
+                .producto(producto)
+                .cantidad(cantidad)
+                .estado("PENDIENTE")
+                .fechaReserva(LocalDateTime.now())
+                .build());
+    }
+
+    @Test
+    void confirmarLoteAplicaEstadosSinVolverADescontarStock() {
+        // El stock de estas reservas se descontó al crearlas, igual que al confirmarlas de a una
+        Reserva primera = pendiente(4);
+        Reserva segunda = pendiente(5);
+        Reserva tercera = pendiente(3);
+
+        List<ResultadoReservaLote> resultados = reservaService.confirmarLote(
+                Arrays.asList(primera.getId(), segunda.getId(), tercera.getId()));
+
+        assertTrue(resultados.stream().allMatch(ResultadoReservaLote::isExito));
+        assertEquals(10, productoRepository.findStockPorIds(List.of(producto.getId())).get(0)[1]);
+        assertEquals(3, reservaRepository.findFechasPorEstado("CONFIRMADA").stream()
+                .filter(fila -> fila[0].equals(primera.getId()) || fila[0].equals(segunda.getId()) ||
+                                fila[0].equals(tercera.getId()))
+                .count());
+    }
+
+    @Test
+    void cancelarLoteRestauraStock() {
+        Reserva primera = pendiente(2);
+        Reserva segunda = pendiente(3);
+
+        List<ResultadoReservaLote> resultados = reservaService.cancelarLote(
+                Arrays.asList(primera.getId(), segunda.getId()));
+
+        assertTrue(resultados.stream().allMatch(ResultadoReservaLote::isExito));
+        assertEquals(15, productoRepository.findStockPorIds(List.of(producto.getId())).get(0)[1]);
+    }
+}
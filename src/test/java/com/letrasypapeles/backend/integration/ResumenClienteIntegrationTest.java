@@ -0,0 +1,111 @@
+package com.letrasypapeles.backend.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.letrasypapeles.backend.entity.Cliente;
+import com.letrasypapeles.backend.entity.Notificacion;
+import com.letrasypapeles.backend.repository.ClienteRepository;
+import com.letrasypapeles.backend.repository.MovimientoPuntosRepository;
+import com.letrasypapeles.backend.repository.NotificacionRepository;
+import com.letrasypapeles.backend.service.ClienteService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+// Sin @Transactional: las consultas del resumen corren en otros hilos y solo ven datos confirmados
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ResumenClienteIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private NotificacionRepository notificacionRepository;
+
+    @Autowired
+    private MovimientoPuntosRepository movimientoRepository;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    private Cliente cliente;
+    private Notificacion notificacion;
+
+    @BeforeEach
+    void setUp() {
+        cliente = clienteRepository.save(Cliente.builder()
+                .nombre("Rosa").apellido("Resumen").email("rosa.resumen@example.com").puntosFidelidad(75).build());
+        notificacion = notificacionRepository.save(Notificacion.builder()
+                .cliente(cliente).mensaje("Tu pedido está en camino").fecha(LocalDateTime.now()).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificacionRepository.deleteById(notificacion.getId());
+        movimientoRepository.deleteAll(movimientoRepository.findByClienteIdOrderByIdDesc(cliente.getId()));
+        clienteRepository.deleteById(cliente.getId());
+    }
+
+    @Test
+    void elResumenReuneLasSeccionesDelCliente() throws Exception {
+        MvcResult resultado = mockMvc.perform(get("/api/clientes/" + cliente.getId() + "/resumen")
+                        .with(user("admin").roles("ADMIN")))
+                .andReturn();
+
+        assertEquals(200, resultado.getResponse().getStatus());
+        JsonNode resumen = objectMapper.readTree(resultado.getResponse().getContentAsString(StandardCharsets.UTF_8));
+        assertEquals(cliente.getId().longValue(), resumen.path("clienteId").asLong());
+        assertEquals(75, resumen.path("puntosFidelidad").asInt());
+        assertEquals(0, resumen.path("pedidos").size());
+        assertEquals(0, resumen.path("reservas").size());
+        assertEquals("Tu pedido está en camino", resumen.path("notificaciones").get(0).path("mensaje").asText());
+        assertEquals(0, resumen.path("incompletos").size());
+    }
+
+    @Test
+    void losPuntosSonElMismoSaldoQueElEndpointDePuntos() throws Exception {
+        clienteService.actualizarPuntosFidelidadDirecto(cliente.getId(), 30, "PRUEBA RESUMEN");
+
+        MvcResult resumen = mockMvc.perform(get("/api/clientes/" + cliente.getId() + "/resumen")
+                        .with(user("admin").roles("ADMIN")))
+                .andReturn();
+        MvcResult saldo = mockMvc.perform(get("/api/clientes/" + cliente.getId() + "/puntos")
+                        .with(user("admin").roles("ADMIN")))
+                .andReturn();
+
+        long esperado = objectMapper.readTree(saldo.getResponse().getContentAsString()).path("saldo").asLong();
+        assertEquals(105L, esperado);
+        assertEquals(esperado, objectMapper.readTree(resumen.getResponse().getContentAsString(StandardCharsets.UTF_8))
+                .path("puntosFidelidad").asLong());
+    }
+
+    @Test
+    void unClienteInexistenteDevuelve404() throws Exception {
+        MvcResult resultado = mockMvc.perform(get("/api/clientes/999999/resumen")
+                        .with(user("admin").roles("ADMIN")))
+                .andReturn();
+
+        assertEquals(404, resultado.getResponse().getStatus());
+    }
+}
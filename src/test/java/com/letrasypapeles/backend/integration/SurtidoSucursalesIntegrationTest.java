@@ -0,0 +1,259 @@
+package com.letrasypapeles.backend.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.letrasypapeles.backend.entity.Cliente;
+import com.letrasypapeles.backend.entity.Inventario;
+import com.letrasypapeles.backend.entity.Pedido;
+import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.entity.Sucursal;
+import com.letrasypapeles.backend.repository.ClienteRepository;
+import com.letrasypapeles.backend.repository.InventarioRepository;
+import com.letrasypapeles.backend.repository.MovimientoPuntosRepository;
+import com.letrasypapeles.backend.repository.NotificacionRepository;
+import com.letrasypapeles.backend.repository.PedidoRepository;
+import com.letrasypapeles.backend.repository.ProductoRepository;
+import com.letrasypapeles.backend.repository.ReservaRepository;
+import com.letrasypapeles.backend.repository.SucursalRepository;
+import com.letrasypapeles.backend.repository.SurtidoPedidoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Sin @Transactional: el índice de disponibilidad se actualiza al confirmarse cada escritura.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SurtidoSucursalesIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private SucursalRepository sucursalRepository;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private SurtidoPedidoRepository surtidoPedidoRepository;
+
+    @Autowired
+    private ReservaRepository reservaRepository;
+
+    @Autowired
+    private NotificacionRepository notificacionRepository;
+
+    @Autowired
+    private MovimientoPuntosRepository movimientoRepository;
+
+    private Cliente cliente;
+    private Producto producto;
+    private Sucursal sur;
+    private Sucursal norte;
+    private Inventario inventarioSur;
+    private Inventario inventarioNorte;
+
+    @BeforeEach
+    void setUp() {
+        cliente = clienteRepository.save(Cliente.builder()
+                .nombre("Sara")
+                .apellido("Surtido")
+                .email("sara.surtido@example.com")
+                .puntosFidelidad(0)
+                .build());
+        producto = productoRepository.save(Producto.builder()
+                .nombre("Resma Carta")
+                .precio(new BigDecimal("30.00"))
+                .stock(7)
+                .build());
+        sur = sucursalRepository.save(Sucursal.builder().nombre("Sucursal Sur Surtido").region("Sur Surtido").build());
+        norte = sucursalRepository.save(Sucursal.builder().nombre("Sucursal Norte Surtido").region("Norte Surtido").build());
+        inventarioSur = inventarioRepository.save(Inventario.builder()
+                .producto(producto).sucursal(sur).cantidad(3).umbral(0).build());
+        inventarioNorte = inventarioRepository.save(Inventario.builder()
+                .producto(producto).sucursal(norte).cantidad(4).umbral(0).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (Pedido pedido : pedidoRepository.findByClienteId(cliente.getId())) {
+            surtidoPedidoRepository.deleteAll(surtidoPedidoRepository.findByPedidoIdOrderByProductoIdAscSucursalIdAsc(pedido.getId()));
+            pedidoRepository.delete(pedido);
+        }
+        reservaRepository.deleteAll(reservaRepository.findByClienteId(cliente.getId()));
+        notificacionRepository.deleteAll(notificacionRepository.findByClienteId(cliente.getId()));
+        movimientoRepository.deleteAll(movimientoRepository.findByClienteIdOrderByIdDesc(cliente.getId()));
+        inventarioRepository.deleteAll(inventarioRepository.findByProductoId(producto.getId()));
+        sucursalRepository.deleteAll(List.of(sur, norte));
+        productoRepository.deleteById(producto.getId());
+        clienteRepository.deleteById(cliente.getId());
+    }
+
+    private Long crearPedido(int cantidad, String region) throws Exception {
+        MvcResult resultado = mockMvc.perform(post("/api/pedidos/crear")
+                        .with(user("admin@example.com").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"clienteId\":" + cliente.getId() +
+                                 (region != null ? ",\"region\":\"" + region + "\"" : "") +
+                                 ",\"lineas\":[{\"productoId\":" + producto.getId() + ",\"cantidad\":" + cantidad + "}]}"))
+                .andReturn();
+
+        assertEquals(202, resultado.getResponse().getStatus());
+        return objectMapper.readTree(resultado.getResponse().getContentAsString()).get("id").asLong();
+    }
+
+    private String esperarEstadoFinal(Long pedidoId) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < limite) {
+            String estado = pedidoRepository.findById(pedidoId).orElseThrow().getEstado();
+            if (!"PENDIENTE".equals(estado) && !"CONFIRMADO".equals(estado)) {
+                return estado;
+            }
+            Thread.sleep(50);
+        }
+        return pedidoRepository.findById(pedidoId).orElseThrow().getEstado();
+    }
+
+    private JsonNode surtido(Long pedidoId) throws Exception {
+        MvcResult resultado = mockMvc.perform(get("/api/pedidos/" + pedidoId + "/surtido")
+                        .with(user("admin@example.com").roles("ADMIN")))
+                .andReturn();
+        assertEquals(200, resultado.getResponse().getStatus());
+        return objectMapper.readTree(resultado.getResponse().getContentAsString());
+    }
+
+    private int cantidad(Inventario inventario) {
+        return inventarioRepository.findById(inventario.getId()).orElseThrow().getCantidad();
+    }
+
+    @Test
+    void pedidoSeSurteDesdeLaRegionPreferida() throws Exception {
+        Long pedidoId = crearPedido(3, "norte surtido");
+
+        assertEquals("COMPLETADO", esperarEstadoFinal(pedidoId));
+        JsonNode filas = surtido(pedidoId);
+        assertEquals(1, filas.size());
+        assertEquals(norte.getId(), filas.get(0).get("sucursalId").asLong());
+        assertEquals(3, filas.get(0).get("cantidad").asInt());
+        assertEquals(3, cantidad(inventarioSur));
+        assertEquals(1, cantidad(inventarioNorte));
+    }
+
+    @Test
+    void pedidoSinSucursalSuficienteSeDivide() throws Exception {
+        Long pedidoId = crearPedido(6, null);
+
+        assertEquals("COMPLETADO", esperarEstadoFinal(pedidoId));
+        JsonNode filas = surtido(pedidoId);
+        assertEquals(2, filas.size());
+        int total = filas.get(0).get("cantidad").asInt() + filas.get(1).get("cantidad").asInt();
+        assertEquals(6, total);
+        assertEquals(1, cantidad(inventarioSur) + cantidad(inventarioNorte));
+        assertEquals(1, productoRepository.findById(producto.getId()).orElseThrow().getStock());
+    }
+
+    private int disponible(Inventario inventario) {
+        return inventarioRepository.findDisponible(producto.getId(), inventario.getSucursal().getId()).orElseThrow();
+    }
+
+    private MvcResult reservar(int cantidad, String region) throws Exception {
+        return mockMvc.perform(post("/api/reservas")
+                        .with(user("admin@example.com").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"clienteId\":" + cliente.getId() + ",\"productoId\":" + producto.getId() +
+                                 ",\"cantidad\":" + cantidad + (region != null ? ",\"region\":\"" + region + "\"" : "") + "}"))
+                .andReturn();
+    }
+
+    @Test
+    void reservaApartaYDevuelveStockDeSuSucursal() throws Exception {
+        MvcResult creada = reservar(2, "Norte Surtido");
+        assertEquals(200, creada.getResponse().getStatus());
+        JsonNode reserva = objectMapper.readTree(creada.getResponse().getContentAsString());
+        assertEquals(norte.getId(), reserva.get("sucursal").get("id").asLong());
+        assertEquals(2, reserva.get("cantidadApartada").asInt());
+        assertEquals(4, cantidad(inventarioNorte));
+        assertEquals(2, disponible(inventarioNorte));
+        assertEquals(5, productoRepository.findById(producto.getId()).orElseThrow().getStock());
+
+        MvcResult cancelada = mockMvc.perform(put("/api/reservas/" + reserva.get("id").asLong() + "/cancelar")
+                        .with(user("admin@example.com").roles("ADMIN")))
+                .andReturn();
+
+        assertEquals(200, cancelada.getResponse().getStatus());
+        assertEquals(4, cantidad(inventarioNorte));
+        assertEquals(4, disponible(inventarioNorte));
+        assertEquals(3, cantidad(inventarioSur));
+        assertEquals(7, productoRepository.findById(producto.getId()).orElseThrow().getStock());
+    }
+
+    @Test
+    void confirmarReservaDescuentaLoApartadoDeLaSucursal() throws Exception {
+        JsonNode reserva = objectMapper.readTree(reservar(3, "Sur Surtido").getResponse().getContentAsString());
+        assertEquals(sur.getId(), reserva.get("sucursal").get("id").asLong());
+
+        MvcResult confirmada = mockMvc.perform(put("/api/reservas/" + reserva.get("id").asLong() + "/confirmar")
+                        .with(user("admin@example.com").roles("ADMIN")))
+                .andReturn();
+
+        assertEquals(200, confirmada.getResponse().getStatus());
+        Inventario actualizado = inventarioRepository.findById(inventarioSur.getId()).orElseThrow();
+        assertEquals(0, actualizado.getCantidad());
+        assertEquals(0, actualizado.getReservado());
+        assertEquals(4, productoRepository.findById(producto.getId()).orElseThrow().getStock());
+        assertEquals(0, reservaRepository.findById(reserva.get("id").asLong()).orElseThrow().getCantidadApartada());
+    }
+
+    @Test
+    void lasReservasNoPuedenApartarMasDeLoDisponible() throws Exception {
+        assertEquals(200, reservar(4, null).getResponse().getStatus());
+        assertEquals(200, reservar(3, null).getResponse().getStatus());
+
+        // Ya no queda nada disponible, aunque las unidades físicas siguen en las sucursales
+        MvcResult rechazada = reservar(1, null);
+
+        assertEquals(400, rechazada.getResponse().getStatus());
+        assertEquals(0, disponible(inventarioSur) + disponible(inventarioNorte));
+        assertEquals(7, cantidad(inventarioSur) + cantidad(inventarioNorte));
+        assertEquals(0, productoRepository.findById(producto.getId()).orElseThrow().getStock());
+
+        MvcResult disponibilidad = mockMvc.perform(get("/api/inventarios/disponible")
+                        .param("productoId", producto.getId().toString())
+                        .param("sucursalId", norte.getId().toString())
+                        .with(user("admin@example.com").roles("ADMIN")))
+                .andReturn();
+        assertEquals(200, disponibilidad.getResponse().getStatus());
+        assertEquals(0, objectMapper.readTree(disponibilidad.getResponse().getContentAsString()).get("cantidad").asInt());
+    }
+}
@@ -0,0 +1,103 @@
+package com.letrasypapeles.backend.integration;
+
+import com.letrasypapeles.backend.dto.TransferenciaRequest;
+import com.letrasypapeles.backend.entity.Inventario;
+import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.entity.Sucursal;
+import com.letrasypapeles.backend.repository.InventarioRepository;
+import com.letrasypapeles.backend.repository.ProductoRepository;
+import com.letrasypapeles.backend.repository.SucursalRepository;
+import com.letrasypapeles.backend.service.TransferenciaInventarioService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Transferencias simultáneas hacia una sucursal sin inventario del producto.
+ * Sin @Transactional: cada transferencia confirma su propia transacción.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TransferenciaInventarioIntegrationTest {
+
+    private static final int TRANSFERENCIAS = 4;
+
+    @Autowired
+    private TransferenciaInventarioService transferenciaService;
+
+    @Autowired
+    private InventarioRepository inventarioRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private SucursalRepository sucursalRepository;
+
+    private Producto producto;
+    private Sucursal origen;
+    private Sucursal destino;
+
+    @BeforeEach
+    void setUp() {
+        producto = productoRepository.save(Producto.builder()
+                .nombre("Carpeta Transferencia").precio(new BigDecimal("1990")).stock(100).build());
+        origen = sucursalRepository.save(Sucursal.builder().nombre("Sucursal Origen Transferencia").region("Centro").build());
+        destino = sucursalRepository.save(Sucursal.builder().nombre("Sucursal Destino Transferencia").region("Sur").build());
+        inventarioRepository.save(Inventario.builder()
+                .producto(producto).sucursal(origen).cantidad(100).umbral(0).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        inventarioRepository.deleteAll(inventarioRepository.findByProductoId(producto.getId()));
+        sucursalRepository.deleteAll(List.of(origen, destino));
+        productoRepository.deleteById(producto.getId());
+    }
+
+    @Test
+    void transferenciasSimultaneasAUnaSucursalNuevaCreanUnaSolaFila() throws Exception {
+        ExecutorService hilos = Executors.newFixedThreadPool(TRANSFERENCIAS);
+        CountDownLatch partida = new CountDownLatch(1);
+        List<Future<?>> resultados = new ArrayList<>();
+        try {
+            for (int i = 0; i < TRANSFERENCIAS; i++) {
+                resultados.add(hilos.submit(() -> {
+                    partida.await();
+                    return transferenciaService.transferir(TransferenciaRequest.builder()
+                            .productoId(producto.getId())
+                            .sucursalOrigenId(origen.getId())
+                            .sucursalDestinoId(destino.getId())
+                            .cantidad(5)
+                            .build());
+                }));
+            }
+            partida.countDown();
+            for (Future<?> resultado : resultados) {
+                resultado.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            hilos.shutdownNow();
+        }
+
+        List<Inventario> enDestino = inventarioRepository.findByProductoId(producto.getId()).stream()
+                .filter(inventario -> inventario.getSucursal().getId().equals(destino.getId()))
+                .toList();
+        assertEquals(1, enDestino.size());
+        assertEquals(5 * TRANSFERENCIAS, enDestino.get(0).getCantidad());
+    }
+}
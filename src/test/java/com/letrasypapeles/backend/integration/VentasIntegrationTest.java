@@ -0,0 +1,137 @@
+package com.letrasypapeles.backend.integration;
+
+import com.letrasypapeles.backend.dto.IngresoProducto;
+import com.letrasypapeles.backend.dto.LineaPedidoRequest;
+import com.letrasypapeles.backend.dto.PedidoRequest;
+import com.letrasypapeles.backend.dto.ResumenVentas;
+import com.letrasypapeles.backend.entity.Cliente;
+import com.letrasypapeles.backend.entity.Pedido;
+import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.repository.ClienteRepository;
+import com.letrasypapeles.backend.repository.PedidoRepository;
+import com.letrasypapeles.backend.repository.ProductoRepository;
+import com.letrasypapeles.backend.service.PedidoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica que los totales de ventas salen de las líneas guardadas y no del precio actual del producto,
+ * y que solo cuentan los pedidos confirmados o completados.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class VentasIntegrationTest {
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Autowired
+    private PedidoRepository pedidoRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    private Cliente cliente;
+    private Producto producto;
+
+    @BeforeEach
+    void setUp() {
+        pedidoRepository.deleteAll();
+        cliente = clienteRepository.save(Cliente.builder()
+                .nombre("Ana")
+                .apellido("Pérez")
+                .email("ana.ventas@example.com")
+                .contraseña("secreta")
+                .puntosFidelidad(0)
+                .build());
+        producto = productoRepository.save(Producto.builder()
+                .nombre("Resma Carta")
+                .precio(new BigDecimal("4990"))
+                .stock(100)
+                .build());
+    }
+
+    @Test
+    void totalesUsanElPrecioGuardadoEnLaLinea() {
+        Pedido pedido = pedidoService.crearDesdePedidoRequest(PedidoRequest.builder()
+                .clienteId(cliente.getId())
+                .lineas(List.of(LineaPedidoRequest.builder().productoId(producto.getId()).cantidad(3).build()))
+                .fecha(LocalDateTime.of(2025, 3, 10, 12, 0))
+                .estado("COMPLETADO")
+                .build());
+        assertEquals(0, new BigDecimal("14970").compareTo(pedido.getTotal()));
+
+        producto.setPrecio(new BigDecimal("9990"));
+        productoRepository.saveAndFlush(producto);
+
+        ResumenVentas resumen = pedidoService.resumirVentas(LocalDateTime.of(2025, 3, 1, 0, 0), LocalDateTime.of(2025, 4, 1, 0, 0));
+        assertEquals(1L, resumen.getPedidos());
+        assertEquals(0, new BigDecimal("14970").compareTo(resumen.getIngresos()));
+
+        List<IngresoProducto> ingresos = pedidoService.obtenerIngresosPorProducto(null, null);
+        assertEquals(1, ingresos.size());
+        assertEquals(3L, ingresos.get(0).getUnidades());
+        assertEquals(0, new BigDecimal("14970").compareTo(ingresos.get(0).getIngresos()));
+
+        assertEquals(0L, pedidoService.resumirVentas(LocalDateTime.of(2025, 4, 1, 0, 0), null).getPedidos());
+    }
+
+    @Test
+    void pedidosCanceladosYPendientesNoCuentanComoVenta() {
+        crearPedido("CONFIRMADO", 2);
+        crearPedido("CANCELADO", 5);
+        crearPedido("PENDIENTE", 1);
+
+        ResumenVentas resumen = pedidoService.resumirVentas(null, null);
+        assertEquals(1L, resumen.getPedidos());
+        assertEquals(0, new BigDecimal("9980").compareTo(resumen.getIngresos()));
+
+        List<IngresoProducto> ingresos = pedidoService.obtenerIngresosPorProducto(null, null);
+        assertEquals(1, ingresos.size());
+        assertEquals(2L, ingresos.get(0).getUnidades());
+        assertEquals(0, new BigDecimal("9980").compareTo(ingresos.get(0).getIngresos()));
+    }
+
+    @Test
+    void actualizarPedidoConservaElPrecioGuardado() {
+        Pedido pedido = crearPedido("CONFIRMADO", 3);
+
+        producto.setPrecio(new BigDecimal("9990"));
+        productoRepository.saveAndFlush(producto);
+
+        Pedido cambios = Pedido.builder()
+                .id(pedido.getId())
+                .cliente(Cliente.builder().id(cliente.getId()).build())
+                .listaProductos(List.of(Producto.builder().id(producto.getId()).build()))
+                .estado("CONFIRMADO")
+                .region("Biobío")
+                .build();
+        Pedido actualizado = pedidoService.guardar(cambios);
+
+        assertEquals(0, new BigDecimal("4990").compareTo(actualizado.getLineas().get(0).getPrecioUnitario()));
+        assertEquals(0, new BigDecimal("4990").compareTo(actualizado.getTotal()));
+        assertEquals(0, new BigDecimal("4990").compareTo(pedidoService.resumirVentas(null, null).getIngresos()));
+    }
+
+    private Pedido crearPedido(String estado, int cantidad) {
+        return pedidoService.crearDesdePedidoRequest(PedidoRequest.builder()
+                .clienteId(cliente.getId())
+                .lineas(List.of(LineaPedidoRequest.builder().productoId(producto.getId()).cantidad(cantidad).build()))
+                .estado(estado)
+                .build());
+    }
+}
@@ -0,0 +1,65 @@
+package com.letrasypapeles.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CalculadoraMonetariaTest {
+
+    @Test
+    void convierteEnLosBordes() {
+        assertEquals(2999, CalculadoraMonetaria.aCentavos(new BigDecimal("29.99")));
+        assertEquals(1000, CalculadoraMonetaria.aCentavos(new BigDecimal("9.995")));
+        assertEquals(499000, CalculadoraMonetaria.aCentavos(new BigDecimal("4990")));
+        assertEquals(0, CalculadoraMonetaria.aCentavos((BigDecimal) null));
+        assertEquals(1010, CalculadoraMonetaria.aCentavos(10.1));
+        assertEquals(new BigDecimal("29.99"), CalculadoraMonetaria.aBigDecimal(2999));
+    }
+
+    @Test
+    void porcentajeRedondeaMitadesLejosDeCero() {
+        assertEquals(3, CalculadoraMonetaria.porcentaje(25, 1000));
+        assertEquals(-3, CalculadoraMonetaria.porcentaje(-25, 1000));
+        assertEquals(190, CalculadoraMonetaria.impuesto(1000, 1900));
+        assertEquals(950, CalculadoraMonetaria.aplicarDescuento(1000, 500));
+    }
+
+    @Test
+    void puntosFidelidadPorCadaDiezPesos() {
+        assertEquals(10, CalculadoraMonetaria.puntosFidelidad(10_099));
+        assertEquals(0, CalculadoraMonetaria.puntosFidelidad(999));
+        assertEquals(0, CalculadoraMonetaria.puntosFidelidad(-5_000));
+    }
+
+    @Test
+    void totalizarCoincideConBigDecimal() {
+        Random random = new Random(3);
+        long[] precios = new long[100];
+        int[] cantidades = new int[100];
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (int i = 0; i < precios.length; i++) {
+            precios[i] = random.nextInt(5_000_000);
+            cantidades[i] = 1 + random.nextInt(10);
+            subtotal = subtotal.add(BigDecimal.valueOf(precios[i], 2).multiply(BigDecimal.valueOf(cantidades[i])));
+        }
+        BigDecimal descuento = subtotal.multiply(new BigDecimal("0.05")).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal neto = subtotal.subtract(descuento);
+        BigDecimal total = neto.add(neto.multiply(new BigDecimal("0.19")).setScale(2, RoundingMode.HALF_UP));
+
+        CalculadoraMonetaria.Totales totales = CalculadoraMonetaria.totalizar(precios, cantidades, precios.length, 500, 1900);
+
+        assertEquals(subtotal, CalculadoraMonetaria.aBigDecimal(totales.getSubtotal()));
+        assertEquals(descuento, CalculadoraMonetaria.aBigDecimal(totales.getDescuento()));
+        assertEquals(total, CalculadoraMonetaria.aBigDecimal(totales.getTotal()));
+        assertEquals(total.divide(BigDecimal.TEN, 0, RoundingMode.DOWN).intValue(), totales.getPuntosFidelidad());
+    }
+
+    @Test
+    void desbordeLanzaExcepcion() {
+        assertThrows(ArithmeticException.class, () -> CalculadoraMonetaria.totalLinea(Long.MAX_VALUE / 2, 3));
+    }
+}
@@ -0,0 +1,200 @@
+package com.letrasypapeles.backend.service;
+
+import com.letrasypapeles.backend.dto.AsignacionSurtido;
+import com.letrasypapeles.backend.dto.CheckoutRequest;
+import com.letrasypapeles.backend.dto.LineaPedidoRequest;
+import com.letrasypapeles.backend.entity.Cliente;
+import com.letrasypapeles.backend.entity.Pedido;
+import com.letrasypapeles.backend.entity.PedidoLinea;
+import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.entity.Reserva;
+import com.letrasypapeles.backend.entity.SurtidoPedido;
+import com.letrasypapeles.backend.repository.ClienteRepository;
+import com.letrasypapeles.backend.repository.ProductoRepository;
+import com.letrasypapeles.backend.repository.ReservaRepository;
+import com.letrasypapeles.backend.repository.SurtidoPedidoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CheckoutServiceTest {
+
+    @Mock
+    private ClienteRepository clienteRepository;
+
+    @Mock
+    private ReservaRepository reservaRepository;
+
+    @Mock
+    private ProductoRepository productoRepository;
+
+    @Mock
+    private ReservaService reservaService;
+
+    @Mock
+    private PedidoService pedidoService;
+
+    @Mock
+    private ProcesadorPedidos procesadorPedidos;
+
+    @Mock
+    private RuteadorSurtido ruteadorSurtido;
+
+    @Mock
+    private SurtidoPedidoRepository surtidoPedidoRepository;
+
+    @InjectMocks
+    private CheckoutService checkoutService;
+
+    private Cliente cliente;
+    private Producto producto;
+
+    @BeforeEach
+    void setUp() {
+        cliente = Cliente.builder().id(1L).nombre("Juan").build();
+        producto = Producto.builder().id(3L).nombre("Lápiz").precio(new BigDecimal("500")).build();
+    }
+
+    private Reserva reserva(long id, Cliente duenio, String estado) {
+        return Reserva.builder().id(id).cliente(duenio).producto(producto).cantidad(2).estado(estado).build();
+    }
+
+    @Test
+    void checkoutConfirmaReservasDescuentaLineasYEncolaElPedido() {
+        // Given
+        CheckoutRequest request = CheckoutRequest.builder()
+                .clienteId(1L)
+                .reservasIds(List.of(10L, 11L))
+                .lineas(List.of(LineaPedidoRequest.builder().productoId(4L).cantidad(2).build(),
+                                LineaPedidoRequest.builder().productoId(4L).build()))
+                .build();
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(reservaRepository.bloquearPorIds(Set.of(10L, 11L)))
+                .thenReturn(List.of(reserva(10L, cliente, "PENDIENTE"), reserva(11L, cliente, "PENDIENTE")));
+        when(productoRepository.descontarStockSiAlcanza(4L, 3)).thenReturn(1);
+        when(ruteadorSurtido.surtir(Map.of(4L, 3), null, true)).thenReturn(Optional.of(List.of(
+                AsignacionSurtido.builder().productoId(4L).sucursalId(7L).inventarioId(70L).cantidad(3).build())));
+        when(pedidoService.guardar(any(Pedido.class))).thenAnswer(invocacion -> {
+            Pedido pedido = invocacion.getArgument(0);
+            pedido.setId(50L);
+            return pedido;
+        });
+
+        // When
+        Pedido pedido = checkoutService.checkout(request);
+
+        // Then
+        assertEquals(50L, pedido.getId());
+        assertEquals("CONFIRMADO", pedido.getEstado());
+        assertSame(cliente, pedido.getCliente());
+        List<PedidoLinea> lineas = pedido.getLineas();
+        assertEquals(4, lineas.size());
+        assertSame(producto, lineas.get(0).getProducto());
+        assertEquals(2, lineas.get(0).getCantidad());
+        assertEquals(4L, lineas.get(2).getProducto().getId());
+        verify(reservaService).convertirApartados(anyList());
+        verify(reservaRepository).actualizarEstado(Set.of(10L, 11L), "CONFIRMADA");
+        verify(procesadorPedidos).encolar(50L);
+        verify(surtidoPedidoRepository).saveAll(List.of(SurtidoPedido.builder()
+                .pedidoId(50L).productoId(4L).sucursalId(7L).cantidad(3).build()));
+    }
+
+    @Test
+    void reservaDeOtroClienteSeRechaza() {
+        // Given
+        Cliente otro = Cliente.builder().id(2L).build();
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(reservaRepository.bloquearPorIds(anyCollection())).thenReturn(List.of(reserva(10L, otro, "PENDIENTE")));
+
+        // When
+        RuntimeException e = assertThrows(RuntimeException.class, () -> checkoutService.checkout(
+                CheckoutRequest.builder().clienteId(1L).reservasIds(List.of(10L)).build()));
+
+        // Then
+        assertEquals("La reserva 10 no pertenece al cliente", e.getMessage());
+        verify(reservaRepository, never()).actualizarEstado(anyCollection(), anyString());
+        verifyNoInteractions(pedidoService, procesadorPedidos);
+    }
+
+    @Test
+    void reservaNoPendienteSeRechaza() {
+        // Given
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(reservaRepository.bloquearPorIds(anyCollection())).thenReturn(List.of(reserva(10L, cliente, "CONFIRMADA")));
+
+        // When / Then
+        RuntimeException e = assertThrows(RuntimeException.class, () -> checkoutService.checkout(
+                CheckoutRequest.builder().clienteId(1L).reservasIds(List.of(10L)).build()));
+        assertEquals("Solo se pueden confirmar reservas en estado PENDIENTE", e.getMessage());
+    }
+
+    @Test
+    void reservaInexistenteSeRechaza() {
+        // Given
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(reservaRepository.bloquearPorIds(anyCollection())).thenReturn(List.of(reserva(10L, cliente, "PENDIENTE")));
+
+        // When / Then
+        RuntimeException e = assertThrows(RuntimeException.class, () -> checkoutService.checkout(
+                CheckoutRequest.builder().clienteId(1L).reservasIds(List.of(10L, 12L)).build()));
+        assertEquals("Reserva no encontrada con ID: 12", e.getMessage());
+    }
+
+    @Test
+    void stockInsuficienteEnLineaAdicionalFalla() {
+        // Given
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(productoRepository.descontarStockSiAlcanza(4L, 5)).thenReturn(0);
+        when(productoRepository.existsById(4L)).thenReturn(true);
+
+        // When / Then
+        RuntimeException e = assertThrows(RuntimeException.class, () -> checkoutService.checkout(
+                CheckoutRequest.builder()
+                        .clienteId(1L)
+                        .lineas(List.of(LineaPedidoRequest.builder().productoId(4L).cantidad(5).build()))
+                        .build()));
+        assertEquals("Stock insuficiente para el producto con ID: 4", e.getMessage());
+        verifyNoInteractions(pedidoService, procesadorPedidos);
+    }
+
+    @Test
+    void lineaAdicionalSinStockEnSucursalesFalla() {
+        // Given
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(productoRepository.descontarStockSiAlcanza(4L, 5)).thenReturn(1);
+        when(ruteadorSurtido.surtir(Map.of(4L, 5), null, true)).thenReturn(Optional.empty());
+
+        // When / Then
+        RuntimeException e = assertThrows(RuntimeException.class, () -> checkoutService.checkout(
+                CheckoutRequest.builder()
+                        .clienteId(1L)
+                        .lineas(List.of(LineaPedidoRequest.builder().productoId(4L).cantidad(5).build()))
+                        .build()));
+        assertEquals("Las sucursales no tienen stock suficiente para las líneas del pedido", e.getMessage());
+        verifyNoInteractions(pedidoService, procesadorPedidos, surtidoPedidoRepository);
+    }
+
+    @Test
+    void checkoutVacioSeRechaza() {
+        // When / Then
+        RuntimeException e = assertThrows(RuntimeException.class, () -> checkoutService.checkout(
+                CheckoutRequest.builder().clienteId(1L).reservasIds(List.of()).build()));
+        assertEquals("Debe indicar al menos una reserva o una línea", e.getMessage());
+        verifyNoInteractions(clienteRepository);
+    }
+}
@@ -30,6 +30,9 @@ public class ClienteServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private LibroPuntos libroPuntos;
+
     @InjectMocks
     private ClienteService clienteService;
 
@@ -211,67 +214,31 @@ public class ClienteServiceTest {
         // Given
         Long clienteId = 1L;
         Double montoCompra = 100.0;
-        Cliente clienteExistente = Cliente.builder()
-                .id(clienteId)
-                .nombre("Test")
-                .apellido("Usuario")
-                .email("test@example.com")
-                .puntosFidelidad(50)
-                .build();
-
-        Cliente clienteActualizado = Cliente.builder()
-                .id(clienteId)
-                .nombre("Test")
-                .apellido("Usuario")
-                .email("test@example.com")
-                .puntosFidelidad(60) // 50 + 10 puntos (100/10)
-                .build();
-
-        when(clienteRepository.findById(clienteId)).thenReturn(Optional.of(clienteExistente));
-        when(clienteRepository.save(any(Cliente.class))).thenReturn(clienteActualizado);
+        when(clienteRepository.existsById(clienteId)).thenReturn(true);
 
         // When
-        Cliente result = clienteService.acumularPuntosFidelidad(clienteId, montoCompra);
+        int puntos = clienteService.acumularPuntosFidelidad(clienteId, montoCompra);
 
         // Then
-        assertNotNull(result);
-        assertEquals(60, result.getPuntosFidelidad());
-        verify(clienteRepository, times(1)).findById(clienteId);
-        verify(clienteRepository, times(1)).save(any(Cliente.class));
+        assertEquals(10, puntos); // 100/10
+        verify(libroPuntos, times(1)).registrar(clienteId, 10, "COMPRA");
+        verify(clienteRepository, never()).findById(anyLong());
+        verify(clienteRepository, never()).save(any(Cliente.class));
     }
 
     @Test
-    void acumularPuntosFidelidad_ClienteSinPuntosIniciales() {
+    void acumularPuntosFidelidad_RedondeaHaciaAbajo() {
         // Given
         Long clienteId = 1L;
-        Double montoCompra = 50.0;
-        Cliente clienteExistente = Cliente.builder()
-                .id(clienteId)
-                .nombre("Test")
-                .apellido("Usuario")
-                .email("test@example.com")
-                .puntosFidelidad(null) // Sin puntos iniciales
-                .build();
-
-        Cliente clienteActualizado = Cliente.builder()
-                .id(clienteId)
-                .nombre("Test")
-                .apellido("Usuario")
-                .email("test@example.com")
-                .puntosFidelidad(5) // 0 + 5 puntos (50/10)
-                .build();
-
-        when(clienteRepository.findById(clienteId)).thenReturn(Optional.of(clienteExistente));
-        when(clienteRepository.save(any(Cliente.class))).thenReturn(clienteActualizado);
+        Double montoCompra = 59.99;
+        when(clienteRepository.existsById(clienteId)).thenReturn(true);
 
         // When
-        Cliente result = clienteService.acumularPuntosFidelidad(clienteId, montoCompra);
+        int puntos = clienteService.acumularPuntosFidelidad(clienteId, montoCompra);
 
         // Then
-        assertNotNull(result);
-        assertEquals(5, result.getPuntosFidelidad());
-        verify(clienteRepository, times(1)).findById(clienteId);
-        verify(clienteRepository, times(1)).save(any(Cliente.class));
+        assertEquals(5, puntos);
+        verify(libroPuntos, times(1)).registrar(clienteId, 5, "COMPRA");
     }
 
     @Test
@@ -279,7 +246,7 @@ public class ClienteServiceTest {
         // Given
         Long clienteId = 999L;
         Double montoCompra = 100.0;
-        when(clienteRepository.findById(clienteId)).thenReturn(Optional.empty());
+        when(clienteRepository.existsById(clienteId)).thenReturn(false);
 
         // When & Then
         Exception exception = assertThrows(RuntimeException.class, () -> {
@@ -287,8 +254,7 @@ public class ClienteServiceTest {
         });
 
         assertEquals("Cliente no encontrado", exception.getMessage());
-        verify(clienteRepository, times(1)).findById(clienteId);
-        verify(clienteRepository, never()).save(any(Cliente.class));
+        verifyNoInteractions(libroPuntos);
     }
 
     @Test
@@ -296,33 +262,40 @@ public class ClienteServiceTest {
         // Given
         Long clienteId = 1L;
         Double montoCompra = 5.0; // Menor a 10, no debería generar puntos
-        Cliente clienteExistente = Cliente.builder()
-                .id(clienteId)
-                .nombre("Test")
-                .apellido("Usuario")
-                .email("test@example.com")
-                .puntosFidelidad(20)
-                .build();
+        when(clienteRepository.existsById(clienteId)).thenReturn(true);
 
-        Cliente clienteActualizado = Cliente.builder()
-                .id(clienteId)
-                .nombre("Test")
-                .apellido("Usuario")
-                .email("test@example.com")
-                .puntosFidelidad(20) // Sin cambios
-                .build();
+        // When
+        int puntos = clienteService.acumularPuntosFidelidad(clienteId, montoCompra);
 
-        when(clienteRepository.findById(clienteId)).thenReturn(Optional.of(clienteExistente));
-        when(clienteRepository.save(any(Cliente.class))).thenReturn(clienteActualizado);
+        // Then
+        assertEquals(0, puntos);
+        verify(libroPuntos, times(1)).registrar(clienteId, 0, "COMPRA");
+    }
+
+    @Test
+    void obtenerSaldoPuntos_IncluyeMovimientosNoPlegados() {
+        // Given
+        when(libroPuntos.saldo(1L)).thenReturn(42L);
 
         // When
-        Cliente result = clienteService.acumularPuntosFidelidad(clienteId, montoCompra);
+        long saldo = clienteService.obtenerSaldoPuntos(1L);
 
         // Then
-        assertNotNull(result);
-        assertEquals(20, result.getPuntosFidelidad());
-        verify(clienteRepository, times(1)).findById(clienteId);
-        verify(clienteRepository, times(1)).save(any(Cliente.class));
+        assertEquals(42L, saldo);
+    }
+
+    @Test
+    void actualizarPuntosFidelidadDirecto_RegistraMovimiento() {
+        // When
+        clienteService.actualizarPuntosFidelidadDirecto(1L, 7);
+        clienteService.actualizarPuntosFidelidadDirecto(1L, 3, "RESERVA 4");
+        clienteService.actualizarPuntosFidelidadDirecto(1L, null);
+
+        // Then
+        verify(libroPuntos).registrar(1L, 7, "AJUSTE");
+        verify(libroPuntos).registrar(1L, 3, "RESERVA 4");
+        verifyNoMoreInteractions(libroPuntos);
+        verify(clienteRepository, never()).actualizarPuntosFidelidad(anyLong(), anyInt());
     }
 
     @Test
@@ -0,0 +1,199 @@
+package com.letrasypapeles.backend.service;
+
+import com.letrasypapeles.backend.dto.ProgresoConciliacion;
+import com.letrasypapeles.backend.repository.ProductoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ConciliacionStockServiceTest {
+
+    @Mock
+    private ProductoRepository productoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ConciliacionStockService servicio;
+
+    @BeforeEach
+    void setUp() {
+        servicio = new ConciliacionStockService(productoRepository, transactionManager, 2, 10, 2, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        servicio.detener();
+    }
+
+    private void rango(long min, long max) {
+        when(productoRepository.findRangoIds()).thenReturn(List.<Object[]>of(new Object[]{min, max}));
+    }
+
+    @Test
+    void dividirCubreElRangoEnTramosConsecutivos() {
+        // When
+        List<long[]> tramos = servicio.dividir(5, 27);
+
+        // Then
+        assertEquals(3, tramos.size());
+        assertArrayEquals(new long[]{5, 14}, tramos.get(0));
+        assertArrayEquals(new long[]{15, 24}, tramos.get(1));
+        assertArrayEquals(new long[]{25, 27}, tramos.get(2));
+    }
+
+    @Test
+    void informaDiferenciasSinCorregir() {
+        // Given
+        rango(1, 25);
+        when(productoRepository.streamTotalesInventario(anyLong(), anyLong())).thenAnswer(invocacion -> {
+            long desde = invocacion.getArgument(0);
+            if (desde == 1) {
+                return Stream.of(new Object[]{1L, 10, 10L}, new Object[]{2L, 7, 9L});
+            }
+            if (desde == 11) {
+                return Stream.<Object[]>of(new Object[]{15L, null, 4L});
+            }
+            return Stream.empty();
+        });
+
+        // When
+        ProgresoConciliacion progreso = servicio.conciliar(false, null, null);
+
+        // Then
+        assertEquals("TERMINADA", progreso.getEstado());
+        assertEquals(3, progreso.getTramos());
+        assertEquals(3, progreso.getTramosProcesados());
+        assertEquals(3, progreso.getProductosRevisados());
+        assertEquals(2, progreso.getDiferencias());
+        assertEquals(0, progreso.getCorregidos());
+        assertEquals(2, progreso.getMuestras().size());
+        verify(productoRepository).streamTotalesInventario(1L, 10L);
+        verify(productoRepository).streamTotalesInventario(11L, 20L);
+        verify(productoRepository).streamTotalesInventario(21L, 25L);
+        verify(productoRepository, never()).igualarStockConInventario(anyCollection());
+    }
+
+    @Test
+    void corrigeEnLotesYLimitaLasMuestras() {
+        // Given
+        rango(1, 10);
+        when(productoRepository.streamTotalesInventario(1L, 10L)).thenReturn(Stream.of(
+                new Object[]{1L, 1, 2L},
+                new Object[]{2L, 1, 2L},
+                new Object[]{3L, 1, 2L}));
+        List<List<Long>> lotes = new ArrayList<>();
+        when(productoRepository.igualarStockConInventario(anyCollection())).thenAnswer(invocacion -> {
+            Collection<Long> ids = invocacion.getArgument(0);
+            lotes.add(new ArrayList<>(ids));
+            return ids.size();
+        });
+
+        // When
+        ProgresoConciliacion progreso = servicio.conciliar(true, null, null);
+
+        // Then
+        assertEquals(List.of(List.of(1L, 2L), List.of(3L)), lotes);
+        assertEquals(3, progreso.getDiferencias());
+        assertEquals(3, progreso.getCorregidos());
+        assertEquals(2, progreso.getMuestras().size());
+    }
+
+    @Test
+    void rangoPedidoSeAcotaAlDeLaTabla() {
+        // Given
+        rango(1, 100);
+        when(productoRepository.streamTotalesInventario(anyLong(), anyLong())).thenAnswer(invocacion -> Stream.empty());
+
+        // When
+        servicio.conciliar(false, 50L, 500L);
+
+        // Then
+        verify(productoRepository, times(6)).streamTotalesInventario(anyLong(), anyLong());
+        verify(productoRepository).streamTotalesInventario(50L, 59L);
+        verify(productoRepository).streamTotalesInventario(100L, 100L);
+    }
+
+    @Test
+    void sinProductosTerminaSinTramos() {
+        // Given
+        when(productoRepository.findRangoIds()).thenReturn(List.<Object[]>of(new Object[]{null, null}));
+
+        // When
+        ProgresoConciliacion progreso = servicio.conciliar(false, null, null);
+
+        // Then
+        assertEquals("TERMINADA", progreso.getEstado());
+        assertEquals(0, progreso.getTramos());
+    }
+
+    @Test
+    void errorDejaLaEjecucionFallida() {
+        // Given
+        rango(1, 5);
+        when(productoRepository.streamTotalesInventario(1L, 5L)).thenThrow(new RuntimeException("conexión cerrada"));
+
+        // When
+        ProgresoConciliacion progreso = servicio.conciliar(false, null, null);
+
+        // Then
+        assertEquals("FALLIDA", progreso.getEstado());
+        assertEquals("conexión cerrada", progreso.getError());
+        assertNotNull(progreso.getFin());
+    }
+
+    @Test
+    void noSePermitenDosEjecucionesSimultaneas() throws Exception {
+        // Given
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        rango(1, 5);
+        when(productoRepository.streamTotalesInventario(1L, 5L)).thenAnswer(invocacion -> {
+            enCurso.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            return Stream.empty();
+        });
+
+        // When
+        ProgresoConciliacion inicial = servicio.iniciar(false, null, null);
+        assertTrue(enCurso.await(5, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals("EN_CURSO", inicial.getEstado());
+        assertThrows(IllegalStateException.class, () -> servicio.iniciar(true, null, null));
+        assertEquals("EN_CURSO", servicio.progreso().getEstado());
+        liberar.countDown();
+        long limite = System.currentTimeMillis() + 5_000;
+        while ("EN_CURSO".equals(servicio.progreso().getEstado()) && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        assertEquals("TERMINADA", servicio.progreso().getEstado());
+    }
+
+    @Test
+    void progresoSinEjecuciones() {
+        assertEquals("SIN_EJECUTAR", servicio.progreso().getEstado());
+    }
+
+    @Test
+    void rangoInvertidoSeRechaza() {
+        assertThrows(IllegalArgumentException.class, () -> servicio.conciliar(false, 10L, 5L));
+    }
+}
@@ -0,0 +1,80 @@
+package com.letrasypapeles.backend.service;
+
+import com.letrasypapeles.backend.dto.ResultadoPorId;
+import com.letrasypapeles.backend.entity.Producto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConsultaPorIdsTest {
+
+    private final ConsultaPorIds consultaPorIds = new ConsultaPorIds(3);
+
+    private final List<Collection<Long>> consultas = new ArrayList<>();
+
+    private final Function<Collection<Long>, List<Producto>> cargar = ids -> {
+        consultas.add(List.copyOf(ids));
+        return ids.stream()
+                .filter(id -> id != 404L)
+                .sorted((a, b) -> Long.compare(b, a))
+                .map(id -> Producto.builder().id(id).nombre("Producto " + id).build())
+                .toList();
+    };
+
+    @Test
+    void buscar_devuelveEnElOrdenPedidoConUnaSolaConsulta() {
+        // When
+        List<ResultadoPorId<Producto>> resultados = consultaPorIds.buscar("2, 404,1", cargar, Producto::getId);
+
+        // Then
+        assertEquals(List.of(2L, 404L, 1L), resultados.stream().map(ResultadoPorId::getId).toList());
+        assertTrue(resultados.get(0).isEncontrado());
+        assertEquals("Producto 2", resultados.get(0).getContenido().getNombre());
+        assertFalse(resultados.get(1).isEncontrado());
+        assertNull(resultados.get(1).getContenido());
+        assertEquals(1, consultas.size());
+    }
+
+    @Test
+    void buscar_losRepetidosSeConsultanUnaVez() {
+        // When
+        List<ResultadoPorId<Producto>> resultados = consultaPorIds.buscar("5,5,6", cargar, Producto::getId);
+
+        // Then
+        assertEquals(3, resultados.size());
+        assertSame(resultados.get(0).getContenido(), resultados.get(1).getContenido());
+        assertEquals(List.of(5L, 6L), consultas.get(0));
+    }
+
+    @Test
+    void buscar_superaElMaximo() {
+        // When
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> consultaPorIds.buscar("1,2,3,4", cargar, Producto::getId));
+
+        // Then
+        assertEquals("Se pueden pedir como máximo 3 IDs por consulta; se pidieron 4", e.getMessage());
+        assertTrue(consultas.isEmpty());
+    }
+
+    @Test
+    void buscar_idInvalido() {
+        // When
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> consultaPorIds.buscar("1,abc", cargar, Producto::getId));
+
+        // Then
+        assertEquals("ID inválido: abc", e.getMessage());
+    }
+
+    @Test
+    void buscar_sinIds() {
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> consultaPorIds.buscar(" , ", cargar, Producto::getId));
+    }
+}
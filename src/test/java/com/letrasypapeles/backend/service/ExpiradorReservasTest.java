@@ -0,0 +1,121 @@
+package com.letrasypapeles.backend.service;
+
+import com.letrasypapeles.backend.entity.Reserva;
+import com.letrasypapeles.backend.event.EntidadCambiadaEvent;
+import com.letrasypapeles.backend.event.TipoCambio;
+import com.letrasypapeles.backend.repository.ReservaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ExpiradorReservasTest {
+
+    @Mock
+    private ReservaRepository reservaRepository;
+
+    @Mock
+    private ReservaService reservaService;
+
+    private ExpiradorReservas expirador;
+
+    @BeforeEach
+    void setUp() {
+        expirador = new ExpiradorReservas(reservaRepository, reservaService,
+                Duration.ofMinutes(30), Duration.ofSeconds(1), 2, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        expirador.detener();
+    }
+
+    private static long enMillis(LocalDateTime fecha) {
+        return fecha.atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @Test
+    void iniciarReconstruyeDesdePendientes() {
+        // Given
+        LocalDateTime ahora = LocalDateTime.now();
+        List<Object[]> filas = new ArrayList<>();
+        filas.add(new Object[]{1L, ahora});
+        filas.add(new Object[]{2L, ahora.minusMinutes(10)});
+        when(reservaRepository.findFechasPorEstado("PENDIENTE")).thenReturn(filas);
+
+        // When
+        expirador.iniciar();
+
+        // Then
+        assertEquals(2, expirador.pendientesProgramadas());
+    }
+
+    @Test
+    void cancelaEnLotesAlVencer() {
+        // Given
+        LocalDateTime ahora = LocalDateTime.now();
+        for (long id = 1; id <= 5; id++) {
+            expirador.programar(id, ahora);
+        }
+        expirador.programar(6L, ahora.plusHours(1));
+        when(reservaService.cancelarVencidas(any(), any())).thenAnswer(inv -> ((Collection<?>) inv.getArgument(0)).size());
+
+        // When
+        expirador.procesar(enMillis(ahora.plusMinutes(29)));
+
+        // Then
+        verifyNoInteractions(reservaService);
+
+        // When
+        expirador.procesar(enMillis(ahora.plusMinutes(31)));
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Long>> captor = ArgumentCaptor.forClass(List.class);
+        verify(reservaService, times(3)).cancelarVencidas(captor.capture(), any());
+        assertEquals(List.of(2, 2, 1), captor.getAllValues().stream().map(List::size).toList());
+        assertEquals(1, expirador.pendientesProgramadas());
+    }
+
+    @Test
+    void reprogramaElLoteSiFallaLaCancelacion() {
+        // Given
+        LocalDateTime ahora = LocalDateTime.now();
+        expirador.programar(1L, ahora);
+        when(reservaService.cancelarVencidas(any(), any())).thenThrow(new RuntimeException("Bloqueo"));
+
+        // When
+        expirador.procesar(enMillis(ahora.plusMinutes(31)));
+
+        // Then
+        assertEquals(1, expirador.pendientesProgramadas());
+    }
+
+    @Test
+    void soloProgramaReservasPendientes() {
+        // Given
+        Reserva confirmada = Reserva.builder().id(1L).estado("CONFIRMADA").fechaReserva(LocalDateTime.now()).build();
+        Reserva pendiente = Reserva.builder().id(2L).estado("PENDIENTE").fechaReserva(LocalDateTime.now()).build();
+
+        // When
+        expirador.alCambiarReserva(new EntidadCambiadaEvent<>(confirmada, TipoCambio.ACTUALIZADA));
+        expirador.alCambiarReserva(new EntidadCambiadaEvent<>(pendiente, TipoCambio.CREADA));
+
+        // Then
+        assertEquals(1, expirador.pendientesProgramadas());
+    }
+}
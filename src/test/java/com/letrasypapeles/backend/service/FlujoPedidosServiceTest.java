@@ -0,0 +1,218 @@
+package com.letrasypapeles.backend.service;
+
+import com.letrasypapeles.backend.dto.AsignacionSurtido;
+import com.letrasypapeles.backend.entity.Cliente;
+import com.letrasypapeles.backend.entity.Notificacion;
+import com.letrasypapeles.backend.entity.Pedido;
+import com.letrasypapeles.backend.entity.SurtidoPedido;
+import com.letrasypapeles.backend.repository.NotificacionRepository;
+import com.letrasypapeles.backend.repository.PedidoLineaRepository;
+import com.letrasypapeles.backend.repository.PedidoRepository;
+import com.letrasypapeles.backend.repository.ProductoRepository;
+import com.letrasypapeles.backend.repository.SurtidoPedidoRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FlujoPedidosServiceTest {
+
+    @Mock
+    private PedidoRepository pedidoRepository;
+
+    @Mock
+    private PedidoLineaRepository pedidoLineaRepository;
+
+    @Mock
+    private ProductoRepository productoRepository;
+
+    @Mock
+    private NotificacionRepository notificacionRepository;
+
+    @Mock
+    private LibroPuntos libroPuntos;
+
+    @Mock
+    private RuteadorSurtido ruteadorSurtido;
+
+    @Mock
+    private SurtidoPedidoRepository surtidoPedidoRepository;
+
+    @InjectMocks
+    private FlujoPedidosService flujo;
+
+    private static Pedido pedido(long id) {
+        return Pedido.builder().id(id).build();
+    }
+
+    @Test
+    void reservarStockConfirmaEnOrdenYRechazaLosQueNoAlcanzan() {
+        // Given: producto 10 con stock 5; los pedidos 1 y 2 piden 3 unidades cada uno
+        List<Long> lote = List.of(2L, 1L);
+        when(pedidoRepository.bloquearPorEstado(lote, "PENDIENTE")).thenReturn(List.of(pedido(1), pedido(2)));
+        when(pedidoRepository.findIdsPorIdsYEstado(List.of(1L, 2L), "PENDIENTE")).thenReturn(List.of(1L, 2L));
+        when(pedidoLineaRepository.findCantidadesPorPedidos(anyCollection())).thenReturn(List.of(
+                new Object[]{1L, 10L, 3},
+                new Object[]{2L, 10L, 3}));
+        when(productoRepository.findStockPorIds(anyCollection())).thenReturn(List.<Object[]>of(new Object[]{10L, 5}));
+        when(ruteadorSurtido.surtir(anyMap(), isNull(), eq(true))).thenReturn(Optional.of(List.of()));
+
+        // When
+        int rechazados = flujo.reservarStock(lote);
+
+        // Then
+        assertEquals(1, rechazados);
+        verify(productoRepository).bloquearPorIds(anyCollection());
+        verify(productoRepository).sumarStock(10L, -3);
+        verify(pedidoRepository).cambiarEstado(List.of(1L), "PENDIENTE", "CONFIRMADO");
+        verify(pedidoRepository).cambiarEstado(List.of(2L), "PENDIENTE", "RECHAZADO");
+    }
+
+    @Test
+    void reservarStockDescuentaUnaVezPorProducto() {
+        // Given: tres pedidos del mismo producto, uno con dos líneas
+        List<Long> lote = List.of(1L, 2L, 3L);
+        when(pedidoRepository.bloquearPorEstado(lote, "PENDIENTE")).thenReturn(List.of(pedido(1), pedido(2), pedido(3)));
+        when(pedidoRepository.findIdsPorIdsYEstado(lote, "PENDIENTE")).thenReturn(lote);
+        when(pedidoLineaRepository.findCantidadesPorPedidos(anyCollection())).thenReturn(List.of(
+                new Object[]{1L, 10L, 2},
+                new Object[]{2L, 10L, 1},
+                new Object[]{2L, 20L, 4},
+                new Object[]{3L, 10L, null}));
+        when(productoRepository.findStockPorIds(anyCollection())).thenReturn(List.of(
+                new Object[]{10L, 100},
+                new Object[]{20L, 100}));
+        when(ruteadorSurtido.surtir(anyMap(), isNull(), eq(true))).thenReturn(Optional.of(List.of()));
+
+        // When
+        int rechazados = flujo.reservarStock(lote);
+
+        // Then
+        assertEquals(0, rechazados);
+        verify(productoRepository).sumarStock(10L, -4);
+        verify(productoRepository).sumarStock(20L, -4);
+        verify(pedidoRepository).cambiarEstado(lote, "PENDIENTE", "CONFIRMADO");
+        verify(pedidoRepository, never()).cambiarEstado(anyCollection(), eq("PENDIENTE"), eq("RECHAZADO"));
+    }
+
+    @Test
+    void reservarStockIgnoraPedidosQueCambiaronDeEstado() {
+        // Given: el pedido 2 dejó de estar PENDIENTE mientras se esperaba el bloqueo
+        List<Long> lote = List.of(1L, 2L);
+        when(pedidoRepository.bloquearPorEstado(lote, "PENDIENTE")).thenReturn(List.of(pedido(1), pedido(2)));
+        when(pedidoRepository.findIdsPorIdsYEstado(lote, "PENDIENTE")).thenReturn(List.of(1L));
+        when(pedidoLineaRepository.findCantidadesPorPedidos(anyCollection())).thenReturn(List.<Object[]>of(new Object[]{1L, 10L, 1}));
+        when(productoRepository.findStockPorIds(anyCollection())).thenReturn(List.<Object[]>of(new Object[]{10L, 1}));
+        when(ruteadorSurtido.surtir(anyMap(), isNull(), eq(true))).thenReturn(Optional.of(List.of()));
+
+        // When
+        flujo.reservarStock(lote);
+
+        // Then
+        verify(pedidoRepository).cambiarEstado(List.of(1L), "PENDIENTE", "CONFIRMADO");
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void reservarStockRegistraLasSucursalesQueSurtenCadaPedido() {
+        // Given: el pedido 1 prefiere la región Norte y se surte desde dos sucursales
+        List<Long> lote = List.of(1L);
+        when(pedidoRepository.bloquearPorEstado(lote, "PENDIENTE"))
+                .thenReturn(List.of(Pedido.builder().id(1L).region("Norte").build()));
+        when(pedidoRepository.findIdsPorIdsYEstado(lote, "PENDIENTE")).thenReturn(lote);
+        when(pedidoLineaRepository.findCantidadesPorPedidos(anyCollection())).thenReturn(List.<Object[]>of(new Object[]{1L, 10L, 5}));
+        when(productoRepository.findStockPorIds(anyCollection())).thenReturn(List.<Object[]>of(new Object[]{10L, 5}));
+        when(ruteadorSurtido.surtir(Map.of(10L, 5), "Norte", true)).thenReturn(Optional.of(List.of(
+                AsignacionSurtido.builder().productoId(10L).sucursalId(1L).inventarioId(100L).cantidad(3).build(),
+                AsignacionSurtido.builder().productoId(10L).sucursalId(2L).inventarioId(200L).cantidad(2).build())));
+
+        // When
+        int rechazados = flujo.reservarStock(lote);
+
+        // Then
+        assertEquals(0, rechazados);
+        ArgumentCaptor<List<SurtidoPedido>> captor = ArgumentCaptor.forClass(List.class);
+        verify(surtidoPedidoRepository).saveAll(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        assertEquals(1L, captor.getValue().get(0).getPedidoId());
+        assertEquals(1L, captor.getValue().get(0).getSucursalId());
+        assertEquals(3, captor.getValue().get(0).getCantidad());
+        assertEquals(2L, captor.getValue().get(1).getSucursalId());
+        verify(pedidoRepository).cambiarEstado(lote, "PENDIENTE", "CONFIRMADO");
+    }
+
+    @Test
+    void reservarStockRechazaSiLasSucursalesNoPuedenSurtir() {
+        // Given: el stock del producto alcanza para ambos pedidos pero sus inventarios solo para uno
+        List<Long> lote = List.of(1L, 2L);
+        when(pedidoRepository.bloquearPorEstado(lote, "PENDIENTE")).thenReturn(List.of(pedido(1), pedido(2)));
+        when(pedidoRepository.findIdsPorIdsYEstado(lote, "PENDIENTE")).thenReturn(lote);
+        when(pedidoLineaRepository.findCantidadesPorPedidos(anyCollection())).thenReturn(List.of(
+                new Object[]{1L, 10L, 2},
+                new Object[]{2L, 10L, 2}));
+        when(productoRepository.findStockPorIds(anyCollection())).thenReturn(List.<Object[]>of(new Object[]{10L, 10}));
+        when(ruteadorSurtido.surtir(anyMap(), isNull(), eq(true)))
+                .thenReturn(Optional.of(List.of()))
+                .thenReturn(Optional.empty());
+
+        // When
+        int rechazados = flujo.reservarStock(lote);
+
+        // Then: solo se descuenta el stock del pedido confirmado
+        assertEquals(1, rechazados);
+        verify(productoRepository).sumarStock(10L, -2);
+        verify(pedidoRepository).cambiarEstado(List.of(1L), "PENDIENTE", "CONFIRMADO");
+        verify(pedidoRepository).cambiarEstado(List.of(2L), "PENDIENTE", "RECHAZADO");
+        verify(surtidoPedidoRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void reservarStockSinPendientesNoHaceNada() {
+        // Given
+        when(pedidoRepository.bloquearPorEstado(List.of(1L), "PENDIENTE")).thenReturn(List.of());
+
+        // When
+        int rechazados = flujo.reservarStock(List.of(1L));
+
+        // Then
+        assertEquals(0, rechazados);
+        verifyNoInteractions(pedidoLineaRepository, productoRepository);
+        verify(pedidoRepository, never()).cambiarEstado(anyCollection(), anyString(), anyString());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void completarRegistraPuntosYNotificaciones() {
+        // Given
+        Cliente cliente = Cliente.builder().id(7L).build();
+        Pedido conCliente = Pedido.builder().id(1L).cliente(cliente).total(new BigDecimal("250.00")).build();
+        Pedido sinCliente = Pedido.builder().id(2L).total(new BigDecimal("99.00")).build();
+        List<Long> lote = List.of(1L, 2L);
+        when(pedidoRepository.bloquearPorEstado(lote, "CONFIRMADO")).thenReturn(List.of(conCliente, sinCliente));
+        when(pedidoRepository.findIdsPorIdsYEstado(lote, "CONFIRMADO")).thenReturn(lote);
+
+        // When
+        int completados = flujo.completar(lote);
+
+        // Then
+        assertEquals(2, completados);
+        verify(libroPuntos).registrar(7L, 25, "PEDIDO 1");
+        ArgumentCaptor<List<Notificacion>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificacionRepository).saveAll(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals("Tu pedido #1 fue procesado. Puntos ganados: 25", captor.getValue().get(0).getMensaje());
+        verify(pedidoRepository).cambiarEstado(lote, "CONFIRMADO", "COMPLETADO");
+    }
+}
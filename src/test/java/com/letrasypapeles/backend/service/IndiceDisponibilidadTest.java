@@ -0,0 +1,170 @@
+package com.letrasypapeles.backend.service;
+
+import com.letrasypapeles.backend.dto.DisponibilidadSucursal;
+import com.letrasypapeles.backend.entity.Inventario;
+import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.entity.Sucursal;
+import com.letrasypapeles.backend.event.EntidadCambiadaEvent;
+import com.letrasypapeles.backend.event.TipoCambio;
+import com.letrasypapeles.backend.repository.InventarioRepository;
+import com.letrasypapeles.backend.repository.SucursalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class IndiceDisponibilidadTest {
+
+    @Mock
+    private InventarioRepository inventarioRepository;
+
+    @Mock
+    private SucursalRepository sucursalRepository;
+
+    @InjectMocks
+    private IndiceDisponibilidad indice;
+
+    private Producto producto;
+    private Sucursal central;
+    private Sucursal norte;
+
+    @BeforeEach
+    void setUp() {
+        producto = Producto.builder().id(1L).nombre("El Quijote").build();
+        central = Sucursal.builder().id(1L).nombre("Tienda Central").region("Metropolitana").build();
+        norte = Sucursal.builder().id(2L).nombre("Tienda Norte").region("Antofagasta").build();
+    }
+
+    @Test
+    void cargarDesdeLaBaseDeDatos() {
+        // Given
+        when(sucursalRepository.findAll()).thenReturn(Arrays.asList(central, norte));
+        when(inventarioRepository.findExistencias()).thenReturn(Arrays.asList(
+                new Object[]{10L, 1L, 1L, 50},
+                new Object[]{11L, 1L, 2L, 0},
+                new Object[]{12L, 2L, 2L, 7}));
+
+        // When
+        indice.cargar();
+
+        // Then
+        List<DisponibilidadSucursal> result = indice.consultar(1L, null);
+        assertEquals(1, result.size());
+        assertEquals(1L, result.get(0).getSucursalId());
+        assertEquals(50, result.get(0).getCantidad());
+        assertEquals(7, indice.consultar(2L, null).get(0).getCantidad());
+        verify(inventarioRepository, times(1)).findExistencias();
+    }
+
+    @Test
+    void consultarFiltraPorRegion() {
+        // Given
+        indice.registrarSucursal(1L, "Metropolitana");
+        indice.registrarSucursal(2L, "Antofagasta");
+        indice.registrar(10L, 1L, 1L, 50);
+        indice.registrar(11L, 1L, 2L, 4);
+
+        // When
+        List<DisponibilidadSucursal> result = indice.consultar(1L, "antofagasta");
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(2L, result.get(0).getSucursalId());
+        assertEquals(2, indice.consultar(1L, null).size());
+        assertTrue(indice.consultar(1L, "Valparaíso").isEmpty());
+    }
+
+    @Test
+    void consultarProductoSinInventario() {
+        assertTrue(indice.consultar(99L, null).isEmpty());
+    }
+
+    @Test
+    void actualizaConCadaEscrituraDeInventario() {
+        // Given
+        Inventario inventario = Inventario.builder().id(10L).cantidad(5).producto(producto).sucursal(central).build();
+        indice.alCambiarInventario(new EntidadCambiadaEvent<>(inventario, TipoCambio.CREADA));
+
+        // When
+        inventario.setCantidad(12);
+        indice.alCambiarInventario(new EntidadCambiadaEvent<>(inventario, TipoCambio.ACTUALIZADA));
+
+        // Then
+        assertEquals(12, indice.consultar(1L, null).get(0).getCantidad());
+
+        // When
+        indice.alCambiarInventario(new EntidadCambiadaEvent<>(inventario, TipoCambio.ELIMINADA));
+
+        // Then
+        assertTrue(indice.consultar(1L, null).isEmpty());
+    }
+
+    @Test
+    void eventoConfirmadoAntesPeroNotificadoDespuesSeDescarta() {
+        // Given: dos transacciones escriben el mismo inventario; la primera confirma antes
+        Inventario primera = Inventario.builder().id(10L).cantidad(5).producto(producto).sucursal(central).build();
+        Inventario segunda = Inventario.builder().id(10L).cantidad(8).producto(producto).sucursal(central).build();
+        EntidadCambiadaEvent<Inventario> anterior = new EntidadCambiadaEvent<>(primera, TipoCambio.ACTUALIZADA);
+        EntidadCambiadaEvent<Inventario> posterior = new EntidadCambiadaEvent<>(segunda, TipoCambio.ACTUALIZADA);
+
+        // When: sus listeners se ejecutan en orden inverso
+        indice.alCambiarInventario(posterior);
+        indice.alCambiarInventario(anterior);
+
+        // Then
+        assertEquals(8, indice.consultar(1L, null).get(0).getCantidad());
+    }
+
+    @Test
+    void eventoAtrasadoNoReviveUnInventarioEliminado() {
+        // Given
+        Inventario inventario = Inventario.builder().id(10L).cantidad(5).producto(producto).sucursal(central).build();
+        EntidadCambiadaEvent<Inventario> actualizado = new EntidadCambiadaEvent<>(inventario, TipoCambio.ACTUALIZADA);
+        EntidadCambiadaEvent<Inventario> eliminado = new EntidadCambiadaEvent<>(inventario, TipoCambio.ELIMINADA);
+
+        // When
+        indice.alCambiarInventario(eliminado);
+        indice.alCambiarInventario(actualizado);
+
+        // Then
+        assertTrue(indice.consultar(1L, null).isEmpty());
+    }
+
+    @Test
+    void moverInventarioAOtroProducto() {
+        // Given
+        indice.registrar(10L, 1L, 1L, 5);
+
+        // When
+        indice.registrar(10L, 2L, 1L, 5);
+
+        // Then
+        assertTrue(indice.consultar(1L, null).isEmpty());
+        assertEquals(1, indice.consultar(2L, null).size());
+    }
+
+    @Test
+    void actualizaRegionDeSucursal() {
+        // Given
+        indice.registrar(10L, 1L, 1L, 5);
+        indice.alCambiarSucursal(new EntidadCambiadaEvent<>(central, TipoCambio.CREADA));
+        assertEquals(1, indice.consultar(1L, "Metropolitana").size());
+
+        // When
+        central.setRegion("Biobío");
+        indice.alCambiarSucursal(new EntidadCambiadaEvent<>(central, TipoCambio.ACTUALIZADA));
+
+        // Then
+        assertTrue(indice.consultar(1L, "Metropolitana").isEmpty());
+        assertEquals(1, indice.consultar(1L, "Biobío").size());
+    }
+}
@@ -10,6 +10,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Arrays;
 import java.util.List;
@@ -25,9 +27,14 @@ public class InventarioServiceTest {
     @Mock
     private InventarioRepository inventarioRepository;
 
+    @Mock
+    private ApplicationEventPublisher publisher;
+
     @InjectMocks
     private InventarioService inventarioService;
 
+    private MonitorStockBajo monitorStockBajo;
+
     private Inventario inventario;
     private Producto producto;
     private Sucursal sucursal;
@@ -52,6 +59,10 @@ public class InventarioServiceTest {
                 .producto(producto)
                 .sucursal(sucursal)
                 .build();
+
+        // Monitor real: las alertas se arman con los inventarios que entrega el repositorio
+        monitorStockBajo = new MonitorStockBajo(inventarioRepository, publisher);
+        ReflectionTestUtils.setField(inventarioService, "monitorStockBajo", monitorStockBajo);
     }
 
     @Test
@@ -296,8 +307,8 @@ public class InventarioServiceTest {
                 .sucursal(sucursal)
                 .build();
 
-        List<Inventario> todosLosInventarios = Arrays.asList(inventario1, inventario2, inventario3);
-        when(inventarioRepository.findAll()).thenReturn(todosLosInventarios);
+        // El filtro cantidad < umbral se resuelve en la consulta
+        when(inventarioRepository.findConStockBajo()).thenReturn(Arrays.asList(inventario1, inventario3));
 
         // When
         List<Inventario> result = inventarioService.obtenerInventariosConStockBajo();
@@ -306,8 +317,9 @@ public class InventarioServiceTest {
         assertEquals(2, result.size()); // Solo inventario1 e inventario3 tienen stock bajo
         assertTrue(result.stream().anyMatch(inv -> inv.getId().equals(1L)));
         assertTrue(result.stream().anyMatch(inv -> inv.getId().equals(3L)));
-        assertFalse(result.stream().anyMatch(inv -> inv.getId().equals(2L)));
-        verify(inventarioRepository, times(1)).findAll();
+        assertFalse(result.stream().anyMatch(inv -> inv.getId().equals(inventario2.getId())));
+        verify(inventarioRepository, times(1)).findConStockBajo();
+        verify(inventarioRepository, never()).findAll();
     }
 
     @Test
@@ -369,6 +381,31 @@ public class InventarioServiceTest {
         verify(inventarioRepository, never()).save(any(Inventario.class));
     }
 
+    @Test
+    void reducirCantidad_NoTocaLoApartadoPorReservas() {
+        // Given
+        Long inventarioId = 1L;
+        Inventario inventarioConReservas = Inventario.builder()
+                .id(inventarioId)
+                .cantidad(50)
+                .reservado(45)
+                .umbral(10)
+                .producto(producto)
+                .sucursal(sucursal)
+                .build();
+
+        when(inventarioRepository.findById(inventarioId)).thenReturn(Optional.of(inventarioConReservas));
+
+        // When & Then
+        Exception exception = assertThrows(RuntimeException.class, () -> {
+            inventarioService.reducirCantidad(inventarioId, 10);
+        });
+
+        assertTrue(exception.getMessage().contains("Cantidad disponible: 5"));
+        assertEquals(50, inventarioConReservas.getCantidad());
+        verify(inventarioRepository, never()).save(any(Inventario.class));
+    }
+
     @Test
     void aumentarCantidad_Exitoso() {
         // Given
@@ -620,26 +657,18 @@ public class InventarioServiceTest {
     @Test
     void generarAlertasDeRestock() {
         // Given
-        Inventario inventarioStockBajo = Inventario.builder()
-                .id(1L)
-                .cantidad(5)
-                .umbral(10)
-                .producto(producto)
-                .sucursal(sucursal)
-                .build();
-
-        List<Inventario> inventariosConStockBajo = Arrays.asList(inventarioStockBajo);
-        when(inventarioRepository.findAll()).thenReturn(inventariosConStockBajo);
+        inventario.setCantidad(5);
+        when(inventarioRepository.findConStockBajo()).thenReturn(Arrays.asList(inventario));
+        monitorStockBajo.cargar();
 
         // When
         List<String> alertas = inventarioService.generarAlertasDeRestock();
 
         // Then
         assertEquals(1, alertas.size());
-        assertTrue(alertas.get(0).contains("ALERTA"));
-        assertTrue(alertas.get(0).contains("El Quijote"));
-        assertTrue(alertas.get(0).contains("Tienda Central"));
-        verify(inventarioRepository).findAll();
+        assertEquals("ALERTA: Producto 'El Quijote' en sucursal 'Tienda Central' tiene stock bajo. " +
+                     "Cantidad actual: 5, Umbral: 10", alertas.get(0));
+        verify(inventarioRepository, never()).findAll();
     }
 
     @Test
@@ -652,17 +681,16 @@ public class InventarioServiceTest {
                 .producto(null)
                 .sucursal(sucursal)
                 .build();
-
-        List<Inventario> inventariosConStockBajo = Arrays.asList(inventarioSinProducto);
-        when(inventarioRepository.findAll()).thenReturn(inventariosConStockBajo);
+        when(inventarioRepository.findConStockBajo()).thenReturn(Arrays.asList(inventarioSinProducto));
+        monitorStockBajo.cargar();
 
         // When
         List<String> alertas = inventarioService.generarAlertasDeRestock();
 
         // Then
         assertEquals(1, alertas.size());
-        assertTrue(alertas.get(0).contains("Desconocido"));
-        verify(inventarioRepository).findAll();
+        assertTrue(alertas.get(0).contains("Producto 'Desconocido'"));
+        assertTrue(alertas.get(0).contains("sucursal 'Tienda Central'"));
     }
 
     @Test
@@ -675,17 +703,16 @@ public class InventarioServiceTest {
                 .producto(producto)
                 .sucursal(null)
                 .build();
-
-        List<Inventario> inventariosConStockBajo = Arrays.asList(inventarioSinSucursal);
-        when(inventarioRepository.findAll()).thenReturn(inventariosConStockBajo);
+        when(inventarioRepository.findConStockBajo()).thenReturn(Arrays.asList(inventarioSinSucursal));
+        monitorStockBajo.cargar();
 
         // When
         List<String> alertas = inventarioService.generarAlertasDeRestock();
 
         // Then
         assertEquals(1, alertas.size());
-        assertTrue(alertas.get(0).contains("Desconocida"));
-        verify(inventarioRepository).findAll();
+        assertTrue(alertas.get(0).contains("Producto 'El Quijote'"));
+        assertTrue(alertas.get(0).contains("sucursal 'Desconocida'"));
     }
 
     @Test
@@ -0,0 +1,206 @@
+package com.letrasypapeles.backend.service;
+
+import com.letrasypapeles.backend.entity.MovimientoPuntos;
+import com.letrasypapeles.backend.repository.ClienteRepository;
+import com.letrasypapeles.backend.repository.MovimientoPuntosRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LibroPuntosTest {
+
+    @Mock
+    private MovimientoPuntosRepository movimientoRepository;
+
+    @Mock
+    private ClienteRepository clienteRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LibroPuntos libro;
+
+    @BeforeEach
+    void setUp() {
+        libro = new LibroPuntos(movimientoRepository, clienteRepository, jdbcTemplate, transactionManager, 2, true);
+    }
+
+    private static MovimientoPuntos movimiento(long id, long clienteId, int puntos) {
+        return MovimientoPuntos.builder().id(id).clienteId(clienteId).puntos(puntos).build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Collection<MovimientoPuntos>> lotesInsertados(int veces) {
+        ArgumentCaptor<Collection<MovimientoPuntos>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, times(veces)).batchUpdate(eq(LibroPuntos.INSERTAR), captor.capture(), eq(2),
+                any(ParameterizedPreparedStatementSetter.class));
+        return captor.getAllValues();
+    }
+
+    @Test
+    void fueraDeTransaccionInsertaDeInmediato() {
+        // When
+        libro.registrar(1L, 10, "COMPRA");
+
+        // Then
+        MovimientoPuntos insertado = lotesInsertados(1).get(0).iterator().next();
+        assertEquals(1L, insertado.getClienteId());
+        assertEquals(10, insertado.getPuntos());
+        assertEquals("COMPRA", insertado.getMotivo());
+        assertFalse(insertado.isPlegado());
+        verifyNoInteractions(clienteRepository);
+    }
+
+    @Test
+    void puntosEnCeroNoGeneranMovimiento() {
+        // When
+        libro.registrar(1L, 0, "COMPRA");
+
+        // Then
+        verifyNoInteractions(jdbcTemplate, clienteRepository, movimientoRepository);
+    }
+
+    @Test
+    void dentroDeTransaccionInsertaUnSoloLoteAlConfirmar() {
+        // Given
+        when(clienteRepository.obtenerSaldoPuntos(1L)).thenReturn(50L);
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            // When
+            libro.registrar(1L, 10, "COMPRA");
+            libro.registrar(2L, 4, "COMPRA");
+            libro.registrar(1L, 3, "RESERVA 7");
+
+            // Then
+            verifyNoInteractions(jdbcTemplate);
+            assertEquals(63L, libro.saldo(1L));
+
+            // When
+            for (TransactionSynchronization sincronizacion : TransactionSynchronizationManager.getSynchronizations()) {
+                sincronizacion.beforeCommit(false);
+                sincronizacion.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        assertEquals(3, lotesInsertados(1).get(0).size());
+        assertEquals(50L, libro.saldo(1L));
+    }
+
+    @Test
+    void transaccionRevertidaNoInserta() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            libro.registrar(1L, 10, "COMPRA");
+
+            // When
+            for (TransactionSynchronization sincronizacion : TransactionSynchronizationManager.getSynchronizations()) {
+                sincronizacion.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        verifyNoInteractions(jdbcTemplate);
+        assertNull(TransactionSynchronizationManager.getResource(libro));
+    }
+
+    @Test
+    void saldoSinClienteEsCero() {
+        // Given
+        when(clienteRepository.obtenerSaldoPuntos(99L)).thenReturn(null);
+
+        // When & Then
+        assertEquals(0L, libro.saldo(99L));
+    }
+
+    @Test
+    void plegarLoteSumaUnaVezPorClienteYMarcaLosMovimientos() {
+        // Given
+        when(movimientoRepository.bloquearNoPlegados(any(Pageable.class))).thenReturn(Arrays.asList(
+                movimiento(1L, 2L, 5), movimiento(2L, 1L, 10), movimiento(3L, 2L, 7), movimiento(4L, 3L, 4),
+                movimiento(5L, 3L, -4)));
+
+        // When
+        int plegados = libro.plegarLote();
+
+        // Then
+        assertEquals(5, plegados);
+        verify(clienteRepository).actualizarPuntosFidelidad(1L, 10);
+        verify(clienteRepository).actualizarPuntosFidelidad(2L, 12);
+        verify(clienteRepository, never()).actualizarPuntosFidelidad(eq(3L), anyInt());
+        verify(movimientoRepository).marcarPlegados(Arrays.asList(1L, 2L, 3L, 4L, 5L));
+    }
+
+    @Test
+    void plegarRecorreLotesHastaVaciar() {
+        // Given
+        List<List<MovimientoPuntos>> lotes = new ArrayList<>(Arrays.asList(
+                Arrays.asList(movimiento(1L, 1L, 1), movimiento(2L, 1L, 2)),
+                Arrays.asList(movimiento(3L, 1L, 3))));
+        when(movimientoRepository.bloquearNoPlegados(any(Pageable.class)))
+                .thenAnswer(inv -> lotes.isEmpty() ? List.of() : lotes.remove(0));
+
+        // When
+        int plegados = libro.plegar();
+
+        // Then
+        assertEquals(3, plegados);
+        verify(movimientoRepository, times(2)).bloquearNoPlegados(any(Pageable.class));
+        verify(clienteRepository, times(2)).actualizarPuntosFidelidad(1L, 3);
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void plegadoDeshabilitadoNoConsulta() {
+        // Given
+        libro = new LibroPuntos(movimientoRepository, clienteRepository, jdbcTemplate, transactionManager, 2, false);
+
+        // When
+        libro.plegarPeriodicamente();
+
+        // Then
+        verifyNoInteractions(movimientoRepository, transactionManager);
+    }
+
+    @Test
+    void falloAlPlegarSeReintentaLuego() {
+        // Given
+        when(movimientoRepository.bloquearNoPlegados(any(Pageable.class)))
+                .thenThrow(new RuntimeException("Lock timeout"));
+
+        // When & Then
+        assertDoesNotThrow(() -> libro.plegarPeriodicamente());
+        verify(clienteRepository, never()).actualizarPuntosFidelidad(anyLong(), anyInt());
+    }
+}
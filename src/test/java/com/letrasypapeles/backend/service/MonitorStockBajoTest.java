@@ -0,0 +1,300 @@
+package com.letrasypapeles.backend.service;
+
+import com.letrasypapeles.backend.dto.AlertaStockBajo;
+import com.letrasypapeles.backend.entity.Inventario;
+import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.entity.Sucursal;
+import com.letrasypapeles.backend.event.EntidadCambiadaEvent;
+import com.letrasypapeles.backend.event.StockBajoEvent;
+import com.letrasypapeles.backend.event.TipoCambio;
+import com.letrasypapeles.backend.repository.InventarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MonitorStockBajoTest {
+
+    @Mock
+    private InventarioRepository inventarioRepository;
+
+    @Mock
+    private ApplicationEventPublisher publisher;
+
+    @InjectMocks
+    private MonitorStockBajo monitor;
+
+    private Inventario inventario;
+
+    @BeforeEach
+    void setUp() {
+        Producto producto = Producto.builder().id(1L).nombre("El Quijote").build();
+        Sucursal sucursal = Sucursal.builder().id(1L).nombre("Tienda Central").build();
+        inventario = Inventario.builder()
+                .id(1L)
+                .cantidad(50)
+                .umbral(10)
+                .producto(producto)
+                .sucursal(sucursal)
+                .build();
+    }
+
+    private void escribir(TipoCambio tipo) {
+        monitor.alCambiarInventario(new EntidadCambiadaEvent<>(inventario, tipo));
+    }
+
+    private EntidadCambiadaEvent<Inventario> evento(int cantidad, TipoCambio tipo) {
+        Inventario copia = Inventario.builder()
+                .id(inventario.getId())
+                .cantidad(cantidad)
+                .umbral(inventario.getUmbral())
+                .producto(inventario.getProducto())
+                .sucursal(inventario.getSucursal())
+                .build();
+        return new EntidadCambiadaEvent<>(copia, tipo);
+    }
+
+    @Test
+    void cargarSoloInventariosBajoUmbral() {
+        // Given
+        inventario.setCantidad(5);
+        when(inventarioRepository.findConStockBajo()).thenReturn(Arrays.asList(inventario));
+
+        // When
+        monitor.cargar();
+
+        // Then
+        List<String> mensajes = monitor.mensajesVigentes();
+        assertEquals(1, mensajes.size());
+        assertTrue(mensajes.get(0).contains("ALERTA"));
+        assertTrue(mensajes.get(0).contains("El Quijote"));
+        assertTrue(mensajes.get(0).contains("Tienda Central"));
+        verify(inventarioRepository, never()).findAll();
+    }
+
+    @Test
+    void entraAlCruzarElUmbralYPublicaUnaSolaVez() {
+        // Given
+        escribir(TipoCambio.CREADA);
+        assertTrue(monitor.alertasVigentes().isEmpty());
+
+        // When
+        inventario.setCantidad(8);
+        escribir(TipoCambio.ACTUALIZADA);
+        inventario.setCantidad(6);
+        escribir(TipoCambio.ACTUALIZADA);
+
+        // Then
+        Collection<AlertaStockBajo> alertas = monitor.alertasVigentes();
+        assertEquals(1, alertas.size());
+        assertEquals(6, alertas.iterator().next().getCantidad());
+
+        ArgumentCaptor<StockBajoEvent> captor = ArgumentCaptor.forClass(StockBajoEvent.class);
+        verify(publisher, times(1)).publishEvent(captor.capture());
+        assertTrue(captor.getValue().isBajoUmbral());
+        assertEquals(8, captor.getValue().getAlerta().getCantidad());
+    }
+
+    @Test
+    void escribirSinCambiarLasCifrasConservaLaAlertaYSuMensaje() {
+        // Given
+        inventario.setCantidad(5);
+        escribir(TipoCambio.ACTUALIZADA);
+        AlertaStockBajo primera = monitor.alertasVigentes().iterator().next();
+
+        // When
+        escribir(TipoCambio.ACTUALIZADA);
+        AlertaStockBajo igual = monitor.alertasVigentes().iterator().next();
+        inventario.setCantidad(4);
+        escribir(TipoCambio.ACTUALIZADA);
+        AlertaStockBajo nueva = monitor.alertasVigentes().iterator().next();
+
+        // Then
+        assertSame(primera, igual);
+        assertNotSame(primera, nueva);
+        assertTrue(primera.getMensaje().contains("Cantidad actual: 5"));
+        assertTrue(nueva.getMensaje().contains("Cantidad actual: 4"));
+    }
+
+    @Test
+    void saleAlRecuperarElUmbral() {
+        // Given
+        inventario.setCantidad(2);
+        escribir(TipoCambio.ACTUALIZADA);
+
+        // When
+        inventario.setCantidad(10);
+        escribir(TipoCambio.ACTUALIZADA);
+
+        // Then
+        assertTrue(monitor.alertasVigentes().isEmpty());
+        ArgumentCaptor<StockBajoEvent> captor = ArgumentCaptor.forClass(StockBajoEvent.class);
+        verify(publisher, times(2)).publishEvent(captor.capture());
+        assertFalse(captor.getAllValues().get(1).isBajoUmbral());
+    }
+
+    @Test
+    void saleAlEliminarElInventario() {
+        // Given
+        inventario.setCantidad(2);
+        escribir(TipoCambio.CREADA);
+
+        // When
+        escribir(TipoCambio.ELIMINADA);
+
+        // Then
+        assertTrue(monitor.alertasVigentes().isEmpty());
+        verify(publisher, times(2)).publishEvent(any(StockBajoEvent.class));
+    }
+
+    @Test
+    void sinUmbralNoGeneraAlerta() {
+        // Given
+        inventario.setCantidad(0);
+        inventario.setUmbral(null);
+
+        // When
+        escribir(TipoCambio.ACTUALIZADA);
+
+        // Then
+        assertTrue(monitor.alertasVigentes().isEmpty());
+        verifyNoInteractions(publisher);
+    }
+
+    @Test
+    void alertaConProductoNulo() {
+        // Given
+        inventario.setCantidad(5);
+        inventario.setProducto(null);
+
+        // When
+        escribir(TipoCambio.ACTUALIZADA);
+
+        // Then
+        Collection<AlertaStockBajo> alertas = monitor.alertasVigentes();
+        assertEquals(1, alertas.size());
+        AlertaStockBajo alerta = alertas.iterator().next();
+        assertEquals(1L, alerta.getInventarioId());
+        assertNull(alerta.getProductoId());
+        assertEquals("Desconocido", alerta.getProductoNombre());
+        assertEquals(1L, alerta.getSucursalId());
+        assertTrue(alerta.getMensaje().contains("Producto 'Desconocido' en sucursal 'Tienda Central'"));
+    }
+
+    @Test
+    void alertaConSucursalNula() {
+        // Given
+        inventario.setCantidad(5);
+        inventario.setSucursal(null);
+
+        // When
+        escribir(TipoCambio.ACTUALIZADA);
+
+        // Then
+        Collection<AlertaStockBajo> alertas = monitor.alertasVigentes();
+        assertEquals(1, alertas.size());
+        AlertaStockBajo alerta = alertas.iterator().next();
+        assertEquals(1L, alerta.getInventarioId());
+        assertEquals(1L, alerta.getProductoId());
+        assertNull(alerta.getSucursalId());
+        assertEquals("Desconocida", alerta.getSucursalNombre());
+        assertTrue(alerta.getMensaje().contains("Producto 'El Quijote' en sucursal 'Desconocida'"));
+    }
+
+    @Test
+    void eventoConfirmadoAntesPeroNotificadoDespuesSeDescarta() {
+        // Given: la escritura que deja 5 se confirma antes que la que deja 40
+        EntidadCambiadaEvent<Inventario> bajo = evento(5, TipoCambio.ACTUALIZADA);
+        EntidadCambiadaEvent<Inventario> recuperado = evento(40, TipoCambio.ACTUALIZADA);
+
+        // When: los listeners posteriores a la confirmación llegan en orden inverso
+        monitor.alCambiarInventario(recuperado);
+        monitor.alCambiarInventario(bajo);
+
+        // Then
+        assertTrue(monitor.alertasVigentes().isEmpty());
+        verifyNoInteractions(publisher);
+    }
+
+    @Test
+    void eventoAtrasadoNoVuelveAMeterUnInventarioEliminado() {
+        // Given
+        EntidadCambiadaEvent<Inventario> bajo = evento(5, TipoCambio.ACTUALIZADA);
+        EntidadCambiadaEvent<Inventario> eliminado = evento(5, TipoCambio.ELIMINADA);
+
+        // When
+        monitor.alCambiarInventario(eliminado);
+        monitor.alCambiarInventario(bajo);
+
+        // Then
+        assertTrue(monitor.alertasVigentes().isEmpty());
+        verifyNoInteractions(publisher);
+    }
+
+    @Test
+    void dentroDeTransaccionSoloPublicaAlConfirmar() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            // When
+            inventario.setCantidad(3);
+            escribir(TipoCambio.ACTUALIZADA);
+
+            // Then
+            assertEquals(1, monitor.alertasVigentes().size());
+            verifyNoInteractions(publisher);
+
+            // When
+            for (TransactionSynchronization sincronizacion : TransactionSynchronizationManager.getSynchronizations()) {
+                sincronizacion.afterCommit();
+                sincronizacion.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            }
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        assertEquals(1, monitor.alertasVigentes().size());
+        verify(publisher, times(1)).publishEvent(any(StockBajoEvent.class));
+    }
+
+    @Test
+    void dentroDeTransaccionRevertidaNoCambiaElConjunto() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            inventario.setCantidad(3);
+            escribir(TipoCambio.ACTUALIZADA);
+
+            // When
+            for (TransactionSynchronization sincronizacion : TransactionSynchronizationManager.getSynchronizations()) {
+                sincronizacion.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        assertTrue(monitor.alertasVigentes().isEmpty());
+        verifyNoInteractions(publisher);
+    }
+}
@@ -1,18 +1,31 @@
 package com.letrasypapeles.backend.service;
 
+import com.letrasypapeles.backend.dto.LineaPedidoRequest;
+import com.letrasypapeles.backend.dto.PedidoRequest;
+import com.letrasypapeles.backend.dto.ResumenVentas;
 import com.letrasypapeles.backend.entity.Cliente;
+import com.letrasypapeles.backend.entity.Inventario;
 import com.letrasypapeles.backend.entity.Pedido;
+import com.letrasypapeles.backend.entity.PedidoLinea;
 import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.entity.Sucursal;
+import com.letrasypapeles.backend.entity.SurtidoPedido;
+import com.letrasypapeles.backend.repository.InventarioRepository;
 import com.letrasypapeles.backend.repository.PedidoRepository;
 import com.letrasypapeles.backend.repository.ClienteRepository;
+import com.letrasypapeles.backend.repository.PedidoLineaRepository;
 import com.letrasypapeles.backend.repository.ProductoRepository;
+import com.letrasypapeles.backend.repository.SurtidoPedidoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -35,6 +48,18 @@ public class PedidoServiceTest {
     @Mock
     private ProductoRepository productoRepository;
 
+    @Mock
+    private PedidoLineaRepository pedidoLineaRepository;
+
+    @Mock
+    private SurtidoPedidoRepository surtidoPedidoRepository;
+
+    @Mock
+    private InventarioRepository inventarioRepository;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private PedidoService pedidoService;
 
@@ -145,6 +170,165 @@ public class PedidoServiceTest {
         verify(pedidoRepository, times(1)).save(any(Pedido.class));
     }
 
+    private void bloqueado(Pedido existente) {
+        when(pedidoRepository.bloquearPorEstado(List.of(existente.getId()), existente.getEstado())).thenReturn(List.of(existente));
+        when(pedidoRepository.findIdsPorIdsYEstado(List.of(existente.getId()), existente.getEstado())).thenReturn(List.of(existente.getId()));
+    }
+
+    @Test
+    void actualizarPendienteSinEstadoGuardaLosCambios() {
+        // Given
+        Pedido existente = Pedido.builder().id(1L).estado("PENDIENTE").build();
+        Pedido cambios = Pedido.builder().cliente(cliente).listaProductos(new ArrayList<>()).region("Maule").build();
+        bloqueado(existente);
+        when(pedidoRepository.save(any(Pedido.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // When
+        Pedido result = pedidoService.actualizar(existente, cambios);
+
+        // Then
+        assertEquals(1L, result.getId());
+        assertEquals("PENDIENTE", result.getEstado());
+        assertEquals("Maule", result.getRegion());
+    }
+
+    @Test
+    void actualizarCompletadoConservaLineasYTotal() {
+        // Given: se reenvían las mismas líneas con otra región
+        Producto conPrecio = Producto.builder().id(1L).nombre("El Quijote").precio(new BigDecimal("10.00")).build();
+        Pedido existente = Pedido.builder().id(1L).estado("COMPLETADO").cliente(cliente).total(new BigDecimal("20.00")).build();
+        Pedido cambios = Pedido.builder()
+                .cliente(Cliente.builder().id(1L).build())
+                .lineas(new ArrayList<>(List.of(PedidoLinea.builder().producto(conPrecio).cantidad(2).build())))
+                .region("Maule")
+                .build();
+        bloqueado(existente);
+        when(pedidoLineaRepository.findCantidadesPorPedidos(List.of(1L))).thenReturn(List.<Object[]>of(new Object[]{1L, 1L, 2}));
+        when(pedidoRepository.save(existente)).thenReturn(existente);
+
+        // When
+        Pedido result = pedidoService.actualizar(existente, cambios);
+
+        // Then
+        assertSame(existente, result);
+        assertEquals("COMPLETADO", result.getEstado());
+        assertEquals("Maule", result.getRegion());
+        assertEquals(new BigDecimal("20.00"), result.getTotal());
+        assertNull(result.getLineas());
+        verifyNoInteractions(productoRepository, inventarioRepository);
+    }
+
+    @Test
+    void actualizarLineasDeUnPedidoConfirmadoSeRechaza() {
+        // Given
+        Pedido existente = Pedido.builder().id(1L).estado("CONFIRMADO").cliente(cliente).build();
+        Pedido cambios = Pedido.builder()
+                .lineas(new ArrayList<>(List.of(PedidoLinea.builder().producto(producto).cantidad(5).build())))
+                .build();
+        bloqueado(existente);
+        when(pedidoLineaRepository.findCantidadesPorPedidos(List.of(1L))).thenReturn(List.<Object[]>of(new Object[]{1L, 1L, 2}));
+
+        // When & Then
+        Exception exception = assertThrows(IllegalStateException.class, () -> pedidoService.actualizar(existente, cambios));
+        assertEquals("No se pueden modificar las líneas de un pedido en estado CONFIRMADO", exception.getMessage());
+        verify(pedidoRepository, never()).save(any(Pedido.class));
+    }
+
+    @Test
+    void actualizarTotalDeUnPedidoCompletadoSeRechaza() {
+        // Given
+        Pedido existente = Pedido.builder().id(1L).estado("COMPLETADO").total(new BigDecimal("20.00")).build();
+        Pedido cambios = Pedido.builder().total(new BigDecimal("1.00")).build();
+        bloqueado(existente);
+
+        // When & Then
+        Exception exception = assertThrows(IllegalStateException.class, () -> pedidoService.actualizar(existente, cambios));
+        assertEquals("No se puede modificar el total de un pedido en estado COMPLETADO", exception.getMessage());
+        verify(pedidoRepository, never()).save(any(Pedido.class));
+    }
+
+    @Test
+    void cancelarConfirmadoDevuelveStockAlProductoYALasSucursales() {
+        // Given: 3 unidades del producto 1 salieron de la sucursal 5 y 1 del producto 2 no tenía inventarios
+        Pedido existente = Pedido.builder().id(1L).estado("CONFIRMADO").cliente(cliente).build();
+        Pedido cambios = Pedido.builder().estado("CANCELADO").build();
+        Inventario inventario = Inventario.builder().id(20L).cantidad(9).producto(producto)
+                .sucursal(Sucursal.builder().id(5L).build()).build();
+        bloqueado(existente);
+        when(pedidoLineaRepository.findCantidadesPorPedidos(List.of(1L)))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, 1L, 3}, new Object[]{1L, 2L, 1}));
+        when(surtidoPedidoRepository.findByPedidoIdOrderByProductoIdAscSucursalIdAsc(1L)).thenReturn(List.of(
+                SurtidoPedido.builder().pedidoId(1L).productoId(1L).sucursalId(5L).cantidad(3).build()));
+        when(inventarioRepository.bloquearPorProductosYSucursales(any(), any())).thenReturn(List.of(inventario));
+        when(inventarioRepository.findCantidadesPorIds(List.of(20L))).thenReturn(List.<Object[]>of(new Object[]{20L, 4, 0}));
+        when(pedidoRepository.save(existente)).thenReturn(existente);
+
+        // When
+        Pedido result = pedidoService.actualizar(existente, cambios);
+
+        // Then: la cantidad de la sucursal parte de la vigente, no de la entidad desactualizada
+        assertEquals("CANCELADO", result.getEstado());
+        verify(productoRepository).sumarStock(1L, 3);
+        verify(productoRepository).sumarStock(2L, 1);
+        assertEquals(7, inventario.getCantidad());
+    }
+
+    @Test
+    void cancelarPendienteNoTocaElStock() {
+        // Given
+        Pedido existente = Pedido.builder().id(1L).estado("PENDIENTE").build();
+        Pedido cambios = Pedido.builder().estado("CANCELADO").build();
+        bloqueado(existente);
+        when(pedidoRepository.save(existente)).thenReturn(existente);
+
+        // When
+        Pedido result = pedidoService.actualizar(existente, cambios);
+
+        // Then
+        assertEquals("CANCELADO", result.getEstado());
+        verifyNoInteractions(productoRepository, inventarioRepository, surtidoPedidoRepository);
+    }
+
+    @Test
+    void actualizarNoConfirmaNiCompletaPedidos() {
+        // Given
+        Pedido existente = Pedido.builder().id(1L).estado("PENDIENTE").build();
+        Pedido cambios = Pedido.builder().cliente(cliente).estado("CONFIRMADO").build();
+
+        // When & Then
+        Exception exception = assertThrows(IllegalStateException.class, () -> pedidoService.actualizar(existente, cambios));
+        assertEquals("Un pedido solo puede cambiarse a CANCELADO; PENDIENTE -> CONFIRMADO lo realiza el procesamiento de pedidos",
+                exception.getMessage());
+        verify(pedidoRepository, never()).bloquearPorEstado(any(), any());
+        verify(pedidoRepository, never()).save(any(Pedido.class));
+    }
+
+    @Test
+    void actualizarConTransicionInvalidaNoGuarda() {
+        // Given
+        Pedido existente = Pedido.builder().id(1L).estado("COMPLETADO").build();
+        Pedido cambios = Pedido.builder().cliente(cliente).estado("CANCELADO").build();
+
+        // When & Then
+        Exception exception = assertThrows(IllegalStateException.class, () -> pedidoService.actualizar(existente, cambios));
+        assertEquals("Transición de estado inválida: COMPLETADO -> CANCELADO", exception.getMessage());
+        verify(pedidoRepository, never()).save(any(Pedido.class));
+    }
+
+    @Test
+    void actualizarPedidoQueCambioDeEstadoEntreTanto() {
+        // Given: el procesamiento lo confirmó después de leerlo
+        Pedido existente = Pedido.builder().id(1L).estado("PENDIENTE").build();
+        Pedido cambios = Pedido.builder().estado("CANCELADO").build();
+        when(pedidoRepository.bloquearPorEstado(List.of(1L), "PENDIENTE")).thenReturn(List.of());
+
+        // When & Then
+        Exception exception = assertThrows(IllegalStateException.class, () -> pedidoService.actualizar(existente, cambios));
+        assertEquals("El pedido ya no está en estado PENDIENTE; vuelva a consultarlo", exception.getMessage());
+        verify(pedidoRepository, never()).save(any(Pedido.class));
+        verifyNoInteractions(productoRepository);
+    }
+
     @Test
     void eliminar() {
         // Given
@@ -188,4 +372,194 @@ public class PedidoServiceTest {
         assertEquals("PENDIENTE", result.get(0).getEstado());
         verify(pedidoRepository, times(1)).findByEstado("PENDIENTE");
     }
+
+    @Test
+    void crearDesdePedidoRequestResuelveProductosEnUnaConsulta() {
+        // Given
+        Producto otro = Producto.builder().id(2L).nombre("Cien Años de Soledad").build();
+        PedidoRequest request = PedidoRequest.builder()
+                .clienteId(1L)
+                .productosIds(Arrays.asList(2L, 1L, 2L))
+                .build();
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(productoRepository.findAllById(any())).thenReturn(Arrays.asList(producto, otro));
+        when(pedidoRepository.save(any(Pedido.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // When
+        Pedido result = pedidoService.crearDesdePedidoRequest(request);
+
+        // Then
+        assertEquals(Arrays.asList(otro, producto, otro), result.getListaProductos());
+        assertEquals("PENDIENTE", result.getEstado());
+        verify(productoRepository, times(1)).findAllById(any());
+        verify(productoRepository, never()).findById(any());
+        assertEquals(1, meterRegistry.get("pedidos.creacion.duracion").tag("lineas", "2-10").timer().count());
+    }
+
+    @Test
+    void crearDesdePedidoRequestConProductoInexistente() {
+        // Given
+        PedidoRequest request = PedidoRequest.builder()
+                .clienteId(1L)
+                .productosIds(Arrays.asList(1L, 99L))
+                .build();
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(productoRepository.findAllById(any())).thenReturn(List.of(producto));
+
+        // When & Then
+        Exception exception = assertThrows(RuntimeException.class, () -> pedidoService.crearDesdePedidoRequest(request));
+        assertEquals("Producto no encontrado con ID: 99", exception.getMessage());
+        verify(pedidoRepository, never()).save(any(Pedido.class));
+    }
+
+    @Test
+    void guardarCompletaProductosIncompletosEnUnaConsulta() {
+        // Given
+        Producto completo = Producto.builder().id(1L).nombre("El Quijote").precio(new BigDecimal("29.99")).build();
+        Producto referencia = Producto.builder().id(1L).build();
+        Producto conDatos = Producto.builder().id(3L).nombre("Rayuela").precio(new BigDecimal("19.99")).build();
+        Pedido pedidoNuevo = Pedido.builder()
+                .cliente(cliente)
+                .listaProductos(new ArrayList<>(Arrays.asList(referencia, conDatos, referencia)))
+                .build();
+        when(productoRepository.findAllById(any())).thenReturn(List.of(completo));
+        when(pedidoRepository.save(any(Pedido.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // When
+        Pedido result = pedidoService.guardar(pedidoNuevo);
+
+        // Then
+        assertEquals(Arrays.asList(completo, conDatos, completo), result.getListaProductos());
+        verify(productoRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    void guardarPedidoExistenteConservaPreciosGuardadosYCobraSoloProductosNuevos() {
+        // Given
+        Producto encarecido = Producto.builder().id(1L).nombre("El Quijote").precio(new BigDecimal("39.99")).build();
+        Producto nuevo = Producto.builder().id(3L).nombre("Rayuela").precio(new BigDecimal("19.99")).build();
+        Pedido cambios = Pedido.builder()
+                .id(1L)
+                .cliente(cliente)
+                .lineas(new ArrayList<>(Arrays.asList(
+                        PedidoLinea.builder().producto(encarecido).cantidad(2).build(),
+                        PedidoLinea.builder().producto(nuevo).cantidad(1).build())))
+                .build();
+        when(pedidoLineaRepository.findPreciosPorPedido(1L))
+                .thenReturn(List.<Object[]>of(new Object[]{1L, new BigDecimal("29.99")}));
+        when(pedidoRepository.save(any(Pedido.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // When
+        Pedido result = pedidoService.guardar(cambios);
+
+        // Then
+        assertEquals(new BigDecimal("29.99"), result.getLineas().get(0).getPrecioUnitario());
+        assertEquals(new BigDecimal("59.98"), result.getLineas().get(0).getTotalLinea());
+        assertEquals(new BigDecimal("19.99"), result.getLineas().get(1).getPrecioUnitario());
+        assertEquals(new BigDecimal("79.97"), result.getTotal());
+    }
+
+    @Test
+    void guardarPedidoNuevoNoConsultaPreciosGuardados() {
+        // Given
+        Pedido pedidoNuevo = Pedido.builder()
+                .cliente(cliente)
+                .listaProductos(new ArrayList<>(List.of(Producto.builder().id(1L).nombre("El Quijote").precio(new BigDecimal("29.99")).build())))
+                .build();
+        when(pedidoRepository.save(any(Pedido.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // When
+        Pedido result = pedidoService.guardar(pedidoNuevo);
+
+        // Then
+        assertEquals(new BigDecimal("29.99"), result.getLineas().get(0).getPrecioUnitario());
+        verify(pedidoLineaRepository, never()).findPreciosPorPedido(any());
+    }
+
+    @Test
+    void tramoDeLineas() {
+        assertEquals("0-1", PedidoService.tramoDeLineas(0));
+        assertEquals("2-10", PedidoService.tramoDeLineas(10));
+        assertEquals("11-50", PedidoService.tramoDeLineas(50));
+        assertEquals("51-200", PedidoService.tramoDeLineas(51));
+        assertEquals("200+", PedidoService.tramoDeLineas(201));
+    }
+
+    @Test
+    void crearDesdePedidoRequestAgrupaProductosRepetidosEnLineas() {
+        // Given
+        producto.setPrecio(new BigDecimal("10.50"));
+        Producto otro = Producto.builder().id(2L).nombre("Rayuela").precio(new BigDecimal("3.00")).build();
+        PedidoRequest request = PedidoRequest.builder()
+                .clienteId(1L)
+                .productosIds(Arrays.asList(1L, 2L, 1L))
+                .build();
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(productoRepository.findAllById(any())).thenReturn(Arrays.asList(producto, otro));
+        when(pedidoRepository.save(any(Pedido.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // When
+        Pedido result = pedidoService.crearDesdePedidoRequest(request);
+
+        // Then
+        assertEquals(2, result.getLineas().size());
+        PedidoLinea primera = result.getLineas().get(0);
+        assertEquals(producto, primera.getProducto());
+        assertEquals(2, primera.getCantidad());
+        assertEquals(new BigDecimal("10.50"), primera.getPrecioUnitario());
+        assertEquals(new BigDecimal("21.00"), primera.getTotalLinea());
+        assertSame(result, primera.getPedido());
+        assertEquals(new BigDecimal("24.00"), result.getTotal());
+    }
+
+    @Test
+    void crearDesdePedidoRequestConLineasExplicitas() {
+        // Given
+        producto.setPrecio(new BigDecimal("2.50"));
+        PedidoRequest request = PedidoRequest.builder()
+                .clienteId(1L)
+                .lineas(List.of(LineaPedidoRequest.builder().productoId(1L).cantidad(4).build()))
+                .build();
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(productoRepository.findAllById(any())).thenReturn(List.of(producto));
+        when(pedidoRepository.save(any(Pedido.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // When
+        Pedido result = pedidoService.crearDesdePedidoRequest(request);
+
+        // Then
+        assertEquals(new BigDecimal("10.00"), result.getTotal());
+        assertEquals(List.of(producto), result.getListaProductos());
+    }
+
+    @Test
+    void crearDesdePedidoRequestConCantidadInvalida() {
+        // Given
+        PedidoRequest request = PedidoRequest.builder()
+                .clienteId(1L)
+                .lineas(List.of(LineaPedidoRequest.builder().productoId(1L).cantidad(0).build()))
+                .build();
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(productoRepository.findAllById(any())).thenReturn(List.of(producto));
+
+        // When & Then
+        Exception exception = assertThrows(RuntimeException.class, () -> pedidoService.crearDesdePedidoRequest(request));
+        assertEquals("La cantidad de cada línea debe ser mayor a 0", exception.getMessage());
+        verify(pedidoRepository, never()).save(any(Pedido.class));
+    }
+
+    @Test
+    void resumirVentasCalculaTicketPromedio() {
+        // Given
+        when(pedidoRepository.resumirVentas(null, null, PedidoService.ESTADOS_VENDIDOS))
+                .thenReturn(List.<Object[]>of(new Object[]{3L, new BigDecimal("100.00")}));
+
+        // When
+        ResumenVentas resumen = pedidoService.resumirVentas(null, null);
+
+        // Then
+        assertEquals(3L, resumen.getPedidos());
+        assertEquals(new BigDecimal("100.00"), resumen.getIngresos());
+        assertEquals(new BigDecimal("33.33"), resumen.getTicketPromedio());
+    }
 }
@@ -0,0 +1,139 @@
+package com.letrasypapeles.backend.service;
+
+import com.letrasypapeles.backend.repository.PedidoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * Sin llamar a iniciar(): los hilos no se arrancan y la cola se inspecciona directamente.
+ */
+@ExtendWith(MockitoExtension.class)
+public class ProcesadorPedidosTest {
+
+    @Mock
+    private FlujoPedidosService flujo;
+
+    @Mock
+    private PedidoRepository pedidoRepository;
+
+    private SimpleMeterRegistry registry;
+    private ProcesadorPedidos procesador;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        procesador = new ProcesadorPedidos(flujo, pedidoRepository, registry, 1, 2, 10, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        procesador.detener();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void procesarRegistraResultadosYDuracionPorEtapa() {
+        // Given
+        List<Long> lote = List.of(1L, 2L, 3L);
+        when(flujo.reservarStock(lote)).thenReturn(1);
+        when(flujo.completar(lote)).thenReturn(2);
+
+        // When
+        procesador.procesar(lote);
+
+        // Then
+        assertEquals(2.0, registry.get("pedidos.procesados").tag("resultado", "completado").counter().count());
+        assertEquals(1.0, registry.get("pedidos.procesados").tag("resultado", "rechazado").counter().count());
+        assertEquals(1, registry.get("pedidos.etapa.duracion").tag("etapa", "reserva").timer().count());
+        assertEquals(1, registry.get("pedidos.etapa.duracion").tag("etapa", "completado").timer().count());
+    }
+
+    @Test
+    void procesarCuentaLosLotesFallidos() {
+        // Given
+        when(flujo.reservarStock(anyCollection())).thenThrow(new RuntimeException("bloqueo agotado"));
+
+        // When
+        procesador.procesar(List.of(1L));
+
+        // Then
+        assertEquals(1.0, registry.get("pedidos.procesamiento.errores").counter().count());
+        verify(flujo, never()).completar(anyCollection());
+    }
+
+    @Test
+    void encolarDescartaDuplicadosYCuentaDesbordes() {
+        // When
+        procesador.encolar(1L);
+        procesador.encolar(1L);
+        procesador.encolar(2L);
+        procesador.encolar(3L);
+
+        // Then
+        assertEquals(2, procesador.enCola());
+        assertEquals(2.0, registry.get("pedidos.cola.profundidad").gauge().value());
+        assertEquals(1.0, registry.get("pedidos.cola.desbordes").counter().count());
+    }
+
+    @Test
+    void dentroDeTransaccionEncolaAlConfirmar() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        procesador.encolar(1L);
+
+        // Then
+        assertEquals(0, procesador.enCola());
+        for (TransactionSynchronization sincronizacion : TransactionSynchronizationManager.getSynchronizations()) {
+            sincronizacion.afterCommit();
+        }
+        assertEquals(1, procesador.enCola());
+    }
+
+    @Test
+    void barrerEncolaHastaLaCapacidadDisponible() {
+        // Given
+        procesador.encolar(1L);
+        when(pedidoRepository.findIdsPorEstados(anyCollection(), any(Pageable.class))).thenReturn(List.of(1L, 5L));
+
+        // When
+        int encolados = procesador.barrer();
+
+        // Then
+        assertEquals(1, encolados);
+        assertEquals(2, procesador.enCola());
+        verify(pedidoRepository).findIdsPorEstados(List.of("PENDIENTE", "CONFIRMADO"), Pageable.ofSize(1));
+    }
+
+    @Test
+    void deshabilitadoNoEncola() {
+        // Given
+        ProcesadorPedidos deshabilitado = new ProcesadorPedidos(flujo, pedidoRepository, new SimpleMeterRegistry(), 1, 2, 10, false);
+
+        // When
+        deshabilitado.encolar(1L);
+
+        // Then
+        assertEquals(0, deshabilitado.enCola());
+        assertEquals(0, deshabilitado.barrer());
+        deshabilitado.detener();
+    }
+}
@@ -4,6 +4,7 @@ import com.letrasypapeles.backend.entity.Categoria;
 import com.letrasypapeles.backend.entity.Producto;
 import com.letrasypapeles.backend.entity.Proveedor;
 import com.letrasypapeles.backend.repository.ProductoRepository;
+import com.letrasypapeles.backend.web.CacheRespuestasProducto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -26,6 +27,9 @@ public class ProductoServiceTest {
     @Mock
     private ProductoRepository productoRepository;
 
+    @Mock
+    private CacheRespuestasProducto cacheRespuestasProducto;
+
     @InjectMocks
     private ProductoService productoService;
 
@@ -133,6 +137,7 @@ public class ProductoServiceTest {
         assertEquals("Cien Años de Soledad", result.getNombre());
         assertEquals(new BigDecimal("24.99"), result.getPrecio());
         verify(productoRepository, times(1)).save(any(Producto.class));
+        verify(cacheRespuestasProducto).invalidar(2L);
     }
 
     @Test
@@ -146,6 +151,7 @@ public class ProductoServiceTest {
 
         // Then
         verify(productoRepository, times(1)).deleteById(idToDelete);
+        verify(cacheRespuestasProducto).invalidar(idToDelete);
     }
 
     @Test
@@ -255,6 +261,7 @@ public class ProductoServiceTest {
         assertEquals(40, result.getStock());
         verify(productoRepository, times(1)).findById(productoId);
         verify(productoRepository, times(1)).save(any(Producto.class));
+        verify(cacheRespuestasProducto).invalidar(productoId);
     }
 
     @Test
@@ -331,6 +338,7 @@ public class ProductoServiceTest {
         assertEquals(50, result.getStock());
         verify(productoRepository, times(1)).findById(productoId);
         verify(productoRepository, times(1)).save(any(Producto.class));
+        verify(cacheRespuestasProducto).invalidar(productoId);
     }
 
     @Test
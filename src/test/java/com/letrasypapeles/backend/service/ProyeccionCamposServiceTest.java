@@ -0,0 +1,88 @@
+package com.letrasypapeles.backend.service;
+
+import com.letrasypapeles.backend.entity.Cliente;
+import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.repository.ProyeccionCamposRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProyeccionCamposServiceTest {
+
+    @Mock
+    private ProyeccionCamposRepository proyeccionCamposRepository;
+
+    @InjectMocks
+    private ProyeccionCamposService proyeccionCamposService;
+
+    @Test
+    void obtenerTodos_normalizaLosCampos() {
+        // Given
+        List<Map<String, Object>> filas = List.of(Map.of("id", 1L, "nombre", "Lápiz"));
+        when(proyeccionCamposRepository.proyectar(Producto.class, List.of("id", "nombre", "categoria.nombre")))
+                .thenReturn(filas);
+
+        // When
+        List<Map<String, Object>> result =
+                proyeccionCamposService.obtenerTodos(Producto.class, " id,nombre,,id , categoria.nombre");
+
+        // Then
+        assertEquals(filas, result);
+        verify(proyeccionCamposRepository).proyectar(Producto.class, List.of("id", "nombre", "categoria.nombre"));
+    }
+
+    @Test
+    void obtenerPorId() {
+        // Given
+        when(proyeccionCamposRepository.proyectarPorId(Producto.class, 1L, List.of("precio")))
+                .thenReturn(Optional.of(Map.of("precio", 1500.0)));
+
+        // When
+        Optional<Map<String, Object>> result = proyeccionCamposService.obtenerPorId(Producto.class, 1L, "precio");
+
+        // Then
+        assertTrue(result.isPresent());
+        assertEquals(1500.0, result.get().get("precio"));
+    }
+
+    @Test
+    void campos_noPermitido() {
+        // When
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> proyeccionCamposService.obtenerTodos(Cliente.class, "id,contraseña"));
+
+        // Then
+        assertTrue(e.getMessage().startsWith("Campo no permitido: contraseña"));
+        verifyNoInteractions(proyeccionCamposRepository);
+    }
+
+    @Test
+    void campos_asociacionCompletaNoPermitida() {
+        // When
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> proyeccionCamposService.campos(Producto.class, "categoria"));
+
+        // Then
+        assertTrue(e.getMessage().contains("categoria.nombre"));
+    }
+
+    @Test
+    void campos_vacio() {
+        // When
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> proyeccionCamposService.campos(Producto.class, " , "));
+
+        // Then
+        assertTrue(e.getMessage().startsWith("Debe indicar al menos un campo"));
+    }
+}
@@ -1,14 +1,22 @@
 package com.letrasypapeles.backend.service;
 
+import com.letrasypapeles.backend.dto.AsignacionSurtido;
+import com.letrasypapeles.backend.dto.ResultadoReservaLote;
 import com.letrasypapeles.backend.entity.Cliente;
+import com.letrasypapeles.backend.entity.Inventario;
 import com.letrasypapeles.backend.entity.Producto;
 import com.letrasypapeles.backend.entity.Reserva;
+import com.letrasypapeles.backend.entity.Sucursal;
+import com.letrasypapeles.backend.repository.InventarioRepository;
 import com.letrasypapeles.backend.repository.ReservaRepository;
 import com.letrasypapeles.backend.repository.ProductoRepository;
 import com.letrasypapeles.backend.repository.ClienteRepository;
+import com.letrasypapeles.backend.repository.SucursalRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -17,6 +25,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -35,6 +44,21 @@ public class ReservaServiceTest {
     @Mock
     private ClienteRepository clienteRepository;
 
+    @Mock
+    private InventarioRepository inventarioRepository;
+
+    @Mock
+    private SucursalRepository sucursalRepository;
+
+    @Mock
+    private RuteadorSurtido ruteadorSurtido;
+
+    @Mock
+    private ClienteService clienteService;
+
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private ReservaService reservaService;
 
@@ -213,8 +237,13 @@ public class ReservaServiceTest {
         Long productoId = 1L;
         Integer cantidad = 5;
 
+        Sucursal sucursal = Sucursal.builder().id(2L).build();
         when(clienteRepository.findById(clienteId)).thenReturn(Optional.of(cliente));
         when(productoRepository.findById(productoId)).thenReturn(Optional.of(producto));
+        when(productoRepository.descontarStockSiAlcanza(productoId, cantidad)).thenReturn(1);
+        when(ruteadorSurtido.apartar(Map.of(productoId, cantidad), null, false)).thenReturn(Optional.of(List.of(
+                AsignacionSurtido.builder().productoId(productoId).sucursalId(2L).inventarioId(20L).cantidad(cantidad).build())));
+        when(sucursalRepository.findById(2L)).thenReturn(Optional.of(sucursal));
         when(reservaRepository.save(any(Reserva.class))).thenReturn(reserva);
 
         // When
@@ -224,7 +253,40 @@ public class ReservaServiceTest {
         assertNotNull(result);
         verify(clienteRepository, times(1)).findById(clienteId);
         verify(productoRepository, times(1)).findById(productoId);
-        verify(reservaRepository, times(1)).save(any(Reserva.class));
+        ArgumentCaptor<Reserva> captor = ArgumentCaptor.forClass(Reserva.class);
+        verify(reservaRepository, times(1)).save(captor.capture());
+        assertEquals(5, captor.getValue().getCantidad());
+        assertEquals(5, captor.getValue().getCantidadApartada());
+        assertEquals(sucursal, captor.getValue().getSucursal());
+    }
+
+    @Test
+    void crearReservaConValidacion_OtraReservaApartoElStock() {
+        // Given: el stock leído alcanza, pero otra reserva lo apartó antes del descuento condicional
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(productoRepository.findById(1L)).thenReturn(Optional.of(producto));
+        when(productoRepository.descontarStockSiAlcanza(1L, 5)).thenReturn(0);
+
+        // When & Then
+        Exception exception = assertThrows(RuntimeException.class,
+                () -> reservaService.crearReservaConValidacion(1L, 1L, 5));
+
+        assertEquals("Stock insuficiente", exception.getMessage());
+        verifyNoInteractions(ruteadorSurtido);
+        verify(reservaRepository, never()).save(any(Reserva.class));
+    }
+
+    @Test
+    void crearReservaConValidacion_SinSucursalDisponible() {
+        // Given
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(productoRepository.findById(1L)).thenReturn(Optional.of(producto));
+        when(productoRepository.descontarStockSiAlcanza(1L, 5)).thenReturn(1);
+        when(ruteadorSurtido.apartar(Map.of(1L, 5), null, false)).thenReturn(Optional.empty());
+
+        // When & Then: la excepción revierte el descuento del producto
+        assertThrows(RuntimeException.class, () -> reservaService.crearReservaConValidacion(1L, 1L, 5));
+        verify(reservaRepository, never()).save(any(Reserva.class));
     }
 
     @Test
@@ -318,37 +380,54 @@ public class ReservaServiceTest {
 
     @Test
     void confirmarReserva_Exitoso() {
-        // Given
+        // Given: reserva sin apartado; su stock se descontó al crearla
         Long reservaId = 1L;
         Reserva reservaPendiente = Reserva.builder()
                 .id(reservaId)
                 .fechaReserva(fechaReserva)
                 .estado("PENDIENTE")
-                .cliente(cliente)
-                .producto(producto)
-                .build();
-
-        Reserva reservaConfirmada = Reserva.builder()
-                .id(reservaId)
-                .fechaReserva(fechaReserva)
-                .estado("CONFIRMADA")
+                .cantidad(2)
                 .cliente(cliente)
                 .producto(producto)
                 .build();
 
         when(reservaRepository.findById(reservaId)).thenReturn(Optional.of(reservaPendiente));
-        when(productoRepository.save(any(Producto.class))).thenReturn(producto);
-        when(reservaRepository.save(any(Reserva.class))).thenReturn(reservaConfirmada);
 
         // When
         Reserva result = reservaService.confirmarReserva(reservaId);
 
         // Then
-        assertNotNull(result);
         assertEquals("CONFIRMADA", result.getEstado());
-        verify(reservaRepository, times(1)).findById(reservaId);
-        verify(productoRepository, times(1)).save(any(Producto.class));
-        verify(reservaRepository, times(1)).save(any(Reserva.class));
+        assertEquals(0, result.getCantidadApartada());
+        assertEquals(50, producto.getStock());
+        verify(productoRepository, never()).save(any(Producto.class));
+        verify(productoRepository, never()).descontarStockSiAlcanza(any(), any());
+        verify(clienteService).actualizarPuntosFidelidadDirecto(1L, 5, "RESERVA 1");
+        verify(reservaRepository).actualizarEstado(List.of(1L), "CONFIRMADA");
+    }
+
+    @Test
+    void confirmarReserva_ConvierteLoApartadoEnLaSucursal() {
+        // Given: la reserva apartó 3 unidades en la sucursal 2, que tiene 10 con 5 apartadas
+        Sucursal sucursal = Sucursal.builder().id(2L).build();
+        reserva.setCantidad(3);
+        reserva.setCantidadApartada(3);
+        reserva.setSucursal(sucursal);
+        Inventario inventario = Inventario.builder().id(20L).cantidad(10).reservado(5).producto(producto).sucursal(sucursal).build();
+        when(reservaRepository.findById(1L)).thenReturn(Optional.of(reserva));
+        when(inventarioRepository.bloquearPorProductosYSucursales(any(), any())).thenReturn(List.of(inventario));
+        when(inventarioRepository.findCantidadesPorIds(List.of(20L))).thenReturn(List.<Object[]>of(new Object[]{20L, 10, 5}));
+
+        // When
+        Reserva result = reservaService.confirmarReserva(1L);
+
+        // Then: el stock del producto ya se descontó al apartar
+        assertEquals("CONFIRMADA", result.getEstado());
+        assertEquals(0, result.getCantidadApartada());
+        assertEquals(7, inventario.getCantidad());
+        assertEquals(2, inventario.getReservado());
+        assertEquals(50, producto.getStock());
+        verify(productoRepository, never()).save(any(Producto.class));
     }
 
     @Test
@@ -394,34 +473,18 @@ public class ReservaServiceTest {
     }
 
     @Test
-    void confirmarReserva_StockInsuficiente() {
+    void confirmarReserva_SinPrecioNoOtorgaPuntos() {
         // Given
-        Long reservaId = 1L;
-        Producto productoSinStock = Producto.builder()
-                .id(1L)
-                .nombre("El Quijote")
-                .stock(0)
-                .build();
-
-        Reserva reservaPendiente = Reserva.builder()
-                .id(reservaId)
-                .fechaReserva(fechaReserva)
-                .estado("PENDIENTE")
-                .cliente(cliente)
-                .producto(productoSinStock)
-                .build();
-
-        when(reservaRepository.findById(reservaId)).thenReturn(Optional.of(reservaPendiente));
+        Producto sinPrecio = Producto.builder().id(1L).nombre("El Quijote").stock(0).build();
+        reserva.setProducto(sinPrecio);
+        when(reservaRepository.findById(1L)).thenReturn(Optional.of(reserva));
 
-        // When & Then
-        Exception exception = assertThrows(RuntimeException.class, () -> {
-            reservaService.confirmarReserva(reservaId);
-        });
+        // When
+        Reserva result = reservaService.confirmarReserva(1L);
 
-        assertEquals("Stock insuficiente para confirmar la reserva", exception.getMessage());
-        verify(reservaRepository, times(1)).findById(reservaId);
-        verify(productoRepository, never()).save(any(Producto.class));
-        verify(reservaRepository, never()).save(any(Reserva.class));
+        // Then
+        assertEquals("CONFIRMADA", result.getEstado());
+        verifyNoInteractions(clienteService);
     }
 
     @Test
@@ -436,16 +499,7 @@ public class ReservaServiceTest {
                 .producto(producto)
                 .build();
 
-        Reserva reservaCancelada = Reserva.builder()
-                .id(reservaId)
-                .fechaReserva(fechaReserva)
-                .estado("CANCELADA")
-                .cliente(cliente)
-                .producto(producto)
-                .build();
-
         when(reservaRepository.findById(reservaId)).thenReturn(Optional.of(reservaPendiente));
-        when(reservaRepository.save(any(Reserva.class))).thenReturn(reservaCancelada);
 
         // When
         Reserva result = reservaService.cancelarReserva(reservaId);
@@ -454,7 +508,34 @@ public class ReservaServiceTest {
         assertNotNull(result);
         assertEquals("CANCELADA", result.getEstado());
         verify(reservaRepository, times(1)).findById(reservaId);
-        verify(reservaRepository, times(1)).save(any(Reserva.class));
+        verify(reservaRepository).actualizarEstado(List.of(reservaId), "CANCELADA");
+        verify(reservaRepository, never()).save(any(Reserva.class));
+    }
+
+    @Test
+    void cancelarReserva_LiberaExactamenteLoApartado() {
+        // Given
+        Sucursal sucursal = Sucursal.builder().id(2L).build();
+        reserva.setCantidad(3);
+        reserva.setCantidadApartada(3);
+        reserva.setSucursal(sucursal);
+        Inventario inventario = Inventario.builder().id(20L).cantidad(10).reservado(4).producto(producto).sucursal(sucursal).build();
+        when(reservaRepository.findById(1L)).thenReturn(Optional.of(reserva));
+        when(inventarioRepository.bloquearPorProductosYSucursales(any(), any())).thenReturn(List.of(inventario));
+        when(inventarioRepository.findCantidadesPorIds(List.of(20L))).thenReturn(List.<Object[]>of(new Object[]{20L, 10, 4}));
+        when(productoRepository.findStockPorIds(List.of(1L))).thenReturn(List.<Object[]>of(new Object[]{1L, 53}));
+
+        // When
+        Reserva result = reservaService.cancelarReserva(1L);
+
+        // Then
+        assertEquals("CANCELADA", result.getEstado());
+        assertEquals(0, result.getCantidadApartada());
+        verify(productoRepository).sumarStock(1L, 3);
+        assertEquals(53, producto.getStock());
+        assertEquals(10, inventario.getCantidad());
+        assertEquals(1, inventario.getReservado());
+        verify(inventarioRepository, never()).bloquearPorProductos(any());
     }
 
     @Test
@@ -642,36 +723,204 @@ public class ReservaServiceTest {
     }
 
     @Test
-    void testConfirmarReserva_StockNullBranch() {
+    void cancelarVencidasAgrupaStockPorProducto() {
         // Given
-        Long reservaId = 1L;
+        Reserva otra = Reserva.builder().id(2L).estado("PENDIENTE").cantidad(3).producto(producto).build();
+        reserva.setCantidad(2);
+        Inventario primero = Inventario.builder().id(10L).cantidad(5).producto(producto).build();
+        Inventario segundo = Inventario.builder().id(11L).cantidad(7).producto(producto).build();
+        LocalDateTime limite = LocalDateTime.now();
+        List<Long> ids = Arrays.asList(1L, 2L, 3L);
 
-        Producto productoSinStock = Producto.builder()
-                .id(1L)
-                .nombre("Producto Test")
-                .stock(null)  // Stock null para cubrir esta rama
-                .precio(BigDecimal.valueOf(100.0))
-                .build();
+        when(reservaRepository.bloquearPendientesVencidas(ids, limite)).thenReturn(Arrays.asList(reserva, otra));
+        when(inventarioRepository.bloquearPorProductos(any())).thenReturn(Arrays.asList(primero, segundo));
 
-        Reserva reservaPendiente = Reserva.builder()
-                .id(reservaId)
-                .cliente(cliente)
-                .producto(productoSinStock)
-                .cantidad(2)
-                .estado("PENDIENTE")
-                .fechaReserva(fechaReserva)
-                .build();
+        // When
+        int canceladas = reservaService.cancelarVencidas(ids, limite);
 
-        when(reservaRepository.findById(reservaId)).thenReturn(Optional.of(reservaPendiente));
+        // Then
+        assertEquals(2, canceladas);
+        assertEquals("CANCELADA", reserva.getEstado());
+        assertEquals("CANCELADA", otra.getEstado());
+        assertEquals(0, otra.getCantidadApartada());
+        verify(reservaRepository).actualizarEstado(List.of(1L, 2L), "CANCELADA");
+        verify(reservaRepository, never()).save(any(Reserva.class));
+        verify(entityManager).detach(reserva);
+        verify(productoRepository, times(1)).sumarStock(1L, 5);
+        assertEquals(10, primero.getCantidad());
+        assertEquals(7, segundo.getCantidad());
+    }
 
-        // When & Then
-        Exception exception = assertThrows(RuntimeException.class, () -> {
-            reservaService.confirmarReserva(reservaId);
-        });
+    @Test
+    void cancelarVencidasDevuelveStockALaSucursalDeCadaReserva() {
+        // Given: la reserva 1 salió de la sucursal 2 y la 2 no tiene sucursal
+        Sucursal sucursal = Sucursal.builder().id(2L).build();
+        reserva.setCantidad(2);
+        reserva.setSucursal(sucursal);
+        Reserva otra = Reserva.builder().id(2L).estado("PENDIENTE").cantidad(3).producto(producto).build();
+        Inventario primero = Inventario.builder().id(10L).cantidad(5).producto(producto)
+                .sucursal(Sucursal.builder().id(1L).build()).build();
+        Inventario deLaSucursal = Inventario.builder().id(11L).cantidad(7).producto(producto).sucursal(sucursal).build();
+        LocalDateTime limite = LocalDateTime.now();
+
+        when(reservaRepository.bloquearPendientesVencidas(List.of(1L, 2L), limite)).thenReturn(Arrays.asList(reserva, otra));
+        when(inventarioRepository.bloquearPorProductos(any())).thenReturn(Arrays.asList(primero, deLaSucursal));
 
-        assertEquals("Stock insuficiente para confirmar la reserva", exception.getMessage());
-        verify(reservaRepository).findById(reservaId);
-        verify(reservaRepository, never()).save(any(Reserva.class));
+        // When
+        reservaService.cancelarVencidas(List.of(1L, 2L), limite);
+
+        // Then
+        verify(productoRepository).sumarStock(1L, 5);
+        assertEquals(8, primero.getCantidad());
+        assertEquals(9, deLaSucursal.getCantidad());
+    }
+
+    @Test
+    void cancelarVencidasSinCandidatosVigentes() {
+        // Given
+        LocalDateTime limite = LocalDateTime.now();
+        when(reservaRepository.bloquearPendientesVencidas(List.of(1L), limite)).thenReturn(List.of());
+
+        // When
+        int canceladas = reservaService.cancelarVencidas(List.of(1L), limite);
+
+        // Then
+        assertEquals(0, canceladas);
+        verify(reservaRepository, never()).actualizarEstado(any(), any());
+        verifyNoInteractions(productoRepository, inventarioRepository);
+    }
+
+    @Test
+    void confirmarLoteSinApartadoNoVuelveADescontarStock() {
+        // Given
+        reserva.setCantidad(30);
+        Reserva segunda = Reserva.builder().id(2L).estado("PENDIENTE").cantidad(15).producto(producto).build();
+        Reserva sinProducto = Reserva.builder().id(3L).estado("PENDIENTE").cantidad(10).build();
+        Reserva confirmada = Reserva.builder().id(4L).estado("CONFIRMADA").cantidad(1).producto(producto).build();
+        List<Long> ids = Arrays.asList(4L, 3L, 1L, 2L, 9L);
+
+        when(reservaRepository.bloquearPorIds(any())).thenReturn(Arrays.asList(reserva, segunda, sinProducto, confirmada));
+
+        // When
+        List<ResultadoReservaLote> resultados = reservaService.confirmarLote(ids);
+
+        // Then
+        assertEquals(Arrays.asList(4L, 3L, 1L, 2L, 9L), resultados.stream().map(ResultadoReservaLote::getReservaId).toList());
+        assertFalse(resultados.get(0).isExito());
+        assertEquals("La reserva no tiene producto", resultados.get(1).getMensaje());
+        assertTrue(resultados.get(2).isExito());
+        assertTrue(resultados.get(3).isExito());
+        assertEquals("Reserva no encontrada", resultados.get(4).getMensaje());
+        assertEquals("CONFIRMADA", reserva.getEstado());
+        assertEquals(0, segunda.getCantidadApartada());
+        assertEquals("PENDIENTE", sinProducto.getEstado());
+        verify(productoRepository, never()).descontarStockSiAlcanza(any(), any());
+        verify(clienteService).actualizarPuntosFidelidadDirecto(1L, 89, "RESERVA 1");
+    }
+
+    @Test
+    void confirmarLoteConvierteApartadosSinDescontarDelProducto() {
+        // Given
+        Sucursal sucursal = Sucursal.builder().id(2L).build();
+        reserva.setCantidad(4);
+        reserva.setCantidadApartada(4);
+        reserva.setSucursal(sucursal);
+        Inventario inventario = Inventario.builder().id(20L).cantidad(6).reservado(4).producto(producto).sucursal(sucursal).build();
+        when(reservaRepository.bloquearPorIds(any())).thenReturn(List.of(reserva));
+        when(inventarioRepository.bloquearPorProductosYSucursales(any(), any())).thenReturn(List.of(inventario));
+        when(inventarioRepository.findCantidadesPorIds(List.of(20L))).thenReturn(List.<Object[]>of(new Object[]{20L, 6, 4}));
+
+        // When
+        List<ResultadoReservaLote> resultados = reservaService.confirmarLote(List.of(1L));
+
+        // Then
+        assertTrue(resultados.get(0).isExito());
+        assertEquals(2, inventario.getCantidad());
+        assertEquals(0, inventario.getReservado());
+        assertEquals("CONFIRMADA", reserva.getEstado());
+        assertEquals(0, reserva.getCantidadApartada());
+        verify(productoRepository, never()).descontarStockSiAlcanza(any(), any());
+    }
+
+    @Test
+    void confirmarLoteYConfirmarUnaAUnaTienenElMismoEfecto() {
+        // Given: dos reservas iguales, una apartada en la sucursal 2 y otra anterior al apartado
+        Sucursal sucursal = Sucursal.builder().id(2L).build();
+        Inventario inventario = Inventario.builder().id(20L).producto(producto).sucursal(sucursal).build();
+        when(inventarioRepository.bloquearPorProductosYSucursales(any(), any())).thenReturn(List.of(inventario));
+        when(inventarioRepository.findCantidadesPorIds(List.of(20L))).thenReturn(List.<Object[]>of(new Object[]{20L, 10, 4}));
+
+        Reserva apartadaIndividual = reservaApartada(1L, sucursal);
+        Reserva anteriorIndividual = Reserva.builder().id(2L).estado("PENDIENTE").cantidad(2).cliente(cliente).producto(producto).build();
+        when(reservaRepository.findById(1L)).thenReturn(Optional.of(apartadaIndividual));
+        when(reservaRepository.findById(2L)).thenReturn(Optional.of(anteriorIndividual));
+
+        // When: una a una
+        reservaService.confirmarReserva(1L);
+        reservaService.confirmarReserva(2L);
+        int cantidadIndividual = inventario.getCantidad();
+        int reservadoIndividual = inventario.getReservado();
+
+        // When: en lote
+        Reserva apartadaLote = reservaApartada(1L, sucursal);
+        Reserva anteriorLote = Reserva.builder().id(2L).estado("PENDIENTE").cantidad(2).cliente(cliente).producto(producto).build();
+        when(reservaRepository.bloquearPorIds(any())).thenReturn(List.of(apartadaLote, anteriorLote));
+        reservaService.confirmarLote(List.of(1L, 2L));
+
+        // Then: mismo descuento en la sucursal, ninguno en el producto y los mismos puntos, que el
+        // lote registra en un solo movimiento del cliente
+        assertEquals(cantidadIndividual, inventario.getCantidad());
+        assertEquals(reservadoIndividual, inventario.getReservado());
+        assertEquals(50, producto.getStock());
+        verify(productoRepository, never()).descontarStockSiAlcanza(any(), any());
         verify(productoRepository, never()).save(any(Producto.class));
+        verify(clienteService).actualizarPuntosFidelidadDirecto(1L, 5, "RESERVA 1");
+        verify(clienteService).actualizarPuntosFidelidadDirecto(1L, 5, "RESERVA 2");
+        verify(clienteService).actualizarPuntosFidelidadDirecto(1L, 10, "RESERVAS 1,2");
+        verify(reservaRepository).actualizarEstado(List.of(1L, 2L), "CONFIRMADA");
+        verify(reservaRepository, never()).save(any(Reserva.class));
+        for (Reserva confirmada : List.of(apartadaIndividual, anteriorIndividual, apartadaLote, anteriorLote)) {
+            assertEquals("CONFIRMADA", confirmada.getEstado());
+            assertEquals(0, confirmada.getCantidadApartada());
+        }
+    }
+
+    private Reserva reservaApartada(Long id, Sucursal sucursal) {
+        return Reserva.builder().id(id).estado("PENDIENTE").cantidad(2).cantidadApartada(2)
+                .sucursal(sucursal).cliente(cliente).producto(producto).build();
+    }
+
+    @Test
+    void cancelarLoteRestauraStockDePendientes() {
+        // Given
+        reserva.setCantidad(2);
+        Reserva cancelada = Reserva.builder().id(2L).estado("CANCELADA").cantidad(4).producto(producto).build();
+        when(reservaRepository.bloquearPorIds(any())).thenReturn(Arrays.asList(reserva, cancelada));
+        when(inventarioRepository.bloquearPorProductos(any())).thenReturn(List.of());
+
+        // When
+        List<ResultadoReservaLote> resultados = reservaService.cancelarLote(Arrays.asList(1L, 2L, 1L));
+
+        // Then
+        assertEquals(2, resultados.size());
+        assertEquals("CANCELADA", resultados.get(0).getEstado());
+        assertTrue(resultados.get(0).isExito());
+        assertEquals("Solo se pueden cancelar reservas en estado PENDIENTE", resultados.get(1).getMensaje());
+        assertEquals("CANCELADA", reserva.getEstado());
+        assertEquals(0, reserva.getCantidadApartada());
+        verify(productoRepository).sumarStock(1L, 2);
+    }
+
+    @Test
+    void loteVacioOExcesivoEsRechazado() {
+        Exception vacio = assertThrows(RuntimeException.class, () -> reservaService.confirmarLote(List.of()));
+        assertEquals("Debe indicar al menos una reserva", vacio.getMessage());
+
+        List<Long> demasiados = new java.util.ArrayList<>();
+        for (long id = 0; id <= ReservaService.MAX_RESERVAS_POR_LOTE; id++) {
+            demasiados.add(id);
+        }
+        assertThrows(RuntimeException.class, () -> reservaService.cancelarLote(demasiados));
+        verifyNoInteractions(reservaRepository);
     }
 }
@@ -0,0 +1,206 @@
+package com.letrasypapeles.backend.service;
+
+import com.letrasypapeles.backend.dto.ResumenCliente;
+import com.letrasypapeles.backend.entity.Notificacion;
+import com.letrasypapeles.backend.entity.Pedido;
+import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.entity.Reserva;
+import com.letrasypapeles.backend.repository.ClienteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ResumenClienteServiceTest {
+
+    @Mock
+    private ClienteRepository clienteRepository;
+
+    @Mock
+    private ClienteService clienteService;
+
+    @Mock
+    private PedidoService pedidoService;
+
+    @Mock
+    private ReservaService reservaService;
+
+    @Mock
+    private NotificacionService notificacionService;
+
+    private ResumenClienteService resumenClienteService;
+
+    private ResumenClienteService crear(Duration espera) {
+        return crear(espera, 8);
+    }
+
+    private ResumenClienteService crear(Duration espera, int hilos) {
+        resumenClienteService = new ResumenClienteService(clienteRepository, clienteService, pedidoService, reservaService,
+                notificacionService, hilos, espera);
+        return resumenClienteService;
+    }
+
+    @AfterEach
+    void tearDown() {
+        resumenClienteService.detener();
+    }
+
+    private void clienteConDatos() {
+        when(clienteRepository.existsById(1L)).thenReturn(true);
+        lenient().when(pedidoService.obtenerPorClienteId(1L)).thenReturn(List.of(
+                Pedido.builder().id(10L).estado("PENDIENTE").total(new BigDecimal("4990")).build()));
+        lenient().when(reservaService.obtenerPorClienteId(1L)).thenReturn(List.of(
+                Reserva.builder().id(20L).cantidad(2).estado("PENDIENTE").producto(Producto.builder().id(5L).build()).build()));
+        lenient().when(notificacionService.obtenerPorClienteId(1L)).thenReturn(List.of(
+                Notificacion.builder().id(30L).mensaje("Pedido recibido").build()));
+        lenient().when(clienteService.obtenerSaldoPuntos(1L)).thenReturn(120L);
+    }
+
+    @Test
+    void obtener_combinaLasCuatroConsultasEnUnResumenCompacto() {
+        // Given
+        clienteConDatos();
+
+        // When
+        Optional<ResumenCliente> resultado = crear(Duration.ofSeconds(5)).obtener(1L);
+
+        // Then
+        ResumenCliente resumen = resultado.orElseThrow();
+        assertEquals(1L, resumen.getClienteId());
+        assertEquals(120L, resumen.getPuntosFidelidad());
+        assertEquals(new BigDecimal("4990"), resumen.getPedidos().get(0).getTotal());
+        assertEquals(5L, resumen.getReservas().get(0).getProductoId());
+        assertEquals("Pedido recibido", resumen.getNotificaciones().get(0).getMensaje());
+        assertTrue(resumen.getIncompletos().isEmpty());
+    }
+
+    @Test
+    void obtener_lasConsultasCorrenALaVez() {
+        // Given: cada consulta espera a las otras tres; en secuencia ninguna pasaría la barrera
+        CyclicBarrier barrera = new CyclicBarrier(4);
+        when(clienteRepository.existsById(1L)).thenReturn(true);
+        when(pedidoService.obtenerPorClienteId(1L)).thenAnswer(i -> esperar(barrera, List.of()));
+        when(reservaService.obtenerPorClienteId(1L)).thenAnswer(i -> esperar(barrera, List.of()));
+        when(notificacionService.obtenerPorClienteId(1L)).thenAnswer(i -> esperar(barrera, List.of()));
+        when(clienteService.obtenerSaldoPuntos(1L)).thenAnswer(i -> esperar(barrera, 0L));
+
+        // When
+        ResumenCliente resumen = crear(Duration.ofSeconds(5)).obtener(1L).orElseThrow();
+
+        // Then
+        assertTrue(resumen.getIncompletos().isEmpty());
+        assertEquals(0L, resumen.getPuntosFidelidad());
+    }
+
+    private static <T> T esperar(CyclicBarrier barrera, T valor) throws Exception {
+        barrera.await(2, TimeUnit.SECONDS);
+        return valor;
+    }
+
+    @Test
+    void obtener_unaRamaLentaQuedaIncompletaSinRetrasarElResto() {
+        // Given
+        clienteConDatos();
+        when(pedidoService.obtenerPorClienteId(1L)).thenAnswer(i -> {
+            Thread.sleep(3000);
+            return List.of();
+        });
+
+        // When
+        long inicio = System.nanoTime();
+        ResumenCliente resumen = crear(Duration.ofMillis(200)).obtener(1L).orElseThrow();
+        long transcurrido = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+        // Then
+        assertEquals(List.of(ResumenClienteService.PEDIDOS), resumen.getIncompletos());
+        assertNull(resumen.getPedidos());
+        assertEquals(1, resumen.getReservas().size());
+        assertEquals(120L, resumen.getPuntosFidelidad());
+        assertTrue(transcurrido < 2000, "tardó " + transcurrido + " ms");
+    }
+
+    @Test
+    void obtener_unaRamaVencidaSeInterrumpe() throws Exception {
+        // Given
+        clienteConDatos();
+        CountDownLatch interrumpida = new CountDownLatch(1);
+        when(pedidoService.obtenerPorClienteId(1L)).thenAnswer(i -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrumpida.countDown();
+            }
+            return List.of();
+        });
+
+        // When
+        ResumenCliente resumen = crear(Duration.ofMillis(200)).obtener(1L).orElseThrow();
+
+        // Then
+        assertEquals(List.of(ResumenClienteService.PEDIDOS), resumen.getIncompletos());
+        assertTrue(interrumpida.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void obtener_elPlazoSeCuentaDesdeQueLaRamaEmpieza() {
+        // Given: con dos hilos, notificaciones y puntos empiezan cuando terminan pedidos y reservas (~250 ms);
+        // terminan ~500 ms después de lanzarse, pero solo ~250 ms después de empezar
+        clienteConDatos();
+        when(pedidoService.obtenerPorClienteId(1L)).thenAnswer(i -> dormir(250, List.of()));
+        when(reservaService.obtenerPorClienteId(1L)).thenAnswer(i -> dormir(250, List.of()));
+        when(notificacionService.obtenerPorClienteId(1L)).thenAnswer(i -> dormir(250, List.of()));
+        when(clienteService.obtenerSaldoPuntos(1L)).thenAnswer(i -> dormir(250, 120L));
+
+        // When
+        ResumenCliente resumen = crear(Duration.ofMillis(400), 2).obtener(1L).orElseThrow();
+
+        // Then
+        assertTrue(resumen.getIncompletos().isEmpty(), "incompletos: " + resumen.getIncompletos());
+        assertEquals(120L, resumen.getPuntosFidelidad());
+    }
+
+    private static <T> T dormir(long milisegundos, T valor) throws InterruptedException {
+        Thread.sleep(milisegundos);
+        return valor;
+    }
+
+    @Test
+    void obtener_unaRamaQueFallaQuedaIncompleta() {
+        // Given
+        clienteConDatos();
+        when(reservaService.obtenerPorClienteId(1L)).thenThrow(new RuntimeException("sin conexión"));
+
+        // When
+        ResumenCliente resumen = crear(Duration.ofSeconds(5)).obtener(1L).orElseThrow();
+
+        // Then
+        assertEquals(List.of(ResumenClienteService.RESERVAS), resumen.getIncompletos());
+        assertNull(resumen.getReservas());
+        assertEquals(1, resumen.getPedidos().size());
+    }
+
+    @Test
+    void obtener_clienteInexistente() {
+        // Given
+        when(clienteRepository.existsById(99L)).thenReturn(false);
+
+        // When
+        Optional<ResumenCliente> resultado = crear(Duration.ofSeconds(5)).obtener(99L);
+
+        // Then
+        assertTrue(resultado.isEmpty());
+    }
+}
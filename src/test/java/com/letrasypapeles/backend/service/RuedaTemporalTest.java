@@ -0,0 +1,75 @@
+package com.letrasypapeles.backend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RuedaTemporalTest {
+
+    @Test
+    void venceEnElTickProgramado() {
+        // Given
+        RuedaTemporal rueda = new RuedaTemporal(1000);
+        rueda.agregar(1L, 1005);
+        rueda.agregar(2L, 1005 + 64 * 64 + 3);
+        List<Long> vencidas = new ArrayList<>();
+
+        // When
+        rueda.avanzar(1004, vencidas::add);
+
+        // Then
+        assertTrue(vencidas.isEmpty());
+
+        // When
+        rueda.avanzar(1005, vencidas::add);
+
+        // Then
+        assertEquals(List.of(1L), vencidas);
+        assertEquals(1, rueda.tamano());
+    }
+
+    @Test
+    void noAgregaEntradasYaVencidas() {
+        RuedaTemporal rueda = new RuedaTemporal(50);
+
+        assertFalse(rueda.agregar(1L, 50));
+        assertFalse(rueda.agregar(2L, 10));
+        assertEquals(0, rueda.tamano());
+    }
+
+    @Test
+    void bajaDeNivelSinAdelantarNiAtrasarVencimientos() {
+        // Given
+        long inicio = 123_457;
+        RuedaTemporal rueda = new RuedaTemporal(inicio);
+        Random random = new Random(7);
+        long[] vencimientos = new long[5000];
+        for (int i = 0; i < vencimientos.length; i++) {
+            vencimientos[i] = inicio + 1 + random.nextInt(300_000);
+            rueda.agregar(i, vencimientos[i]);
+        }
+
+        // When & Then
+        long[] vencioEn = new long[vencimientos.length];
+        while (rueda.tamano() > 0) {
+            long tick = rueda.tickActual() + 1 + random.nextInt(5);
+            rueda.avanzar(tick, id -> vencioEn[(int) id] = rueda.tickActual());
+        }
+        for (int i = 0; i < vencimientos.length; i++) {
+            assertEquals(vencimientos[i], vencioEn[i], "entrada " + i);
+        }
+    }
+
+    @Test
+    void avanzarSinEntradasSaltaDirecto() {
+        RuedaTemporal rueda = new RuedaTemporal(0);
+
+        rueda.avanzar(Long.MAX_VALUE / 2, id -> fail("no hay entradas"));
+
+        assertEquals(Long.MAX_VALUE / 2, rueda.tickActual());
+    }
+}
@@ -0,0 +1,239 @@
+package com.letrasypapeles.backend.service;
+
+import com.letrasypapeles.backend.dto.AsignacionSurtido;
+import com.letrasypapeles.backend.entity.Inventario;
+import com.letrasypapeles.backend.repository.InventarioRepository;
+import com.letrasypapeles.backend.repository.SucursalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RuteadorSurtidoTest {
+
+    @Mock
+    private InventarioRepository inventarioRepository;
+
+    private IndiceDisponibilidad indice;
+    private RuteadorSurtido ruteador;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceDisponibilidad(mock(InventarioRepository.class), mock(SucursalRepository.class));
+        indice.registrarSucursal(1L, "Sur");
+        indice.registrarSucursal(2L, "Norte");
+        indice.registrarSucursal(3L, "Centro");
+        ruteador = new RuteadorSurtido(indice, inventarioRepository);
+    }
+
+    private static AsignacionSurtido asignacion(long productoId, long sucursalId, long inventarioId, int cantidad) {
+        return AsignacionSurtido.builder()
+                .productoId(productoId)
+                .sucursalId(sucursalId)
+                .inventarioId(inventarioId)
+                .cantidad(cantidad)
+                .build();
+    }
+
+    @Test
+    void planificarUsaUnaSolaSucursalYPrefiereLaRegion() {
+        // Given: las sucursales 1 y 2 tienen stock de ambos productos
+        indice.registrar(100L, 10L, 1L, 5);
+        indice.registrar(101L, 20L, 1L, 5);
+        indice.registrar(200L, 10L, 2L, 5);
+        indice.registrar(201L, 20L, 2L, 5);
+        Map<Long, Integer> cantidades = Map.of(10L, 2, 20L, 3);
+
+        // When
+        List<AsignacionSurtido> sinRegion = ruteador.planificar(cantidades, null, true);
+        List<AsignacionSurtido> norte = ruteador.planificar(cantidades, "norte", true);
+
+        // Then
+        assertEquals(List.of(asignacion(10L, 1L, 100L, 2), asignacion(20L, 1L, 101L, 3)), sinRegion);
+        assertEquals(List.of(asignacion(10L, 2L, 200L, 2), asignacion(20L, 2L, 201L, 3)), norte);
+    }
+
+    @Test
+    void planificarDividePorMayorDisponibilidad() {
+        // Given: ninguna sucursal tiene 5 unidades por sí sola
+        indice.registrar(100L, 10L, 1L, 3);
+        indice.registrar(200L, 10L, 2L, 4);
+
+        // When
+        List<AsignacionSurtido> plan = ruteador.planificar(Map.of(10L, 5), null, true);
+
+        // Then
+        assertEquals(List.of(asignacion(10L, 2L, 200L, 4), asignacion(10L, 1L, 100L, 1)), plan);
+    }
+
+    @Test
+    void planificarDivididoReutilizaSucursalesYaElegidas() {
+        // Given: el producto 10 solo está en la sucursal 2 y el 30 solo en la 1
+        indice.registrar(100L, 20L, 1L, 5);
+        indice.registrar(101L, 30L, 1L, 5);
+        indice.registrar(200L, 10L, 2L, 5);
+        indice.registrar(201L, 20L, 2L, 5);
+
+        // When
+        List<AsignacionSurtido> plan = ruteador.planificar(Map.of(10L, 1, 20L, 5, 30L, 1), null, true);
+
+        // Then: el producto 20 sale de la sucursal 2, ya elegida para el 10
+        assertEquals(List.of(
+                asignacion(10L, 2L, 200L, 1),
+                asignacion(20L, 2L, 201L, 5),
+                asignacion(30L, 1L, 101L, 1)), plan);
+    }
+
+    @Test
+    void planificarFallaSinStockSuficiente() {
+        // Given
+        indice.registrar(100L, 10L, 1L, 3);
+        indice.registrar(200L, 10L, 2L, 4);
+
+        // When / Then
+        RuntimeException sinDivision = assertThrows(RuntimeException.class,
+                () -> ruteador.planificar(Map.of(10L, 5), null, false));
+        assertEquals("Ninguna sucursal tiene stock suficiente", sinDivision.getMessage());
+        RuntimeException conDivision = assertThrows(RuntimeException.class,
+                () -> ruteador.planificar(Map.of(10L, 8), null, true));
+        assertEquals("Stock insuficiente en sucursales para el producto con ID: 10", conDivision.getMessage());
+    }
+
+    @Test
+    void planificarOmiteProductosSinInventarios() {
+        // Given: el producto 10 no tiene inventarios en ninguna sucursal
+
+        // When
+        List<AsignacionSurtido> plan = ruteador.planificar(Map.of(10L, 5), null, false);
+
+        // Then
+        assertTrue(plan.isEmpty());
+    }
+
+    @Test
+    void planificarUsaLasCantidadesVigentesDeLaTransaccion() {
+        // Given: el índice aún no refleja un descuento hecho en la transacción
+        indice.registrar(100L, 10L, 1L, 5);
+        indice.registrar(200L, 10L, 2L, 5);
+        Map<Long, Integer> vigentes = new HashMap<>(Map.of(100L, 1));
+
+        // When
+        List<AsignacionSurtido> plan = ruteador.planificar(Map.of(10L, 3), null, false,
+                Map.of(10L, indice.existencias(10L)), vigentes);
+
+        // Then
+        assertEquals(List.of(asignacion(10L, 2L, 200L, 3)), plan);
+    }
+
+    @Test
+    void surtirDescuentaLosInventariosBloqueados() {
+        // Given
+        indice.registrar(100L, 10L, 1L, 5);
+        Inventario inventario = Inventario.builder().id(100L).cantidad(5).build();
+        when(inventarioRepository.bloquearPorIds(Set.of(100L))).thenReturn(List.of(inventario));
+        when(inventarioRepository.findCantidadesPorIds(Set.of(100L))).thenReturn(List.<Object[]>of(new Object[]{100L, 5, null}));
+
+        // When
+        Optional<List<AsignacionSurtido>> plan = ruteador.surtir(Map.of(10L, 2), null, false);
+
+        // Then
+        assertEquals(Optional.of(List.of(asignacion(10L, 1L, 100L, 2))), plan);
+        assertEquals(3, inventario.getCantidad());
+    }
+
+    @Test
+    void surtirReplanificaSiElIndiceEstabaDesactualizado() {
+        // Given: el índice dice que la sucursal 1 tiene 5, pero en la base de datos quedan 1
+        indice.registrar(100L, 10L, 1L, 5);
+        indice.registrar(200L, 10L, 2L, 5);
+        Inventario primero = Inventario.builder().id(100L).cantidad(5).build();
+        Inventario segundo = Inventario.builder().id(200L).cantidad(5).build();
+        when(inventarioRepository.bloquearPorIds(Set.of(100L))).thenReturn(List.of(primero));
+        when(inventarioRepository.findCantidadesPorIds(Set.of(100L))).thenReturn(List.<Object[]>of(new Object[]{100L, 1, null}));
+        when(inventarioRepository.bloquearPorIds(Set.of(200L))).thenReturn(List.of(segundo));
+        when(inventarioRepository.findCantidadesPorIds(Set.of(200L))).thenReturn(List.<Object[]>of(new Object[]{200L, 5, null}));
+
+        // When
+        Optional<List<AsignacionSurtido>> plan = ruteador.surtir(Map.of(10L, 3), null, false);
+
+        // Then
+        assertEquals(Optional.of(List.of(asignacion(10L, 2L, 200L, 3))), plan);
+        assertEquals(5, primero.getCantidad());
+        assertEquals(2, segundo.getCantidad());
+    }
+
+    @Test
+    void surtirBuscaEnLaBaseDeDatosLosProductosFueraDelIndice() {
+        // Given: el inventario se creó en la transacción en curso y el índice aún no lo conoce
+        Inventario inventario = Inventario.builder().id(100L).cantidad(4).build();
+        when(inventarioRepository.findExistenciasPorProductos(List.of(10L)))
+                .thenReturn(List.<Object[]>of(new Object[]{100L, 10L, 1L, 4}));
+        when(inventarioRepository.bloquearPorIds(Set.of(100L))).thenReturn(List.of(inventario));
+        when(inventarioRepository.findCantidadesPorIds(Set.of(100L))).thenReturn(List.<Object[]>of(new Object[]{100L, 4, null}));
+
+        // When
+        Optional<List<AsignacionSurtido>> plan = ruteador.surtir(Map.of(10L, 3), null, false);
+
+        // Then
+        assertEquals(Optional.of(List.of(asignacion(10L, 1L, 100L, 3))), plan);
+        assertEquals(1, inventario.getCantidad());
+    }
+
+    @Test
+    void surtirDevuelveVacioSinStockSuficiente() {
+        // Given
+        indice.registrar(100L, 10L, 1L, 2);
+
+        // When
+        Optional<List<AsignacionSurtido>> plan = ruteador.surtir(Map.of(10L, 3), null, true);
+
+        // Then
+        assertTrue(plan.isEmpty());
+        verify(inventarioRepository, never()).bloquearPorIds(anyCollection());
+    }
+
+    @Test
+    void apartarReservaSinCambiarLaCantidadFisica() {
+        // Given: la sucursal tiene 5 unidades, 2 de ellas ya apartadas
+        indice.registrar(100L, 10L, 1L, 3);
+        Inventario inventario = Inventario.builder().id(100L).cantidad(5).reservado(2).build();
+        when(inventarioRepository.bloquearPorIds(Set.of(100L))).thenReturn(List.of(inventario));
+        when(inventarioRepository.findCantidadesPorIds(Set.of(100L))).thenReturn(List.<Object[]>of(new Object[]{100L, 5, 2}));
+
+        // When
+        Optional<List<AsignacionSurtido>> plan = ruteador.apartar(Map.of(10L, 3), null, false);
+
+        // Then
+        assertEquals(Optional.of(List.of(asignacion(10L, 1L, 100L, 3))), plan);
+        assertEquals(5, inventario.getCantidad());
+        assertEquals(5, inventario.getReservado());
+    }
+
+    @Test
+    void surtirNoUsaLasUnidadesApartadas() {
+        // Given: el índice cree que hay 3 disponibles, pero en la base de datos hay 3 de 5 apartadas
+        indice.registrar(100L, 10L, 1L, 3);
+        Inventario inventario = Inventario.builder().id(100L).cantidad(5).build();
+        when(inventarioRepository.bloquearPorIds(Set.of(100L))).thenReturn(List.of(inventario));
+        when(inventarioRepository.findCantidadesPorIds(Set.of(100L))).thenReturn(List.<Object[]>of(new Object[]{100L, 5, 3}));
+
+        // When
+        Optional<List<AsignacionSurtido>> plan = ruteador.surtir(Map.of(10L, 3), null, false);
+
+        // Then
+        assertTrue(plan.isEmpty());
+        assertEquals(5, inventario.getCantidad());
+    }
+}
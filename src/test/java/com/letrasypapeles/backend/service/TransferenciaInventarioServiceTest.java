@@ -0,0 +1,218 @@
+package com.letrasypapeles.backend.service;
+
+import com.letrasypapeles.backend.dto.TransferenciaRequest;
+import com.letrasypapeles.backend.entity.Inventario;
+import com.letrasypapeles.backend.entity.Producto;
+import com.letrasypapeles.backend.entity.Sucursal;
+import com.letrasypapeles.backend.repository.InventarioRepository;
+import com.letrasypapeles.backend.repository.SucursalRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TransferenciaInventarioServiceTest {
+
+    @Mock
+    private InventarioRepository inventarioRepository;
+
+    @Mock
+    private SucursalRepository sucursalRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private TransferenciaInventarioService transferenciaService;
+
+    private Producto producto;
+    private Sucursal central;
+    private Sucursal norte;
+    private Inventario inventarioCentral;
+    private Inventario inventarioNorte;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        transferenciaService = new TransferenciaInventarioService(
+                inventarioRepository, sucursalRepository, transactionManager, meterRegistry);
+
+        producto = Producto.builder().id(1L).nombre("El Quijote").build();
+        central = Sucursal.builder().id(1L).nombre("Tienda Central").build();
+        norte = Sucursal.builder().id(2L).nombre("Tienda Norte").build();
+
+        inventarioCentral = Inventario.builder().id(10L).cantidad(50).umbral(5).producto(producto).sucursal(central).build();
+        inventarioNorte = Inventario.builder().id(11L).cantidad(3).umbral(5).producto(producto).sucursal(norte).build();
+    }
+
+    private TransferenciaRequest transferencia(Long origen, Long destino, int cantidad) {
+        return TransferenciaRequest.builder()
+                .productoId(1L)
+                .sucursalOrigenId(origen)
+                .sucursalDestinoId(destino)
+                .cantidad(cantidad)
+                .build();
+    }
+
+    @Test
+    void transferirMueveCantidadEntreSucursales() {
+        // Given
+        when(inventarioRepository.bloquearPorProductosYSucursales(anyCollection(), anyCollection()))
+                .thenReturn(Arrays.asList(inventarioCentral, inventarioNorte));
+        when(inventarioRepository.saveAll(any())).thenAnswer(inv -> new ArrayList<>((Collection<?>) inv.getArgument(0)));
+
+        // When
+        List<Inventario> result = transferenciaService.transferir(transferencia(1L, 2L, 20));
+
+        // Then
+        assertEquals(2, result.size());
+        assertEquals(30, inventarioCentral.getCantidad());
+        assertEquals(23, inventarioNorte.getCantidad());
+        assertEquals(1.0, meterRegistry.counter("inventario.transferencias").count());
+        assertEquals(20.0, meterRegistry.counter("inventario.transferencias.unidades").count());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void transferirCreaInventarioDestinoSiNoExiste() {
+        // Given
+        when(inventarioRepository.bloquearPorProductosYSucursales(anyCollection(), anyCollection()))
+                .thenReturn(List.of(inventarioCentral));
+        when(sucursalRepository.findById(2L)).thenReturn(Optional.of(norte));
+        when(inventarioRepository.saveAll(any())).thenAnswer(inv -> new ArrayList<>((Collection<?>) inv.getArgument(0)));
+
+        // When
+        List<Inventario> result = transferenciaService.transferir(transferencia(1L, 2L, 5));
+
+        // Then
+        assertEquals(45, inventarioCentral.getCantidad());
+        Inventario destino = result.get(1);
+        assertNull(destino.getId());
+        assertEquals(5, destino.getCantidad());
+        assertEquals(5, destino.getUmbral());
+        assertEquals(norte, destino.getSucursal());
+    }
+
+    @Test
+    void transferirLoteAcumulaSobreLaMismaFila() {
+        // Given
+        when(inventarioRepository.bloquearPorProductosYSucursales(anyCollection(), anyCollection()))
+                .thenReturn(Arrays.asList(inventarioCentral, inventarioNorte));
+        when(inventarioRepository.saveAll(any())).thenAnswer(inv -> new ArrayList<>((Collection<?>) inv.getArgument(0)));
+
+        // When
+        List<Inventario> result = transferenciaService.transferirLote(Arrays.asList(
+                transferencia(1L, 2L, 10),
+                transferencia(1L, 2L, 15)));
+
+        // Then
+        assertEquals(2, result.size());
+        assertEquals(25, inventarioCentral.getCantidad());
+        assertEquals(28, inventarioNorte.getCantidad());
+        verify(inventarioRepository, times(1)).bloquearPorProductosYSucursales(anyCollection(), anyCollection());
+    }
+
+    @Test
+    void transferirCantidadInsuficienteHaceRollback() {
+        // Given
+        when(inventarioRepository.bloquearPorProductosYSucursales(anyCollection(), anyCollection()))
+                .thenReturn(Arrays.asList(inventarioCentral, inventarioNorte));
+
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> transferenciaService.transferir(transferencia(2L, 1L, 10)));
+        assertTrue(exception.getMessage().contains("Cantidad insuficiente"));
+        verify(inventarioRepository, never()).saveAll(any());
+        verify(transactionManager, times(1)).rollback(any());
+    }
+
+    @Test
+    void transferirOrigenInexistente() {
+        // Given
+        when(inventarioRepository.bloquearPorProductosYSucursales(anyCollection(), anyCollection()))
+                .thenReturn(List.of(inventarioNorte));
+
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> transferenciaService.transferir(transferencia(1L, 2L, 1)));
+        assertTrue(exception.getMessage().contains("Inventario no encontrado"));
+    }
+
+    @Test
+    void transferirValidaLaSolicitud() {
+        assertThrows(RuntimeException.class, () -> transferenciaService.transferir(transferencia(1L, 1L, 5)));
+        assertThrows(RuntimeException.class, () -> transferenciaService.transferir(transferencia(1L, 2L, 0)));
+        assertThrows(RuntimeException.class, () -> transferenciaService.transferirLote(List.of()));
+        verifyNoInteractions(inventarioRepository);
+    }
+
+    @Test
+    void transferirReintentaTrasConflictoDeBloqueo() {
+        // Given
+        when(inventarioRepository.bloquearPorProductosYSucursales(anyCollection(), anyCollection()))
+                .thenThrow(new CannotAcquireLockException("lock timeout"))
+                .thenReturn(Arrays.asList(inventarioCentral, inventarioNorte));
+        when(inventarioRepository.saveAll(any())).thenAnswer(inv -> new ArrayList<>((Collection<?>) inv.getArgument(0)));
+
+        // When
+        transferenciaService.transferir(transferencia(1L, 2L, 10));
+
+        // Then
+        assertEquals(40, inventarioCentral.getCantidad());
+        assertEquals(1.0, meterRegistry.counter("inventario.transferencias.conflictos").count());
+        assertEquals(1.0, meterRegistry.counter("inventario.transferencias.reintentos").count());
+    }
+
+    @Test
+    void transferirReintentaSiOtraTransferenciaCreoElDestino() {
+        // Given: el primer intento no encuentra el destino y su inserción choca con la de otra transferencia
+        Sucursal sur = Sucursal.builder().id(3L).nombre("Tienda Sur").build();
+        Inventario inventarioSur = Inventario.builder().id(12L).cantidad(4).umbral(5).producto(producto).sucursal(sur).build();
+        when(inventarioRepository.bloquearPorProductosYSucursales(anyCollection(), anyCollection()))
+                .thenReturn(List.of(inventarioCentral))
+                .thenReturn(Arrays.asList(inventarioCentral, inventarioSur));
+        when(sucursalRepository.findById(3L)).thenReturn(Optional.of(sur));
+        when(inventarioRepository.saveAll(any()))
+                .thenThrow(new DataIntegrityViolationException("uk_inventarios_producto_sucursal"))
+                .thenAnswer(inv -> new ArrayList<>((Collection<?>) inv.getArgument(0)));
+
+        // When
+        List<Inventario> resultado = transferenciaService.transferir(transferencia(1L, 3L, 10));
+
+        // Then
+        assertSame(inventarioSur, resultado.get(1));
+        assertEquals(14, inventarioSur.getCantidad());
+        assertEquals(1.0, meterRegistry.counter("inventario.transferencias.reintentos").count());
+    }
+
+    @Test
+    void transferirFallaTrasAgotarReintentos() {
+        // Given
+        when(inventarioRepository.bloquearPorProductosYSucursales(anyCollection(), anyCollection()))
+                .thenThrow(new CannotAcquireLockException("lock timeout"));
+
+        // When & Then
+        assertThrows(RuntimeException.class, () -> transferenciaService.transferir(transferencia(1L, 2L, 10)));
+        verify(inventarioRepository, times(TransferenciaInventarioService.MAX_INTENTOS))
+                .bloquearPorProductosYSucursales(anyCollection(), anyCollection());
+        assertEquals(0.0, meterRegistry.counter("inventario.transferencias").count());
+    }
+}
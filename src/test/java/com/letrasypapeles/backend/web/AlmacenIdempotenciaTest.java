@@ -0,0 +1,133 @@
+package com.letrasypapeles.backend.web;
+
+import com.letrasypapeles.backend.entity.RespuestaIdempotente;
+import com.letrasypapeles.backend.repository.RespuestaIdempotenteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AlmacenIdempotenciaTest {
+
+    @Mock
+    private RespuestaIdempotenteRepository repository;
+
+    private AlmacenIdempotencia almacen;
+
+    @BeforeEach
+    void setUp() {
+        almacen = new AlmacenIdempotencia(repository, Duration.ofHours(1), 2);
+    }
+
+    private RespuestaIdempotente respuesta(String clave) {
+        return almacen.crear(clave, "huella", 201, "application/json", "{}".getBytes());
+    }
+
+    @Test
+    void guardadaEnMemoriaNoConsultaLaTabla() {
+        // Given
+        almacen.guardar(respuesta("a"));
+
+        // When
+        Optional<RespuestaIdempotente> encontrada = almacen.buscar("a");
+
+        // Then
+        assertTrue(encontrada.isPresent());
+        assertEquals(201, encontrada.get().getEstado());
+        verify(repository).save(any(RespuestaIdempotente.class));
+        verify(repository, never()).findById(any());
+    }
+
+    @Test
+    void expiradaEnMemoriaSeDescartaYSeBuscaEnLaTabla() {
+        // Given
+        RespuestaIdempotente guardada = respuesta("a");
+        almacen.guardar(guardada);
+        when(repository.findById("a")).thenReturn(Optional.of(guardada));
+
+        // When
+        Optional<RespuestaIdempotente> encontrada = almacen.buscar("a", guardada.getExpira().plusSeconds(1));
+
+        // Then
+        assertFalse(encontrada.isPresent());
+        assertEquals(0, almacen.enMemoria());
+    }
+
+    @Test
+    void laTablaRespaldaLoQueSalioDeMemoria() {
+        // Given
+        RespuestaIdempotente primera = respuesta("a");
+        almacen.guardar(primera);
+        almacen.guardar(respuesta("b"));
+        almacen.guardar(respuesta("c"));
+        assertEquals(2, almacen.enMemoria());
+        when(repository.findById("a")).thenReturn(Optional.of(primera));
+
+        // When
+        Optional<RespuestaIdempotente> encontrada = almacen.buscar("a");
+        almacen.buscar("a");
+
+        // Then
+        assertTrue(encontrada.isPresent());
+        verify(repository, times(1)).findById("a");
+    }
+
+    @Test
+    void falloAlPersistirDejaLaRespuestaEnMemoria() {
+        // Given
+        when(repository.save(any(RespuestaIdempotente.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicada"));
+
+        // When
+        almacen.guardar(respuesta("a"));
+
+        // Then
+        assertTrue(almacen.buscar("a").isPresent());
+    }
+
+    @Test
+    void reclamarDevuelveLaEjecucionEnCurso() throws Exception {
+        // Given
+        CompletableFuture<RespuestaIdempotente> primera = new CompletableFuture<>();
+        CompletableFuture<RespuestaIdempotente> segunda = new CompletableFuture<>();
+
+        // When
+        assertNull(almacen.reclamar("a", primera));
+        CompletableFuture<RespuestaIdempotente> enCurso = almacen.reclamar("a", segunda);
+        RespuestaIdempotente resultado = respuesta("a");
+        almacen.liberar("a", primera, resultado);
+
+        // Then
+        assertSame(primera, enCurso);
+        assertSame(resultado, enCurso.get());
+        assertNull(almacen.reclamar("a", segunda));
+    }
+
+    @Test
+    void purgarEliminaExpiradasDeMemoriaYTabla() {
+        // Given
+        RespuestaIdempotente vencida = respuesta("a");
+        vencida.setExpira(LocalDateTime.now().minusMinutes(1));
+        almacen.guardar(vencida);
+        almacen.guardar(respuesta("b"));
+
+        // When
+        almacen.purgarExpiradas();
+
+        // Then
+        assertEquals(1, almacen.enMemoria());
+        verify(repository).eliminarExpiradas(any(LocalDateTime.class));
+    }
+}
@@ -0,0 +1,103 @@
+package com.letrasypapeles.backend.web;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CacheRespuestasProductoTest {
+
+    private static final String HAL = "application/hal+json";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private static byte[] cuerpo(int largo) {
+        return "x".repeat(largo).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void guardaElCuerpoEnClaroYComprimido() throws IOException {
+        // Given
+        CacheRespuestasProducto cache = new CacheRespuestasProducto(1_000_000, meterRegistry);
+        byte[] cuerpo = "{\"id\":1,\"nombre\":\"Cuaderno\"}".getBytes(StandardCharsets.UTF_8);
+
+        // When
+        cache.guardar(1L, "hal", 3, HAL, "\"etag\"", cuerpo);
+        Optional<CacheRespuestasProducto.Entrada> entrada = cache.buscar(1L, "hal", 3);
+
+        // Then
+        assertTrue(entrada.isPresent());
+        assertArrayEquals(cuerpo, entrada.get().getCuerpo());
+        assertArrayEquals(cuerpo, new GZIPInputStream(new ByteArrayInputStream(entrada.get().getCuerpoGzip())).readAllBytes());
+        assertEquals(HAL, entrada.get().getTipoContenido());
+        assertEquals("\"etag\"", entrada.get().getEtag());
+        assertEquals(1.0, meterRegistry.counter("productos.cache.respuestas", "resultado", "acierto").count());
+    }
+
+    @Test
+    void unaEntradaDeOtraVersionNoSeSirve() {
+        // Given
+        CacheRespuestasProducto cache = new CacheRespuestasProducto(1_000_000, meterRegistry);
+        cache.guardar(1L, "hal", 3, HAL, null, cuerpo(100));
+
+        // When / Then
+        assertTrue(cache.buscar(1L, "hal", 4).isEmpty());
+        assertTrue(cache.buscar(1L, "hal", 3).isEmpty());
+        assertEquals(0, cache.bytes());
+        assertEquals(2.0, meterRegistry.counter("productos.cache.respuestas", "resultado", "fallo").count());
+    }
+
+    @Test
+    void invalidarDescartaTodasLasRepresentacionesDelProducto() {
+        // Given
+        CacheRespuestasProducto cache = new CacheRespuestasProducto(1_000_000, meterRegistry);
+        cache.guardar(1L, "hal", 0, HAL, null, cuerpo(100));
+        cache.guardar(1L, "json", 0, "application/json", null, cuerpo(100));
+        cache.guardar(2L, "hal", 0, HAL, null, cuerpo(100));
+
+        // When
+        cache.invalidar(1L);
+
+        // Then
+        assertTrue(cache.buscar(1L, "hal", 0).isEmpty());
+        assertTrue(cache.buscar(1L, "json", 0).isEmpty());
+        assertTrue(cache.buscar(2L, "hal", 0).isPresent());
+    }
+
+    @Test
+    void descartaLosProductosMenosUsadosAlPasarseDelLimite() {
+        // Given: cada entrada ocupa algo más de 1000 bytes entre el cuerpo y su versión gzip
+        CacheRespuestasProducto cache = new CacheRespuestasProducto(2_200, meterRegistry);
+        cache.guardar(1L, "hal", 0, HAL, null, cuerpo(1000));
+        cache.guardar(2L, "hal", 0, HAL, null, cuerpo(1000));
+        cache.buscar(1L, "hal", 0);
+
+        // When
+        cache.guardar(3L, "hal", 0, HAL, null, cuerpo(1000));
+
+        // Then: el 2 era el menos usado
+        assertTrue(cache.buscar(1L, "hal", 0).isPresent());
+        assertTrue(cache.buscar(2L, "hal", 0).isEmpty());
+        assertTrue(cache.buscar(3L, "hal", 0).isPresent());
+        assertTrue(cache.bytes() <= 2_200);
+    }
+
+    @Test
+    void noGuardaRespuestasMasGrandesQueElLimite() {
+        // Given
+        CacheRespuestasProducto cache = new CacheRespuestasProducto(500, meterRegistry);
+
+        // When
+        cache.guardar(1L, "hal", 0, HAL, null, cuerpo(1000));
+
+        // Then
+        assertTrue(cache.buscar(1L, "hal", 0).isEmpty());
+        assertEquals(0, cache.bytes());
+    }
+}
@@ -0,0 +1,218 @@
+package com.letrasypapeles.backend.web;
+
+import com.letrasypapeles.backend.repository.RespuestaIdempotenteRepository;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotenciaFilterTest {
+
+    @Mock
+    private RespuestaIdempotenteRepository repository;
+
+    private IdempotenciaFilter filtro;
+    private AtomicInteger ejecuciones;
+
+    @BeforeEach
+    void setUp() {
+        filtro = new IdempotenciaFilter(new AlmacenIdempotencia(repository, Duration.ofHours(1), 100), Duration.ofSeconds(5));
+        ejecuciones = new AtomicInteger();
+    }
+
+    private MockHttpServletRequest solicitud(String clave, String cuerpo) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/reservas/crear");
+        if (clave != null) {
+            request.addHeader(IdempotenciaFilter.ENCABEZADO, clave);
+        }
+        request.setContentType("application/json");
+        request.setContent(cuerpo.getBytes());
+        return request;
+    }
+
+    private FilterChain controlador(int estado) {
+        return (req, res) -> {
+            String recibido = StreamUtils.copyToString(req.getInputStream(), StandardCharsets.UTF_8);
+            int numero = ejecuciones.incrementAndGet();
+            ((HttpServletResponse) res).setStatus(estado);
+            res.setContentType("application/json");
+            res.getWriter().write("{\"id\":" + numero + ",\"cuerpo\":" + recibido + "}");
+        };
+    }
+
+    private MockHttpServletResponse ejecutar(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filtro.doFilter(request, response, chain);
+        return response;
+    }
+
+    @Test
+    void lecturaNoBloqueanteRecibeElCuerpoCompleto() throws Exception {
+        // Given
+        StringBuilder leido = new StringBuilder();
+        AtomicInteger finalizadas = new AtomicInteger();
+        FilterChain lecturaAsincrona = (req, res) -> {
+            ServletInputStream entrada = req.getInputStream();
+            entrada.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    byte[] bloque = new byte[4];
+                    while (entrada.isReady() && !entrada.isFinished()) {
+                        int n = entrada.read(bloque);
+                        if (n > 0) {
+                            leido.append(new String(bloque, 0, n, StandardCharsets.UTF_8));
+                        }
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    finalizadas.incrementAndGet();
+                    ((HttpServletResponse) res).setStatus(201);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    ((HttpServletResponse) res).setStatus(500);
+                }
+            });
+        };
+
+        // When
+        MockHttpServletResponse response = ejecutar(solicitud("k-async", "{\"cantidad\":2}"), lecturaAsincrona);
+
+        // Then
+        assertEquals(201, response.getStatus());
+        assertEquals("{\"cantidad\":2}", leido.toString());
+        assertEquals(1, finalizadas.get());
+    }
+
+    @Test
+    void repeticionDevuelveLaRespuestaGuardadaSinEjecutar() throws Exception {
+        // When
+        MockHttpServletResponse primera = ejecutar(solicitud("k1", "{\"cantidad\":2}"), controlador(201));
+        MockHttpServletResponse segunda = ejecutar(solicitud("k1", "{\"cantidad\":2}"), controlador(201));
+
+        // Then
+        assertEquals(1, ejecuciones.get());
+        assertEquals(201, segunda.getStatus());
+        assertEquals(primera.getContentAsString(), segunda.getContentAsString());
+        assertEquals("{\"id\":1,\"cuerpo\":{\"cantidad\":2}}", segunda.getContentAsString());
+        assertEquals("true", segunda.getHeader(IdempotenciaFilter.ENCABEZADO_REPETIDA));
+        assertNull(primera.getHeader(IdempotenciaFilter.ENCABEZADO_REPETIDA));
+    }
+
+    @Test
+    void mismaClaveConOtroCuerpoEsRechazada() throws Exception {
+        // Given
+        ejecutar(solicitud("k1", "{\"cantidad\":2}"), controlador(201));
+
+        // When
+        MockHttpServletResponse response = ejecutar(solicitud("k1", "{\"cantidad\":3}"), controlador(201));
+
+        // Then
+        assertEquals(422, response.getStatus());
+        assertEquals(1, ejecuciones.get());
+    }
+
+    @Test
+    void respuestaDeErrorNoSeGuarda() throws Exception {
+        // When
+        ejecutar(solicitud("k1", "{}"), controlador(400));
+        MockHttpServletResponse segunda = ejecutar(solicitud("k1", "{}"), controlador(201));
+
+        // Then
+        assertEquals(2, ejecuciones.get());
+        assertEquals(201, segunda.getStatus());
+    }
+
+    @Test
+    void sinEncabezadoSiempreEjecuta() throws Exception {
+        // When
+        ejecutar(solicitud(null, "{}"), controlador(201));
+        ejecutar(solicitud(null, "{}"), controlador(201));
+
+        // Then
+        assertEquals(2, ejecuciones.get());
+    }
+
+    @Test
+    void otraRutaNoSeIntercepta() throws Exception {
+        // Given
+        MockHttpServletRequest request = solicitud("k1", "{}");
+        request.setRequestURI("/api/reservas/confirmar-lote");
+
+        // When
+        ejecutar(request, controlador(200));
+        ejecutar(request, controlador(200));
+
+        // Then
+        assertEquals(2, ejecuciones.get());
+    }
+
+    @Test
+    void claveDemasiadoLargaEsRechazada() throws Exception {
+        // When
+        MockHttpServletResponse response = ejecutar(
+                solicitud("x".repeat(IdempotenciaFilter.LARGO_MAXIMO_CLAVE + 1), "{}"), controlador(201));
+
+        // Then
+        assertEquals(400, response.getStatus());
+        assertEquals(0, ejecuciones.get());
+    }
+
+    @Test
+    void solicitudesSimultaneasSeUnenEnUnaEjecucion() throws Exception {
+        // Given
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch continuar = new CountDownLatch(1);
+        FilterChain lento = (req, res) -> {
+            dentro.countDown();
+            try {
+                continuar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            controlador(201).doFilter(req, res);
+        };
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            // When
+            Future<MockHttpServletResponse> original = pool.submit(() -> ejecutar(solicitud("k1", "{}"), lento));
+            assertTrue(dentro.await(5, TimeUnit.SECONDS));
+            Future<MockHttpServletResponse> repetida1 = pool.submit(() -> ejecutar(solicitud("k1", "{}"), lento));
+            Future<MockHttpServletResponse> repetida2 = pool.submit(() -> ejecutar(solicitud("k1", "{}"), lento));
+            Thread.sleep(100);
+            continuar.countDown();
+
+            // Then
+            assertEquals(201, original.get().getStatus());
+            assertEquals(original.get().getContentAsString(), repetida1.get().getContentAsString());
+            assertEquals(original.get().getContentAsString(), repetida2.get().getContentAsString());
+            assertEquals(1, ejecuciones.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.letrasypapeles.backend.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.letrasypapeles.backend.entity.Cliente;
+import com.letrasypapeles.backend.entity.Pedido;
+import com.letrasypapeles.backend.entity.PedidoLinea;
+import com.letrasypapeles.backend.entity.Producto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReferenciasAsociacionesTest {
+
+    private ObjectMapper mapper;
+    private Pedido pedido;
+
+    @BeforeEach
+    void setUp() {
+        mapper = new ObjectMapper().registerModule(new JavaTimeModule()).registerModule(new ReferenciasAsociaciones());
+        Producto producto = Producto.builder().id(7L).nombre("Lápiz grafito").build();
+        pedido = Pedido.builder()
+                .id(1L)
+                .cliente(Cliente.builder().id(3L).nombre("Carla").build())
+                .listaProductos(List.of(producto))
+                .lineas(List.of(PedidoLinea.builder().id(11L).producto(producto).cantidad(2).build()))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private static void solicitud(String refs) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (refs != null) {
+            request.setParameter(ReferenciasAsociaciones.PARAMETRO, refs);
+        }
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @Test
+    void sinSolicitudSeEscribeCompleto() throws Exception {
+        // When
+        JsonNode json = mapper.valueToTree(pedido);
+
+        // Then
+        assertEquals("Carla", json.path("cliente").path("nombre").asText());
+        assertEquals("Lápiz grafito", json.path("listaProductos").get(0).path("nombre").asText());
+    }
+
+    @Test
+    void conRefsIdSoloVanLosIds() throws Exception {
+        // Given
+        solicitud("id");
+
+        // When
+        JsonNode json = mapper.valueToTree(pedido);
+
+        // Then
+        assertEquals(1, json.path("cliente").size());
+        assertEquals(3L, json.path("cliente").path("id").asLong());
+        assertEquals(1, json.path("listaProductos").get(0).size());
+        assertEquals(7L, json.path("listaProductos").get(0).path("id").asLong());
+        // Las líneas son parte del pedido: siguen completas, con su producto como referencia
+        assertEquals(2, json.path("lineas").get(0).path("cantidad").asInt());
+        assertEquals(1, json.path("lineas").get(0).path("producto").size());
+    }
+
+    @Test
+    void otroValorDeRefsNoCambiaNada() throws Exception {
+        // Given
+        solicitud("links");
+
+        // When
+        JsonNode json = mapper.valueToTree(pedido);
+
+        // Then
+        assertEquals("Carla", json.path("cliente").path("nombre").asText());
+    }
+
+    @Test
+    void asociacionNulaSeEscribeNull() throws Exception {
+        // Given
+        solicitud("id");
+        pedido.setCliente(null);
+
+        // When
+        JsonNode json = mapper.valueToTree(pedido);
+
+        // Then
+        assertTrue(json.path("cliente").isNull());
+    }
+}
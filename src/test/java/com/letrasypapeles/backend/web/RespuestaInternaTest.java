@@ -0,0 +1,63 @@
+package com.letrasypapeles.backend.web;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RespuestaInternaTest {
+
+    @Test
+    void escrituraNoBloqueanteQuedaEnElCuerpo() throws Exception {
+        // Given
+        RespuestaInterna respuesta = new RespuestaInterna(new MockHttpServletResponse());
+        ServletOutputStream salida = respuesta.getOutputStream();
+
+        // When
+        salida.setWriteListener(new WriteListener() {
+            @Override
+            public void onWritePossible() throws IOException {
+                if (salida.isReady()) {
+                    salida.write("{\"ok\":true}".getBytes(StandardCharsets.UTF_8));
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                fail(t);
+            }
+        });
+
+        // Then
+        assertEquals("{\"ok\":true}", new String(respuesta.cuerpo(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void unErrorDelListenerSeInformaConOnError() throws Exception {
+        // Given
+        RespuestaInterna respuesta = new RespuestaInterna(new MockHttpServletResponse());
+        AtomicReference<Throwable> error = new AtomicReference<>();
+
+        // When
+        respuesta.getOutputStream().setWriteListener(new WriteListener() {
+            @Override
+            public void onWritePossible() throws IOException {
+                throw new IOException("fallo al escribir");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                error.set(t);
+            }
+        });
+
+        // Then
+        assertEquals("fallo al escribir", error.get().getMessage());
+    }
+}
@@ -0,0 +1,45 @@
+package com.letrasypapeles.backend.web;
+
+import jakarta.servlet.ReadListener;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SolicitudInternaTest {
+
+    @Test
+    void lecturaNoBloqueanteTerminaEnElActo() throws Exception {
+        // Given
+        SolicitudInterna solicitud = new SolicitudInterna(
+                new MockHttpServletRequest("POST", "/api/batch"), "/api/productos?links=none", Map.of());
+        AtomicInteger disponibles = new AtomicInteger();
+        AtomicInteger finalizadas = new AtomicInteger();
+
+        // When
+        solicitud.getInputStream().setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() {
+                disponibles.incrementAndGet();
+            }
+
+            @Override
+            public void onAllDataRead() {
+                finalizadas.incrementAndGet();
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                fail(t);
+            }
+        });
+
+        // Then
+        assertEquals(0, disponibles.get());
+        assertEquals(1, finalizadas.get());
+        assertTrue(solicitud.getInputStream().isFinished());
+    }
+}
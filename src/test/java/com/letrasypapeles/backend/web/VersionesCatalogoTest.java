@@ -0,0 +1,59 @@
+package com.letrasypapeles.backend.web;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VersionesCatalogoTest {
+
+    private final VersionesCatalogo versiones = new VersionesCatalogo();
+
+    @AfterEach
+    void limpiar() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void reconoceLaTablaDeCadaEscritura() {
+        assertEquals("productos", VersionesCatalogo.tablaEscrita("insert into productos (nombre,precio) values (?,?)"));
+        assertEquals("productos", VersionesCatalogo.tablaEscrita("update productos p1_0 set stock=(p1_0.stock-?) where p1_0.id=?"));
+        assertEquals("categorias", VersionesCatalogo.tablaEscrita("delete from categorias where id=?"));
+        assertEquals("sucursales", VersionesCatalogo.tablaEscrita("UPDATE SUCURSALES SET nombre=? WHERE id=?"));
+        assertNull(VersionesCatalogo.tablaEscrita("select p1_0.id from productos p1_0"));
+    }
+
+    @Test
+    void sinTransaccionLaVersionSubeAlInstante() {
+        // When
+        versiones.inspect("update productos set stock=? where id=?");
+        versiones.inspect("select * from productos");
+        versiones.inspect("update inventarios set cantidad=? where id=?");
+
+        // Then
+        assertEquals(1, versiones.version(List.of("productos")));
+        assertEquals(0, versiones.version(List.of("categorias", "sucursales", "proveedores")));
+    }
+
+    @Test
+    void enUnaTransaccionLaVersionSubeAlTerminar() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        versiones.inspect("update productos p1_0 set stock=coalesce(p1_0.stock,0)+? where p1_0.id=?");
+        versiones.inspect("insert into proveedores (contacto,nombre) values (?,?)");
+
+        // Then
+        assertEquals(0, versiones.version(List.of("productos", "proveedores")));
+        List<TransactionSynchronization> sincronizaciones = TransactionSynchronizationManager.getSynchronizations();
+        sincronizaciones.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertEquals(2, versiones.version(List.of("productos", "proveedores")));
+    }
+}